@@ -30,6 +30,7 @@ CREATE TABLE `xxl_job_group`
     `address_type` tinyint     NOT NULL DEFAULT '0' COMMENT '执行器地址类型：0=自动注册、1=手动录入',
     `address_list` text COMMENT '执行器地址列表，多地址逗号分隔',
     `update_time`  datetime             DEFAULT NULL,
+    `version`      bigint      NOT NULL DEFAULT '0' COMMENT '版本号，每次更新递增',
     PRIMARY KEY (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=3 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -61,6 +62,7 @@ CREATE TABLE `xxl_job_info`
     `job_desc`                  varchar(255) NOT NULL,
     `add_time`                  datetime              DEFAULT NULL,
     `update_time`               datetime              DEFAULT NULL,
+    `version`                   bigint       NOT NULL DEFAULT '0' COMMENT '版本号，每次更新递增',
     `author`                    varchar(64)           DEFAULT NULL COMMENT '作者',
     `alarm_email`               varchar(255)          DEFAULT NULL COMMENT '报警邮件',
     `schedule_type`             varchar(50)  NOT NULL DEFAULT 'NONE' COMMENT '调度类型',
@@ -125,11 +127,45 @@ LOCK
 TABLES `xxl_job_lock` WRITE;
 /*!40000 ALTER TABLE `xxl_job_lock` DISABLE KEYS */;
 INSERT INTO `xxl_job_lock` (`lock_name`)
-VALUES ('schedule_lock');
+VALUES ('schedule_lock'),
+       ('report_lock');
 /*!40000 ALTER TABLE `xxl_job_lock` ENABLE KEYS */;
 UNLOCK
 TABLES;
 
+--
+-- Table structure for table `xxl_job_schedule_node`
+--
+
+DROP TABLE IF EXISTS `xxl_job_schedule_node`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `xxl_job_schedule_node`
+(
+    `node_id`   varchar(100) NOT NULL COMMENT '调度中心节点ID',
+    `beat_time` bigint       NOT NULL DEFAULT '0' COMMENT '心跳时间',
+    PRIMARY KEY (`node_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `xxl_job_schedule_lease`
+--
+
+DROP TABLE IF EXISTS `xxl_job_schedule_lease`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `xxl_job_schedule_lease`
+(
+    `slot`          int          NOT NULL COMMENT '任务ID哈希槽，id % 槽总数',
+    `owner`         varchar(100) NOT NULL DEFAULT '' COMMENT '持有节点ID，空表示未分配',
+    `fencing_token` bigint       NOT NULL DEFAULT '0' COMMENT '防护令牌，每次抢占递增',
+    `lease_expire`  bigint       NOT NULL DEFAULT '0' COMMENT '租约过期时间',
+    PRIMARY KEY (`slot`),
+    KEY             `i_owner` (`owner`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `xxl_job_log`
 --
@@ -140,6 +176,7 @@ DROP TABLE IF EXISTS `xxl_job_log`;
 CREATE TABLE `xxl_job_log`
 (
     `id`                        bigint  NOT NULL AUTO_INCREMENT,
+    `parent_id`                 bigint  NOT NULL DEFAULT '0' COMMENT '父日志ID：0-普通日志、-1-分片广播日志、>0-分片日志，所属分片广播日志ID',
     `job_group`                 int     NOT NULL COMMENT '执行器主键ID',
     `job_id`                    int     NOT NULL COMMENT '任务，主键ID',
     `executor_address`          varchar(255)     DEFAULT NULL COMMENT '执行器地址，本次执行的地址',
@@ -153,10 +190,15 @@ CREATE TABLE `xxl_job_log`
     `handle_time`               datetime         DEFAULT NULL COMMENT '执行-时间',
     `handle_code`               int     NOT NULL COMMENT '执行-状态',
     `handle_msg`                text COMMENT '执行-日志',
-    `alarm_status`              tinyint NOT NULL DEFAULT '0' COMMENT '告警状态：0-默认、1-无需告警、2-告警成功、3-告警失败',
+    `alarm_status`              tinyint NOT NULL DEFAULT '0' COMMENT '告警状态：0-默认、-1-锁定状态、1-无需告警、2-告警成功、3-告警失败',
+    `alarm_lock_time`           bigint  NOT NULL DEFAULT '0' COMMENT '告警锁定时间，锁定超时后重置为默认状态',
     PRIMARY KEY (`id`),
-    KEY                         `I_trigger_time` (`trigger_time`),
-    KEY                         `I_handle_code` (`handle_code`)
+    KEY                         `I_trigger_time` (`trigger_time`, `trigger_code`, `handle_code`, `parent_id`),
+    KEY                         `I_job_trigger` (`job_id`, `trigger_time`, `trigger_code`, `handle_code`, `parent_id`),
+    KEY                         `I_group_trigger` (`job_group`, `trigger_time`, `trigger_code`, `handle_code`, `parent_id`),
+    KEY                         `I_parent` (`parent_id`, `trigger_time`),
+    KEY                         `I_handle_code` (`handle_code`),
+    KEY                         `I_alarm` (`alarm_status`, `handle_code`, `trigger_code`)
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -190,6 +232,34 @@ VALUES (1, 2, 1, NULL, 'demoJobHandler', 'aaaa', NULL, 0, '2023-07-05 14:48:34',
 UNLOCK
 TABLES;
 
+--
+-- Table structure for table `xxl_job_log_seq`
+--
+
+DROP TABLE IF EXISTS `xxl_job_log_seq`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `xxl_job_log_seq`
+(
+    `seq_name` varchar(50) NOT NULL COMMENT '序列名称',
+    `next_id`  bigint      NOT NULL COMMENT '下一个可分配ID，调度中心按号段预分配',
+    PRIMARY KEY (`seq_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `xxl_job_log_seq`
+--
+
+LOCK
+TABLES `xxl_job_log_seq` WRITE;
+/*!40000 ALTER TABLE `xxl_job_log_seq` DISABLE KEYS */;
+INSERT INTO `xxl_job_log_seq` (`seq_name`, `next_id`)
+VALUES ('log_id', 6);
+/*!40000 ALTER TABLE `xxl_job_log_seq` ENABLE KEYS */;
+UNLOCK
+TABLES;
+
 --
 -- Table structure for table `xxl_job_log_report`
 --
@@ -225,6 +295,28 @@ VALUES (1, '2023-07-05 00:00:00', 0, 3, 2, NULL),
 UNLOCK
 TABLES;
 
+--
+-- Table structure for table `xxl_job_log_report_hour`
+--
+
+DROP TABLE IF EXISTS `xxl_job_log_report_hour`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `xxl_job_log_report_hour`
+(
+    `id`            int      NOT NULL AUTO_INCREMENT,
+    `job_id`        int      NOT NULL COMMENT '任务，主键ID',
+    `trigger_hour`  datetime NOT NULL COMMENT '调度-小时',
+    `running_count` int      NOT NULL DEFAULT '0' COMMENT '运行中-日志数量',
+    `suc_count`     int      NOT NULL DEFAULT '0' COMMENT '执行成功-日志数量',
+    `fail_count`    int      NOT NULL DEFAULT '0' COMMENT '执行失败-日志数量',
+    `update_time`   datetime          DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `i_trigger_hour_job` (`trigger_hour`, `job_id`) USING BTREE,
+    KEY             `i_job_hour` (`job_id`, `trigger_hour`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
 --
 -- Table structure for table `xxl_job_logglue`
 --
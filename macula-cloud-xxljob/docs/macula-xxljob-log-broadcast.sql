@@ -0,0 +1,26 @@
+-- xxl_job_log parent_id, sharding broadcast logged as one broadcast log (parent_id = -1) and its shard logs
+-- (parent_id = broadcast log id); plain logs keep parent_id = 0.
+--
+--   log console pages broadcast and plain logs only (parent_id <= 0), shards listed by /joblog/shardList
+--   I_parent (parent_id, trigger_time): shards of one broadcast, trigger time shared by broadcast and shards
+--   page indexes get parent_id as suffix, the page ids are still read from the index only
+--
+-- Run once after macula-xxljob-log-index.sql (online DDL, INPLACE), before upgrading admin.
+-- New installs get them from macula-xxljob-dump.sql.
+
+ALTER TABLE `xxl_job_log`
+    ADD COLUMN `parent_id` bigint NOT NULL DEFAULT '0' COMMENT '父日志ID：0-普通日志、-1-分片广播日志、>0-分片日志，所属分片广播日志ID' AFTER `id`,
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+ALTER TABLE `xxl_job_log`
+    DROP INDEX `I_trigger_time`,
+    DROP INDEX `I_job_trigger`,
+    DROP INDEX `I_group_trigger`,
+    ADD INDEX `I_trigger_time` (`trigger_time`, `trigger_code`, `handle_code`, `parent_id`),
+    ADD INDEX `I_job_trigger` (`job_id`, `trigger_time`, `trigger_code`, `handle_code`, `parent_id`),
+    ADD INDEX `I_group_trigger` (`job_group`, `trigger_time`, `trigger_code`, `handle_code`, `parent_id`),
+    ADD INDEX `I_parent` (`parent_id`, `trigger_time`),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- check: key I_parent
+-- EXPLAIN SELECT COUNT(1) FROM xxl_job_log WHERE parent_id = 1 AND trigger_time = '2026-10-17 00:00:00';
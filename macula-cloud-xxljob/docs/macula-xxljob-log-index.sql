@@ -0,0 +1,25 @@
+-- xxl_job_log index set, the log console queries (XxlJobLogMapper pageList / pageListCountLimit) are written against
+--
+--   I_job_trigger   (job_id, trigger_time, trigger_code, handle_code)     page of one job
+--   I_group_trigger (job_group, trigger_time, trigger_code, handle_code)  page of one executor (jobId = 0)
+--   I_trigger_time  (trigger_time, trigger_code, handle_code)             page of all jobs, log clean, lost scan
+--
+-- Filter, order (trigger_time desc, id desc; id is the implicit primary key suffix) and status columns are all in
+-- the index: the page ids and the capped count are read from the index only, then the page rows by primary key.
+-- Next pages use the (trigger_time, id) cursor of the previous page instead of LIMIT offset.
+-- Page count: exact up to 10000, over it approximated by xxl_job_log_report_hour, cached 30s.
+-- Shard logs of sharding broadcast are hidden from the page (parent_id <= 0), parent_id is appended to the three
+-- indexes by macula-xxljob-log-broadcast.sql.
+--
+-- Run once on existing tables (online DDL, INPLACE), new installs get them from macula-xxljob-dump.sql.
+
+ALTER TABLE `xxl_job_log`
+    DROP INDEX `I_trigger_time`,
+    ADD INDEX `I_trigger_time` (`trigger_time`, `trigger_code`, `handle_code`),
+    ADD INDEX `I_job_trigger` (`job_id`, `trigger_time`, `trigger_code`, `handle_code`),
+    ADD INDEX `I_group_trigger` (`job_group`, `trigger_time`, `trigger_code`, `handle_code`),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- check: key I_job_trigger / I_group_trigger, Extra "Using index" for the derived page table
+-- EXPLAIN SELECT t.id, t.trigger_time FROM xxl_job_log AS t WHERE t.job_id = 1 ORDER BY t.trigger_time DESC, t.id DESC LIMIT 10;
+-- EXPLAIN SELECT t.id, t.trigger_time FROM xxl_job_log AS t WHERE t.job_group = 1 AND t.handle_code = 200 ORDER BY t.trigger_time DESC, t.id DESC LIMIT 10;
@@ -0,0 +1,31 @@
+-- xxl_job_log range partition by trigger_time, for xxl.job.log.partition = day / month
+--
+-- Run once, during a maintenance window (rebuilds the table), then set xxl.job.log.partition and restart admin.
+-- Admin adds partitions ahead (7 days / 2 months) split from pmax, and drops whole partitions older than
+-- xxl.job.logretentiondays instead of deleting rows.
+-- Replace '2026-10-18' by tomorrow: existing logs stay in p0, dropped once older than the retention days.
+
+UPDATE `xxl_job_log`
+SET `trigger_time` = '1970-01-01 00:00:00'
+WHERE `trigger_time` IS NULL;
+
+ALTER TABLE `xxl_job_log`
+    MODIFY `trigger_time` datetime NOT NULL COMMENT '调度-时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `trigger_time`);
+
+ALTER TABLE `xxl_job_log`
+    PARTITION BY RANGE (TO_DAYS(`trigger_time`)) (
+        PARTITION p0 VALUES LESS THAN (TO_DAYS('2026-10-18')),
+        PARTITION pmax VALUES LESS THAN MAXVALUE
+    );
+
+-- check
+SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+FROM information_schema.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE()
+  AND TABLE_NAME = 'xxl_job_log'
+ORDER BY PARTITION_ORDINAL_POSITION;
+
+-- rollback
+-- ALTER TABLE `xxl_job_log` REMOVE PARTITIONING;
@@ -0,0 +1,86 @@
+-- Schema objects added after the initial macula-xxljob-dump.sql, for existing installs.
+--
+--   xxl_job_log_seq              log id segments, admin fails to start without it; seeded with max(xxl_job_log.id) + 1
+--   xxl_job_schedule_node        admin node beats, schedule mode "partition"
+--   xxl_job_schedule_lease       job-id slot leases and fencing tokens, slot rows created by admin on start
+--   xxl_job_log_report_hour      hourly report per job, filled by admin from xxl_job_log
+--   xxl_job_log.I_alarm          fail monitor claim of fail logs to alarm
+--   xxl_job_log.alarm_lock_time  claim time, claims of a crashed admin node reset after 10min
+--   xxl_job_lock.report_lock     lock row, log report check on one admin node at a time
+--   xxl_job_info.version         bumped on every update, job cache reconcile
+--   xxl_job_group.version        bumped on every update (executor address too), job cache reconcile
+--
+-- Run once before upgrading admin, then macula-xxljob-log-index.sql / macula-xxljob-log-broadcast.sql.
+--
+-- Rolling upgrade: no admin of an old version may write logs once an upgraded admin runs. Old admins insert logs by
+-- AUTO_INCREMENT, into id blocks already taken from xxl_job_log_seq; an upgraded admin bumps the seq past max(id)
+-- only on start. A taken id fails the log insert and that trigger (logged as "job log id taken"); with
+-- macula-xxljob-log-partition.sql (primary key id + trigger_time) it may even go unnoticed. Stop all old admins
+-- first, or restart the upgraded admins once the last old admin is stopped.
+-- Tables are created only if missing; the seed never lowers an existing next_id. New installs get them from
+-- macula-xxljob-dump.sql.
+
+CREATE TABLE IF NOT EXISTS `xxl_job_log_seq`
+(
+    `seq_name` varchar(50) NOT NULL COMMENT '序列名称',
+    `next_id`  bigint      NOT NULL COMMENT '下一个可分配ID，调度中心按号段预分配',
+    PRIMARY KEY (`seq_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `xxl_job_log_seq` (`seq_name`, `next_id`)
+SELECT 'log_id', IFNULL(MAX(`id`), 0) + 1
+FROM `xxl_job_log`
+ON DUPLICATE KEY UPDATE `next_id` = GREATEST(`next_id`, VALUES(`next_id`));
+
+CREATE TABLE IF NOT EXISTS `xxl_job_schedule_node`
+(
+    `node_id`   varchar(100) NOT NULL COMMENT '调度中心节点ID',
+    `beat_time` bigint       NOT NULL DEFAULT '0' COMMENT '心跳时间',
+    PRIMARY KEY (`node_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `xxl_job_schedule_lease`
+(
+    `slot`          int          NOT NULL COMMENT '任务ID哈希槽，id % 槽总数',
+    `owner`         varchar(100) NOT NULL DEFAULT '' COMMENT '持有节点ID，空表示未分配',
+    `fencing_token` bigint       NOT NULL DEFAULT '0' COMMENT '防护令牌，每次抢占递增',
+    `lease_expire`  bigint       NOT NULL DEFAULT '0' COMMENT '租约过期时间',
+    PRIMARY KEY (`slot`),
+    KEY             `i_owner` (`owner`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `xxl_job_log_report_hour`
+(
+    `id`            int      NOT NULL AUTO_INCREMENT,
+    `job_id`        int      NOT NULL COMMENT '任务，主键ID',
+    `trigger_hour`  datetime NOT NULL COMMENT '调度-小时',
+    `running_count` int      NOT NULL DEFAULT '0' COMMENT '运行中-日志数量',
+    `suc_count`     int      NOT NULL DEFAULT '0' COMMENT '执行成功-日志数量',
+    `fail_count`    int      NOT NULL DEFAULT '0' COMMENT '执行失败-日志数量',
+    `update_time`   datetime          DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `i_trigger_hour_job` (`trigger_hour`, `job_id`) USING BTREE,
+    KEY             `i_job_hour` (`job_id`, `trigger_hour`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+ALTER TABLE `xxl_job_log`
+    ADD INDEX `I_alarm` (`alarm_status`, `handle_code`, `trigger_code`),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+ALTER TABLE `xxl_job_log`
+    ADD COLUMN `alarm_lock_time` bigint NOT NULL DEFAULT '0' COMMENT '告警锁定时间，锁定超时后重置为默认状态',
+    ALGORITHM = INSTANT;
+
+ALTER TABLE `xxl_job_info`
+    ADD COLUMN `version` bigint NOT NULL DEFAULT '0' COMMENT '版本号，每次更新递增',
+    ALGORITHM = INSTANT;
+
+ALTER TABLE `xxl_job_group`
+    ADD COLUMN `version` bigint NOT NULL DEFAULT '0' COMMENT '版本号，每次更新递增',
+    ALGORITHM = INSTANT;
+
+INSERT IGNORE INTO `xxl_job_lock` (`lock_name`)
+VALUES ('report_lock');
+
+-- check: next_id > max(id)
+-- SELECT s.next_id, (SELECT MAX(id) FROM xxl_job_log) AS max_id FROM xxl_job_log_seq s WHERE s.seq_name = 'log_id';
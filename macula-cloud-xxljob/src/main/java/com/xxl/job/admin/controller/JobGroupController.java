@@ -3,6 +3,7 @@ package com.xxl.job.admin.controller;
 import com.xxl.job.admin.controller.annotation.PermissionLimit;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.thread.JobInfoCacheHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
@@ -152,6 +153,7 @@ public class JobGroupController {
         xxlJobGroup.setUpdateTime(new Date());
 
         int ret = xxlJobGroupDao.update(xxlJobGroup);
+        JobInfoCacheHelper.getInstance().invalidateJobGroup(xxlJobGroup.getId());
         return (ret > 0) ? ReturnT.SUCCESS : ReturnT.FAIL;
     }
 
@@ -194,6 +196,7 @@ public class JobGroupController {
         }
 
         int ret = xxlJobGroupDao.remove(id);
+        JobInfoCacheHelper.getInstance().invalidateJobGroup(id);
         return (ret > 0) ? ReturnT.SUCCESS : ReturnT.FAIL;
     }
 
@@ -107,9 +107,10 @@ public class JobInfoController {
     @ResponseBody
     public Map<String, Object> pageList(@RequestParam(required = false, defaultValue = "0") int start,
         @RequestParam(required = false, defaultValue = "10") int length, int jobGroup, int triggerStatus,
-        String jobDesc, String executorHandler, String author) {
+        String jobDesc, String executorHandler, String author,
+        @RequestParam(required = false, defaultValue = "0") int cursor) {
 
-        return xxlJobService.pageList(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author);
+        return xxlJobService.pageList(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author, cursor);
     }
 
     @RequestMapping("/add")
@@ -6,10 +6,16 @@ import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobLogPartitionHelper;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
+import com.xxl.job.admin.core.thread.JobLogStreamHelper;
+import com.xxl.job.admin.core.trigger.TriggerMsg;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.LocalCacheUtil;
 import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobLogDao;
+import com.xxl.job.admin.dao.XxlJobLogReportDao;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.KillParam;
 import com.xxl.job.core.biz.model.LogParam;
@@ -18,14 +24,18 @@ import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +57,11 @@ public class JobLogController {
     public XxlJobInfoDao xxlJobInfoDao;
     @Resource
     public XxlJobLogDao xxlJobLogDao;
+    @Resource
+    private XxlJobLogReportDao xxlJobLogReportDao;
+
+    private static final int COUNT_LIMIT = 10000;
+    private static final long COUNT_CACHE_MS = 30 * 1000L;
 
     @RequestMapping
     public String index(HttpServletRequest request, Model model,
@@ -92,7 +107,7 @@ public class JobLogController {
     public Map<String, Object> pageList(HttpServletRequest request,
         @RequestParam(required = false, defaultValue = "0") int start,
         @RequestParam(required = false, defaultValue = "10") int length, int jobGroup, int jobId, int logStatus,
-        String filterTime) {
+        String filterTime, @RequestParam(required = false) String cursor) {
 
         // valid permission
         JobInfoController.validPermission(request, jobGroup);    // 仅管理员支持查询全部；普通用户仅支持查询有权限的 jobGroup
@@ -108,20 +123,99 @@ public class JobLogController {
             }
         }
 
+        // cursor: "triggerTime_id" of the last log of the previous page, keyset paging
+        Date cursorTime = null;
+        long cursorId = 0;
+        if (cursor != null && cursor.indexOf('_') > 0) {
+            try {
+                cursorTime = new Date(Long.parseLong(cursor.substring(0, cursor.indexOf('_'))));
+                cursorId = Long.parseLong(cursor.substring(cursor.indexOf('_') + 1));
+            } catch (NumberFormatException e) {
+                cursorTime = null;
+            }
+        }
+
         // page query
         List<XxlJobLog> list =
-            xxlJobLogDao.pageList(start, length, jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus);
-        int list_count =
-            xxlJobLogDao.pageListCount(start, length, jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus);
+            xxlJobLogDao.pageList(start, length, jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus,
+                cursorTime, cursorId);
+        int list_count = pageListCount(jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus);
+
+        // count approximate: never hide the next page
+        list_count = Math.max(list_count, start + list.size() + (list.size() == length ? 1 : 0));
+
+        // render trigger msg, stored as compact json
+        String nextCursor = null;
+        for (XxlJobLog item : list) {
+            item.setTriggerMsg(TriggerMsg.render(item.getTriggerMsg()));
+        }
+        if (!list.isEmpty() && list.get(list.size() - 1).getTriggerTime() != null) {
+            XxlJobLog last = list.get(list.size() - 1);
+            nextCursor = last.getTriggerTime().getTime() + "_" + last.getId();
+        }
 
         // package result
         Map<String, Object> maps = new HashMap<String, Object>();
         maps.put("recordsTotal", list_count);        // 总记录数
         maps.put("recordsFiltered", list_count);    // 过滤后的总记录数
         maps.put("data", list);                    // 分页列表
+        maps.put("nextCursor", nextCursor);        // 下一页游标
         return maps;
     }
 
+    /**
+     * log count, exact up to COUNT_LIMIT, over it approximate by hour report; cached
+     */
+    private int pageListCount(int jobGroup, int jobId, Date triggerTimeStart, Date triggerTimeEnd, int logStatus) {
+        String cacheKey = "joblog_count_" + jobGroup + "_" + jobId + "_" + logStatus + "_" + (triggerTimeStart != null
+            ? triggerTimeStart.getTime() : "") + "_" + (triggerTimeEnd != null ? triggerTimeEnd.getTime() : "");
+        Object cacheCount = LocalCacheUtil.get(cacheKey);
+        if (cacheCount != null) {
+            return (Integer)cacheCount;
+        }
+
+        int count = xxlJobLogDao.pageListCountLimit(jobGroup, jobId, triggerTimeStart, triggerTimeEnd, logStatus,
+            COUNT_LIMIT);
+        if (count >= COUNT_LIMIT) {
+            Date triggerHourFrom = null;
+            if (triggerTimeStart != null) {
+                Calendar calendar = Calendar.getInstance();
+                calendar.setTime(triggerTimeStart);
+                calendar.set(Calendar.MINUTE, 0);
+                calendar.set(Calendar.SECOND, 0);
+                calendar.set(Calendar.MILLISECOND, 0);
+                triggerHourFrom = calendar.getTime();
+            }
+            Integer reportCount =
+                xxlJobLogReportDao.countLogByReport(jobGroup, jobId, triggerHourFrom, triggerTimeEnd, logStatus);
+            if (reportCount != null && reportCount > count) {
+                count = reportCount;
+            }
+        }
+
+        LocalCacheUtil.set(cacheKey, count, COUNT_CACHE_MS);
+        return count;
+    }
+
+    /**
+     * shards of broadcast log, per-shard status
+     */
+    @RequestMapping("/shardList")
+    @ResponseBody
+    public ReturnT<List<XxlJobLog>> shardList(HttpServletRequest request, long parentId) {
+        XxlJobLog parentLog = xxlJobLogDao.load(parentId);
+        if (parentLog == null || parentLog.getParentId() != XxlJobLog.PARENT_BROADCAST) {
+            return new ReturnT<List<XxlJobLog>>(ReturnT.FAIL_CODE, I18nUtil.getString("joblog_logid_unvalid"));
+        }
+        JobInfoController.validPermission(request, parentLog.getJobGroup());
+
+        List<XxlJobLog> shardList = xxlJobLogDao.findShards(parentId, parentLog.getTriggerTime());
+        for (XxlJobLog item : shardList) {
+            item.setTriggerMsg(TriggerMsg.render(item.getTriggerMsg()));
+        }
+        return new ReturnT<List<XxlJobLog>>(shardList);
+    }
+
     @RequestMapping("/logDetailPage")
     public String logDetailPage(int id, Model model) {
 
@@ -138,12 +232,31 @@ public class JobLogController {
         return "joblog/joblog.detail";
     }
 
+    /**
+     * rolling log, pushed by sse until log end; "fallback" event: viewer polls logDetailCat
+     */
+    @RequestMapping(value = "/logDetailStream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter logDetailStream(long logId, @RequestParam(required = false, defaultValue = "1") int fromLineNum) {
+        XxlJobLog jobLog = xxlJobLogDao.load(logId);
+        if (jobLog == null || jobLog.getExecutorAddress() == null) {
+            SseEmitter emitter = new SseEmitter();
+            try {
+                emitter.send(SseEmitter.event().name("fail").data(I18nUtil.getString("joblog_logid_unvalid")));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+        return JobLogStreamHelper.getInstance().stream(jobLog, fromLineNum);
+    }
+
     @RequestMapping("/logDetailCat")
     @ResponseBody
     public ReturnT<LogResult> logDetailCat(long logId, int fromLineNum) {
         try {
-            // valid
-            XxlJobLog jobLog = xxlJobLogDao.load(logId);    // todo, need to improve performance
+            // valid, polling fallback of logDetailStream
+            XxlJobLog jobLog = xxlJobLogDao.load(logId);
             if (jobLog == null) {
                 return new ReturnT<LogResult>(ReturnT.FAIL_CODE, I18nUtil.getString("joblog_logid_unvalid"));
             }
@@ -232,13 +345,37 @@ public class JobLogController {
             return new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("joblog_clean_type_unvalid"));
         }
 
+        // keep latest num: clear logs before (trigger_time, id) of the last log kept, exact within one second
+        Long clearBeforeId = null;
+        if (clearBeforeNum > 0) {
+            XxlJobLog boundary = xxlJobLogDao.findClearBoundary(jobGroup, jobId, clearBeforeNum);
+            if (boundary == null) {
+                return ReturnT.SUCCESS;
+            }
+            clearBeforeTime = boundary.getTriggerTime();
+            clearBeforeId = boundary.getId();
+        }
+
+        // all jobs: drop whole partitions first, rows of boundary partition deleted below
+        if (jobGroup == 0 && jobId == 0) {
+            if (type == 9) {
+                if (JobLogPartitionHelper.getInstance().truncateAll()) {
+                    JobLogReportHelper.getInstance().requestCheck();
+                    return ReturnT.SUCCESS;
+                }
+            } else {
+                JobLogPartitionHelper.getInstance().dropBefore(clearBeforeTime);
+            }
+        }
+
         List<Long> logIds = null;
         do {
-            logIds = xxlJobLogDao.findClearLogIds(jobGroup, jobId, clearBeforeTime, clearBeforeNum, 1000);
+            logIds = xxlJobLogDao.findClearLogIds(jobGroup, jobId, clearBeforeTime, clearBeforeId, 1000);
             if (logIds != null && logIds.size() > 0) {
-                xxlJobLogDao.clearLog(logIds);
+                xxlJobLogDao.clearLog(logIds, clearBeforeTime, clearBeforeId);
             }
         } while (logIds != null && logIds.size() > 0);
+        JobLogReportHelper.getInstance().requestCheck();
 
         return ReturnT.SUCCESS;
     }
@@ -0,0 +1,69 @@
+package com.xxl.job.admin.core.alarm;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.model.XxlJobLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * alarms of one recipient in one digest window
+ *
+ * @author rain 2026-10-17
+ */
+public class JobAlarmDigest {
+
+    public static final int MAX_ITEMS = 100;        // listed alarms, more only counted
+
+    private final String recipient;
+    private final long firstTime;
+    private final List<Item> itemList = new ArrayList<Item>();
+    private int totalCount = 0;
+
+    public JobAlarmDigest(String recipient, long firstTime) {
+        this.recipient = recipient;
+        this.firstTime = firstTime;
+    }
+
+    public void add(XxlJobInfo info, XxlJobLog jobLog) {
+        totalCount++;
+        if (itemList.size() < MAX_ITEMS) {
+            itemList.add(new Item(info, jobLog));
+        }
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public long getFirstTime() {
+        return firstTime;
+    }
+
+    public List<Item> getItemList() {
+        return itemList;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public static class Item {
+        private final XxlJobInfo info;
+        private final XxlJobLog jobLog;
+
+        public Item(XxlJobInfo info, XxlJobLog jobLog) {
+            this.info = info;
+            this.jobLog = jobLog;
+        }
+
+        public XxlJobInfo getInfo() {
+            return info;
+        }
+
+        public XxlJobLog getJobLog() {
+            return jobLog;
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.xxl.job.admin.core.alarm;
+
+import com.xxl.job.admin.core.model.XxlJobInfo;
+
+import java.util.List;
+
+/**
+ * alarm sink, sends digests of one recipient; spring beans are picked up by JobAlarmer
+ *
+ * @author rain 2026-10-17
+ */
+public interface JobAlarmSink {
+
+    /**
+     * sink name, unique
+     */
+    public String getName();
+
+    /**
+     * recipients of the job alarm
+     *
+     * @param info
+     * @return empty if the sink is not used for the job
+     */
+    public List<String> recipients(XxlJobInfo info);
+
+    /**
+     * send digest, called on the sink's own thread
+     *
+     * @param digest
+     * @return
+     */
+    public boolean send(JobAlarmDigest digest);
+
+}
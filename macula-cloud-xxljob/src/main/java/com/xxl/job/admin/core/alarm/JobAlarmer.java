@@ -1,7 +1,9 @@
 package com.xxl.job.admin.core.alarm;
 
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.util.TokenBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -10,16 +12,49 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * job alarm, async
+ *
+ * <pre>
+ *     a、queue: alarm only enqueues, fail monitor never waits for a sink；
+ *     b、digest: first alarm of a recipient sent at once, the following ones within the digest window sent as one
+ *        digest；
+ *     c、rate limit: token bucket per sink, digest kept and merged while no token or sink busy；
+ *     d、sink: JobAlarmSink beans (email, webhook, log), each on its own thread; JobAlarm beans called per alarm；
+ *     e、fail: sink send fail counted, alarm status of the alarmed logs set to fail, locked or already success (fail
+ *        monitor done first) alike, in one statement；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
 @Component
 public class JobAlarmer implements ApplicationContextAware, InitializingBean {
     private static Logger logger = LoggerFactory.getLogger(JobAlarmer.class);
 
+    private static final int QUEUE_SIZE = 10000;
+    private static final int RATE_BURST = 5;
+
+    // 告警状态：0-默认、-1=锁定状态、1-无需告警、2-告警成功、3-告警失败
+    private static final int ALARM_LOCKED = -1;
+    private static final int ALARM_SUCCESS = 2;
+    private static final int ALARM_FAIL = 3;
+    private static final List<Integer> SEND_FAIL_FROM_STATUS = Arrays.asList(ALARM_LOCKED, ALARM_SUCCESS);
+
     private ApplicationContext applicationContext;
     private List<JobAlarm> jobAlarmList;
+    private List<JobAlarmSink> jobAlarmSinkList;
+
+    private final LinkedBlockingQueue<QueuedAlarm> alarmQueue = new LinkedBlockingQueue<QueuedAlarm>(QUEUE_SIZE);
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong sendFailCount = new AtomicLong();
+    private List<SinkState> sinkStateList;
+    private long digestWindowMs;
+    private Thread dispatchThread;
+    private volatile boolean toStop = false;
 
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
@@ -32,34 +67,306 @@ public class JobAlarmer implements ApplicationContextAware, InitializingBean {
         if (serviceBeanMap != null && serviceBeanMap.size() > 0) {
             jobAlarmList = new ArrayList<JobAlarm>(serviceBeanMap.values());
         }
+        Map<String, JobAlarmSink> sinkBeanMap = applicationContext.getBeansOfType(JobAlarmSink.class);
+        if (sinkBeanMap != null && sinkBeanMap.size() > 0) {
+            jobAlarmSinkList = new ArrayList<JobAlarmSink>(sinkBeanMap.values());
+        }
+    }
+
+    // ---------------------- start / stop ----------------------
+
+    public void start() {
+        List<JobAlarmSink> sinkList = new ArrayList<JobAlarmSink>();
+        if (jobAlarmSinkList != null) {
+            sinkList.addAll(jobAlarmSinkList);
+        }
+        if (jobAlarmList != null) {
+            for (JobAlarm jobAlarm : jobAlarmList) {
+                sinkList.add(new JobAlarmSinkAdapter(jobAlarm));
+            }
+        }
+        start(sinkList, XxlJobAdminConfig.getAdminConfig().getAlarmDigestSeconds() * 1000L,
+            XxlJobAdminConfig.getAdminConfig().getAlarmRate());
+    }
+
+    void start(List<JobAlarmSink> sinkList, long digestWindowMs, int ratePerMinute) {
+        this.digestWindowMs = digestWindowMs;
+        this.sinkStateList = new ArrayList<SinkState>();
+        for (JobAlarmSink sink : sinkList) {
+            sinkStateList.add(new SinkState(sink, new TokenBucket(RATE_BURST, ratePerMinute)));
+        }
+
+        dispatchThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        QueuedAlarm alarm = alarmQueue.poll(1, TimeUnit.SECONDS);
+                        if (alarm != null) {
+                            digest(alarm);
+                            while ((alarm = alarmQueue.poll()) != null) {
+                                digest(alarm);
+                            }
+                        }
+                        dispatch(false);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobAlarmer#dispatchThread error:{}", e);
+                        }
+                    }
+                }
+
+                // pending alarms sent, ignore window and rate
+                try {
+                    QueuedAlarm alarm;
+                    while ((alarm = alarmQueue.poll()) != null) {
+                        digest(alarm);
+                    }
+                    dispatch(true);
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, JobAlarmer#dispatchThread flush error:{}", e);
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobAlarmer#dispatchThread stop");
+            }
+        });
+        dispatchThread.setDaemon(true);
+        dispatchThread.setName("xxl-job, admin JobAlarmer#dispatchThread");
+        dispatchThread.start();
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // interrupt and wait
+        dispatchThread.interrupt();
+        try {
+            dispatchThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+
+        // wait sending
+        for (SinkState sinkState : sinkStateList) {
+            sinkState.sendPool.shutdown();
+        }
+        for (SinkState sinkState : sinkStateList) {
+            try {
+                if (!sinkState.sendPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warn(">>>>>>>>>>> xxl-job, alarm sink [{}] stop before send finish",
+                        sinkState.sink.getName());
+                }
+            } catch (InterruptedException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
     }
 
+    // ---------------------- alarm ----------------------
+
     /**
-     * job alarm
+     * job alarm, enqueued and sent async
      *
      * @param info
      * @param jobLog
-     * @return
+     * @return false if no sink, alarm queue full or not started; sink send fail set on the log later
      */
     public boolean alarm(XxlJobInfo info, XxlJobLog jobLog) {
+        if (dispatchThread == null || toStop || sinkStateList.isEmpty()) {
+            return false;
+        }
+        if (!alarmQueue.offer(new QueuedAlarm(info, jobLog))) {
+            droppedCount.incrementAndGet();
+            logger.warn(">>>>>>>>>>> xxl-job, alarm queue full, alarm dropped, JobLogId:{}", jobLog.getId());
+            return false;
+        }
+        return true;
+    }
 
-        boolean result = false;
-        if (jobAlarmList != null && jobAlarmList.size() > 0) {
-            result = true;  // success means all-success
-            for (JobAlarm alarm : jobAlarmList) {
-                boolean resultItem = false;
-                try {
-                    resultItem = alarm.doAlarm(info, jobLog);
-                } catch (Exception e) {
-                    logger.error(e.getMessage(), e);
+    private void digest(QueuedAlarm alarm) {
+        long nowTime = System.currentTimeMillis();
+        for (SinkState sinkState : sinkStateList) {
+            List<String> recipients = null;
+            try {
+                recipients = sinkState.sink.recipients(alarm.info);
+            } catch (Exception e) {
+                logger.error(">>>>>>>>>>> xxl-job, alarm sink [{}] recipients error", sinkState.sink.getName(), e);
+            }
+            if (recipients == null) {
+                continue;
+            }
+            for (String recipient : recipients) {
+                JobAlarmDigest digest = sinkState.digestMap.get(recipient);
+                if (digest == null) {
+                    digest = new JobAlarmDigest(recipient, nowTime);
+                    sinkState.digestMap.put(recipient, digest);
                 }
-                if (!resultItem) {
+                digest.add(alarm.info, alarm.jobLog);
+            }
+        }
+    }
+
+    /**
+     * digests out of window, one at a time per sink
+     *
+     * @param all ignore window and rate, on stop
+     */
+    private void dispatch(boolean all) {
+        long nowTime = System.currentTimeMillis();
+        for (final SinkState sinkState : sinkStateList) {
+            // recipients quiet for a window, next alarm sent at once
+            for (Iterator<Map.Entry<String, Long>> it = sinkState.sendTimeMap.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Long> item = it.next();
+                if (nowTime - item.getValue() >= digestWindowMs && !sinkState.digestMap.containsKey(item.getKey())) {
+                    it.remove();
+                }
+            }
+            if (sinkState.digestMap.isEmpty() || (!all && sinkState.sending)) {
+                continue;
+            }
+
+            final List<JobAlarmDigest> sendList = new ArrayList<JobAlarmDigest>();
+            for (Iterator<JobAlarmDigest> it = sinkState.digestMap.values().iterator(); it.hasNext(); ) {
+                JobAlarmDigest digest = it.next();
+                Long sendTime = sinkState.sendTimeMap.get(digest.getRecipient());
+                boolean due = sendTime == null || nowTime - sendTime >= digestWindowMs;
+                if (all || (due && sinkState.rateLimit.tryAcquire())) {
+                    sendList.add(digest);
+                    it.remove();
+                    sinkState.sendTimeMap.put(digest.getRecipient(), nowTime);
+                }
+            }
+            if (sendList.isEmpty()) {
+                continue;
+            }
+
+            sinkState.sending = true;
+            sinkState.sendPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (JobAlarmDigest digest : sendList) {
+                            boolean result = false;
+                            try {
+                                result = sinkState.sink.send(digest);
+                            } catch (Exception e) {
+                                logger.error(e.getMessage(), e);
+                            }
+                            if (!result) {
+                                logger.warn(">>>>>>>>>>> xxl-job, alarm sink [{}] send fail, recipient:{}, alarms:{}",
+                                    sinkState.sink.getName(), digest.getRecipient(), digest.getTotalCount());
+                                sendFail(digest);
+                            }
+                        }
+                    } finally {
+                        sinkState.sending = false;
+                    }
+                }
+            });
+        }
+    }
+
+    private void sendFail(JobAlarmDigest digest) {
+        sendFailCount.addAndGet(digest.getTotalCount());
+        if (XxlJobAdminConfig.getAdminConfig() == null) {
+            return;
+        }
+        List<Long> logIds = new ArrayList<Long>(digest.getItemList().size());
+        for (JobAlarmDigest.Item item : digest.getItemList()) {
+            logIds.add(item.getJobLog().getId());
+        }
+        try {
+            // before or after the fail monitor set it success: one statement, the monitor never slips in between
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                .updateAlarmStatusBatchFrom(logIds, SEND_FAIL_FROM_STATUS, ALARM_FAIL);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, alarm status update error, recipient:{}", digest.getRecipient(), e);
+        }
+    }
+
+    private static class QueuedAlarm {
+        private final XxlJobInfo info;
+        private final XxlJobLog jobLog;
+
+        public QueuedAlarm(XxlJobInfo info, XxlJobLog jobLog) {
+            this.info = info;
+            this.jobLog = jobLog;
+        }
+    }
+
+    private static class SinkState {
+        private final JobAlarmSink sink;
+        private final TokenBucket rateLimit;
+        private final ExecutorService sendPool;
+        // dispatch thread only
+        private final Map<String, JobAlarmDigest> digestMap = new LinkedHashMap<String, JobAlarmDigest>();
+        private final Map<String, Long> sendTimeMap = new HashMap<String, Long>();     // recipient, last send
+        private volatile boolean sending = false;
+
+        public SinkState(final JobAlarmSink sink, TokenBucket rateLimit) {
+            this.sink = sink;
+            this.rateLimit = rateLimit;
+            this.sendPool = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "xxl-job, admin JobAlarmer-sink-" + sink.getName());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    /**
+     * JobAlarm bean as sink, called per alarm
+     */
+    private static class JobAlarmSinkAdapter implements JobAlarmSink {
+        private final JobAlarm jobAlarm;
+
+        public JobAlarmSinkAdapter(JobAlarm jobAlarm) {
+            this.jobAlarm = jobAlarm;
+        }
+
+        @Override
+        public String getName() {
+            return jobAlarm.getClass().getSimpleName();
+        }
+
+        @Override
+        public List<String> recipients(XxlJobInfo info) {
+            return Collections.singletonList("*");
+        }
+
+        @Override
+        public boolean send(JobAlarmDigest digest) {
+            boolean result = true;
+            for (JobAlarmDigest.Item item : digest.getItemList()) {
+                if (!jobAlarm.doAlarm(item.getInfo(), item.getJobLog())) {
                     result = false;
                 }
             }
+            return result;
         }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getQueueSize() {
+        return alarmQueue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
 
-        return result;
+    /**
+     * alarms in digests the sink failed to send
+     */
+    public long getSendFailCount() {
+        return sendFailCount.get();
     }
 
 }
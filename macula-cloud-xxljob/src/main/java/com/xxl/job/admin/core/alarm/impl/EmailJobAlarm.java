@@ -1,10 +1,13 @@
 package com.xxl.job.admin.core.alarm.impl;
 
-import com.xxl.job.admin.core.alarm.JobAlarm;
+import com.xxl.job.admin.core.alarm.JobAlarmDigest;
+import com.xxl.job.admin.core.alarm.JobAlarmSink;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.thread.JobInfoCacheHelper;
+import com.xxl.job.admin.core.trigger.TriggerMsg;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.model.ReturnT;
 import org.slf4j.Logger;
@@ -14,74 +17,94 @@ import org.springframework.stereotype.Component;
 
 import javax.mail.internet.MimeMessage;
 import java.text.MessageFormat;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
- * job alarm by email
+ * job alarm by email, one mail per recipient digest
  *
  * @author xuxueli 2020-01-19
  */
 @Component
-public class EmailJobAlarm implements JobAlarm {
+public class EmailJobAlarm implements JobAlarmSink {
     private static Logger logger = LoggerFactory.getLogger(EmailJobAlarm.class);
 
+    @Override
+    public String getName() {
+        return "email";
+    }
+
+    @Override
+    public List<String> recipients(XxlJobInfo info) {
+        if (info == null || info.getAlarmEmail() == null || info.getAlarmEmail().trim().length() == 0) {
+            return Collections.emptyList();
+        }
+        Set<String> emailSet = new LinkedHashSet<String>();
+        for (String email : info.getAlarmEmail().split(",")) {
+            if (email.trim().length() > 0) {
+                emailSet.add(email.trim());
+            }
+        }
+        return new ArrayList<String>(emailSet);
+    }
+
     /**
      * fail alarm
      *
-     * @param jobLog
+     * @param digest
      */
     @Override
-    public boolean doAlarm(XxlJobInfo info, XxlJobLog jobLog) {
-        boolean alarmResult = true;
+    public boolean send(JobAlarmDigest digest) {
 
-        // send monitor email
-        if (info != null && info.getAlarmEmail() != null && info.getAlarmEmail().trim().length() > 0) {
+        // alarm rows
+        StringBuilder rows = new StringBuilder();
+        for (JobAlarmDigest.Item item : digest.getItemList()) {
+            XxlJobInfo info = item.getInfo();
+            XxlJobLog jobLog = item.getJobLog();
 
             // alarmContent
             String alarmContent = "Alarm Job LogId=" + jobLog.getId();
             if (jobLog.getTriggerCode() != ReturnT.SUCCESS_CODE) {
-                alarmContent += "<br>TriggerMsg=<br>" + jobLog.getTriggerMsg();
+                alarmContent += "<br>TriggerMsg=<br>" + TriggerMsg.render(jobLog.getTriggerMsg());
             }
             if (jobLog.getHandleCode() > 0 && jobLog.getHandleCode() != ReturnT.SUCCESS_CODE) {
                 alarmContent += "<br>HandleCode=" + jobLog.getHandleMsg();
             }
 
-            // email info
-            XxlJobGroup group =
-                XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(Integer.valueOf(info.getJobGroup()));
-            String personal = I18nUtil.getString("admin_name_full");
-            String title = I18nUtil.getString("jobconf_monitor");
-            String content =
-                MessageFormat.format(loadEmailJobAlarmTemplate(), group != null ? group.getTitle() : "null",
-                    info.getId(), info.getJobDesc(), alarmContent);
-
-            Set<String> emailSet = new HashSet<String>(Arrays.asList(info.getAlarmEmail().split(",")));
-            for (String email : emailSet) {
-
-                // make mail
-                try {
-                    MimeMessage mimeMessage = XxlJobAdminConfig.getAdminConfig().getMailSender().createMimeMessage();
-
-                    MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
-                    helper.setFrom(XxlJobAdminConfig.getAdminConfig().getEmailFrom(), personal);
-                    helper.setTo(email);
-                    helper.setSubject(title);
-                    helper.setText(content, true);
-
-                    XxlJobAdminConfig.getAdminConfig().getMailSender().send(mimeMessage);
-                } catch (Exception e) {
-                    logger.error(">>>>>>>>>>> xxl-job, job fail alarm email send error, JobLogId:{}", jobLog.getId(),
-                        e);
-
-                    alarmResult = false;
-                }
+            XxlJobGroup group = JobInfoCacheHelper.getInstance().loadJobGroup(info.getJobGroup());
+            rows.append(MessageFormat.format(loadEmailJobAlarmRowTemplate(), group != null ? group.getTitle() : "null",
+                String.valueOf(info.getId()), info.getJobDesc(), alarmContent));
+        }
 
-            }
+        // email info
+        String personal = I18nUtil.getString("admin_name_full");
+        String title = I18nUtil.getString("jobconf_monitor");
+        String content = loadEmailJobAlarmTemplate().replace("{rows}", rows);
+        if (digest.getTotalCount() > digest.getItemList().size()) {
+            content += "<p>" + MessageFormat.format(I18nUtil.getString("jobconf_monitor_alarm_digest"),
+                String.valueOf(digest.getTotalCount()), String.valueOf(digest.getItemList().size())) + "</p>";
         }
 
-        return alarmResult;
+        // make mail
+        try {
+            MimeMessage mimeMessage = XxlJobAdminConfig.getAdminConfig().getMailSender().createMimeMessage();
+
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
+            helper.setFrom(XxlJobAdminConfig.getAdminConfig().getEmailFrom(), personal);
+            helper.setTo(digest.getRecipient());
+            helper.setSubject(title);
+            helper.setText(content, true);
+
+            XxlJobAdminConfig.getAdminConfig().getMailSender().send(mimeMessage);
+            return true;
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, job fail alarm email send error, recipient:{}, alarms:{}",
+                digest.getRecipient(), digest.getTotalCount(), e);
+            return false;
+        }
     }
 
     /**
@@ -96,10 +119,19 @@ public class EmailJobAlarm implements JobAlarm {
             "jobinfo_field_id") + "</td>\n" + "         <td width=\"20%\" >" + I18nUtil.getString(
             "jobinfo_field_jobdesc") + "</td>\n" + "         <td width=\"10%\" >" + I18nUtil.getString(
             "jobconf_monitor_alarm_title") + "</td>\n" + "         <td width=\"40%\" >" + I18nUtil.getString(
-            "jobconf_monitor_alarm_content") + "</td>\n" + "      </tr>\n" + "   </thead>\n" + "   <tbody>\n" + "      <tr>\n" + "         <td>{0}</td>\n" + "         <td>{1}</td>\n" + "         <td>{2}</td>\n" + "         <td>" + I18nUtil.getString(
-            "jobconf_monitor_alarm_type") + "</td>\n" + "         <td>{3}</td>\n" + "      </tr>\n" + "   </tbody>\n" + "</table>";
+            "jobconf_monitor_alarm_content") + "</td>\n" + "      </tr>\n" + "   </thead>\n" + "   <tbody>\n" + "{rows}" + "   </tbody>\n" + "</table>";
 
         return mailBodyTemplate;
     }
 
+    /**
+     * load email job alarm row template, one row per alarm
+     *
+     * @return
+     */
+    private static final String loadEmailJobAlarmRowTemplate() {
+        return "      <tr>\n" + "         <td>{0}</td>\n" + "         <td>{1}</td>\n" + "         <td>{2}</td>\n" + "         <td>" + I18nUtil.getString(
+            "jobconf_monitor_alarm_type") + "</td>\n" + "         <td>{3}</td>\n" + "      </tr>\n";
+    }
+
 }
@@ -0,0 +1,45 @@
+package com.xxl.job.admin.core.alarm.impl;
+
+import com.xxl.job.admin.core.alarm.JobAlarmDigest;
+import com.xxl.job.admin.core.alarm.JobAlarmSink;
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * job alarm by admin log, for log based monitoring, "xxl.job.alarm.log.enabled"
+ *
+ * @author rain 2026-10-17
+ */
+@Component
+public class LogJobAlarm implements JobAlarmSink {
+    private static Logger logger = LoggerFactory.getLogger(LogJobAlarm.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public List<String> recipients(XxlJobInfo info) {
+        return XxlJobAdminConfig.getAdminConfig().isAlarmLogEnabled() ? Collections.singletonList("log")
+            : Collections.<String>emptyList();
+    }
+
+    @Override
+    public boolean send(JobAlarmDigest digest) {
+        StringBuilder logIds = new StringBuilder();
+        for (JobAlarmDigest.Item item : digest.getItemList()) {
+            logIds.append(logIds.length() > 0 ? "," : "").append(item.getInfo().getId()).append(":")
+                .append(item.getJobLog().getId());
+        }
+        logger.warn(">>>>>>>>>>> xxl-job, job fail alarm, alarms:{}, jobId:logId [{}]", digest.getTotalCount(), logIds);
+        return true;
+    }
+
+}
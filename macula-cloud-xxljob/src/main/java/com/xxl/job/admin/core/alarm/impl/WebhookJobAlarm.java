@@ -0,0 +1,102 @@
+package com.xxl.job.admin.core.alarm.impl;
+
+import com.xxl.job.admin.core.alarm.JobAlarmDigest;
+import com.xxl.job.admin.core.alarm.JobAlarmSink;
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.util.JacksonUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * job alarm by webhook, digest posted as json to each "xxl.job.alarm.webhook.url"
+ *
+ * @author rain 2026-10-17
+ */
+@Component
+public class WebhookJobAlarm implements JobAlarmSink {
+    private static Logger logger = LoggerFactory.getLogger(WebhookJobAlarm.class);
+
+    private static final int TIMEOUT_MS = 3000;
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public List<String> recipients(XxlJobInfo info) {
+        List<String> urlList = XxlJobAdminConfig.getAdminConfig().getAlarmWebhookUrls();
+        return urlList != null ? urlList : Collections.<String>emptyList();
+    }
+
+    @Override
+    public boolean send(JobAlarmDigest digest) {
+        List<Map<String, Object>> alarmList = new ArrayList<Map<String, Object>>();
+        for (JobAlarmDigest.Item item : digest.getItemList()) {
+            XxlJobInfo info = item.getInfo();
+            XxlJobLog jobLog = item.getJobLog();
+
+            Map<String, Object> alarm = new LinkedHashMap<String, Object>();
+            alarm.put("jobGroup", info.getJobGroup());
+            alarm.put("jobId", info.getId());
+            alarm.put("jobDesc", info.getJobDesc());
+            alarm.put("logId", jobLog.getId());
+            alarm.put("triggerTime", jobLog.getTriggerTime() != null ? jobLog.getTriggerTime().getTime() : null);
+            alarm.put("triggerCode", jobLog.getTriggerCode());
+            alarm.put("handleCode", jobLog.getHandleCode());
+            alarm.put("handleMsg", jobLog.getHandleMsg());
+            alarmList.add(alarm);
+        }
+        Map<String, Object> body = new LinkedHashMap<String, Object>();
+        body.put("totalCount", digest.getTotalCount());
+        body.put("firstTime", digest.getFirstTime());
+        body.put("alarms", alarmList);
+
+        HttpURLConnection connection = null;
+        try {
+            byte[] bodyBytes = JacksonUtil.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+
+            connection = (HttpURLConnection) new URL(digest.getRecipient()).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+            OutputStream outputStream = connection.getOutputStream();
+            try {
+                outputStream.write(bodyBytes);
+            } finally {
+                outputStream.close();
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                logger.error(">>>>>>>>>>> xxl-job, job fail alarm webhook error, url:{}, status:{}", digest.getRecipient(),
+                    statusCode);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, job fail alarm webhook error, url:{}", digest.getRecipient(), e);
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+}
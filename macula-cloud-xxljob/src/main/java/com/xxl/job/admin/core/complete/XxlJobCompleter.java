@@ -3,7 +3,12 @@ package com.xxl.job.admin.core.complete;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.thread.JobCompleteHelper;
+import com.xxl.job.admin.core.thread.JobInfoCacheHelper;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
 import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
+import com.xxl.job.admin.core.trigger.TriggerMsg;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.model.ReturnT;
@@ -11,7 +16,17 @@ import com.xxl.job.core.context.XxlJobContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author xuxueli 2020-10-30 20:43:10
@@ -26,29 +41,125 @@ public class XxlJobCompleter {
      * @return
      */
     public static int updateHandleInfoAndFinish(XxlJobLog xxlJobLog) {
-
-        // finish
-        finishJob(xxlJobLog);
+        JobCompleteHelper.getInstance().removeRunning(xxlJobLog.getId());
 
         // text最大64kb 避免长度过长
         if (xxlJobLog.getHandleMsg().length() > 15000) {
             xxlJobLog.setHandleMsg(xxlJobLog.getHandleMsg().substring(0, 15000));
         }
 
-        // fresh handle
-        return XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfo(xxlJobLog);
+        // fresh handle, only once
+        int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfo(xxlJobLog);
+        if (ret > 0) {
+            JobLogReportHelper.getInstance()
+                .onHandle(xxlJobLog.getJobId(), xxlJobLog.getTriggerTime(), xxlJobLog.getTriggerCode(),
+                    xxlJobLog.getHandleCode());
+
+            // finish, async
+            JobCompleteHelper.getInstance().finish(xxlJobLog);
+        }
+        return ret;
     }
 
     /**
-     * do somethind to finish job
+     * batch fresh handle entrance (limit only once), one jdbc batch
+     *
+     * @param logList loaded logs, handle-info set
+     * @return count of logs fresh
      */
-    private static void finishJob(XxlJobLog xxlJobLog) {
+    public static int updateHandleInfoAndFinish(List<XxlJobLog> logList) {
+        List<XxlJobLog> batchList = new ArrayList<XxlJobLog>(logList.size());
+        int count = 0;
+        for (XxlJobLog xxlJobLog : logList) {
+            JobCompleteHelper.getInstance().removeRunning(xxlJobLog.getId());
+            if (xxlJobLog.getHandleMsg().length() > 15000) {
+                xxlJobLog.setHandleMsg(xxlJobLog.getHandleMsg().substring(0, 15000));
+            }
+            if (xxlJobLog.getTriggerTime() != null) {
+                batchList.add(xxlJobLog);
+            } else {
+                count += updateHandleInfoAndFinish(xxlJobLog);
+            }
+        }
+        if (batchList.isEmpty()) {
+            return count;
+        }
+
+        int[] rets = null;
+        try {
+            rets = updateHandleInfoBatch(batchList);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, handle info batch update fail, retry one by one, size:{}",
+                batchList.size(), e);
+            for (XxlJobLog xxlJobLog : batchList) {
+                count += updateHandleInfoAndFinish(xxlJobLog);
+            }
+            return count;
+        }
+        for (int i = 0; i < batchList.size(); i++) {
+            if (rets[i] > 0 || rets[i] == Statement.SUCCESS_NO_INFO) {
+                XxlJobLog xxlJobLog = batchList.get(i);
+                JobLogReportHelper.getInstance()
+                    .onHandle(xxlJobLog.getJobId(), xxlJobLog.getTriggerTime(), xxlJobLog.getTriggerCode(),
+                        xxlJobLog.getHandleCode());
+                JobCompleteHelper.getInstance().finish(xxlJobLog);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int[] updateHandleInfoBatch(List<XxlJobLog> logList) {
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement("update xxl_job_log set handle_time = ?, handle_code = ?, "
+                + "handle_msg = ? where id = ? and handle_code = 0 and trigger_time = ?");
+            for (XxlJobLog xxlJobLog : logList) {
+                preparedStatement.setTimestamp(1, new Timestamp(xxlJobLog.getHandleTime().getTime()));
+                preparedStatement.setInt(2, xxlJobLog.getHandleCode());
+                preparedStatement.setString(3, xxlJobLog.getHandleMsg());
+                preparedStatement.setLong(4, xxlJobLog.getId());
+                preparedStatement.setTimestamp(5, new Timestamp(xxlJobLog.getTriggerTime().getTime()));
+                preparedStatement.addBatch();
+            }
+            return preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("xxl-job, batch update handle info fail.", e);
+        } finally {
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * do somethind to finish job, after handle fresh (async, by JobCompleteHelper)
+     */
+    public static void finishJob(XxlJobLog xxlJobLog) {
+
+        // 0、broadcast shard, broadcast log finished once all shards done
+        if (xxlJobLog.getParentId() > 0) {
+            finishShard(xxlJobLog);
+            return;
+        }
 
         // 1、handle success, to trigger child job
         String triggerChildMsg = null;
         if (XxlJobContext.HANDLE_CODE_SUCCESS == xxlJobLog.getHandleCode()) {
-            XxlJobInfo xxlJobInfo =
-                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(xxlJobLog.getJobId());
+            XxlJobInfo xxlJobInfo = JobInfoCacheHelper.getInstance().loadJobInfo(xxlJobLog.getJobId());
             if (xxlJobInfo != null && xxlJobInfo.getChildJobId() != null && xxlJobInfo.getChildJobId().trim()
                 .length() > 0) {
                 triggerChildMsg = "<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>" + I18nUtil.getString(
@@ -82,12 +193,53 @@ public class XxlJobCompleter {
         }
 
         if (triggerChildMsg != null) {
-            xxlJobLog.setHandleMsg(xxlJobLog.getHandleMsg() + triggerChildMsg);
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().appendHandleMsg(xxlJobLog.getId(),
+                xxlJobLog.getTriggerTime(), triggerChildMsg);
         }
 
-        // 2、fix_delay trigger next
-        // on the way
+        // 2、fix_delay trigger next, from finish time
+        TriggerMsg triggerMsg = TriggerMsg.parse(xxlJobLog.getTriggerMsg());
+        JobScheduleHelper.getInstance().fixDelayDone(
+            JobInfoCacheHelper.getInstance().loadJobInfo(xxlJobLog.getJobId()),
+            triggerMsg != null ? TriggerTypeEnum.match(triggerMsg.getTriggerType(), null) : null,
+            xxlJobLog.getTriggerTime(),
+            xxlJobLog.getHandleTime() != null ? xxlJobLog.getHandleTime().getTime() : System.currentTimeMillis());
+
+    }
+
+    /**
+     * shard done (handled, lost or trigger fail): last one sums up handle-info of the broadcast log and finishes it
+     */
+    private static void finishShard(XxlJobLog shardLog) {
+        Map<String, Object> shardCount = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+            .findShardCount(shardLog.getParentId(), shardLog.getTriggerTime());
+        int total = toInt(shardCount != null ? shardCount.get("total") : null);
+        int running = toInt(shardCount != null ? shardCount.get("running") : null);
+        if (total == 0 || running > 0) {
+            return;
+        }
+        int handleSuc = toInt(shardCount.get("handleSuc"));
+
+        List<XxlJobLog> parentList = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+            .loadByIds(Collections.singletonList(shardLog.getParentId()), shardLog.getTriggerTime(),
+                shardLog.getTriggerTime());
+        if (parentList == null || parentList.isEmpty() || parentList.get(0).getHandleCode() > 0) {
+            return;
+        }
+        XxlJobLog parentLog = parentList.get(0);
+        parentLog.setHandleTime(new Date());
+        parentLog.setHandleCode(handleSuc == total ? ReturnT.SUCCESS_CODE : ReturnT.FAIL_CODE);
+        parentLog.setHandleMsg(MessageFormat.format(I18nUtil.getString("joblog_broadcast_handle_msg"),
+            String.valueOf(total), String.valueOf(handleSuc), String.valueOf(total - handleSuc)));
+
+        // fresh handle, only once (shards done at the same time)
+        if (XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfo(parentLog) > 0) {
+            finishJob(parentLog);
+        }
+    }
 
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number)value).intValue() : 0;
     }
 
     private static boolean isNumeric(String str) {
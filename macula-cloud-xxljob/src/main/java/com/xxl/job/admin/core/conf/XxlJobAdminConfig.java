@@ -8,10 +8,13 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
 import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * xxl-job config
@@ -63,9 +66,45 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Value("${xxl.job.triggerpool.slow.max}")
     private int triggerPoolSlowMax;
 
+    @Value("${xxl.job.triggerpool.inflight.max:2000}")
+    private int triggerInflightMax;
+
+    @Value("${xxl.job.triggerpool.group.max:200}")
+    private int triggerPoolGroupMax;
+
+    @Value("${xxl.job.triggerpool.broadcast.parallel:50}")
+    private int triggerBroadcastParallel;
+
     @Value("${xxl.job.logretentiondays}")
     private int logretentiondays;
 
+    @Value("${xxl.job.alarm.digest.seconds:60}")
+    private int alarmDigestSeconds;
+
+    @Value("${xxl.job.alarm.rate:20}")
+    private int alarmRate;
+
+    @Value("${xxl.job.alarm.webhook.url:}")
+    private String alarmWebhookUrl;
+
+    @Value("${xxl.job.alarm.log.enabled:false}")
+    private boolean alarmLogEnabled;
+
+    @Value("${xxl.job.log.partition:none}")
+    private String logPartition;
+
+    @Value("${xxl.job.log.stream.max:200}")
+    private int logStreamMax;
+
+    @Value("${xxl.job.schedule.mode:lock}")
+    private String scheduleMode;
+
+    @Value("${xxl.job.schedule.slots:64}")
+    private int scheduleSlots;
+
+    @Value("${xxl.job.schedule.startdelay:1000}")
+    private long scheduleStartDelay;
+
     // dao, service
 
     @Resource
@@ -79,11 +118,17 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Resource
     private XxlJobLogReportDao xxlJobLogReportDao;
     @Resource
+    private XxlJobScheduleLeaseDao xxlJobScheduleLeaseDao;
+    @Resource
     private JavaMailSender mailSender;
     @Resource
     private DataSource dataSource;
     @Resource
+    private TransactionTemplate transactionTemplate;
+    @Resource
     private JobAlarmer jobAlarmer;
+    @Resource
+    private XxlJobStartupProfiler startupProfiler;
 
     public String getI18n() {
         if (!Arrays.asList("zh_CN", "zh_TC", "en").contains(i18n)) {
@@ -114,6 +159,27 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return triggerPoolSlowMax;
     }
 
+    public int getTriggerInflightMax() {
+        if (triggerInflightMax < 200) {
+            return 200;
+        }
+        return triggerInflightMax;
+    }
+
+    public int getTriggerBroadcastParallel() {
+        if (triggerBroadcastParallel < 1) {
+            return 1;
+        }
+        return Math.min(triggerBroadcastParallel, getTriggerInflightMax());
+    }
+
+    public int getTriggerPoolGroupMax() {
+        if (triggerPoolGroupMax < 10) {
+            return 10;
+        }
+        return triggerPoolGroupMax;
+    }
+
     public int getLogretentiondays() {
         if (logretentiondays < 7) {
             return -1;  // Limit greater than or equal to 7, otherwise close
@@ -121,6 +187,90 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return logretentiondays;
     }
 
+    public int getAlarmDigestSeconds() {
+        if (alarmDigestSeconds < 0) {
+            return 0;
+        }
+        return alarmDigestSeconds;
+    }
+
+    /**
+     * alarm digests per minute, per sink
+     */
+    public int getAlarmRate() {
+        if (alarmRate < 1) {
+            return 1;
+        }
+        return alarmRate;
+    }
+
+    public List<String> getAlarmWebhookUrls() {
+        List<String> urlList = new ArrayList<String>();
+        if (alarmWebhookUrl != null) {
+            for (String url : alarmWebhookUrl.split(",")) {
+                if (url.trim().length() > 0) {
+                    urlList.add(url.trim());
+                }
+            }
+        }
+        return urlList;
+    }
+
+    public boolean isAlarmLogEnabled() {
+        return alarmLogEnabled;
+    }
+
+    /**
+     * log partition: none (default), day / month (xxl_job_log range partitioned by trigger_time)
+     */
+    public String getLogPartition() {
+        if ("day".equalsIgnoreCase(logPartition)) {
+            return "day";
+        }
+        if ("month".equalsIgnoreCase(logPartition)) {
+            return "month";
+        }
+        return "none";
+    }
+
+    public boolean isLogPartition() {
+        return !"none".equals(getLogPartition());
+    }
+
+    /**
+     * rolling log streams (sse), 0: off, viewer polls
+     */
+    public int getLogStreamMax() {
+        if (logStreamMax < 0) {
+            return 0;
+        }
+        return logStreamMax;
+    }
+
+    /**
+     * schedule mode: lock (default, global schedule_lock), partition (job-id hash slots by lease)
+     */
+    public boolean isSchedulePartition() {
+        return "partition".equalsIgnoreCase(scheduleMode);
+    }
+
+    public int getScheduleSlots() {
+        if (scheduleSlots < 1) {
+            return 64;
+        }
+        return scheduleSlots;
+    }
+
+    /**
+     * first schedule scan after start, ms (0 - 60s)
+     */
+    public long getScheduleStartDelay() {
+        if (scheduleStartDelay < 0) {
+            return 0;
+        }
+        return Math.min(scheduleStartDelay, 60 * 1000L);
+    }
+
     public XxlJobLogDao getXxlJobLogDao() {
         return xxlJobLogDao;
     }
@@ -141,6 +291,10 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return xxlJobLogReportDao;
     }
 
+    public XxlJobScheduleLeaseDao getXxlJobScheduleLeaseDao() {
+        return xxlJobScheduleLeaseDao;
+    }
+
     public JavaMailSender getMailSender() {
         return mailSender;
     }
@@ -149,8 +303,16 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return dataSource;
     }
 
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
     public JobAlarmer getJobAlarmer() {
         return jobAlarmer;
     }
 
+    public XxlJobStartupProfiler getStartupProfiler() {
+        return startupProfiler;
+    }
+
 }
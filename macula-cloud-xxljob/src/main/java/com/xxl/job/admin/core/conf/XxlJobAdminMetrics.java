@@ -0,0 +1,160 @@
+package com.xxl.job.admin.core.conf;
+
+import com.xxl.job.admin.core.alarm.JobAlarmer;
+import com.xxl.job.admin.core.thread.JobCompleteHelper;
+import com.xxl.job.admin.core.thread.JobExecutorHealthHelper;
+import com.xxl.job.admin.core.thread.JobExecutorRpcHelper;
+import com.xxl.job.admin.core.thread.JobFailMonitorHelper;
+import com.xxl.job.admin.core.thread.JobInfoCacheHelper;
+import com.xxl.job.admin.core.thread.JobLogStreamHelper;
+import com.xxl.job.admin.core.thread.JobLogWriteHelper;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
+import com.xxl.job.admin.core.thread.JobScheduleLeaseHelper;
+import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * xxl-job admin metrics, exported by actuator
+ *
+ * @author rain 2026-10-17
+ */
+@Component
+public class XxlJobAdminMetrics implements MeterBinder {
+
+    @Resource
+    private JobAlarmer jobAlarmer;
+    @Resource
+    private XxlJobStartupProfiler startupProfiler;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        // time ring
+        Gauge.builder("xxl.job.timering.size", JobScheduleHelper.getInstance(), JobScheduleHelper::getTimeRingSize)
+            .description("jobs waiting in time ring").register(registry);
+        Gauge.builder("xxl.job.timering.slot.depth.max", JobScheduleHelper.getInstance(),
+            JobScheduleHelper::getTimeRingMaxSlotDepth).description("max jobs in one time ring slot").register(registry);
+
+        // trigger lateness
+        Gauge.builder("xxl.job.trigger.lateness.p99", JobScheduleHelper.getInstance(),
+                helper -> helper.getTriggerLateness().percentile(99)).baseUnit("milliseconds")
+            .description("trigger lateness against planned trigger time, p99").register(registry);
+        Gauge.builder("xxl.job.trigger.lateness.max", JobScheduleHelper.getInstance(),
+                helper -> helper.getTriggerLateness().max()).baseUnit("milliseconds")
+            .description("trigger lateness against planned trigger time, max").register(registry);
+
+        // pre-read, adaptive
+        Gauge.builder("xxl.job.schedule.preread.window", JobScheduleHelper.getInstance(),
+            JobScheduleHelper::getPreReadMs).baseUnit("milliseconds").description("pre-read window").register(registry);
+        Gauge.builder("xxl.job.schedule.preread.count", JobScheduleHelper.getInstance(),
+            JobScheduleHelper::getPreReadCount).description("pre-read batch, jobs per scan").register(registry);
+
+        // schedule lock hold, each scan tx (lock mode: schedule_lock, partition mode: own lease rows)
+        Gauge.builder("xxl.job.schedule.lock.hold.p99", JobScheduleHelper.getInstance(),
+                helper -> helper.getScheduleLockHold().percentile(99)).baseUnit("milliseconds")
+            .description("schedule lock hold time per scan, p99").register(registry);
+        Gauge.builder("xxl.job.schedule.lock.hold.max", JobScheduleHelper.getInstance(),
+                helper -> helper.getScheduleLockHold().max()).baseUnit("milliseconds")
+            .description("schedule lock hold time per scan, max").register(registry);
+
+        // schedule slots, partition mode
+        Gauge.builder("xxl.job.schedule.slots.owned", JobScheduleLeaseHelper.getInstance(),
+            JobScheduleLeaseHelper::getOwnedSlotCount).description("schedule slots owned by this node").register(registry);
+
+        // executor rpc
+        Gauge.builder("xxl.job.trigger.inflight", JobExecutorRpcHelper.getInstance(),
+            JobExecutorRpcHelper::getInflightCount).description("executor rpc in flight").register(registry);
+
+        // trigger pool
+        Gauge.builder("xxl.job.trigger.pool.queue", JobTriggerPoolHelper.getInstance(),
+            JobTriggerPoolHelper::getFastQueueSize).tag("pool", "fast").description("triggers queued in trigger pool")
+            .register(registry);
+        Gauge.builder("xxl.job.trigger.pool.queue", JobTriggerPoolHelper.getInstance(),
+            JobTriggerPoolHelper::getSlowQueueSize).tag("pool", "slow").description("triggers queued in trigger pool")
+            .register(registry);
+        Gauge.builder("xxl.job.trigger.pool.core", JobTriggerPoolHelper.getInstance(),
+            JobTriggerPoolHelper::getFastCoreSize).tag("pool", "fast").description("trigger pool core size, adaptive")
+            .register(registry);
+        Gauge.builder("xxl.job.trigger.pool.core", JobTriggerPoolHelper.getInstance(),
+            JobTriggerPoolHelper::getSlowCoreSize).tag("pool", "slow").description("trigger pool core size, adaptive")
+            .register(registry);
+        Gauge.builder("xxl.job.trigger.group.pending", JobTriggerPoolHelper.getInstance(),
+                JobTriggerPoolHelper::getGroupPendingCount)
+            .description("triggers waiting in executor group queue, group in flight limit reached").register(registry);
+        FunctionCounter.builder("xxl.job.trigger.rejected", JobTriggerPoolHelper.getInstance(),
+                JobTriggerPoolHelper::getRejectedCount)
+            .description("triggers rejected, group queue full (group bulkhead full)").register(registry);
+
+        // trigger cost per job, slowest jobs only
+        final MultiGauge jobLatency = MultiGauge.builder("xxl.job.trigger.job.latency.p99").baseUnit("milliseconds")
+            .description("trigger cost per job include executor rpc, p99, slowest jobs").register(registry);
+        JobTriggerPoolHelper.getInstance().addLatencyListener(new JobTriggerPoolHelper.JobLatencyListener() {
+            @Override
+            public void onRefresh(Map<Integer, Long> jobLatencyP99) {
+                List<MultiGauge.Row<?>> rows = new ArrayList<MultiGauge.Row<?>>();
+                for (Map.Entry<Integer, Long> item : jobLatencyP99.entrySet()) {
+                    rows.add(MultiGauge.Row.of(Tags.of("jobId", String.valueOf(item.getKey())), item.getValue()));
+                }
+                jobLatency.register(rows, true);
+            }
+        });
+
+        // job log write
+        Gauge.builder("xxl.job.log.write.pending", JobLogWriteHelper.getInstance(),
+            JobLogWriteHelper::getPendingCount).description("job log writes waiting for group commit").register(registry);
+
+        // callback
+        Gauge.builder("xxl.job.callback.pending", JobCompleteHelper.getInstance(),
+                JobCompleteHelper::getCallbackPendingCount)
+            .description("executor callbacks waiting for batch handle update").register(registry);
+        Gauge.builder("xxl.job.running.logs", JobCompleteHelper.getInstance(), JobCompleteHelper::getRunningCount)
+            .description("logs running on executors, tracked in memory for lost detection").register(registry);
+
+        // rolling log stream
+        Gauge.builder("xxl.job.log.streams", JobLogStreamHelper.getInstance(), JobLogStreamHelper::getStreamCount)
+            .description("open rolling log streams").register(registry);
+
+        // registry
+        Gauge.builder("xxl.job.registry.address.size", JobRegistryHelper.getInstance(),
+            JobRegistryHelper::getAddressCount).description("executor address in registry address book").register(registry);
+
+        // executor health
+        Gauge.builder("xxl.job.executor.health.size", JobExecutorHealthHelper.getInstance(),
+            JobExecutorHealthHelper::getHealthTableSize).description("executor address in health table").register(registry);
+
+        // fail alarm
+        Gauge.builder("xxl.job.alarm.pending", JobFailMonitorHelper.getInstance(),
+                JobFailMonitorHelper::getAlarmPendingCount)
+            .description("fail logs waiting for the alarm window of their job").register(registry);
+
+        Gauge.builder("xxl.job.alarm.queue", jobAlarmer, JobAlarmer::getQueueSize)
+            .description("alarms waiting for digest").register(registry);
+        FunctionCounter.builder("xxl.job.alarm.dropped", jobAlarmer, JobAlarmer::getDroppedCount)
+            .description("alarms dropped, alarm queue full").register(registry);
+        FunctionCounter.builder("xxl.job.alarm.send.fail", jobAlarmer, JobAlarmer::getSendFailCount)
+            .description("alarms the sink failed to send").register(registry);
+
+        // job cache
+        Gauge.builder("xxl.job.cache.jobinfo.size", JobInfoCacheHelper.getInstance(),
+            JobInfoCacheHelper::getJobInfoCacheSize).description("cached job info").register(registry);
+        Gauge.builder("xxl.job.cache.jobgroup.size", JobInfoCacheHelper.getInstance(),
+            JobInfoCacheHelper::getJobGroupCacheSize).description("cached job group").register(registry);
+
+        // startup
+        Gauge.builder("xxl.job.startup.first.schedule", startupProfiler, XxlJobStartupProfiler::getFirstScheduleTime)
+            .baseUnit("milliseconds").description("jvm start to first schedule scan, -1 before").register(registry);
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.xxl.job.admin.core.conf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * admin startup profile, "xxl.job.startup.profile=true"
+ *
+ * <pre>
+ *     a、bean init: afterPropertiesSet / init-method time per bean (nested beans included), classes loaded meanwhile；
+ *     b、scheduler: start time per helper of XxlJobScheduler.init；
+ *     c、milestone: jvm start to context ready and to first schedule scan, classes loaded at each；
+ *     d、report: logged once on first schedule, slowest beans only; first schedule awaitable even if profile off；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+@Component
+public class XxlJobStartupProfiler implements BeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+    private static Logger logger = LoggerFactory.getLogger(XxlJobStartupProfiler.class);
+
+    private static final int REPORT_BEAN_MAX = 20;
+    private static final long REPORT_BEAN_MIN_MS = 1;
+
+    private final boolean enabled;
+    private final long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+    private final ConcurrentHashMap<String, long[]> beanInitStart = new ConcurrentHashMap<String, long[]>();
+    private final List<Step> beanInitList = new CopyOnWriteArrayList<Step>();
+    private final List<Step> schedulerStepList = new CopyOnWriteArrayList<Step>();
+    private volatile long schedulerStepTime;
+
+    private volatile long readyTime = -1;
+    private volatile long readyClassCount;
+    private volatile long firstScheduleTime = -1;
+    private final CountDownLatch firstSchedule = new CountDownLatch(1);
+
+    public XxlJobStartupProfiler(@Value("${xxl.job.startup.profile:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ---------------------- bean init ----------------------
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (enabled) {
+            beanInitStart.put(beanName, new long[] {System.nanoTime(), classLoading.getTotalLoadedClassCount()});
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (enabled) {
+            long[] start = beanInitStart.remove(beanName);
+            if (start != null) {
+                long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start[0]);
+                if (cost >= REPORT_BEAN_MIN_MS) {
+                    beanInitList.add(new Step(beanName, cost, classLoading.getTotalLoadedClassCount() - start[1]));
+                }
+            }
+        }
+        return bean;
+    }
+
+    // ---------------------- scheduler ----------------------
+
+    /**
+     * scheduler start begin
+     */
+    public void schedulerStart() {
+        schedulerStepTime = System.nanoTime();
+    }
+
+    /**
+     * scheduler step done, cost from the last step
+     *
+     * @param name helper started
+     */
+    public void schedulerStep(String name) {
+        if (!enabled) {
+            return;
+        }
+        long nowTime = System.nanoTime();
+        schedulerStepList.add(new Step(name, TimeUnit.NANOSECONDS.toMillis(nowTime - schedulerStepTime), 0));
+        schedulerStepTime = nowTime;
+    }
+
+    // ---------------------- milestone ----------------------
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        readyTime = System.currentTimeMillis() - jvmStartTime;
+        readyClassCount = classLoading.getTotalLoadedClassCount();
+    }
+
+    /**
+     * schedule scan done, the first one reported
+     */
+    public void scheduled() {
+        if (firstScheduleTime >= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (firstScheduleTime >= 0) {
+                return;
+            }
+            firstScheduleTime = System.currentTimeMillis() - jvmStartTime;
+        }
+        firstSchedule.countDown();
+
+        if (enabled) {
+            report();
+        }
+    }
+
+    /**
+     * wait first schedule scan
+     *
+     * @return ms from jvm start to first schedule, -1 if timeout
+     */
+    public long awaitFirstSchedule(long timeout, TimeUnit unit) throws InterruptedException {
+        firstSchedule.await(timeout, unit);
+        return firstScheduleTime;
+    }
+
+    /**
+     * ms from jvm start to first schedule, -1 before
+     */
+    public long getFirstScheduleTime() {
+        return firstScheduleTime;
+    }
+
+    // ---------------------- report ----------------------
+
+    private void report() {
+        logger.info(">>>>>>>>>>> xxl-job, startup profile, jvm start to context ready:{}ms, to first schedule:{}ms, "
+                + "classes loaded at ready:{}, at first schedule:{}", readyTime, firstScheduleTime, readyClassCount,
+            classLoading.getTotalLoadedClassCount());
+
+        for (Step step : schedulerStepList) {
+            logger.info(">>>>>>>>>>> xxl-job, startup profile, scheduler start {}:{}ms", step.name, step.cost);
+        }
+
+        for (Step step : getBeanInitList()) {
+            logger.info(">>>>>>>>>>> xxl-job, startup profile, bean init {}:{}ms, classes loaded:{}", step.name,
+                step.cost, step.classCount);
+        }
+    }
+
+    /**
+     * slowest bean init, at most REPORT_BEAN_MAX
+     */
+    List<Step> getBeanInitList() {
+        List<Step> stepList = new ArrayList<Step>(beanInitList);
+        Collections.sort(stepList, new Comparator<Step>() {
+            @Override
+            public int compare(Step o1, Step o2) {
+                return Long.compare(o2.cost, o1.cost);
+            }
+        });
+        return stepList.size() > REPORT_BEAN_MAX ? stepList.subList(0, REPORT_BEAN_MAX) : stepList;
+    }
+
+    List<Step> getSchedulerStepList() {
+        return schedulerStepList;
+    }
+
+    static class Step {
+        final String name;
+        final long cost;
+        final long classCount;
+
+        Step(String name, long cost, long classCount) {
+            this.name = name;
+            this.cost = cost;
+            this.classCount = classCount;
+        }
+    }
+
+}
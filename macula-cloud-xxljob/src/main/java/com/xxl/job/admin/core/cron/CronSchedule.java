@@ -0,0 +1,332 @@
+package com.xxl.job.admin.core.cron;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+/**
+ * compiled cron expression, next fire time without Calendar
+ *
+ * <pre>
+ *     a、fields are parsed by CronExpression, then stored as bitmasks (second/minute/hour/day/month/week)；
+ *     b、next fire time is computed on epoch seconds with civil date math, no allocation on the hot path；
+ *     c、fallback to CronExpression for "L/W/#" and results crossing a DST transition, keep the same semantics；
+ *     d、compiled schedules are cached by expression string, bounded LRU；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public final class CronSchedule {
+
+    private static final int CACHE_MAX = 10000;
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private static final Map<String, CronSchedule> cache =
+        new LinkedHashMap<String, CronSchedule>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CronSchedule> eldest) {
+                return size() > CACHE_MAX;
+            }
+        };
+
+    /**
+     * load compiled schedule from cache, compile if absent
+     *
+     * @param cronExpression
+     * @return compiled schedule
+     * @throws ParseException invalid expression, not cached
+     */
+    public static CronSchedule of(String cronExpression) throws ParseException {
+        synchronized (cache) {
+            CronSchedule schedule = cache.get(cronExpression);
+            if (schedule != null) {
+                return schedule;
+            }
+        }
+
+        CronSchedule schedule = new CronSchedule(new CronExpression(cronExpression));
+        synchronized (cache) {
+            cache.put(cronExpression, schedule);
+        }
+        return schedule;
+    }
+
+    public static int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    // ---------------------- schedule ----------------------
+
+    private final CronExpression expression;
+    private final boolean fallback;             // L/W/#, use CronExpression
+
+    private final long secondMask;              // bit 0-59
+    private final long minuteMask;              // bit 0-59
+    private final long hourMask;                // bit 0-23
+    private final long dayOfMonthMask;          // bit 1-31
+    private final long monthMask;               // bit 1-12
+    private final long dayOfWeekMask;           // bit 1-7, 1 = SUN
+    private final boolean dayOfMonthRule;       // day by day-of-month, otherwise by day-of-week
+    private final int[] years;                  // sorted
+
+    private final TimeZone timeZone;
+    private final ZoneRules zoneRules;
+    private volatile OffsetWindow offsetWindow;
+
+    public CronSchedule(CronExpression expression) {
+        this.expression = expression;
+        this.fallback = expression.lastdayOfWeek || expression.nthdayOfWeek != 0 || expression.lastdayOfMonth
+            || expression.nearestWeekday;
+
+        this.secondMask = mask(expression.seconds, 60);
+        this.minuteMask = mask(expression.minutes, 60);
+        this.hourMask = mask(expression.hours, 24);
+        this.dayOfMonthMask = mask(expression.daysOfMonth, 32);
+        this.monthMask = mask(expression.months, 13);
+        this.dayOfWeekMask = mask(expression.daysOfWeek, 8);
+        this.dayOfMonthRule = !expression.daysOfMonth.contains(CronExpression.NO_SPEC);
+
+        this.years = new int[expression.years.size()];
+        int i = 0;
+        for (Integer year : expression.years) {
+            years[i++] = year;
+        }
+
+        this.timeZone = expression.getTimeZone();
+        this.zoneRules = timeZone.toZoneId().getRules();
+    }
+
+    public String getCronExpression() {
+        return expression.getCronExpression();
+    }
+
+    /**
+     * next fire time after the given time, same as CronExpression#getNextValidTimeAfter
+     *
+     * @param after
+     * @return next fire time, null if none
+     */
+    public Date getNextValidTimeAfter(Date after) {
+        long next = nextTime(after.getTime());
+        return next >= 0 ? new Date(next) : null;
+    }
+
+    /**
+     * next fire time after the given time, ms
+     *
+     * @param after
+     * @return next fire time, -1 if none
+     */
+    public long nextTime(long after) {
+        if (fallback) {
+            return fallbackNextTime(after);
+        }
+
+        // second precision, start from the next second; local time on fixed offset
+        long start = after + 1000;
+        OffsetWindow window = offsetWindow(start);
+        long localSecond = Math.floorDiv(start + window.offset, 1000);
+
+        while (true) {
+            long days = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+            int secondOfDay = (int)(localSecond - days * SECONDS_PER_DAY);
+
+            // civil date from days, 1970-01-01 = 0
+            long z = days + 719468;
+            long era = Math.floorDiv(z, 146097);
+            int dayOfEra = (int)(z - era * 146097);
+            int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+            int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            int mp = (5 * dayOfYear + 2) / 153;
+            int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+            int month = mp < 10 ? mp + 3 : mp - 9;
+            int year = (int)(era * 400 + yearOfEra) + (month <= 2 ? 1 : 0);
+
+            // year
+            if (year > CronExpression.MAX_YEAR) {
+                return -1;
+            }
+            int nextYear = nextYear(year);
+            if (nextYear < 0) {
+                return -1;
+            }
+            if (nextYear != year) {
+                localSecond = daysFromCivil(nextYear, 1, 1) * SECONDS_PER_DAY;
+                continue;
+            }
+
+            // month
+            int nextMonth = nextBit(monthMask, month);
+            if (nextMonth < 0) {
+                localSecond = daysFromCivil(year + 1, 1, 1) * SECONDS_PER_DAY;
+                continue;
+            }
+            if (nextMonth != month) {
+                localSecond = daysFromCivil(year, nextMonth, 1) * SECONDS_PER_DAY;
+                continue;
+            }
+
+            // day
+            int lastDay = lastDayOfMonth(year, month);
+            int nextDay;
+            if (dayOfMonthRule) {
+                nextDay = nextBit(dayOfMonthMask, day);
+            } else {
+                int dayOfWeek = (int)Math.floorMod(days + 4, 7) + 1;      // 1970-01-01 is THU(5)
+                int nextDayOfWeek = nextBit(dayOfWeekMask, dayOfWeek);
+                if (nextDayOfWeek < 0) {
+                    nextDayOfWeek = nextBit(dayOfWeekMask, 1) + 7;
+                }
+                nextDay = day + nextDayOfWeek - dayOfWeek;
+            }
+            if (nextDay < 0 || nextDay > lastDay) {
+                localSecond = (days - day + lastDay + 1) * SECONDS_PER_DAY;
+                continue;
+            }
+            if (nextDay != day) {
+                localSecond = (days + nextDay - day) * SECONDS_PER_DAY;
+                continue;
+            }
+
+            // hour
+            int hour = secondOfDay / 3600;
+            int nextHour = nextBit(hourMask, hour);
+            if (nextHour < 0) {
+                localSecond = (days + 1) * SECONDS_PER_DAY;
+                continue;
+            }
+            if (nextHour != hour) {
+                localSecond = days * SECONDS_PER_DAY + nextHour * 3600;
+                continue;
+            }
+
+            // minute
+            int minute = secondOfDay % 3600 / 60;
+            int nextMinute = nextBit(minuteMask, minute);
+            if (nextMinute < 0) {
+                localSecond = days * SECONDS_PER_DAY + (hour + 1) * 3600;
+                continue;
+            }
+            if (nextMinute != minute) {
+                localSecond = days * SECONDS_PER_DAY + hour * 3600 + nextMinute * 60;
+                continue;
+            }
+
+            // second
+            int second = secondOfDay % 60;
+            int nextSecond = nextBit(secondMask, second);
+            if (nextSecond < 0) {
+                localSecond = days * SECONDS_PER_DAY + hour * 3600 + (minute + 1) * 60;
+                continue;
+            }
+
+            long nextTime = (days * SECONDS_PER_DAY + hour * 3600 + minute * 60 + nextSecond) * 1000 - window.offset;
+            if (nextTime >= window.end || nextTime + window.offset - window.nextOffset >= window.end) {
+                // cross DST transition, or ambiguous local time before it
+                return fallbackNextTime(after);
+            }
+            return nextTime;
+        }
+    }
+
+    private long fallbackNextTime(long after) {
+        Date next = expression.getNextValidTimeAfter(new Date(after));
+        return next != null ? next.getTime() : -1;
+    }
+
+    private int nextYear(int year) {
+        int index = Arrays.binarySearch(years, year);
+        if (index >= 0) {
+            return year;
+        }
+        index = -index - 1;
+        return index < years.length ? years[index] : -1;
+    }
+
+    /**
+     * offset window without DST transition, refreshed when time moves out
+     */
+    private OffsetWindow offsetWindow(long time) {
+        OffsetWindow window = offsetWindow;
+        if (window == null || time < window.start || time >= window.end) {
+            ZoneOffsetTransition previous = zoneRules.previousTransition(Instant.ofEpochMilli(time + 1));
+            ZoneOffsetTransition next = zoneRules.nextTransition(Instant.ofEpochMilli(time));
+            long offset = timeZone.getOffset(time);
+            window = new OffsetWindow(previous != null ? previous.toEpochSecond() * 1000 : Long.MIN_VALUE,
+                next != null ? next.toEpochSecond() * 1000 : Long.MAX_VALUE, offset,
+                next != null ? next.getOffsetAfter().getTotalSeconds() * 1000L : offset);
+            offsetWindow = window;
+        }
+        return window;
+    }
+
+    private static class OffsetWindow {
+        private final long start;
+        private final long end;
+        private final long offset;
+        private final long nextOffset;      // offset after end
+
+        public OffsetWindow(long start, long end, long offset, long nextOffset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+            this.nextOffset = nextOffset;
+        }
+    }
+
+    // ---------------------- tools ----------------------
+
+    private static long mask(TreeSet<Integer> values, int limit) {
+        long mask = 0;
+        for (Integer value : values) {
+            if (value >= 0 && value < limit) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * lowest set bit >= from, -1 if none
+     */
+    private static int nextBit(long mask, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long bits = mask & (-1L << from);
+        return bits != 0 ? Long.numberOfTrailingZeros(bits) : -1;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = Math.floorDiv(year, 400);
+        int yearOfEra = (int)(year - era * 400);
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lastDayOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+}
@@ -1,9 +1,11 @@
 package com.xxl.job.admin.core.model;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created by xuxueli on 16/9/30.
@@ -16,14 +18,17 @@ public class XxlJobGroup {
     private int addressType;        // 执行器地址类型：0=自动注册、1=手动录入
     private String addressList;     // 执行器地址列表，多地址逗号分隔(手动录入)
     private Date updateTime;
+    private long version;           // 版本号，每次更新递增
 
     // registry list
-    private List<String> registryList;  // 执行器地址列表(系统注册)
+    private List<String> registryList;  // 执行器地址列表(系统注册)，不可修改，由 addressList 解析
 
+    /**
+     * parsed address list, immutable, shared by groups (and copies) with the same address list
+     *
+     * @return null if address list is empty
+     */
     public List<String> getRegistryList() {
-        if (addressList != null && addressList.trim().length() > 0) {
-            registryList = new ArrayList<String>(Arrays.asList(addressList.split(",")));
-        }
         return registryList;
     }
 
@@ -71,8 +76,38 @@ public class XxlJobGroup {
         this.updateTime = updateTime;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public void setAddressList(String addressList) {
         this.addressList = addressList;
+        this.registryList = parseAddressList(addressList);
+    }
+
+    // ---------------------- parse ----------------------
+
+    private static final int PARSED_CACHE_MAX = 1024;
+    private static final ConcurrentMap<String, List<String>> parsedCache = new ConcurrentHashMap<String, List<String>>();
+
+    private static List<String> parseAddressList(String addressList) {
+        if (addressList == null || addressList.trim().length() == 0) {
+            return null;
+        }
+
+        List<String> registryList = parsedCache.get(addressList);
+        if (registryList == null) {
+            registryList = Collections.unmodifiableList(Arrays.asList(addressList.split(",")));
+            if (parsedCache.size() >= PARSED_CACHE_MAX) {
+                parsedCache.clear();
+            }
+            parsedCache.put(addressList, registryList);
+        }
+        return registryList;
     }
 
 }
@@ -16,6 +16,7 @@ public class XxlJobInfo {
 
     private Date addTime;
     private Date updateTime;
+    private long version;        // 版本号，每次更新递增
 
     private String author;        // 负责人
     private String alarmEmail;    // 报警邮件
@@ -82,6 +83,14 @@ public class XxlJobInfo {
         this.updateTime = updateTime;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getAuthor() {
         return author;
     }
@@ -9,7 +9,10 @@ import java.util.Date;
  */
 public class XxlJobLog {
 
+    public static final long PARENT_BROADCAST = -1;     // parent id of broadcast log, shards point to it
+
     private long id;
+    private long parentId;      // 0: plain log; -1: broadcast log; >0: shard of broadcast log
 
     // job info
     private int jobGroup;
@@ -43,6 +46,14 @@ public class XxlJobLog {
         this.id = id;
     }
 
+    public long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(long parentId) {
+        this.parentId = parentId;
+    }
+
     public int getJobGroup() {
         return jobGroup;
     }
@@ -0,0 +1,77 @@
+package com.xxl.job.admin.core.model;
+
+import java.util.Date;
+
+/**
+ * job log report, per job per hour
+ *
+ * @author rain 2026-10-17
+ */
+public class XxlJobLogReportHour {
+
+    private int id;
+
+    private int jobId;
+    private Date triggerHour;
+
+    private int runningCount;
+    private int sucCount;
+    private int failCount;
+    private Date updateTime;    // from job log: last trigger / handle time of the logs
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(int jobId) {
+        this.jobId = jobId;
+    }
+
+    public Date getTriggerHour() {
+        return triggerHour;
+    }
+
+    public void setTriggerHour(Date triggerHour) {
+        this.triggerHour = triggerHour;
+    }
+
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    public void setRunningCount(int runningCount) {
+        this.runningCount = runningCount;
+    }
+
+    public int getSucCount() {
+        return sucCount;
+    }
+
+    public void setSucCount(int sucCount) {
+        this.sucCount = sucCount;
+    }
+
+    public int getFailCount() {
+        return failCount;
+    }
+
+    public void setFailCount(int failCount) {
+        this.failCount = failCount;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,47 @@
+package com.xxl.job.admin.core.model;
+
+/**
+ * schedule slot lease, partition schedule mode
+ *
+ * @author rain 2026-10-17
+ */
+public class XxlJobScheduleLease {
+
+    private int slot;                 // job-id hash slot, id % slot-total
+    private String owner;             // admin node id, empty when free
+    private long fencingToken;        // increase on each claim
+    private long leaseExpire;         // lease expire time, ms
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+
+    public long getLeaseExpire() {
+        return leaseExpire;
+    }
+
+    public void setLeaseExpire(long leaseExpire) {
+        this.leaseExpire = leaseExpire;
+    }
+
+}
@@ -21,4 +21,23 @@ public abstract class ExecutorRouter {
      */
     public abstract ReturnT<String> route(TriggerParam triggerParam, List<String> addressList);
 
+    /**
+     * address list of executor group changed, router state of removed address can be dropped
+     *
+     * @param appname
+     * @param addressList new address list, sorted
+     */
+    public void onAddressChange(String appname, List<String> addressList) {
+        // default: no state by address
+    }
+
+    /**
+     * job removed, router state of the job can be dropped
+     *
+     * @param jobId
+     */
+    public void onJobRemove(int jobId) {
+        // default: no state by job
+    }
+
 }
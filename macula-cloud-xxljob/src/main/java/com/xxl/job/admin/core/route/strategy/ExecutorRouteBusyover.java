@@ -1,10 +1,8 @@
 package com.xxl.job.admin.core.route.strategy;
 
-import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.admin.core.thread.JobExecutorHealthHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
-import com.xxl.job.core.biz.ExecutorBiz;
-import com.xxl.job.core.biz.model.IdleBeatParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
@@ -17,17 +15,14 @@ public class ExecutorRouteBusyover extends ExecutorRouter {
 
     @Override
     public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        // idle beat in parallel, first idle address in list order
+        List<ReturnT<String>> idleBeatResultList =
+            JobExecutorHealthHelper.getInstance().idleBeat(addressList, triggerParam.getJobId());
+
         StringBuffer idleBeatResultSB = new StringBuffer();
-        for (String address : addressList) {
-            // beat
-            ReturnT<String> idleBeatResult = null;
-            try {
-                ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
-                idleBeatResult = executorBiz.idleBeat(new IdleBeatParam(triggerParam.getJobId()));
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-                idleBeatResult = new ReturnT<String>(ReturnT.FAIL_CODE, "" + e);
-            }
+        for (int i = 0; i < addressList.size(); i++) {
+            String address = addressList.get(i);
+            ReturnT<String> idleBeatResult = idleBeatResultList.get(i);
             idleBeatResultSB.append((idleBeatResultSB.length() > 0) ? "<br><br>" : "")
                 .append(I18nUtil.getString("jobconf_idleBeat") + "：").append("<br>address：").append(address)
                 .append("<br>code：").append(idleBeatResult.getCode()).append("<br>msg：")
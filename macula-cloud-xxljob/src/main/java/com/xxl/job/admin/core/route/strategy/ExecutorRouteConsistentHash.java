@@ -7,17 +7,28 @@ import com.xxl.job.core.biz.model.TriggerParam;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 分组下机器地址相同，不同JOB均匀散列在不同机器上，保证分组下机器分配JOB平均；且每个JOB固定调度其中一台机器； a、virtual node：解决不均衡问题 b、hash method replace
  * hashCode：String的hashCode可能重复，需要进一步扩大hashCode的取值范围 Created by xuxueli on 17/3/10.
+ *
+ * <pre>
+ *     hash ring: built once per distinct address list, cached as sorted long[]，binary search on route；
+ *     job hash: cached per jobId；
+ * </pre>
  */
 public class ExecutorRouteConsistentHash extends ExecutorRouter {
 
     private static int VIRTUAL_NODE_NUM = 100;
+    private static final int RING_CACHE_MAX = 1024;
+
+    // address list -> ring; keyed by an unmodifiable copy, lookup by list equals (group address lists equal in content)
+    private static ConcurrentMap<List<String>, AddressRing> ringCache =
+        new ConcurrentHashMap<List<String>, AddressRing>();
+    private static ConcurrentMap<Integer, Long> jobHashCache = new ConcurrentHashMap<Integer, Long>();
 
     /**
      * get hash code on 2^32 ring (md5散列的方式计算hash值)
@@ -57,20 +68,21 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
 
         // ------A1------A2-------A3------
         // -----------J1------------------
-        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
-        for (String address : addressList) {
-            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
-                long addressHash = hash("SHARD-" + address + "-NODE-" + i);
-                addressRing.put(addressHash, address);
+        AddressRing addressRing = ringCache.get(addressList);
+        if (addressRing == null) {
+            addressRing = new AddressRing(addressList);
+            if (ringCache.size() >= RING_CACHE_MAX) {
+                ringCache.clear();
             }
+            ringCache.put(Collections.unmodifiableList(new ArrayList<String>(addressList)), addressRing);
         }
 
-        long jobHash = hash(String.valueOf(jobId));
-        SortedMap<Long, String> lastRing = addressRing.tailMap(jobHash);
-        if (!lastRing.isEmpty()) {
-            return lastRing.get(lastRing.firstKey());
+        Long jobHash = jobHashCache.get(jobId);
+        if (jobHash == null) {
+            jobHash = hash(String.valueOf(jobId));
+            jobHashCache.put(jobId, jobHash);
         }
-        return addressRing.firstEntry().getValue();
+        return addressRing.locate(jobHash);
     }
 
     @Override
@@ -79,4 +91,54 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+    @Override
+    public void onAddressChange(String appname, List<String> addressList) {
+        // rings of old address list will not be used again
+        ringCache.clear();
+    }
+
+    @Override
+    public void onJobRemove(int jobId) {
+        jobHashCache.remove(jobId);
+    }
+
+    /**
+     * virtual node ring of one address list, immutable
+     */
+    private static class AddressRing {
+        private final long[] hashes;        // sorted
+        private final String[] addresses;
+
+        public AddressRing(List<String> addressList) {
+            // same node order as before: later address wins on hash collision
+            TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
+            for (String address : addressList) {
+                for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
+                    long addressHash = hash("SHARD-" + address + "-NODE-" + i);
+                    addressRing.put(addressHash, address);
+                }
+            }
+
+            hashes = new long[addressRing.size()];
+            addresses = new String[addressRing.size()];
+            int index = 0;
+            for (Map.Entry<Long, String> item : addressRing.entrySet()) {
+                hashes[index] = item.getKey();
+                addresses[index] = item.getValue();
+                index++;
+            }
+        }
+
+        /**
+         * first node clockwise from hash (hash included)
+         */
+        public String locate(long hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return addresses[index < hashes.length ? index : 0];
+        }
+    }
+
 }
@@ -1,12 +1,12 @@
 package com.xxl.job.admin.core.route.strategy;
 
-import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.admin.core.thread.JobExecutorHealthHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
-import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,18 +16,28 @@ public class ExecutorRouteFailover extends ExecutorRouter {
 
     @Override
     public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        JobExecutorHealthHelper healthHelper = JobExecutorHealthHelper.getInstance();
+
+        // first alive address in cached health, addresses before it beat in parallel
+        int aliveIndex = 0;
+        ReturnT<String> aliveBeatResult = null;
+        for (; aliveIndex < addressList.size(); aliveIndex++) {
+            ReturnT<String> cachedBeatResult = healthHelper.cachedBeat(addressList.get(aliveIndex));
+            if (cachedBeatResult != null && cachedBeatResult.getCode() == ReturnT.SUCCESS_CODE) {
+                aliveBeatResult = cachedBeatResult;
+                break;
+            }
+        }
+        List<ReturnT<String>> beatResultList = aliveIndex > 0
+            ? healthHelper.beat(addressList.subList(0, aliveIndex)) : new ArrayList<ReturnT<String>>();
+        if (aliveBeatResult != null) {
+            beatResultList.add(aliveBeatResult);
+        }
 
         StringBuffer beatResultSB = new StringBuffer();
-        for (String address : addressList) {
-            // beat
-            ReturnT<String> beatResult = null;
-            try {
-                ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
-                beatResult = executorBiz.beat();
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-                beatResult = new ReturnT<String>(ReturnT.FAIL_CODE, "" + e);
-            }
+        for (int i = 0; i < beatResultList.size(); i++) {
+            String address = addressList.get(i);
+            ReturnT<String> beatResult = beatResultList.get(i);
             beatResultSB.append((beatResultSB.length() > 0) ? "<br><br>" : "")
                 .append(I18nUtil.getString("jobconf_beat") + "：").append("<br>address：").append(address)
                 .append("<br>code：").append(beatResult.getCode()).append("<br>msg：").append(beatResult.getMsg());
@@ -4,70 +4,80 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.*;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 单个JOB对应的每个执行器，使用频率最低的优先被选举 a(*)、LFU(Least Frequently Used)：最不经常使用，频率/次数 b、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ * <pre>
+ *     每个地址一个原子计数，线性扫描取最小值，CAS 递增，无锁、无排序、不定期清空；计数过大时整体重置；
+ * </pre>
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLFU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, HashMap<String, Integer>> jobLfuMap =
-        new ConcurrentHashMap<Integer, HashMap<String, Integer>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static final int COUNT_RESET = 1000000;
 
-    public String route(int jobId, List<String> addressList) {
+    private static ConcurrentMap<Integer, ConcurrentMap<String, AtomicInteger>> jobLfuMap =
+        new ConcurrentHashMap<Integer, ConcurrentMap<String, AtomicInteger>>();
 
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            jobLfuMap.clear();
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000 * 60 * 60 * 24;
-        }
+    public String route(int jobId, List<String> addressList) {
 
         // lfu item init
-        HashMap<String, Integer> lfuItemMap =
-            jobLfuMap.get(jobId);     // Key排序可以用TreeMap+构造入参Compare；Value排序暂时只能通过ArrayList；
+        ConcurrentMap<String, AtomicInteger> lfuItemMap = jobLfuMap.get(jobId);
         if (lfuItemMap == null) {
-            lfuItemMap = new HashMap<String, Integer>();
-            jobLfuMap.putIfAbsent(jobId, lfuItemMap);   // 避免重复覆盖
-        }
-
-        // put new
-        for (String address : addressList) {
-            if (!lfuItemMap.containsKey(address) || lfuItemMap.get(address) > 1000000) {
-                lfuItemMap.put(address, new Random().nextInt(addressList.size()));  // 初始化时主动Random一次，缓解首次压力
+            ConcurrentMap<String, AtomicInteger> newItemMap = new ConcurrentHashMap<String, AtomicInteger>();
+            lfuItemMap = jobLfuMap.putIfAbsent(jobId, newItemMap);   // 避免重复覆盖
+            if (lfuItemMap == null) {
+                lfuItemMap = newItemMap;
             }
         }
+
         // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey : lfuItemMap.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
-            }
-        }
-        if (delKeys.size() > 0) {
-            for (String delKey : delKeys) {
-                lfuItemMap.remove(delKey);
-            }
+        if (lfuItemMap.size() > addressList.size()) {
+            lfuItemMap.keySet().retainAll(new HashSet<String>(addressList));
         }
 
-        // load least userd count address
-        List<Map.Entry<String, Integer>> lfuItemList = new ArrayList<Map.Entry<String, Integer>>(lfuItemMap.entrySet());
-        Collections.sort(lfuItemList, new Comparator<Map.Entry<String, Integer>>() {
-            @Override
-            public int compare(Map.Entry<String, Integer> o1, Map.Entry<String, Integer> o2) {
-                return o1.getValue().compareTo(o2.getValue());
+        while (true) {
+            // load least used count address
+            String minAddress = null;
+            AtomicInteger minCount = null;
+            int minValue = Integer.MAX_VALUE;
+            for (String address : addressList) {
+                AtomicInteger count = lfuItemMap.get(address);
+                if (count == null) {
+                    // 初始化时主动Random一次，缓解首次压力
+                    AtomicInteger newCount = new AtomicInteger(ThreadLocalRandom.current().nextInt(addressList.size()));
+                    count = lfuItemMap.putIfAbsent(address, newCount);
+                    if (count == null) {
+                        count = newCount;
+                    }
+                }
+                int value = count.get();
+                if (value < minValue) {
+                    minAddress = address;
+                    minCount = count;
+                    minValue = value;
+                }
             }
-        });
 
-        Map.Entry<String, Integer> addressItem = lfuItemList.get(0);
-        String minAddress = addressItem.getKey();
-        addressItem.setValue(addressItem.getValue() + 1);
+            // count too large: reset all, relative order restarts from random
+            if (minValue > COUNT_RESET) {
+                lfuItemMap.clear();
+                continue;
+            }
 
-        return addressItem.getKey();
+            // used by another trigger meanwhile: select again
+            if (minCount.compareAndSet(minValue, minValue + 1)) {
+                return minAddress;
+            }
+        }
     }
 
     @Override
@@ -76,4 +86,9 @@ public class ExecutorRouteLFU extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+    @Override
+    public void onJobRemove(int jobId) {
+        jobLfuMap.remove(jobId);
+    }
+
 }
@@ -4,66 +4,71 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 单个JOB对应的每个执行器，最久为使用的优先被选举 a、LFU(Least Frequently Used)：最不经常使用，频率/次数 b(*)、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ * <pre>
+ *     每个地址记录最近使用序号，选择序号最小（从未使用为0）的地址，CAS 更新序号，无锁、无排序、不定期清空；
+ * </pre>
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLRU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, LinkedHashMap<String, String>> jobLRUMap =
-        new ConcurrentHashMap<Integer, LinkedHashMap<String, String>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, ConcurrentMap<String, AtomicLong>> jobLRUMap =
+        new ConcurrentHashMap<Integer, ConcurrentMap<String, AtomicLong>>();
+    private static AtomicLong useSequence = new AtomicLong();
 
     public String route(int jobId, List<String> addressList) {
 
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            jobLRUMap.clear();
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000 * 60 * 60 * 24;
-        }
-
         // init lru
-        LinkedHashMap<String, String> lruItem = jobLRUMap.get(jobId);
+        ConcurrentMap<String, AtomicLong> lruItem = jobLRUMap.get(jobId);
         if (lruItem == null) {
-            /**
-             * LinkedHashMap
-             *      a、accessOrder：true=访问顺序排序（get/put时排序）；false=插入顺序排期；
-             *      b、removeEldestEntry：新增元素时将会调用，返回true时会删除最老元素；可封装LinkedHashMap并重写该方法，比如定义最大容量，超出是返回true即可实现固定长度的LRU算法；
-             */
-            lruItem = new LinkedHashMap<String, String>(16, 0.75f, true);
-            jobLRUMap.putIfAbsent(jobId, lruItem);
-        }
-
-        // put new
-        for (String address : addressList) {
-            if (!lruItem.containsKey(address)) {
-                lruItem.put(address, address);
+            ConcurrentMap<String, AtomicLong> newItem = new ConcurrentHashMap<String, AtomicLong>();
+            lruItem = jobLRUMap.putIfAbsent(jobId, newItem);
+            if (lruItem == null) {
+                lruItem = newItem;
             }
         }
+
         // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey : lruItem.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
-            }
+        if (lruItem.size() > addressList.size()) {
+            lruItem.keySet().retainAll(new HashSet<String>(addressList));
         }
-        if (delKeys.size() > 0) {
-            for (String delKey : delKeys) {
-                lruItem.remove(delKey);
+
+        while (true) {
+            // load eldest, new address (never used) first
+            String eldestAddress = null;
+            AtomicLong eldestUsed = null;
+            long eldestValue = Long.MAX_VALUE;
+            for (String address : addressList) {
+                AtomicLong used = lruItem.get(address);
+                if (used == null) {
+                    AtomicLong newUsed = new AtomicLong();
+                    used = lruItem.putIfAbsent(address, newUsed);
+                    if (used == null) {
+                        used = newUsed;
+                    }
+                }
+                long value = used.get();
+                if (value < eldestValue) {
+                    eldestAddress = address;
+                    eldestUsed = used;
+                    eldestValue = value;
+                }
             }
-        }
 
-        // load
-        String eldestKey = lruItem.entrySet().iterator().next().getKey();
-        String eldestValue = lruItem.get(eldestKey);
-        return eldestValue;
+            // used by another trigger meanwhile: select again
+            if (eldestUsed.compareAndSet(eldestValue, useSequence.incrementAndGet())) {
+                return eldestAddress;
+            }
+        }
     }
 
     @Override
@@ -72,4 +77,9 @@ public class ExecutorRouteLRU extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+    @Override
+    public void onJobRemove(int jobId) {
+        jobLRUMap.remove(jobId);
+    }
+
 }
@@ -5,9 +5,9 @@ import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -16,25 +16,19 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class ExecutorRouteRound extends ExecutorRouter {
 
     private static ConcurrentMap<Integer, AtomicInteger> routeCountEachJob = new ConcurrentHashMap<>();
-    private static long CACHE_VALID_TIME = 0;
 
     private static int count(int jobId) {
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            routeCountEachJob.clear();
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000 * 60 * 60 * 24;
-        }
-
         AtomicInteger count = routeCountEachJob.get(jobId);
-        if (count == null || count.get() > 1000000) {
+        if (count == null) {
             // 初始化时主动Random一次，缓解首次压力
-            count = new AtomicInteger(new Random().nextInt(100));
-        } else {
-            // count++
-            count.addAndGet(1);
+            AtomicInteger newCount = new AtomicInteger(ThreadLocalRandom.current().nextInt(100));
+            count = routeCountEachJob.putIfAbsent(jobId, newCount);
+            if (count == null) {
+                count = newCount;
+            }
         }
-        routeCountEachJob.put(jobId, count);
-        return count.get();
+        // count++, wrap to positive on overflow
+        return count.getAndIncrement() & Integer.MAX_VALUE;
     }
 
     @Override
@@ -43,4 +37,9 @@ public class ExecutorRouteRound extends ExecutorRouter {
         return new ReturnT<String>(address);
     }
 
+    @Override
+    public void onJobRemove(int jobId) {
+        routeCountEachJob.remove(jobId);
+    }
+
 }
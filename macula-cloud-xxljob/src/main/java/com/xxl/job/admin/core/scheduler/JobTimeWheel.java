@@ -0,0 +1,175 @@
+package com.xxl.job.admin.core.scheduler;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * hierarchical timing wheel for pre-read jobs
+ *
+ * <pre>
+ *     a、each slot is a lock-free queue, producers (schedule thread) never block the ring thread；
+ *     b、trigger time beyond the wheel interval goes to an overflow wheel (tick = interval of this wheel), created lazily；
+ *     c、advance walks every tick between last advance and now, a ring thread overrun never drops jobs；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobTimeWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+
+    private final ConcurrentLinkedQueue<TimeWheelEntry>[] buckets;
+    private final AtomicIntegerArray bucketDepth;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile long currentTime;
+    private volatile JobTimeWheel overflowWheel;
+
+    @SuppressWarnings("unchecked")
+    public JobTimeWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new ConcurrentLinkedQueue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<TimeWheelEntry>();
+        }
+        this.bucketDepth = new AtomicIntegerArray(wheelSize);
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * add job into wheel
+     *
+     * @param jobId
+     * @param triggerTime
+     * @return false: trigger time already due, caller should trigger directly
+     */
+    public boolean add(int jobId, long triggerTime) {
+        return add(new TimeWheelEntry(jobId, triggerTime));
+    }
+
+    private boolean add(TimeWheelEntry entry) {
+        long current = currentTime;
+        if (entry.triggerTime < current + tickMs) {
+            // due in current tick
+            return false;
+        }
+        if (entry.triggerTime < current + interval) {
+            int slot = slotOf(entry.triggerTime);
+            buckets[slot].offer(entry);
+            bucketDepth.incrementAndGet(slot);
+            size.incrementAndGet();
+
+            // ring moved past the slot while adding, take it back
+            if (entry.triggerTime < currentTime + tickMs && buckets[slot].remove(entry)) {
+                bucketDepth.decrementAndGet(slot);
+                size.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        // overflow, fallback to this wheel if the overflow wheel has moved on
+        if (!overflowWheel().add(entry)) {
+            return add(entry);
+        }
+        return true;
+    }
+
+    /**
+     * advance wheel to now, only called by ring thread
+     *
+     * @param now
+     * @param handler handle due jobs
+     */
+    public void advance(long now, TimeWheelHandler handler) {
+        advance(now, this, handler);
+    }
+
+    private void advance(long now, JobTimeWheel root, TimeWheelHandler handler) {
+        while (currentTime + tickMs <= now) {
+            currentTime += tickMs;
+
+            // overflow first, entries fall into lower wheel before the slot drain
+            JobTimeWheel overflow = overflowWheel;
+            if (overflow != null) {
+                overflow.advance(currentTime, root, handler);
+            }
+
+            int slot = slotOf(currentTime);
+            ConcurrentLinkedQueue<TimeWheelEntry> bucket = buckets[slot];
+            TimeWheelEntry entry;
+            while ((entry = bucket.poll()) != null) {
+                bucketDepth.decrementAndGet(slot);
+                size.decrementAndGet();
+                if (!root.add(entry)) {
+                    handler.onDue(entry.jobId, entry.triggerTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * job count in wheel, include overflow wheel
+     */
+    public int size() {
+        JobTimeWheel overflow = overflowWheel;
+        return size.get() + (overflow != null ? overflow.size() : 0);
+    }
+
+    /**
+     * max slot depth, include overflow wheel
+     */
+    public int maxSlotDepth() {
+        int max = 0;
+        for (int i = 0; i < wheelSize; i++) {
+            max = Math.max(max, bucketDepth.get(i));
+        }
+        JobTimeWheel overflow = overflowWheel;
+        return overflow != null ? Math.max(max, overflow.maxSlotDepth()) : max;
+    }
+
+    private int slotOf(long time) {
+        return (int)((time / tickMs) % wheelSize);
+    }
+
+    private JobTimeWheel overflowWheel() {
+        if (overflowWheel == null) {
+            synchronized (this) {
+                if (overflowWheel == null) {
+                    overflowWheel = new JobTimeWheel(interval, wheelSize, currentTime);
+                }
+            }
+        }
+        return overflowWheel;
+    }
+
+    // ---------------------- entry ----------------------
+
+    private static class TimeWheelEntry {
+        private final int jobId;
+        private final long triggerTime;
+
+        public TimeWheelEntry(int jobId, long triggerTime) {
+            this.jobId = jobId;
+            this.triggerTime = triggerTime;
+        }
+    }
+
+    public interface TimeWheelHandler {
+
+        /**
+         * job due
+         *
+         * @param jobId
+         * @param triggerTime planned trigger time
+         */
+        void onDue(int jobId, long triggerTime);
+
+    }
+
+}
@@ -22,7 +22,7 @@ public enum ScheduleTypeEnum {
     /**
      * schedule by fix delay (in seconds)， after the last time
      */
-    /*FIX_DELAY(I18nUtil.getString("schedule_type_fix_delay"))*/;
+    FIX_DELAY(I18nUtil.getString("schedule_type_fix_delay"));
 
     private String title;
 
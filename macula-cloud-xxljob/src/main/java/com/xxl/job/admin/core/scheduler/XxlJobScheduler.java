@@ -1,6 +1,8 @@
 package com.xxl.job.admin.core.scheduler;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.conf.XxlJobStartupProfiler;
+import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.thread.*;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.ExecutorBiz;
@@ -9,6 +11,7 @@ import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -20,26 +23,88 @@ public class XxlJobScheduler {
     private static final Logger logger = LoggerFactory.getLogger(XxlJobScheduler.class);
 
     public void init() throws Exception {
+        // startup profile, cost per step
+        XxlJobStartupProfiler profiler = XxlJobAdminConfig.getAdminConfig().getStartupProfiler();
+        profiler.schedulerStart();
+
         // init i18n
         initI18n();
+        profiler.schedulerStep("i18n");
+
+        // admin job cache reconcile start
+        JobInfoCacheHelper.getInstance().start();
+        profiler.schedulerStep("JobInfoCacheHelper");
+
+        // admin job log writer start
+        JobLogWriteHelper.getInstance().start();
+        profiler.schedulerStep("JobLogWriteHelper");
+
+        // admin executor rpc start
+        JobExecutorRpcHelper.getInstance().start();
+        profiler.schedulerStep("JobExecutorRpcHelper");
+
+        // admin executor health start, for FAILOVER / BUSYOVER routing
+        JobExecutorHealthHelper.getInstance().start();
+        profiler.schedulerStep("JobExecutorHealthHelper");
 
         // admin trigger pool start
         JobTriggerPoolHelper.toStart();
-
-        // admin registry monitor run
+        profiler.schedulerStep("JobTriggerPoolHelper");
+
+        // admin registry monitor run, router notified on group address change
+        JobRegistryHelper.getInstance().addListener(new JobRegistryHelper.RegistryListener() {
+            @Override
+            public void onChange(String appname, List<String> addressList) {
+                for (ExecutorRouteStrategyEnum item : ExecutorRouteStrategyEnum.values()) {
+                    if (item.getRouter() != null) {
+                        item.getRouter().onAddressChange(appname, addressList);
+                    }
+                }
+            }
+
+            @Override
+            public void onExpire(String appname, String address) {
+                JobCompleteHelper.getInstance().onExecutorExpire(address);
+            }
+        });
         JobRegistryHelper.getInstance().start();
+        profiler.schedulerStep("JobRegistryHelper");
+
+        // admin alarm start, async sinks
+        XxlJobAdminConfig.getAdminConfig().getJobAlarmer().start();
+        profiler.schedulerStep("JobAlarmer");
 
         // admin fail-monitor run
         JobFailMonitorHelper.getInstance().start();
+        profiler.schedulerStep("JobFailMonitorHelper");
 
         // admin lose-monitor run ( depend on JobTriggerPoolHelper )
         JobCompleteHelper.getInstance().start();
+        profiler.schedulerStep("JobCompleteHelper");
+
+        // log partition maintain, partition mode ( before log report, which drops old partitions )
+        if (XxlJobAdminConfig.getAdminConfig().isLogPartition()) {
+            JobLogPartitionHelper.getInstance().start();
+            profiler.schedulerStep("JobLogPartitionHelper");
+        }
 
         // admin log report start
         JobLogReportHelper.getInstance().start();
+        profiler.schedulerStep("JobLogReportHelper");
+
+        // admin rolling log stream start
+        JobLogStreamHelper.getInstance().start();
+        profiler.schedulerStep("JobLogStreamHelper");
+
+        // schedule slot lease, partition mode
+        if (XxlJobAdminConfig.getAdminConfig().isSchedulePartition()) {
+            JobScheduleLeaseHelper.getInstance().start();
+            profiler.schedulerStep("JobScheduleLeaseHelper");
+        }
 
         // start-schedule  ( depend on JobTriggerPoolHelper )
         JobScheduleHelper.getInstance().start();
+        profiler.schedulerStep("JobScheduleHelper");
 
         logger.info(">>>>>>>>> init xxl-job admin success.");
     }
@@ -49,21 +114,49 @@ public class XxlJobScheduler {
         // stop-schedule
         JobScheduleHelper.getInstance().toStop();
 
+        // schedule slot lease stop, release slots
+        if (XxlJobAdminConfig.getAdminConfig().isSchedulePartition()) {
+            JobScheduleLeaseHelper.getInstance().toStop();
+        }
+
+        // admin rolling log stream stop
+        JobLogStreamHelper.getInstance().toStop();
+
         // admin log report stop
         JobLogReportHelper.getInstance().toStop();
 
+        // log partition maintain stop
+        if (XxlJobAdminConfig.getAdminConfig().isLogPartition()) {
+            JobLogPartitionHelper.getInstance().toStop();
+        }
+
         // admin lose-monitor stop
         JobCompleteHelper.getInstance().toStop();
 
         // admin fail-monitor stop
         JobFailMonitorHelper.getInstance().toStop();
 
+        // admin alarm stop, pending alarms sent
+        XxlJobAdminConfig.getAdminConfig().getJobAlarmer().toStop();
+
         // admin registry stop
         JobRegistryHelper.getInstance().toStop();
 
         // admin trigger pool stop
         JobTriggerPoolHelper.toStop();
 
+        // admin executor health stop
+        JobExecutorHealthHelper.getInstance().toStop();
+
+        // admin executor rpc stop
+        JobExecutorRpcHelper.getInstance().toStop();
+
+        // admin job log writer stop, flush pending
+        JobLogWriteHelper.getInstance().toStop();
+
+        // admin job cache reconcile stop
+        JobInfoCacheHelper.getInstance().toStop();
+
     }
 
     // ---------------------- I18n ----------------------
@@ -6,17 +6,31 @@ import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.ReturnT;
-import com.xxl.job.core.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 
 /**
  * job lose-monitor instance
  *
+ * <pre>
+ *     a、callback: queued (bounded, FAIL when full, executor retries), request thread never runs callback；
+ *     b、ingest: one thread drains callbacks, dedupes by logId, bulk-loads logs, fresh handle-info in one jdbc batch；
+ *     c、finish: child job trigger etc, async in finish pool after handle-info fresh；
+ *     d、running: running logs in memory by executor address, fed by trigger and callback；
+ *     e、lost: running logs of an expired executor failed in one batch right away, db scan every 10min as fallback；
+ * </pre>
+ *
  * @author xuxueli 2015-9-1 18:05:56
  */
 public class JobCompleteHelper {
@@ -28,30 +42,82 @@ public class JobCompleteHelper {
         return instance;
     }
 
+    private static final int CALLBACK_QUEUE_SIZE = 20000;
+    private static final int CALLBACK_BATCH_SIZE = 1000;
+    private static final long CALLBACK_WAIT_MS = 5;
+    private static final long LOST_TIMEOUT_MS = 10 * 60 * 1000L;
+    private static final long LOST_CHECK_INTERVAL_MS = 60 * 1000L;
+
     // ---------------------- monitor ----------------------
 
-    private ThreadPoolExecutor callbackThreadPool = null;
+    private final LinkedBlockingQueue<HandleCallbackParam> callbackQueue =
+        new LinkedBlockingQueue<HandleCallbackParam>(CALLBACK_QUEUE_SIZE);
+    private Thread callbackThread;
+    private ThreadPoolExecutor finishThreadPool = null;
     private Thread monitorThread;
     private volatile boolean toStop = false;
 
     public void start() {
 
-        // for callback
-        callbackThreadPool =
+        // for finish, child job trigger
+        finishThreadPool =
             new ThreadPoolExecutor(2, 20, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(3000),
                 new ThreadFactory() {
                     @Override
                     public Thread newThread(Runnable r) {
-                        return new Thread(r, "xxl-job, admin JobLosedMonitorHelper-callbackThreadPool-" + r.hashCode());
+                        return new Thread(r, "xxl-job, admin JobLosedMonitorHelper-finishThreadPool-" + r.hashCode());
                     }
                 }, new RejectedExecutionHandler() {
                 @Override
                 public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
                     r.run();
-                    logger.warn(">>>>>>>>>>> xxl-job, callback too fast, match threadpool rejected handler(run now).");
+                    logger.warn(">>>>>>>>>>> xxl-job, finish too fast, match threadpool rejected handler(run now).");
                 }
             });
 
+        // for callback
+        callbackThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                List<HandleCallbackParam> batch = new ArrayList<HandleCallbackParam>(CALLBACK_BATCH_SIZE);
+                while (!toStop || !callbackQueue.isEmpty()) {
+                    try {
+                        HandleCallbackParam first = callbackQueue.poll(1, TimeUnit.SECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        batch.add(first);
+
+                        // collect callbacks arrived in the wait window
+                        long deadline = System.currentTimeMillis() + CALLBACK_WAIT_MS;
+                        while (batch.size() < CALLBACK_BATCH_SIZE) {
+                            long wait = deadline - System.currentTimeMillis();
+                            HandleCallbackParam next =
+                                wait > 0 ? callbackQueue.poll(wait, TimeUnit.MILLISECONDS) : callbackQueue.poll();
+                            if (next == null) {
+                                break;
+                            }
+                            batch.add(next);
+                        }
+
+                        callbackBatch(batch);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        logger.error(">>>>>>>>>>> xxl-job, JobCompleteHelper#callbackThread error:{}", e);
+                    } finally {
+                        batch.clear();
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobCompleteHelper#callbackThread stop");
+            }
+        });
+        callbackThread.setDaemon(true);
+        callbackThread.setName("xxl-job, admin JobCompleteHelper#callbackThread");
+        callbackThread.start();
+
         // for monitor
         monitorThread = new Thread(new Runnable() {
 
@@ -68,26 +134,24 @@ public class JobCompleteHelper {
                 }
 
                 // monitor
+                long nextScanTime = 0;
                 while (!toStop) {
                     try {
-                        // 任务结果丢失处理：调度记录停留在 "运行中" 状态超过10min，且对应执行器心跳注册失败不在线，则将本地调度主动标记失败；
-                        Date losedTime = DateUtil.addMinutes(new Date(), -10);
-                        List<Long> losedJobIds =
-                            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findLostJobIds(losedTime);
+                        // running log done but not removed (callback before running, admin kill etc), verify by db
+                        checkRunning(System.currentTimeMillis() - LOST_TIMEOUT_MS);
 
-                        if (losedJobIds != null && losedJobIds.size() > 0) {
-                            for (Long logId : losedJobIds) {
-
-                                XxlJobLog jobLog = new XxlJobLog();
-                                jobLog.setId(logId);
-
-                                jobLog.setHandleTime(new Date());
-                                jobLog.setHandleCode(ReturnT.FAIL_CODE);
-                                jobLog.setHandleMsg(I18nUtil.getString("joblog_lost_fail"));
-
-                                XxlJobCompleter.updateHandleInfoAndFinish(jobLog);
+                        // 任务结果丢失处理：调度记录停留在 "运行中" 状态超过10min，且对应执行器心跳注册失败不在线，则将本地调度主动标记失败；
+                        // fallback of memory running logs: admin restart, executor expired on no admin node etc
+                        long nowTime = System.currentTimeMillis();
+                        if (nowTime >= nextScanTime) {
+                            nextScanTime = nowTime + LOST_TIMEOUT_MS;
+
+                            Date losedTime = new Date(nowTime - LOST_TIMEOUT_MS);
+                            List<Long> losedJobIds =
+                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findLostJobIds(losedTime);
+                            if (losedJobIds != null && losedJobIds.size() > 0) {
+                                failLost(losedJobIds, null, null);
                             }
-
                         }
                     } catch (Exception e) {
                         if (!toStop) {
@@ -96,7 +160,7 @@ public class JobCompleteHelper {
                     }
 
                     try {
-                        TimeUnit.SECONDS.sleep(60);
+                        TimeUnit.MILLISECONDS.sleep(LOST_CHECK_INTERVAL_MS);
                     } catch (Exception e) {
                         if (!toStop) {
                             logger.error(e.getMessage(), e);
@@ -117,9 +181,6 @@ public class JobCompleteHelper {
     public void toStop() {
         toStop = true;
 
-        // stop registryOrRemoveThreadPool
-        callbackThreadPool.shutdownNow();
-
         // stop monitorThread (interrupt and wait)
         monitorThread.interrupt();
         try {
@@ -127,54 +188,301 @@ public class JobCompleteHelper {
         } catch (InterruptedException e) {
             logger.error(e.getMessage(), e);
         }
+
+        // stop callbackThread, queued callbacks applied
+        try {
+            callbackThread.join(10000);
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        if (!callbackQueue.isEmpty()) {
+            logger.warn(">>>>>>>>>>> xxl-job, JobCompleteHelper stop with {} pending callbacks", callbackQueue.size());
+        }
+
+        // stop finishThreadPool
+        finishThreadPool.shutdown();
+        try {
+            finishThreadPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
     }
 
     // ---------------------- helper ----------------------
 
+    /**
+     * callback, queued
+     *
+     * @param callbackParamList
+     * @return FAIL if callback queue full, executor retries later
+     */
     public ReturnT<String> callback(List<HandleCallbackParam> callbackParamList) {
+        if (toStop) {
+            return new ReturnT<String>(ReturnT.FAIL_CODE, "admin stopping.");
+        }
+
+        // all or none, executor retries the whole list
+        synchronized (callbackQueue) {
+            if (callbackQueue.remainingCapacity() < callbackParamList.size()) {
+                logger.warn(">>>>>>>>>>> xxl-job, callback queue full, callbacks rejected:{}", callbackParamList.size());
+                return new ReturnT<String>(ReturnT.FAIL_CODE, "callback queue full.");
+            }
+            for (HandleCallbackParam handleCallbackParam : callbackParamList) {
+                callbackQueue.offer(handleCallbackParam);
+            }
+        }
+        return ReturnT.SUCCESS;
+    }
+
+    private void callbackBatch(List<HandleCallbackParam> batch) {
+        // dedupe, first callback of a log wins
+        Map<Long, HandleCallbackParam> callbackMap = new LinkedHashMap<Long, HandleCallbackParam>();
+        for (HandleCallbackParam handleCallbackParam : batch) {
+            if (!callbackMap.containsKey(handleCallbackParam.getLogId())) {
+                callbackMap.put(handleCallbackParam.getLogId(), handleCallbackParam);
+            } else {
+                logger.debug(">>>>>>>>> JobApiController.callback fail, log repeate callback, handleCallbackParam={}",
+                    handleCallbackParam);
+            }
+        }
+
+        // trigger time range, prunes log partitions; datetime column rounds to second
+        long minLogDateTim = Long.MAX_VALUE;
+        long maxLogDateTim = 0;
+        for (HandleCallbackParam handleCallbackParam : callbackMap.values()) {
+            minLogDateTim = Math.min(minLogDateTim, handleCallbackParam.getLogDateTim());
+            maxLogDateTim = Math.max(maxLogDateTim, handleCallbackParam.getLogDateTim());
+        }
+        Date triggerTimeFrom = minLogDateTim > 0 ? new Date(minLogDateTim - 1000) : null;
+        Date triggerTimeTo = minLogDateTim > 0 ? new Date(maxLogDateTim + 1000) : null;
+
+        // valid log item
+        List<XxlJobLog> logList = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+            .loadByIds(new ArrayList<Long>(callbackMap.keySet()), triggerTimeFrom, triggerTimeTo);
+        if (triggerTimeFrom != null && logList.size() < callbackMap.size()) {
+            // log date not matched (old executor etc), load without range
+            logList = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                .loadByIds(new ArrayList<Long>(callbackMap.keySet()), null, null);
+        }
+        List<XxlJobLog> handleList = new ArrayList<XxlJobLog>(logList.size());
+        for (XxlJobLog log : logList) {
+            HandleCallbackParam handleCallbackParam = callbackMap.remove(log.getId());
+            if (handleCallbackParam == null) {
+                continue;
+            }
+            if (log.getHandleCode() > 0) {
+                // avoid repeat callback, trigger child job etc
+                logger.debug(">>>>>>>>> JobApiController.callback fail, log repeate callback, handleCallbackParam={}",
+                    handleCallbackParam);
+                continue;
+            }
 
-        callbackThreadPool.execute(new Runnable() {
+            // handle msg
+            StringBuffer handleMsg = new StringBuffer();
+            if (log.getHandleMsg() != null) {
+                handleMsg.append(log.getHandleMsg()).append("<br>");
+            }
+            if (handleCallbackParam.getHandleMsg() != null) {
+                handleMsg.append(handleCallbackParam.getHandleMsg());
+            }
+
+            log.setHandleTime(new Date());
+            log.setHandleCode(handleCallbackParam.getHandleCode());
+            log.setHandleMsg(handleMsg.toString());
+            handleList.add(log);
+        }
+        for (HandleCallbackParam handleCallbackParam : callbackMap.values()) {
+            logger.debug(">>>>>>>>> JobApiController.callback fail, log item not found, handleCallbackParam={}",
+                handleCallbackParam);
+        }
+
+        // success, save log
+        if (!handleList.isEmpty()) {
+            XxlJobCompleter.updateHandleInfoAndFinish(handleList);
+        }
+    }
+
+    /**
+     * finish job after handle-info fresh, async
+     */
+    public void finish(final XxlJobLog xxlJobLog) {
+        finishThreadPool.execute(new Runnable() {
             @Override
             public void run() {
-                for (HandleCallbackParam handleCallbackParam : callbackParamList) {
-                    ReturnT<String> callbackResult = callback(handleCallbackParam);
-                    logger.debug(">>>>>>>>> JobApiController.callback {}, handleCallbackParam={}, callbackResult={}",
-                        (callbackResult.getCode() == ReturnT.SUCCESS_CODE ? "success" : "fail"), handleCallbackParam,
-                        callbackResult);
+                try {
+                    XxlJobCompleter.finishJob(xxlJobLog);
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, finish job error, JobLogId:{}", xxlJobLog.getId(), e);
                 }
             }
         });
+    }
 
-        return ReturnT.SUCCESS;
+    // ---------------------- running ----------------------
+
+    private final ConcurrentMap<Long, RunningLog> runningLogMap = new ConcurrentHashMap<Long, RunningLog>();
+    // address -> running log ids
+    private final ConcurrentMap<String, Set<Long>> runningAddressMap = new ConcurrentHashMap<String, Set<Long>>();
+
+    /**
+     * log running on executor, called before run rpc (callback never comes first)
+     *
+     * @param logId
+     * @param address
+     * @param triggerTime
+     */
+    public void addRunning(long logId, String address, Date triggerTime) {
+        Set<Long> logIds = runningAddressMap.get(address);
+        if (logIds == null) {
+            runningAddressMap.putIfAbsent(address, Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>()));
+            logIds = runningAddressMap.get(address);
+        }
+        runningLogMap.put(logId, new RunningLog(address, triggerTime, System.currentTimeMillis()));
+        logIds.add(logId);
     }
 
-    private ReturnT<String> callback(HandleCallbackParam handleCallbackParam) {
-        // valid log item
-        XxlJobLog log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(handleCallbackParam.getLogId());
-        if (log == null) {
-            return new ReturnT<String>(ReturnT.FAIL_CODE, "log item not found.");
+    /**
+     * log not running any more: run fail, callback, kill, lost
+     *
+     * @param logId
+     */
+    public void removeRunning(long logId) {
+        RunningLog runningLog = runningLogMap.remove(logId);
+        if (runningLog != null) {
+            Set<Long> logIds = runningAddressMap.get(runningLog.address);
+            if (logIds != null) {
+                logIds.remove(logId);
+            }
         }
-        if (log.getHandleCode() > 0) {
-            return new ReturnT<String>(ReturnT.FAIL_CODE,
-                "log repeate callback.");     // avoid repeat callback, trigger child job etc
+    }
+
+    /**
+     * executor expired (beat timeout), its running logs failed in one batch, async
+     *
+     * @param address
+     */
+    public void onExecutorExpire(final String address) {
+        Set<Long> logIds = runningAddressMap.remove(address);
+        if (logIds == null || logIds.isEmpty() || toStop) {
+            return;
         }
 
-        // handle msg
-        StringBuffer handleMsg = new StringBuffer();
-        if (log.getHandleMsg() != null) {
-            handleMsg.append(log.getHandleMsg()).append("<br>");
+        // trigger time range, prunes log partitions
+        final List<Long> lostIds = new ArrayList<Long>(logIds.size());
+        long minTriggerTime = Long.MAX_VALUE;
+        long maxTriggerTime = 0;
+        for (Long logId : logIds) {
+            RunningLog runningLog = runningLogMap.get(logId);
+            if (runningLog == null) {
+                continue;
+            }
+            lostIds.add(logId);
+            minTriggerTime = Math.min(minTriggerTime, runningLog.triggerTime.getTime());
+            maxTriggerTime = Math.max(maxTriggerTime, runningLog.triggerTime.getTime());
         }
-        if (handleCallbackParam.getHandleMsg() != null) {
-            handleMsg.append(handleCallbackParam.getHandleMsg());
+        if (lostIds.isEmpty()) {
+            return;
         }
+        final Date triggerTimeFrom = new Date(minTriggerTime - 1000);
+        final Date triggerTimeTo = new Date(maxTriggerTime + 1000);
 
-        // success, save log
-        log.setHandleTime(new Date());
-        log.setHandleCode(handleCallbackParam.getHandleCode());
-        log.setHandleMsg(handleMsg.toString());
-        XxlJobCompleter.updateHandleInfoAndFinish(log);
+        logger.warn(">>>>>>>>>>> xxl-job, executor expired, running logs failed, address:{}, logs:{}", address,
+            lostIds.size());
+        finishThreadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    failLost(lostIds, triggerTimeFrom, triggerTimeTo);
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, fail lost logs error, address:{}", address, e);
+                }
+            }
+        });
+    }
 
-        return ReturnT.SUCCESS;
+    /**
+     * fail lost logs still running, bulk load and one batch update per chunk
+     */
+    private void failLost(List<Long> logIds, Date triggerTimeFrom, Date triggerTimeTo) {
+        for (int from = 0; from < logIds.size(); from += CALLBACK_BATCH_SIZE) {
+            List<Long> chunk = logIds.subList(from, Math.min(from + CALLBACK_BATCH_SIZE, logIds.size()));
+            List<XxlJobLog> logList =
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().loadByIds(chunk, triggerTimeFrom, triggerTimeTo);
+
+            List<XxlJobLog> lostList = new ArrayList<XxlJobLog>(logList.size());
+            for (XxlJobLog log : logList) {
+                if (log.getHandleCode() > 0) {
+                    removeRunning(log.getId());
+                    continue;
+                }
+                log.setHandleTime(new Date());
+                log.setHandleCode(ReturnT.FAIL_CODE);
+                log.setHandleMsg(I18nUtil.getString("joblog_lost_fail"));
+                lostList.add(log);
+            }
+            if (!lostList.isEmpty()) {
+                XxlJobCompleter.updateHandleInfoAndFinish(lostList);
+            }
+        }
+    }
+
+    /**
+     * running logs older than lost timeout, drop the ones done in db
+     *
+     * @param addedBefore running logs added at or before it are checked
+     */
+    void checkRunning(long addedBefore) {
+        List<Long> checkIds = new ArrayList<Long>();
+        for (Iterator<Map.Entry<Long, RunningLog>> it = runningLogMap.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, RunningLog> item = it.next();
+            if (item.getValue().addTime <= addedBefore) {
+                checkIds.add(item.getKey());
+            }
+        }
+
+        for (int from = 0; from < checkIds.size(); from += CALLBACK_BATCH_SIZE) {
+            List<Long> chunk = checkIds.subList(from, Math.min(from + CALLBACK_BATCH_SIZE, checkIds.size()));
+            List<XxlJobLog> logList =
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().loadByIds(chunk, null, null);
+
+            Set<Long> runningIds = new HashSet<Long>();
+            for (XxlJobLog log : logList) {
+                if (log.getHandleCode() == 0) {
+                    runningIds.add(log.getId());
+                }
+            }
+            for (Long logId : chunk) {
+                if (!runningIds.contains(logId)) {
+                    removeRunning(logId);
+                }
+            }
+        }
+    }
+
+    boolean isRunning(long logId) {
+        return runningLogMap.containsKey(logId);
+    }
+
+    private static class RunningLog {
+        private final String address;
+        private final Date triggerTime;
+        private final long addTime;
+
+        public RunningLog(String address, Date triggerTime, long addTime) {
+            this.address = address;
+            this.triggerTime = triggerTime;
+            this.addTime = addTime;
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getCallbackPendingCount() {
+        return callbackQueue.size();
+    }
+
+    public int getRunningCount() {
+        return runningLogMap.size();
     }
 
 }
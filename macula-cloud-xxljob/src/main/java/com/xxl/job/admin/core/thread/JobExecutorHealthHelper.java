@@ -0,0 +1,273 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.IdleBeatParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * executor health, for FAILOVER / BUSYOVER routing
+ *
+ * <pre>
+ *     a、health table: beat result by address, shared by all jobs, valid for HEALTH_TTL_MS；
+ *     b、probe: stale addresses beat in parallel, trigger waits at most PROBE_DEADLINE_MS, slow probe updates table later；
+ *     c、refresh: addresses routed recently are beat in background before their result expires；
+ *     d、idle beat: job related, not cached, parallel with deadline, skips addresses known dead；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobExecutorHealthHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobExecutorHealthHelper.class);
+
+    private static JobExecutorHealthHelper instance = new JobExecutorHealthHelper();
+
+    public static JobExecutorHealthHelper getInstance() {
+        return instance;
+    }
+
+    private static final long HEALTH_TTL_MS = 5000;
+    private static final long REFRESH_INTERVAL_MS = 2000;
+    private static final long ACCESS_TTL_MS = 60 * 1000;      // not routed for 1min: drop from table
+    private static final long PROBE_DEADLINE_MS = 1000;
+
+    private final ConcurrentMap<String, ExecutorHealth> healthTable = new ConcurrentHashMap<String, ExecutorHealth>();
+    private final ConcurrentMap<String, CompletableFuture<ReturnT<String>>> probing =
+        new ConcurrentHashMap<String, CompletableFuture<ReturnT<String>>>();
+
+    private ThreadPoolExecutor probePool = null;
+    private Thread refreshThread;
+    private volatile boolean toStop = false;
+
+    public void start() {
+        probePool = new ThreadPoolExecutor(10, 200, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "xxl-job, admin JobExecutorHealthHelper-probePool-" + r.hashCode());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                r.run();
+                logger.warn(">>>>>>>>>>> xxl-job, executor probe too fast, match threadpool rejected handler(run now).");
+            }
+        });
+
+        refreshThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(REFRESH_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+
+                    try {
+                        long nowTime = System.currentTimeMillis();
+                        for (Map.Entry<String, ExecutorHealth> item : healthTable.entrySet()) {
+                            ExecutorHealth health = item.getValue();
+                            if (nowTime - health.accessTime > ACCESS_TTL_MS) {
+                                healthTable.remove(item.getKey(), health);
+                            } else if (nowTime - health.checkTime > HEALTH_TTL_MS - REFRESH_INTERVAL_MS) {
+                                probe(item.getKey());
+                            }
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobExecutorHealthHelper#refreshThread error:{}", e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobExecutorHealthHelper#refreshThread stop");
+            }
+        });
+        refreshThread.setDaemon(true);
+        refreshThread.setName("xxl-job, admin JobExecutorHealthHelper#refreshThread");
+        refreshThread.start();
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // interrupt and wait
+        refreshThread.interrupt();
+        try {
+            refreshThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+
+        probePool.shutdownNow();
+        healthTable.clear();
+        probing.clear();
+    }
+
+    // ---------------------- beat ----------------------
+
+    /**
+     * cached beat result
+     *
+     * @param address
+     * @return null if not checked or expired
+     */
+    public ReturnT<String> cachedBeat(String address) {
+        ExecutorHealth health = healthTable.get(address);
+        if (health == null || System.currentTimeMillis() - health.checkTime > HEALTH_TTL_MS) {
+            return null;
+        }
+        health.accessTime = System.currentTimeMillis();
+        return copy(health.result);
+    }
+
+    /**
+     * beat result of each address, cached or probed in parallel
+     *
+     * @param addressList
+     * @return result by address index, never null
+     */
+    public List<ReturnT<String>> beat(List<String> addressList) {
+        List<ReturnT<String>> resultList = new ArrayList<ReturnT<String>>(addressList.size());
+        List<CompletableFuture<ReturnT<String>>> futureList =
+            new ArrayList<CompletableFuture<ReturnT<String>>>(addressList.size());
+        for (String address : addressList) {
+            ReturnT<String> cached = cachedBeat(address);
+            resultList.add(cached);
+            futureList.add(cached == null ? probe(address) : null);
+        }
+
+        long deadline = System.currentTimeMillis() + PROBE_DEADLINE_MS;
+        for (int i = 0; i < addressList.size(); i++) {
+            if (futureList.get(i) != null) {
+                resultList.set(i, copy(await(futureList.get(i), deadline, "beat")));
+            }
+        }
+        return resultList;
+    }
+
+    /**
+     * idle beat of each address in parallel, dead address (cached) not called
+     *
+     * @param addressList
+     * @param jobId
+     * @return result by address index, never null
+     */
+    public List<ReturnT<String>> idleBeat(List<String> addressList, final int jobId) {
+        List<ReturnT<String>> resultList = new ArrayList<ReturnT<String>>(addressList.size());
+        List<CompletableFuture<ReturnT<String>>> futureList =
+            new ArrayList<CompletableFuture<ReturnT<String>>>(addressList.size());
+        for (final String address : addressList) {
+            ReturnT<String> cached = cachedBeat(address);
+            if (cached != null && cached.getCode() != ReturnT.SUCCESS_CODE) {
+                resultList.add(cached);
+                futureList.add(null);
+                continue;
+            }
+
+            resultList.add(null);
+            futureList.add(CompletableFuture.supplyAsync(new Supplier<ReturnT<String>>() {
+                @Override
+                public ReturnT<String> get() {
+                    try {
+                        ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+                        return executorBiz.idleBeat(new IdleBeatParam(jobId));
+                    } catch (Exception e) {
+                        logger.error(e.getMessage(), e);
+                        return new ReturnT<String>(ReturnT.FAIL_CODE, "" + e);
+                    }
+                }
+            }, probePool));
+        }
+
+        long deadline = System.currentTimeMillis() + PROBE_DEADLINE_MS;
+        for (int i = 0; i < addressList.size(); i++) {
+            if (futureList.get(i) != null) {
+                resultList.set(i, await(futureList.get(i), deadline, "idle beat"));
+            }
+        }
+        return resultList;
+    }
+
+    /**
+     * beat address, one probe in flight per address
+     */
+    private CompletableFuture<ReturnT<String>> probe(final String address) {
+        CompletableFuture<ReturnT<String>> future = probing.get(address);
+        if (future != null) {
+            return future;
+        }
+        final CompletableFuture<ReturnT<String>> newFuture = new CompletableFuture<ReturnT<String>>();
+        future = probing.putIfAbsent(address, newFuture);
+        if (future != null) {
+            return future;
+        }
+
+        probePool.execute(new Runnable() {
+            @Override
+            public void run() {
+                ReturnT<String> beatResult = null;
+                try {
+                    ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+                    beatResult = executorBiz.beat();
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                    beatResult = new ReturnT<String>(ReturnT.FAIL_CODE, "" + e);
+                }
+
+                ExecutorHealth previous = healthTable.get(address);
+                healthTable.put(address, new ExecutorHealth(copy(beatResult), System.currentTimeMillis(),
+                    previous != null ? previous.accessTime : System.currentTimeMillis()));
+                probing.remove(address, newFuture);
+                newFuture.complete(beatResult);
+            }
+        });
+        return newFuture;
+    }
+
+    private static ReturnT<String> await(CompletableFuture<ReturnT<String>> future, long deadline, String name) {
+        try {
+            return future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return new ReturnT<String>(ReturnT.FAIL_CODE, name + " timeout, over " + PROBE_DEADLINE_MS + "ms");
+        } catch (Exception e) {
+            return new ReturnT<String>(ReturnT.FAIL_CODE, "" + e);
+        }
+    }
+
+    private static ReturnT<String> copy(ReturnT<String> result) {
+        // callers set msg/content on the result
+        return new ReturnT<String>(result.getCode(), result.getMsg());
+    }
+
+    private static class ExecutorHealth {
+        private final ReturnT<String> result;
+        private final long checkTime;
+        private volatile long accessTime;
+
+        public ExecutorHealth(ReturnT<String> result, long checkTime, long accessTime) {
+            this.result = result;
+            this.checkTime = checkTime;
+            this.accessTime = accessTime;
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getHealthTableSize() {
+        return healthTable.size();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.util.ThrowableUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+
+/**
+ * executor rpc, async
+ *
+ * <pre>
+ *     a、trigger pool thread only routes and saves log, the executor rpc runs on rpc pool and returns a future；
+ *     b、in-flight rpc is limited by "xxl.job.triggerpool.inflight.max", trigger pool blocks when full (backpressure)；
+ *     c、trigger log update runs as continuation of the future；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobExecutorRpcHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobExecutorRpcHelper.class);
+
+    private static JobExecutorRpcHelper instance = new JobExecutorRpcHelper();
+
+    public static JobExecutorRpcHelper getInstance() {
+        return instance;
+    }
+
+    private ThreadPoolExecutor rpcPool = null;
+    private Semaphore inflight = null;
+    private int inflightMax;
+
+    public void start() {
+        inflightMax = XxlJobAdminConfig.getAdminConfig().getTriggerInflightMax();
+        inflight = new Semaphore(inflightMax);
+
+        // idle threads exit after 60s, permits keep the pool under inflight-max
+        rpcPool = new ThreadPoolExecutor(20, inflightMax, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "xxl-job, admin JobExecutorRpcHelper-rpcPool-" + r.hashCode());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                r.run();
+                logger.warn(">>>>>>>>>>> xxl-job, executor rpc too fast, match threadpool rejected handler(run now).");
+            }
+        });
+    }
+
+    public void toStop() {
+        // wait in-flight rpc, trigger log updated by continuation
+        rpcPool.shutdown();
+        try {
+            if (!rpcPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                rpcPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        logger.info(">>>>>>>>>>> xxl-job, JobExecutorRpcHelper stop");
+    }
+
+    /**
+     * run executor, async, after dependency completed (e.g. trigger log saved)
+     *
+     * @param triggerParam
+     * @param address
+     * @param dependency   rpc skipped if completed exceptionally
+     * @return run result, never completed exceptionally
+     */
+    public CompletableFuture<ReturnT<String>> run(final TriggerParam triggerParam, final String address,
+        CompletableFuture<?> dependency) {
+        try {
+            inflight.acquire();
+        } catch (InterruptedException e) {
+            return CompletableFuture.completedFuture(
+                new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e)));
+        }
+
+        return dependency.handleAsync(new BiFunction<Object, Throwable, ReturnT<String>>() {
+            @Override
+            public ReturnT<String> apply(Object result, Throwable throwable) {
+                if (throwable != null) {
+                    inflight.release();
+                    return new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(throwable));
+                }
+                return doRun(triggerParam, address);
+            }
+        }, rpcPool);
+    }
+
+    private ReturnT<String> doRun(TriggerParam triggerParam, String address) {
+        try {
+            ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+            return executorBiz.run(triggerParam);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.",
+                address, e);
+            return new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
+        } finally {
+            inflight.release();
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getInflightCount() {
+        return inflight != null ? inflightMax - inflight.availablePermits() : 0;
+    }
+
+}
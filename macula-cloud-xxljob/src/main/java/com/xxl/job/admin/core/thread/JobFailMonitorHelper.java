@@ -3,17 +3,31 @@ package com.xxl.job.admin.core.thread;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.trigger.TriggerMsg;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
-import com.xxl.job.admin.core.util.I18nUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.*;
 
 /**
  * job monitor instance
  *
+ * <pre>
+ *     a、claim: fail logs locked in one tx (for update skip locked), other admin nodes claim the rest; locks older than
+ *        10min (claimer crashed) reset and claimed again；
+ *     b、bulk: claimed logs loaded at once, alarm status updated in batch；
+ *     c、async: retry and alarm run in a bounded pool, monitor thread never waits for executor or mail；
+ *     d、coalesce: fail logs of one job alarmed once per ALARM_WINDOW_MS, the latest log as content；
+ * </pre>
+ *
  * @author xuxueli 2015-9-1 18:05:56
  */
 public class JobFailMonitorHelper {
@@ -25,12 +39,46 @@ public class JobFailMonitorHelper {
         return instance;
     }
 
+    private static final int CLAIM_SIZE = 1000;
+    private static final long ALARM_WINDOW_MS = 60 * 1000;
+    private static final long LOCK_STALE_MS = 10 * 60 * 1000;         // locked longer: claimer crashed
+    private static final long LOCK_STALE_INTERVAL_MS = 60 * 1000;
+
+    // 告警状态：0-默认、-1=锁定状态、1-无需告警、2-告警成功、3-告警失败
+    private static final int ALARM_LOCKED = -1;
+    private static final int ALARM_NONE = 1;
+    private static final int ALARM_SUCCESS = 2;
+    private static final int ALARM_FAIL = 3;
+
     // ---------------------- monitor ----------------------
 
+    private ThreadPoolExecutor alarmPool = null;
     private Thread monitorThread;
     private volatile boolean toStop = false;
 
+    // monitor thread only
+    private final Map<Integer, AlarmBucket> alarmBuckets = new HashMap<Integer, AlarmBucket>();
+    private final Map<Integer, Long> lastAlarmTimes = new HashMap<Integer, Long>();
+    private volatile int alarmPendingCount = 0;
+    private long unlockTime = 0;
+
     public void start() {
+        alarmPool = new ThreadPoolExecutor(2, 10, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(1000),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "xxl-job, admin JobFailMonitorHelper-alarmPool-" + r.hashCode());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                r.run();
+                logger.warn(">>>>>>>>>>> xxl-job, fail alarm too fast, match threadpool rejected handler(run now).");
+            }
+        });
+
         monitorThread = new Thread(new Runnable() {
 
             @Override
@@ -39,49 +87,17 @@ public class JobFailMonitorHelper {
                 // monitor
                 while (!toStop) {
                     try {
+                        unlockStaleAlarm();
 
-                        List<Long> failLogIds =
-                            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findFailJobLogIds(1000);
-                        if (failLogIds != null && !failLogIds.isEmpty()) {
-                            for (long failLogId : failLogIds) {
-
-                                // lock log
-                                int lockRet = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
-                                    .updateAlarmStatus(failLogId, 0, -1);
-                                if (lockRet < 1) {
-                                    continue;
-                                }
-                                XxlJobLog log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(failLogId);
-                                XxlJobInfo info =
-                                    XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(log.getJobId());
-
-                                // 1、fail retry monitor
-                                if (log.getExecutorFailRetryCount() > 0) {
-                                    JobTriggerPoolHelper.trigger(log.getJobId(), TriggerTypeEnum.RETRY,
-                                        (log.getExecutorFailRetryCount() - 1), log.getExecutorShardingParam(),
-                                        log.getExecutorParam(), null);
-                                    String retryMsg =
-                                        "<br><br><span style=\"color:#F39C12;\" > >>>>>>>>>>>" + I18nUtil.getString(
-                                            "jobconf_trigger_type_retry") + "<<<<<<<<<<< </span><br>";
-                                    log.setTriggerMsg(log.getTriggerMsg() + retryMsg);
-                                    XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(log);
-                                }
-
-                                // 2、fail alarm monitor
-                                int newAlarmStatus = 0;        // 告警状态：0-默认、-1=锁定状态、1-无需告警、2-告警成功、3-告警失败
-                                if (info != null) {
-                                    boolean alarmResult =
-                                        XxlJobAdminConfig.getAdminConfig().getJobAlarmer().alarm(info, log);
-                                    newAlarmStatus = alarmResult ? 2 : 3;
-                                } else {
-                                    newAlarmStatus = 1;
-                                }
-
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
-                                    .updateAlarmStatus(failLogId, -1, newAlarmStatus);
-                            }
+                        List<Long> failLogIds = claimFailLogIds(CLAIM_SIZE);
+                        if (!failLogIds.isEmpty()) {
+                            List<XxlJobLog> failLogs =
+                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().loadByIds(failLogIds, null, null);
+                            dispatch(failLogs);
                         }
 
+                        // alarm buckets out of window
+                        flushAlarm(false);
                     } catch (Exception e) {
                         if (!toStop) {
                             logger.error(">>>>>>>>>>> xxl-job, job fail monitor thread error:{}", e);
@@ -98,6 +114,13 @@ public class JobFailMonitorHelper {
 
                 }
 
+                // claimed logs not left locked
+                try {
+                    flushAlarm(true);
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, job fail monitor flush alarm error:{}", e);
+                }
+
                 logger.info(">>>>>>>>>>> xxl-job, job fail monitor thread stop");
 
             }
@@ -116,6 +139,177 @@ public class JobFailMonitorHelper {
         } catch (InterruptedException e) {
             logger.error(e.getMessage(), e);
         }
+
+        // wait alarm in progress
+        alarmPool.shutdown();
+        try {
+            if (!alarmPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn(">>>>>>>>>>> xxl-job, job fail alarm pool stop with {} pending", alarmPool.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    // ---------------------- claim ----------------------
+
+    /**
+     * lock fail logs of alarm status 0, in one tx
+     *
+     * @return claimed log ids, alarm status locked (-1)
+     */
+    private List<Long> claimFailLogIds(final int pagesize) {
+        return XxlJobAdminConfig.getAdminConfig().getTransactionTemplate()
+            .execute(new TransactionCallback<List<Long>>() {
+                @Override
+                public List<Long> doInTransaction(TransactionStatus status) {
+                    List<Long> logIds =
+                        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findFailJobLogIds(pagesize);
+                    if (logIds != null && !logIds.isEmpty()) {
+                        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                            .lockAlarm(logIds, System.currentTimeMillis());
+                    }
+                    return logIds != null ? logIds : new ArrayList<Long>();
+                }
+            });
+    }
+
+    /**
+     * locked alarms of a crashed admin node, back to alarm status 0 and claimed again
+     */
+    private void unlockStaleAlarm() {
+        long nowTime = System.currentTimeMillis();
+        if (nowTime - unlockTime < LOCK_STALE_INTERVAL_MS) {
+            return;
+        }
+        unlockTime = nowTime;
+
+        int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().unlockStaleAlarm(nowTime - LOCK_STALE_MS);
+        if (ret > 0) {
+            logger.warn(">>>>>>>>>>> xxl-job, job fail alarm lock timeout, unlocked:{}", ret);
+        }
+    }
+
+    // ---------------------- dispatch ----------------------
+
+    private void dispatch(List<XxlJobLog> failLogs) {
+        List<Long> noAlarmLogIds = new ArrayList<Long>();
+        for (final XxlJobLog log : failLogs) {
+
+            // 1、fail retry monitor
+            if (log.getExecutorFailRetryCount() > 0) {
+                alarmPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            JobTriggerPoolHelper.trigger(log.getJobId(), TriggerTypeEnum.RETRY,
+                                (log.getExecutorFailRetryCount() - 1), log.getExecutorShardingParam(),
+                                log.getExecutorParam(), null);
+                            log.setTriggerMsg(TriggerMsg.markRetried(log.getTriggerMsg()));
+                            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(log);
+                        } catch (Exception e) {
+                            logger.error(">>>>>>>>>>> xxl-job, job fail retry error, JobLogId:{}", log.getId(), e);
+                        }
+                    }
+                });
+            }
+
+            // 2、fail alarm monitor, coalesced by job
+            XxlJobInfo info = JobInfoCacheHelper.getInstance().loadJobInfo(log.getJobId());
+            if (info == null) {
+                noAlarmLogIds.add(log.getId());
+                continue;
+            }
+            AlarmBucket bucket = alarmBuckets.get(log.getJobId());
+            if (bucket == null) {
+                Long lastAlarmTime = lastAlarmTimes.get(log.getJobId());
+                bucket = new AlarmBucket(lastAlarmTime != null ? lastAlarmTime + ALARM_WINDOW_MS : 0);
+                alarmBuckets.put(log.getJobId(), bucket);
+            }
+            bucket.info = info;
+            bucket.logs.add(log);
+        }
+
+        if (!noAlarmLogIds.isEmpty()) {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                .updateAlarmStatusBatch(noAlarmLogIds, ALARM_LOCKED, ALARM_NONE);
+        }
+    }
+
+    /**
+     * alarm buckets out of window, one alarm per job
+     *
+     * @param all flush all, on stop
+     */
+    private void flushAlarm(boolean all) {
+        long nowTime = System.currentTimeMillis();
+        int pendingCount = 0;
+        for (Iterator<Map.Entry<Integer, AlarmBucket>> it = alarmBuckets.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, AlarmBucket> item = it.next();
+            final AlarmBucket bucket = item.getValue();
+            if (!all && bucket.alarmTime > nowTime) {
+                pendingCount += bucket.logs.size();
+                continue;
+            }
+            it.remove();
+            lastAlarmTimes.put(item.getKey(), nowTime);
+
+            alarmPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    alarm(bucket);
+                }
+            });
+        }
+
+        // jobs out of window, no bucket
+        for (Iterator<Map.Entry<Integer, Long>> it = lastAlarmTimes.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Long> item = it.next();
+            if (nowTime - item.getValue() > ALARM_WINDOW_MS && !alarmBuckets.containsKey(item.getKey())) {
+                it.remove();
+            }
+        }
+        alarmPendingCount = pendingCount;
+    }
+
+    private void alarm(AlarmBucket bucket) {
+        XxlJobLog latestLog = bucket.logs.get(bucket.logs.size() - 1);
+        boolean alarmResult = false;
+        try {
+            alarmResult = XxlJobAdminConfig.getAdminConfig().getJobAlarmer().alarm(bucket.info, latestLog);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, job fail alarm error, JobLogId:{}", latestLog.getId(), e);
+        }
+        if (bucket.logs.size() > 1) {
+            logger.info(">>>>>>>>>>> xxl-job, job fail alarm coalesced, jobId:{}, fail logs:{}", bucket.info.getId(),
+                bucket.logs.size());
+        }
+
+        List<Long> logIds = new ArrayList<Long>(bucket.logs.size());
+        for (XxlJobLog log : bucket.logs) {
+            logIds.add(log.getId());
+        }
+        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+            .updateAlarmStatusBatch(logIds, ALARM_LOCKED, alarmResult ? ALARM_SUCCESS : ALARM_FAIL);
+    }
+
+    private static class AlarmBucket {
+        private final long alarmTime;       // alarm at, 0: now
+        private final List<XxlJobLog> logs = new ArrayList<XxlJobLog>();
+        private XxlJobInfo info;
+
+        public AlarmBucket(long alarmTime) {
+            this.alarmTime = alarmTime;
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    /**
+     * fail logs waiting for the alarm window of their job
+     */
+    public int getAlarmPendingCount() {
+        return alarmPendingCount;
     }
 
 }
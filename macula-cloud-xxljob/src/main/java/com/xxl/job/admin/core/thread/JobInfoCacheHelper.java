@@ -0,0 +1,219 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * local cache of job info and job group, for trigger / complete / fail-monitor path
+ *
+ * <pre>
+ *     a、load: cache hit returns a copy, callers may change it freely；
+ *     b、invalidate: job/group edit on this node (service, controller, registry monitor)；
+ *     c、reconcile: compare cached "version" with db periodically, drop changed and deleted rows (edit on other nodes)；
+ *     d、schedule fields (trigger_status, trigger_last_time, trigger_next_time) are not kept fresh, load from db for them；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobInfoCacheHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobInfoCacheHelper.class);
+
+    private static JobInfoCacheHelper instance = new JobInfoCacheHelper();
+
+    public static JobInfoCacheHelper getInstance() {
+        return instance;
+    }
+
+    private static final long RECONCILE_INTERVAL_MS = 30 * 1000;
+    private static final int RECONCILE_BATCH_SIZE = 1000;
+
+    private final ConcurrentMap<Integer, XxlJobInfo> jobInfoCache = new ConcurrentHashMap<Integer, XxlJobInfo>();
+    private final ConcurrentMap<Integer, XxlJobGroup> jobGroupCache = new ConcurrentHashMap<Integer, XxlJobGroup>();
+    private final AtomicLong invalidateVersion = new AtomicLong();     // avoid caching a row loaded before invalidate
+
+    private Thread reconcileThread;
+    private volatile boolean toStop = false;
+
+    public void start() {
+        reconcileThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(RECONCILE_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+
+                    try {
+                        reconcile();
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobInfoCacheHelper#reconcileThread error:{}", e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobInfoCacheHelper#reconcileThread stop");
+            }
+        });
+        reconcileThread.setDaemon(true);
+        reconcileThread.setName("xxl-job, admin JobInfoCacheHelper#reconcileThread");
+        reconcileThread.start();
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // interrupt and wait
+        reconcileThread.interrupt();
+        try {
+            reconcileThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+
+        jobInfoCache.clear();
+        jobGroupCache.clear();
+    }
+
+    // ---------------------- load ----------------------
+
+    /**
+     * load job info, copy of cached row
+     *
+     * @param jobId
+     * @return null if not exists
+     */
+    public XxlJobInfo loadJobInfo(int jobId) {
+        XxlJobInfo jobInfo = jobInfoCache.get(jobId);
+        if (jobInfo == null) {
+            long version = invalidateVersion.get();
+            jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+            if (jobInfo == null) {
+                return null;
+            }
+            if (version == invalidateVersion.get()) {
+                jobInfoCache.put(jobId, jobInfo);
+            }
+        }
+
+        XxlJobInfo copy = new XxlJobInfo();
+        BeanUtils.copyProperties(jobInfo, copy);
+        return copy;
+    }
+
+    /**
+     * load job group, copy of cached row
+     *
+     * @param jobGroup
+     * @return null if not exists
+     */
+    public XxlJobGroup loadJobGroup(int jobGroup) {
+        XxlJobGroup group = jobGroupCache.get(jobGroup);
+        if (group == null) {
+            long version = invalidateVersion.get();
+            group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobGroup);
+            if (group == null) {
+                return null;
+            }
+            if (version == invalidateVersion.get()) {
+                jobGroupCache.put(jobGroup, group);
+            }
+        }
+
+        XxlJobGroup copy = new XxlJobGroup();
+        BeanUtils.copyProperties(group, copy);
+        return copy;
+    }
+
+    // ---------------------- invalidate ----------------------
+
+    public void invalidateJobInfo(int jobId) {
+        invalidateVersion.incrementAndGet();
+        jobInfoCache.remove(jobId);
+    }
+
+    public void invalidateJobGroup(int jobGroup) {
+        invalidateVersion.incrementAndGet();
+        jobGroupCache.remove(jobGroup);
+    }
+
+    // ---------------------- reconcile ----------------------
+
+    private void reconcile() {
+        int jobInfoDropped = 0;
+        List<Integer> jobIds = new ArrayList<Integer>(jobInfoCache.keySet());
+        for (int i = 0; i < jobIds.size(); i += RECONCILE_BATCH_SIZE) {
+            List<Integer> ids = jobIds.subList(i, Math.min(i + RECONCILE_BATCH_SIZE, jobIds.size()));
+            List<XxlJobInfo> versionList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().findVersionByIds(ids);
+
+            Map<Integer, Long> versionMap = new HashMap<Integer, Long>();
+            if (versionList != null) {
+                for (XxlJobInfo item : versionList) {
+                    versionMap.put(item.getId(), item.getVersion());
+                }
+            }
+            for (Integer id : ids) {
+                XxlJobInfo cached = jobInfoCache.get(id);
+                if (cached != null && !sameVersion(cached.getVersion(), versionMap.get(id))) {
+                    invalidateJobInfo(id);
+                    jobInfoDropped++;
+                }
+            }
+        }
+
+        int jobGroupDropped = 0;
+        List<Integer> groupIds = new ArrayList<Integer>(jobGroupCache.keySet());
+        if (!groupIds.isEmpty()) {
+            List<XxlJobGroup> versionList =
+                XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findVersionByIds(groupIds);
+
+            Map<Integer, Long> versionMap = new HashMap<Integer, Long>();
+            if (versionList != null) {
+                for (XxlJobGroup item : versionList) {
+                    versionMap.put(item.getId(), item.getVersion());
+                }
+            }
+            for (Integer id : groupIds) {
+                XxlJobGroup cached = jobGroupCache.get(id);
+                if (cached != null && !sameVersion(cached.getVersion(), versionMap.get(id))) {
+                    invalidateJobGroup(id);
+                    jobGroupDropped++;
+                }
+            }
+        }
+
+        if (jobInfoDropped > 0 || jobGroupDropped > 0) {
+            logger.debug(">>>>>>>>>>> xxl-job, job cache reconcile, job info dropped:{}, job group dropped:{}",
+                jobInfoDropped, jobGroupDropped);
+        }
+    }
+
+    private static boolean sameVersion(long cached, Long current) {
+        // deleted row: current is null
+        return current != null && cached == current;
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getJobInfoCacheSize() {
+        return jobInfoCache.size();
+    }
+
+    public int getJobGroupCacheSize() {
+        return jobGroupCache.size();
+    }
+
+}
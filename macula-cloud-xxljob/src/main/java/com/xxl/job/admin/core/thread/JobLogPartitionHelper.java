@@ -0,0 +1,276 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job log partition helper, xxl_job_log range partitioned by TO_DAYS(trigger_time)
+ *
+ * <pre>
+ *     a、mode: xxl.job.log.partition = day / month, table converted once by docs/macula-xxljob-log-partition.sql；
+ *     b、create: partitions of next 7 days / 2 months added hourly, split from the MAXVALUE partition (kept empty)；
+ *     c、retention: partitions entirely before clear time dropped, only rows of the boundary partition deleted；
+ *     d、DDL of other admin node may fail same partition, ignored and checked again next round；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobLogPartitionHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobLogPartitionHelper.class);
+
+    private static JobLogPartitionHelper instance = new JobLogPartitionHelper();
+
+    public static JobLogPartitionHelper getInstance() {
+        return instance;
+    }
+
+    private static final int PRE_CREATE_DAYS = 7;
+    private static final int PRE_CREATE_MONTHS = 2;
+    private static final long CHECK_INTERVAL_MS = 60 * 60 * 1000;
+    private static final long TO_DAYS_EPOCH = 719528;        // TO_DAYS('1970-01-01')
+    private static final String MAXVALUE = "MAXVALUE";
+
+    private Thread partitionThread;
+    private volatile boolean toStop = false;
+    private volatile boolean partitioned = false;
+
+    public void start() {
+        partitionThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        createPartition();
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobLogPartitionHelper#partitionThread error:{}", e);
+                        }
+                    }
+
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(CHECK_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobLogPartitionHelper#partitionThread stop");
+            }
+        });
+        partitionThread.setDaemon(true);
+        partitionThread.setName("xxl-job, admin JobLogPartitionHelper#partitionThread");
+        partitionThread.start();
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // interrupt and wait
+        partitionThread.interrupt();
+        try {
+            partitionThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * partition mode on, and table partitioned
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    // ---------------------- partition ----------------------
+
+    private synchronized void createPartition() throws SQLException {
+        List<String[]> partitionList = loadPartition();
+        partitioned = !partitionList.isEmpty();
+        if (!partitioned) {
+            logger.warn(">>>>>>>>>>> xxl-job, log partition mode on, but xxl_job_log not partitioned, "
+                + "convert by docs/macula-xxljob-log-partition.sql");
+            return;
+        }
+
+        boolean dayMode = "day".equals(XxlJobAdminConfig.getAdminConfig().getLogPartition());
+        String[] lastPartition = partitionList.get(partitionList.size() - 1);
+        LocalDate bound = null;
+        for (String[] item : partitionList) {
+            if (!MAXVALUE.equals(item[1])) {
+                bound = LocalDate.ofEpochDay(Long.parseLong(item[1]) - TO_DAYS_EPOCH);
+            }
+        }
+
+        // partitions ahead
+        LocalDate today = LocalDate.now();
+        LocalDate target = dayMode ? today.plusDays(PRE_CREATE_DAYS + 1)
+            : today.withDayOfMonth(1).plusMonths(PRE_CREATE_MONTHS + 1);
+        DateTimeFormatter nameFormat = DateTimeFormatter.ofPattern(dayMode ? "yyyyMMdd" : "yyyyMM");
+        StringBuilder partitionDef = new StringBuilder();
+        LocalDate next = bound != null ? nextBound(bound, dayMode) : nextBound(today, dayMode);
+        while (!next.isAfter(target)) {
+            partitionDef.append(partitionDef.length() > 0 ? ", " : "")
+                .append("PARTITION p").append(next.minusDays(1).format(nameFormat))
+                .append(" VALUES LESS THAN (TO_DAYS('").append(next).append("'))");
+            next = nextBound(next, dayMode);
+        }
+        if (partitionDef.length() == 0) {
+            return;
+        }
+
+        String ddl;
+        if (MAXVALUE.equals(lastPartition[1])) {
+            ddl = "ALTER TABLE xxl_job_log REORGANIZE PARTITION " + lastPartition[0] + " INTO (" + partitionDef
+                + ", PARTITION " + lastPartition[0] + " VALUES LESS THAN MAXVALUE)";
+        } else {
+            ddl = "ALTER TABLE xxl_job_log ADD PARTITION (" + partitionDef + ")";
+        }
+        executeDdl(ddl);
+        logger.info(">>>>>>>>>>> xxl-job, log partition created: {}", partitionDef);
+    }
+
+    /**
+     * drop partitions entirely before clear time
+     *
+     * @param clearBeforeTime
+     * @return dropped partition count, 0 if not partitioned
+     */
+    public synchronized int dropBefore(Date clearBeforeTime) {
+        if (!partitioned || clearBeforeTime == null) {
+            return 0;
+        }
+        try {
+            LocalDate clearBeforeDay =
+                Instant.ofEpochMilli(clearBeforeTime.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+            long clearBeforeDays = clearBeforeDay.toEpochDay() + TO_DAYS_EPOCH;
+
+            List<String> dropList = new ArrayList<String>();
+            for (String[] item : loadPartition()) {
+                if (!MAXVALUE.equals(item[1]) && Long.parseLong(item[1]) <= clearBeforeDays) {
+                    dropList.add(item[0]);
+                }
+            }
+            if (dropList.isEmpty()) {
+                return 0;
+            }
+
+            StringBuilder partitionNames = new StringBuilder();
+            for (String name : dropList) {
+                partitionNames.append(partitionNames.length() > 0 ? ", " : "").append(name);
+            }
+            executeDdl("ALTER TABLE xxl_job_log DROP PARTITION " + partitionNames);
+            logger.info(">>>>>>>>>>> xxl-job, log partition dropped: {}", partitionNames);
+            return dropList.size();
+        } catch (SQLException e) {
+            logger.error(">>>>>>>>>>> xxl-job, log partition drop fail, rows deleted instead.", e);
+            return 0;
+        }
+    }
+
+    /**
+     * truncate all partitions
+     *
+     * @return false if not partitioned
+     */
+    public synchronized boolean truncateAll() {
+        if (!partitioned) {
+            return false;
+        }
+        try {
+            executeDdl("ALTER TABLE xxl_job_log TRUNCATE PARTITION ALL");
+            return true;
+        } catch (SQLException e) {
+            logger.error(">>>>>>>>>>> xxl-job, log partition truncate fail, rows deleted instead.", e);
+            return false;
+        }
+    }
+
+    private static LocalDate nextBound(LocalDate bound, boolean dayMode) {
+        return dayMode ? bound.plusDays(1) : bound.withDayOfMonth(1).plusMonths(1);
+    }
+
+    /**
+     * @return partition name and description (TO_DAYS bound or MAXVALUE), ordered; empty if not partitioned
+     */
+    private List<String[]> loadPartition() throws SQLException {
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement(
+                "select PARTITION_NAME, PARTITION_DESCRIPTION from information_schema.PARTITIONS "
+                    + "where TABLE_SCHEMA = database() and TABLE_NAME = 'xxl_job_log' and PARTITION_NAME is not null "
+                    + "order by PARTITION_ORDINAL_POSITION");
+            resultSet = preparedStatement.executeQuery();
+
+            List<String[]> partitionList = new ArrayList<String[]>();
+            while (resultSet.next()) {
+                partitionList.add(new String[] {resultSet.getString(1), resultSet.getString(2)});
+            }
+            return partitionList;
+        } finally {
+            close(conn, preparedStatement, resultSet);
+        }
+    }
+
+    private void executeDdl(String ddl) throws SQLException {
+        Connection conn = null;
+        Statement statement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            statement = conn.createStatement();
+            statement.execute(ddl);
+        } finally {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            close(conn, null, null);
+        }
+    }
+
+    private void close(Connection conn, PreparedStatement preparedStatement, ResultSet resultSet) {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (preparedStatement != null) {
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+}
@@ -2,18 +2,34 @@ package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobLogReport;
+import com.xxl.job.admin.core.model.XxlJobLogReportHour;
+import com.xxl.job.core.biz.model.ReturnT;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * job log report helper
  *
+ * <pre>
+ *     a、incremental: trigger / handle result add counts in memory by job and hour, flushed every 10s as increments,
+ *        additive across admin nodes, both day report and hour report；
+ *     b、check: closed hours of last 3 days recomputed from job log, hourly and after log clear, on one admin node at
+ *        a time (report_lock); the difference applied as increment, so increments of other nodes are kept, job-hours
+ *        with a log changed in the last minute skipped (increment maybe not flushed yet)；
+ *     c、log-clean: switch open & once each day；
+ * </pre>
+ *
  * @author xuxueli 2019-11-22
  */
 public class JobLogReportHelper {
@@ -25,8 +41,15 @@ public class JobLogReportHelper {
         return instance;
     }
 
+    private static final long FLUSH_INTERVAL_MS = 10 * 1000;
+    private static final long CHECK_INTERVAL_MS = 60 * 60 * 1000;
+    private static final long HOUR_MS = 60 * 60 * 1000;
+    private static final long CHECK_QUIET_MS = 60 * 1000;      // > flush interval, increments of all nodes flushed
+    private static final int BATCH_SIZE = 500;
+
     private Thread logrThread;
     private volatile boolean toStop = false;
+    private volatile boolean checkPending = false;
 
     public void start() {
         logrThread = new Thread(new Runnable() {
@@ -34,73 +57,35 @@ public class JobLogReportHelper {
             @Override
             public void run() {
 
-                // last clean log time
+                // last check / clean log time, no check on start: report kept by increments
+                long lastCheckTime = System.currentTimeMillis();
                 long lastCleanLogTime = 0;
 
                 while (!toStop) {
 
-                    // 1、log-report refresh: refresh log report in 3 days
+                    // 1、log-report flush: increments of trigger / handle result
                     try {
-
-                        for (int i = 0; i < 3; i++) {
-
-                            // today
-                            Calendar itemDay = Calendar.getInstance();
-                            itemDay.add(Calendar.DAY_OF_MONTH, -i);
-                            itemDay.set(Calendar.HOUR_OF_DAY, 0);
-                            itemDay.set(Calendar.MINUTE, 0);
-                            itemDay.set(Calendar.SECOND, 0);
-                            itemDay.set(Calendar.MILLISECOND, 0);
-
-                            Date todayFrom = itemDay.getTime();
-
-                            itemDay.set(Calendar.HOUR_OF_DAY, 23);
-                            itemDay.set(Calendar.MINUTE, 59);
-                            itemDay.set(Calendar.SECOND, 59);
-                            itemDay.set(Calendar.MILLISECOND, 999);
-
-                            Date todayTo = itemDay.getTime();
-
-                            // refresh log-report every minute
-                            XxlJobLogReport xxlJobLogReport = new XxlJobLogReport();
-                            xxlJobLogReport.setTriggerDay(todayFrom);
-                            xxlJobLogReport.setRunningCount(0);
-                            xxlJobLogReport.setSucCount(0);
-                            xxlJobLogReport.setFailCount(0);
-
-                            Map<String, Object> triggerCountMap =
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findLogReport(todayFrom, todayTo);
-                            if (triggerCountMap != null && triggerCountMap.size() > 0) {
-                                int triggerDayCount = triggerCountMap.containsKey("triggerDayCount") ? Integer.valueOf(
-                                    String.valueOf(triggerCountMap.get("triggerDayCount"))) : 0;
-                                int triggerDayCountRunning =
-                                    triggerCountMap.containsKey("triggerDayCountRunning") ? Integer.valueOf(
-                                        String.valueOf(triggerCountMap.get("triggerDayCountRunning"))) : 0;
-                                int triggerDayCountSuc =
-                                    triggerCountMap.containsKey("triggerDayCountSuc") ? Integer.valueOf(
-                                        String.valueOf(triggerCountMap.get("triggerDayCountSuc"))) : 0;
-                                int triggerDayCountFail = triggerDayCount - triggerDayCountRunning - triggerDayCountSuc;
-
-                                xxlJobLogReport.setRunningCount(triggerDayCountRunning);
-                                xxlJobLogReport.setSucCount(triggerDayCountSuc);
-                                xxlJobLogReport.setFailCount(triggerDayCountFail);
-                            }
-
-                            // do refresh
-                            int ret =
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao().update(xxlJobLogReport);
-                            if (ret < 1) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao().save(xxlJobLogReport);
-                            }
-                        }
-
+                        flush();
                     } catch (Exception e) {
                         if (!toStop) {
                             logger.error(">>>>>>>>>>> xxl-job, job log report thread error:{}", e);
                         }
                     }
 
-                    // 2、log-clean: switch open & once each day
+                    // 2、log-report check: recompute closed hours in 3 days, hourly or after log clear
+                    if (checkPending || System.currentTimeMillis() - lastCheckTime > CHECK_INTERVAL_MS) {
+                        checkPending = false;
+                        try {
+                            check();
+                            lastCheckTime = System.currentTimeMillis();
+                        } catch (Exception e) {
+                            if (!toStop) {
+                                logger.error(">>>>>>>>>>> xxl-job, job log report thread error:{}", e);
+                            }
+                        }
+                    }
+
+                    // 3、log-clean: switch open & once each day
                     if (XxlJobAdminConfig.getAdminConfig()
                         .getLogretentiondays() > 0 && System.currentTimeMillis() - lastCleanLogTime > 24 * 60 * 60 * 1000) {
 
@@ -114,22 +99,28 @@ public class JobLogReportHelper {
                         expiredDay.set(Calendar.MILLISECOND, 0);
                         Date clearBeforeTime = expiredDay.getTime();
 
-                        // clean expired log
+                        // clean expired log, whole partitions dropped if partitioned
+                        JobLogPartitionHelper.getInstance().dropBefore(clearBeforeTime);
                         List<Long> logIds = null;
                         do {
                             logIds = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
-                                .findClearLogIds(0, 0, clearBeforeTime, 0, 1000);
+                                .findClearLogIds(0, 0, clearBeforeTime, null, 1000);
                             if (logIds != null && logIds.size() > 0) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().clearLog(logIds);
+                                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao()
+                                    .clearLog(logIds, clearBeforeTime, null);
                             }
                         } while (logIds != null && logIds.size() > 0);
 
+                        // clean expired hour report, day report kept
+                        XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+                            .deleteHour(new Date(0), new Date(clearBeforeTime.getTime() - 1));
+
                         // update clean time
                         lastCleanLogTime = System.currentTimeMillis();
                     }
 
                     try {
-                        TimeUnit.MINUTES.sleep(1);
+                        TimeUnit.MILLISECONDS.sleep(FLUSH_INTERVAL_MS);
                     } catch (Exception e) {
                         if (!toStop) {
                             logger.error(e.getMessage(), e);
@@ -138,6 +129,13 @@ public class JobLogReportHelper {
 
                 }
 
+                // flush left increments
+                try {
+                    flush();
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, job log report thread error:{}", e);
+                }
+
                 logger.info(">>>>>>>>>>> xxl-job, job log report thread stop");
 
             }
@@ -158,4 +156,299 @@ public class JobLogReportHelper {
         }
     }
 
+    // ---------------------- increment ----------------------
+
+    // swap on flush, write lock only held by swap
+    private final ReentrantReadWriteLock countLock = new ReentrantReadWriteLock();
+    private volatile ConcurrentMap<ReportKey, ReportCount> countMap = new ConcurrentHashMap<ReportKey, ReportCount>();
+
+    /**
+     * trigger result saved: running (trigger success) or fail
+     */
+    public void onTrigger(int jobId, Date triggerTime, int triggerCode) {
+        if (triggerCode == ReturnT.SUCCESS_CODE) {
+            add(jobId, triggerTime, 1, 0, 0);
+        } else {
+            add(jobId, triggerTime, 0, 0, 1);
+        }
+    }
+
+    /**
+     * handle result saved (callback, lost, kill), log had no handle result before
+     */
+    public void onHandle(int jobId, Date triggerTime, int triggerCode, int handleCode) {
+        boolean running = triggerCode == 0 || triggerCode == ReturnT.SUCCESS_CODE;
+        boolean success = handleCode == ReturnT.SUCCESS_CODE;
+        if (running) {
+            add(jobId, triggerTime, -1, success ? 1 : 0, success ? 0 : 1);
+        } else if (success) {
+            add(jobId, triggerTime, 0, 1, -1);
+        }
+    }
+
+    /**
+     * log deleted, recompute on next tick
+     */
+    public void requestCheck() {
+        checkPending = true;
+    }
+
+    private void add(int jobId, Date triggerTime, int running, int suc, int fail) {
+        if (triggerTime == null) {
+            return;
+        }
+        long time = triggerTime.getTime();
+        ReportKey key = new ReportKey(jobId, time - Math.floorMod(time + TimeZone.getDefault().getOffset(time), HOUR_MS));
+
+        countLock.readLock().lock();
+        try {
+            ReportCount count = countMap.get(key);
+            if (count == null) {
+                ReportCount newCount = new ReportCount();
+                count = countMap.putIfAbsent(key, newCount);
+                if (count == null) {
+                    count = newCount;
+                }
+            }
+            count.running.addAndGet(running);
+            count.suc.addAndGet(suc);
+            count.fail.addAndGet(fail);
+        } finally {
+            countLock.readLock().unlock();
+        }
+    }
+
+    private void flush() {
+        ConcurrentMap<ReportKey, ReportCount> flushMap;
+        countLock.writeLock().lock();
+        try {
+            flushMap = countMap;
+            countMap = new ConcurrentHashMap<ReportKey, ReportCount>();
+        } finally {
+            countLock.writeLock().unlock();
+        }
+        if (flushMap.isEmpty()) {
+            return;
+        }
+
+        // hour report, and sum by day
+        List<XxlJobLogReportHour> hourList = new ArrayList<XxlJobLogReportHour>();
+        Map<Date, XxlJobLogReport> dayMap = new TreeMap<Date, XxlJobLogReport>();
+        for (Map.Entry<ReportKey, ReportCount> item : flushMap.entrySet()) {
+            ReportCount count = item.getValue();
+            if (count.running.get() == 0 && count.suc.get() == 0 && count.fail.get() == 0) {
+                continue;
+            }
+
+            XxlJobLogReportHour hourReport = new XxlJobLogReportHour();
+            hourReport.setJobId(item.getKey().jobId);
+            hourReport.setTriggerHour(new Date(item.getKey().triggerHour));
+            hourReport.setRunningCount(count.running.get());
+            hourReport.setSucCount(count.suc.get());
+            hourReport.setFailCount(count.fail.get());
+            hourList.add(hourReport);
+
+            Date triggerDay = startOfDay(hourReport.getTriggerHour());
+            XxlJobLogReport dayReport = dayMap.get(triggerDay);
+            if (dayReport == null) {
+                dayReport = new XxlJobLogReport();
+                dayReport.setTriggerDay(triggerDay);
+                dayMap.put(triggerDay, dayReport);
+            }
+            dayReport.setRunningCount(dayReport.getRunningCount() + hourReport.getRunningCount());
+            dayReport.setSucCount(dayReport.getSucCount() + hourReport.getSucCount());
+            dayReport.setFailCount(dayReport.getFailCount() + hourReport.getFailCount());
+        }
+        if (hourList.isEmpty()) {
+            return;
+        }
+
+        try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+                .saveOrIncrease(new ArrayList<XxlJobLogReport>(dayMap.values()));
+            for (int i = 0; i < hourList.size(); i += BATCH_SIZE) {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+                    .saveOrIncreaseHour(hourList.subList(i, Math.min(i + BATCH_SIZE, hourList.size())));
+            }
+        } catch (Exception e) {
+            // increments lost, recompute
+            logger.error(">>>>>>>>>>> xxl-job, job log report flush fail, recompute on next tick.", e);
+            checkPending = true;
+        }
+    }
+
+    // ---------------------- check ----------------------
+
+    private void check() throws SQLException {
+        Connection conn = null;
+        Boolean connAutoCommit = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            connAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            // one node at a time, skip if checking on another node
+            preparedStatement = conn.prepareStatement(
+                "select lock_name from xxl_job_lock where lock_name = 'report_lock' for update skip locked");
+            resultSet = preparedStatement.executeQuery();
+            if (!resultSet.next()) {
+                logger.debug(">>>>>>>>>>> xxl-job, job log report check skipped, checking on another admin node.");
+                return;
+            }
+
+            recompute();
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.commit();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+                try {
+                    conn.setAutoCommit(connAutoCommit);
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+                if (resultSet != null) {
+                    try {
+                        resultSet.close();
+                    } catch (SQLException e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                if (preparedStatement != null) {
+                    try {
+                        preparedStatement.close();
+                    } catch (SQLException e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * closed hours of last 3 days: job log count minus report count, added to report
+     */
+    private void recompute() {
+        long nowTime = System.currentTimeMillis();
+        Calendar from = Calendar.getInstance();
+        from.add(Calendar.DAY_OF_MONTH, -2);
+        Date hourFrom = startOfDay(from.getTime());
+        Date hourTo = new Date(nowTime - Math.floorMod(nowTime + TimeZone.getDefault().getOffset(nowTime), HOUR_MS) - 1);
+        long quietTime = nowTime - CHECK_QUIET_MS;
+
+        Map<ReportKey, XxlJobLogReportHour> reportMap = new HashMap<ReportKey, XxlJobLogReportHour>();
+        for (XxlJobLogReportHour report : XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+            .loadHour(hourFrom, hourTo)) {
+            reportMap.put(new ReportKey(report.getJobId(), report.getTriggerHour().getTime()), report);
+        }
+        List<XxlJobLogReportHour> logList =
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findLogReportHour(hourFrom, hourTo);
+
+        List<XxlJobLogReportHour> deltaList = new ArrayList<XxlJobLogReportHour>();
+        for (XxlJobLogReportHour log : logList) {
+            XxlJobLogReportHour report =
+                reportMap.remove(new ReportKey(log.getJobId(), log.getTriggerHour().getTime()));
+            if (log.getUpdateTime() != null && log.getUpdateTime().getTime() >= quietTime) {
+                continue;
+            }
+            addDelta(deltaList, log, report);
+        }
+        // logs deleted
+        for (XxlJobLogReportHour report : reportMap.values()) {
+            addDelta(deltaList, null, report);
+        }
+        if (deltaList.isEmpty()) {
+            return;
+        }
+
+        // day report, sum of hour delta
+        Map<Date, XxlJobLogReport> dayMap = new TreeMap<Date, XxlJobLogReport>();
+        for (XxlJobLogReportHour delta : deltaList) {
+            Date triggerDay = startOfDay(delta.getTriggerHour());
+            XxlJobLogReport dayReport = dayMap.get(triggerDay);
+            if (dayReport == null) {
+                dayReport = new XxlJobLogReport();
+                dayReport.setTriggerDay(triggerDay);
+                dayMap.put(triggerDay, dayReport);
+            }
+            dayReport.setRunningCount(dayReport.getRunningCount() + delta.getRunningCount());
+            dayReport.setSucCount(dayReport.getSucCount() + delta.getSucCount());
+            dayReport.setFailCount(dayReport.getFailCount() + delta.getFailCount());
+        }
+
+        XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+            .saveOrIncrease(new ArrayList<XxlJobLogReport>(dayMap.values()));
+        for (int i = 0; i < deltaList.size(); i += BATCH_SIZE) {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogReportDao()
+                .saveOrIncreaseHour(deltaList.subList(i, Math.min(i + BATCH_SIZE, deltaList.size())));
+        }
+        logger.info(">>>>>>>>>>> xxl-job, job log report check, job-hours corrected:{}", deltaList.size());
+    }
+
+    private static void addDelta(List<XxlJobLogReportHour> deltaList, XxlJobLogReportHour log,
+        XxlJobLogReportHour report) {
+        XxlJobLogReportHour delta = new XxlJobLogReportHour();
+        delta.setJobId(log != null ? log.getJobId() : report.getJobId());
+        delta.setTriggerHour(log != null ? log.getTriggerHour() : report.getTriggerHour());
+        delta.setRunningCount(
+            (log != null ? log.getRunningCount() : 0) - (report != null ? report.getRunningCount() : 0));
+        delta.setSucCount((log != null ? log.getSucCount() : 0) - (report != null ? report.getSucCount() : 0));
+        delta.setFailCount((log != null ? log.getFailCount() : 0) - (report != null ? report.getFailCount() : 0));
+        if (delta.getRunningCount() != 0 || delta.getSucCount() != 0 || delta.getFailCount() != 0) {
+            deltaList.add(delta);
+        }
+    }
+
+    private static Date startOfDay(Date time) {
+        Calendar day = Calendar.getInstance();
+        day.setTime(time);
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+        day.set(Calendar.MILLISECOND, 0);
+        return day.getTime();
+    }
+
+    private static class ReportKey {
+        private final int jobId;
+        private final long triggerHour;
+
+        public ReportKey(int jobId, long triggerHour) {
+            this.jobId = jobId;
+            this.triggerHour = triggerHour;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ReportKey)) {
+                return false;
+            }
+            ReportKey that = (ReportKey)o;
+            return jobId == that.jobId && triggerHour == that.triggerHour;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * jobId + (int)(triggerHour ^ (triggerHour >>> 32));
+        }
+    }
+
+    private static class ReportCount {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger suc = new AtomicInteger();
+        private final AtomicInteger fail = new AtomicInteger();
+    }
+
 }
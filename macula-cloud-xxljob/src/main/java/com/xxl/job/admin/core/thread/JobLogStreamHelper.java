@@ -0,0 +1,269 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.LogParam;
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * job log stream, rolling log pushed to viewer by sse
+ *
+ * <pre>
+ *     a、stream: one executor log pull loop per viewer, new lines pushed as "log" event, "end" when log finished；
+ *     b、meta: log trigger time and executor address loaded once per stream, handle code re-checked only when idle；
+ *     c、pull: interval grows while no new lines (500ms - 5s), shared small pull pool；
+ *     d、limit: streams over "xxl.job.log.stream.max" get "fallback" event, viewer polls logDetailCat；
+ *     e、heartbeat: sse comment every 15s while no lines, so a gone viewer fails the send and the stream closes；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobLogStreamHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobLogStreamHelper.class);
+
+    private static JobLogStreamHelper instance = new JobLogStreamHelper();
+
+    public static JobLogStreamHelper getInstance() {
+        return instance;
+    }
+
+    private static final int PULL_POOL_SIZE = 8;
+    private static final long PULL_INTERVAL_MIN_MS = 500;
+    private static final long PULL_INTERVAL_MAX_MS = 5000;
+    private static final long HANDLE_CHECK_INTERVAL_MS = 5000;
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int PULL_FAIL_MAX = 20;
+    private static final long HEARTBEAT_INTERVAL_MS = 15 * 1000;
+
+    private ScheduledThreadPoolExecutor pullPool = null;
+    private final AtomicInteger streamCount = new AtomicInteger();
+    private volatile boolean toStop = false;
+    private LogSource logSource;
+    private int streamMax;
+
+    public void start() {
+        start(XxlJobAdminConfig.getAdminConfig().getLogStreamMax(), new LogSource() {
+            @Override
+            public ReturnT<LogResult> log(String executorAddress, LogParam logParam) throws Exception {
+                ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(executorAddress);
+                return executorBiz.log(logParam);
+            }
+
+            @Override
+            public XxlJobLog load(long logId) {
+                return XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(logId);
+            }
+        });
+    }
+
+    void start(int streamMax, LogSource logSource) {
+        this.streamMax = streamMax;
+        this.logSource = logSource;
+        pullPool = new ScheduledThreadPoolExecutor(PULL_POOL_SIZE, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "xxl-job, admin JobLogStreamHelper-pullPool-" + r.hashCode());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // viewer reconnect falls back to polling
+        pullPool.shutdownNow();
+        try {
+            pullPool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        logger.info(">>>>>>>>>>> xxl-job, JobLogStreamHelper stop");
+    }
+
+    // ---------------------- stream ----------------------
+
+    /**
+     * open log stream
+     *
+     * @param jobLog      loaded log, meta cached for the stream
+     * @param fromLineNum [from, to], start as 1
+     * @return emitter, only "fallback" event if stream limited
+     */
+    public SseEmitter stream(XxlJobLog jobLog, int fromLineNum) {
+        return stream(jobLog, fromLineNum, new SseEmitter(STREAM_TIMEOUT_MS));
+    }
+
+    SseEmitter stream(XxlJobLog jobLog, int fromLineNum, SseEmitter emitter) {
+        if (pullPool == null || toStop || streamCount.incrementAndGet() > streamMax) {
+            if (pullPool != null && !toStop) {
+                streamCount.decrementAndGet();
+            }
+            try {
+                emitter.send(SseEmitter.event().name("fallback").data(""));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        final LogStream logStream = new LogStream(emitter, jobLog, fromLineNum);
+        Runnable close = new Runnable() {
+            @Override
+            public void run() {
+                logStream.close();
+            }
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable throwable) {
+                logStream.close();
+            }
+        });
+        pullPool.execute(logStream);
+        return emitter;
+    }
+
+    private class LogStream implements Runnable {
+        private final SseEmitter emitter;
+        private final long logId;
+        private final long logDateTim;
+        private final String executorAddress;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        // pull pool, one pull at a time
+        private int fromLineNum;
+        private int handleCode;
+        private long handleCheckTime;
+        private long pullInterval = PULL_INTERVAL_MIN_MS;
+        private int pullFailCount = 0;
+        private long sendTime = System.currentTimeMillis();
+
+        public LogStream(SseEmitter emitter, XxlJobLog jobLog, int fromLineNum) {
+            this.emitter = emitter;
+            this.logId = jobLog.getId();
+            this.logDateTim = jobLog.getTriggerTime().getTime();
+            this.executorAddress = jobLog.getExecutorAddress();
+            this.fromLineNum = fromLineNum;
+            this.handleCode = jobLog.getHandleCode();
+            this.handleCheckTime = System.currentTimeMillis();
+        }
+
+        @Override
+        public void run() {
+            if (closed.get() || toStop) {
+                return;
+            }
+            try {
+                // done before this pull: no new lines means log end
+                boolean handled = handleCode > 0;
+
+                ReturnT<LogResult> logResult =
+                    logSource.log(executorAddress, new LogParam(logDateTim, logId, fromLineNum));
+                LogResult content = logResult != null ? logResult.getContent() : null;
+                if (logResult == null || logResult.getCode() != ReturnT.SUCCESS_CODE || content == null) {
+                    pullFail(logResult != null ? logResult.getMsg() : null);
+                } else if (content.getFromLineNum() <= content.getToLineNum()) {
+                    pullFailCount = 0;
+                    emitter.send(SseEmitter.event().name("log").data(content, MediaType.APPLICATION_JSON));
+                    sendTime = System.currentTimeMillis();
+                    fromLineNum = content.getToLineNum() + 1;
+                    pullInterval = PULL_INTERVAL_MIN_MS;
+                } else {
+                    pullFailCount = 0;
+                    if (handled) {
+                        emitter.send(SseEmitter.event().name("end").data(""));
+                        emitter.complete();
+                        close();
+                        return;
+                    }
+                    checkHandle();
+                    pullInterval = Math.min(pullInterval * 2, PULL_INTERVAL_MAX_MS);
+                }
+
+                // idle, viewer disconnect only seen on send
+                if (System.currentTimeMillis() - sendTime >= HEARTBEAT_INTERVAL_MS) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                    sendTime = System.currentTimeMillis();
+                }
+            } catch (IOException e) {
+                // viewer gone
+                close();
+                return;
+            } catch (Exception e) {
+                logger.error(">>>>>>>>>>> xxl-job, job log stream pull error, logId:{}", logId, e);
+                pullFail(e.getMessage());
+            }
+
+            if (!closed.get() && !toStop) {
+                pullPool.schedule(this, pullInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void checkHandle() {
+            long nowTime = System.currentTimeMillis();
+            if (nowTime - handleCheckTime < HANDLE_CHECK_INTERVAL_MS) {
+                return;
+            }
+            handleCheckTime = nowTime;
+            XxlJobLog jobLog = logSource.load(logId);
+            if (jobLog != null) {
+                handleCode = jobLog.getHandleCode();
+            }
+        }
+
+        private void pullFail(String msg) {
+            pullInterval = Math.min(pullInterval * 2, PULL_INTERVAL_MAX_MS);
+            if (++pullFailCount > PULL_FAIL_MAX) {
+                try {
+                    emitter.send(SseEmitter.event().name("fail").data(msg != null ? msg : ""));
+                    emitter.complete();
+                } catch (Exception e) {
+                    emitter.completeWithError(e);
+                }
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                streamCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * executor log pull and log handle check, executor biz and log dao; replaced in unit test
+     */
+    interface LogSource {
+        ReturnT<LogResult> log(String executorAddress, LogParam logParam) throws Exception;
+
+        XxlJobLog load(long logId);
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getStreamCount() {
+        return streamCount.get();
+    }
+
+}
@@ -0,0 +1,380 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job log writer, group commit
+ *
+ * <pre>
+ *     a、log id: allocated in blocks from "xxl_job_log_seq", bumped past max(id) once on start, no insert round-trip；
+ *     b、log insert and trigger-info update are buffered, flushed every few ms as one multi-row insert and one jdbc
+ *        batch update, inserts first；
+ *     c、insert never overwrites: a taken log id (admin of an old version writing logs) fails the write loudly；
+ *     d、write returns a future completed after commit, trigger waits for the insert before executor rpc；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobLogWriteHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobLogWriteHelper.class);
+
+    private static JobLogWriteHelper instance = new JobLogWriteHelper();
+
+    public static JobLogWriteHelper getInstance() {
+        return instance;
+    }
+
+    private static final int BATCH_SIZE = 500;          // rows per statement
+    private static final long FLUSH_WAIT_MS = 5;        // wait for more rows after the first one
+    private static final int ID_BLOCK_SIZE = 1000;      // log ids per allocation
+
+    // unbounded, pending writes are limited by trigger pool queue and in-flight rpc
+    private final LinkedBlockingQueue<LogWrite> writeQueue = new LinkedBlockingQueue<LogWrite>();
+    private Thread writeThread;
+    private volatile boolean toStop = false;
+
+    private long nextLogId = 0;
+    private long maxLogId = 0;      // exclusive
+
+    public void start() {
+        initSeq();
+
+        writeThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                List<LogWrite> batch = new ArrayList<LogWrite>(BATCH_SIZE);
+                while (!toStop || !writeQueue.isEmpty()) {
+                    try {
+                        LogWrite first = writeQueue.poll(1, TimeUnit.SECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        batch.add(first);
+
+                        // group commit: collect rows arrived in the flush window
+                        long deadline = System.currentTimeMillis() + FLUSH_WAIT_MS;
+                        while (batch.size() < BATCH_SIZE) {
+                            long wait = deadline - System.currentTimeMillis();
+                            LogWrite next = wait > 0 ? writeQueue.poll(wait, TimeUnit.MILLISECONDS) : writeQueue.poll();
+                            if (next == null) {
+                                break;
+                            }
+                            batch.add(next);
+                        }
+
+                        flush(batch);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    } catch (Exception e) {
+                        logger.error(">>>>>>>>>>> xxl-job, JobLogWriteHelper#writeThread error:{}", e);
+                    } finally {
+                        batch.clear();
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobLogWriteHelper#writeThread stop");
+            }
+        });
+        writeThread.setDaemon(true);
+        writeThread.setName("xxl-job, admin JobLogWriteHelper#writeThread");
+        writeThread.start();
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // drain pending writes and wait
+        try {
+            writeThread.join(10000);
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        if (!writeQueue.isEmpty()) {
+            logger.warn(">>>>>>>>>>> xxl-job, JobLogWriteHelper stop with {} pending writes", writeQueue.size());
+        }
+    }
+
+    // ---------------------- write ----------------------
+
+    /**
+     * insert log, buffered
+     *
+     * @param jobLog id must be allocated by nextLogId
+     * @return completed after commit, exceptionally if insert fail (log id taken etc)
+     */
+    public CompletableFuture<Void> save(XxlJobLog jobLog) {
+        return write(jobLog, false);
+    }
+
+    /**
+     * update log trigger-info, buffered; call after the insert future completed or was queued
+     *
+     * @param jobLog saved by save
+     * @return completed after commit, exceptionally if update fail or log not found
+     */
+    public CompletableFuture<Void> updateTriggerInfo(XxlJobLog jobLog) {
+        return write(jobLog, true);
+    }
+
+    private CompletableFuture<Void> write(XxlJobLog jobLog, boolean update) {
+        // snapshot, caller may go on changing the log
+        XxlJobLog snapshot = new XxlJobLog();
+        BeanUtils.copyProperties(jobLog, snapshot);
+
+        LogWrite logWrite = new LogWrite(snapshot, update);
+        writeQueue.offer(logWrite);
+        return logWrite.future;
+    }
+
+    private void flush(List<LogWrite> batch) {
+        // inserts first, trigger-info update of a log is queued after its insert
+        List<LogWrite> saveList = new ArrayList<LogWrite>(batch.size());
+        List<LogWrite> updateList = new ArrayList<LogWrite>(batch.size());
+        for (LogWrite item : batch) {
+            if (item.update) {
+                updateList.add(item);
+            } else {
+                saveList.add(item);
+            }
+        }
+        if (!saveList.isEmpty()) {
+            flushSave(saveList);
+        }
+        if (!updateList.isEmpty()) {
+            flushUpdate(updateList);
+        }
+    }
+
+    private void flushSave(List<LogWrite> saveList) {
+        List<XxlJobLog> logList = new ArrayList<XxlJobLog>(saveList.size());
+        for (LogWrite item : saveList) {
+            logList.add(item.jobLog);
+        }
+
+        try {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveBatch(logList);
+            for (LogWrite item : saveList) {
+                item.future.complete(null);
+            }
+            return;
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, job log batch insert fail, retry one by one, size:{}", saveList.size(),
+                e);
+        }
+
+        // fallback, one by one, keep the good rows
+        for (LogWrite item : saveList) {
+            try {
+                XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().saveBatch(Collections.singletonList(item.jobLog));
+                item.future.complete(null);
+            } catch (DuplicateKeyException e) {
+                logger.error(">>>>>>>>>>> xxl-job, job log id taken, is an admin of an old version writing logs? "
+                    + "logId:{}", item.jobLog.getId(), e);
+                item.future.completeExceptionally(e);
+            } catch (Exception e) {
+                logger.error(">>>>>>>>>>> xxl-job, job log insert fail, logId:{}", item.jobLog.getId(), e);
+                item.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void flushUpdate(List<LogWrite> updateList) {
+        int[] rets = null;
+        try {
+            rets = updateTriggerInfoBatch(updateList);
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, job log batch update fail, retry one by one, size:{}",
+                updateList.size(), e);
+        }
+
+        for (int i = 0; i < updateList.size(); i++) {
+            LogWrite item = updateList.get(i);
+            try {
+                int ret = rets != null ? rets[i]
+                    : XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(item.jobLog);
+                if (ret > 0 || ret == Statement.SUCCESS_NO_INFO) {
+                    item.future.complete(null);
+                } else {
+                    logger.error(">>>>>>>>>>> xxl-job, job log trigger-info update fail, log not found, logId:{}",
+                        item.jobLog.getId());
+                    item.future.completeExceptionally(
+                        new IllegalStateException("xxl-job, job log not found, logId:" + item.jobLog.getId()));
+                }
+            } catch (Exception e) {
+                logger.error(">>>>>>>>>>> xxl-job, job log trigger-info update fail, logId:{}", item.jobLog.getId(), e);
+                item.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private int[] updateTriggerInfoBatch(List<LogWrite> updateList) {
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement("update xxl_job_log set trigger_code = ?, trigger_msg = ?, "
+                + "executor_address = ?, executor_handler = ?, executor_param = ?, executor_sharding_param = ?, "
+                + "executor_fail_retry_count = ? where id = ?");
+            for (LogWrite item : updateList) {
+                XxlJobLog jobLog = item.jobLog;
+                preparedStatement.setInt(1, jobLog.getTriggerCode());
+                preparedStatement.setString(2, jobLog.getTriggerMsg());
+                preparedStatement.setString(3, jobLog.getExecutorAddress());
+                preparedStatement.setString(4, jobLog.getExecutorHandler());
+                preparedStatement.setString(5, jobLog.getExecutorParam());
+                preparedStatement.setString(6, jobLog.getExecutorShardingParam());
+                preparedStatement.setInt(7, jobLog.getExecutorFailRetryCount());
+                preparedStatement.setLong(8, jobLog.getId());
+                preparedStatement.addBatch();
+            }
+            return preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("xxl-job, batch update trigger info fail.", e);
+        } finally {
+            close(conn, preparedStatement, null);
+        }
+    }
+
+    private static class LogWrite {
+        private final XxlJobLog jobLog;
+        private final boolean update;       // false: insert, true: trigger-info update
+        private final CompletableFuture<Void> future = new CompletableFuture<Void>();
+
+        public LogWrite(XxlJobLog jobLog, boolean update) {
+            this.jobLog = jobLog;
+            this.update = update;
+        }
+    }
+
+    // ---------------------- log id ----------------------
+
+    /**
+     * allocate log id
+     */
+    public synchronized long nextLogId() {
+        if (nextLogId >= maxLogId) {
+            allocateIdBlock();
+        }
+        return nextLogId++;
+    }
+
+    /**
+     * seq row created if missing, bumped past ids of rows inserted without the seq (logs of an old admin version)
+     */
+    private void initSeq() {
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement(
+                "insert ignore into xxl_job_log_seq (seq_name, next_id) values ('log_id', 1)");
+            preparedStatement.executeUpdate();
+            preparedStatement.close();
+
+            preparedStatement = conn.prepareStatement("update xxl_job_log_seq set next_id = greatest(next_id, "
+                + "(select ifnull(max(id), 0) + 1 from xxl_job_log)) where seq_name = 'log_id'");
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(
+                "xxl-job, init xxl_job_log_seq fail, existing install: run docs/macula-xxljob-upgrade.sql.", e);
+        } finally {
+            close(conn, preparedStatement, null);
+        }
+    }
+
+    private void allocateIdBlock() {
+        Connection conn = null;
+        Boolean connAutoCommit = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            connAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            preparedStatement =
+                conn.prepareStatement("update xxl_job_log_seq set next_id = next_id + ? where seq_name = 'log_id'");
+            preparedStatement.setInt(1, ID_BLOCK_SIZE);
+            preparedStatement.executeUpdate();
+            preparedStatement.close();
+
+            preparedStatement = conn.prepareStatement("select next_id from xxl_job_log_seq where seq_name = 'log_id'");
+            resultSet = preparedStatement.executeQuery();
+            if (!resultSet.next()) {
+                throw new IllegalStateException("xxl-job, xxl_job_log_seq not found.");
+            }
+            long blockEnd = resultSet.getLong(1);
+            conn.commit();
+
+            nextLogId = blockEnd - ID_BLOCK_SIZE;
+            maxLogId = blockEnd;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException e2) {
+                    logger.error(e2.getMessage(), e2);
+                }
+            }
+            throw new RuntimeException("xxl-job, allocate log id fail.", e);
+        } finally {
+            if (conn != null && connAutoCommit != null) {
+                try {
+                    conn.setAutoCommit(connAutoCommit);
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            close(conn, preparedStatement, resultSet);
+        }
+    }
+
+    private void close(Connection conn, PreparedStatement preparedStatement, ResultSet resultSet) {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (preparedStatement != null) {
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getPendingCount() {
+        return writeQueue.size();
+    }
+
+}
@@ -16,6 +16,16 @@ import java.util.concurrent.*;
 /**
  * job registry instance
  *
+ * <pre>
+ *     a、address book: executor address and last beat in memory, updated by registry/registryRemove directly；
+ *     b、expire: dead address removed by delay queue, on time instead of next poll；
+ *     c、group address: built from "xxl_job_registry" rows after the row is written, same on every admin node (a beat
+ *        received by one node only never flaps the list between nodes), written only when changed, then change
+ *        listeners notified；
+ *     d、sync: beats received by other admin nodes merged from "xxl_job_registry" every BEAT_TIMEOUT, address whose
+ *        row is gone (removed on other admin node) dropped；
+ * </pre>
+ *
  * @author xuxueli 2016-10-02 19:10:24
  */
 public class JobRegistryHelper {
@@ -27,11 +37,32 @@ public class JobRegistryHelper {
         return instance;
     }
 
+    private static final long REMOVE_GRACE_MS = 5000;     // beat here, db row not yet written
+
+    private long deadTimeoutMs = RegistryConfig.DEAD_TIMEOUT * 1000L;
+
+    // appname -> (address -> last beat)
+    private final ConcurrentMap<String, ConcurrentMap<String, Long>> addressBook =
+        new ConcurrentHashMap<String, ConcurrentMap<String, Long>>();
+    private final DelayQueue<AddressExpire> expireQueue = new DelayQueue<AddressExpire>();
+    private final LinkedBlockingQueue<String> changeQueue = new LinkedBlockingQueue<String>();
+    private final Set<String> changePending = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final List<RegistryListener> listeners = new CopyOnWriteArrayList<RegistryListener>();
+
     private ThreadPoolExecutor registryOrRemoveThreadPool = null;
     private Thread registryMonitorThread;
+    private Thread registryExpireThread;
     private volatile boolean toStop = false;
 
     public void start() {
+        start(RegistryConfig.DEAD_TIMEOUT * 1000L);
+    }
+
+    /**
+     * @param deadTimeoutMs address book expire, db rows always expire by RegistryConfig.DEAD_TIMEOUT
+     */
+    void start(long deadTimeoutMs) {
+        this.deadTimeoutMs = deadTimeoutMs;
 
         // for registry or remove
         registryOrRemoveThreadPool =
@@ -51,75 +82,86 @@ public class JobRegistryHelper {
                 }
             });
 
-        // for monitor
-        registryMonitorThread = new Thread(new Runnable() {
+        // for expire
+        registryExpireThread = new Thread(new Runnable() {
             @Override
             public void run() {
                 while (!toStop) {
                     try {
-                        // auto registry group
-                        List<XxlJobGroup> groupList =
-                            XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findByAddressType(0);
-                        if (groupList != null && !groupList.isEmpty()) {
-
-                            // remove dead address (admin/executor)
-                            List<Integer> ids = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
-                                .findDead(RegistryConfig.DEAD_TIMEOUT, new Date());
-                            if (ids != null && ids.size() > 0) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().removeDead(ids);
-                            }
-
-                            // fresh online address (admin/executor)
-                            HashMap<String, List<String>> appAddressMap = new HashMap<String, List<String>>();
-                            List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
-                                .findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
-                            if (list != null) {
-                                for (XxlJobRegistry item : list) {
-                                    if (RegistryConfig.RegistType.EXECUTOR.name().equals(item.getRegistryGroup())) {
-                                        String appname = item.getRegistryKey();
-                                        List<String> registryList = appAddressMap.get(appname);
-                                        if (registryList == null) {
-                                            registryList = new ArrayList<String>();
-                                        }
-
-                                        if (!registryList.contains(item.getRegistryValue())) {
-                                            registryList.add(item.getRegistryValue());
-                                        }
-                                        appAddressMap.put(appname, registryList);
-                                    }
-                                }
-                            }
-
-                            // fresh group address
-                            for (XxlJobGroup group : groupList) {
-                                List<String> registryList = appAddressMap.get(group.getAppname());
-                                String addressListStr = null;
-                                if (registryList != null && !registryList.isEmpty()) {
-                                    Collections.sort(registryList);
-                                    StringBuilder addressListSB = new StringBuilder();
-                                    for (String item : registryList) {
-                                        addressListSB.append(item).append(",");
-                                    }
-                                    addressListStr = addressListSB.toString();
-                                    addressListStr = addressListStr.substring(0, addressListStr.length() - 1);
+                        AddressExpire expire = expireQueue.take();
+                        ConcurrentMap<String, Long> addressMap = addressBook.get(expire.appname);
+                        if (addressMap == null) {
+                            continue;
+                        }
+                        // beat again after this expire was queued: newer expire queued, skip
+                        Long beat = addressMap.get(expire.address);
+                        if (beat != null && beat + deadTimeoutMs <= System.currentTimeMillis()
+                            && addressMap.remove(expire.address, beat)) {
+                            logger.info(">>>>>>>>>>> xxl-job, registry address expired, appname:{}, address:{}",
+                                expire.appname, expire.address);
+                            markChanged(expire.appname);
+                            for (RegistryListener listener : listeners) {
+                                try {
+                                    listener.onExpire(expire.appname, expire.address);
+                                } catch (Exception e) {
+                                    logger.error(">>>>>>>>>>> xxl-job, registry listener error:{}", e);
                                 }
-                                group.setAddressList(addressListStr);
-                                group.setUpdateTime(new Date());
-
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
                             }
                         }
-                    } catch (Exception e) {
+                    } catch (InterruptedException e) {
                         if (!toStop) {
-                            logger.error(">>>>>>>>>>> xxl-job, job registry monitor thread error:{}", e);
+                            logger.error(">>>>>>>>>>> xxl-job, job registry expire thread error:{}", e);
                         }
+                    } catch (Exception e) {
+                        logger.error(">>>>>>>>>>> xxl-job, job registry expire thread error:{}", e);
                     }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, job registry expire thread stop");
+            }
+        });
+        registryExpireThread.setDaemon(true);
+        registryExpireThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryExpireThread");
+        registryExpireThread.start();
+
+        // for monitor: group address fresh on change, sync with db every BEAT_TIMEOUT
+        registryMonitorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long nextSyncTime = 0;
+                while (!toStop) {
                     try {
-                        TimeUnit.SECONDS.sleep(RegistryConfig.BEAT_TIMEOUT);
+                        long nowTime = System.currentTimeMillis();
+                        if (nowTime >= nextSyncTime) {
+                            syncFromDb(nowTime);
+                            freshGroupAddress(null);
+                            nextSyncTime = nowTime + RegistryConfig.BEAT_TIMEOUT * 1000L;
+                            continue;
+                        }
+
+                        String appname = changeQueue.poll(nextSyncTime - nowTime, TimeUnit.MILLISECONDS);
+                        if (appname != null) {
+                            Set<String> appnames = new HashSet<String>();
+                            appnames.add(appname);
+                            changeQueue.drainTo(appnames);
+                            changePending.removeAll(appnames);
+
+                            freshGroupAddress(appnames);
+                        }
                     } catch (InterruptedException e) {
                         if (!toStop) {
                             logger.error(">>>>>>>>>>> xxl-job, job registry monitor thread error:{}", e);
                         }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, job registry monitor thread error:{}", e);
+                        }
+                        try {
+                            TimeUnit.SECONDS.sleep(1);
+                        } catch (InterruptedException e2) {
+                            if (!toStop) {
+                                logger.error(e2.getMessage(), e2);
+                            }
+                        }
                     }
                 }
                 logger.info(">>>>>>>>>>> xxl-job, job registry monitor thread stop");
@@ -138,11 +180,19 @@ public class JobRegistryHelper {
 
         // stop monitir (interrupt and wait)
         registryMonitorThread.interrupt();
+        registryExpireThread.interrupt();
         try {
             registryMonitorThread.join();
+            registryExpireThread.join();
         } catch (InterruptedException e) {
             logger.error(e.getMessage(), e);
         }
+
+        addressBook.clear();
+        listeners.clear();
+        expireQueue.clear();
+        changeQueue.clear();
+        changePending.clear();
     }
 
     // ---------------------- helper ----------------------
@@ -155,7 +205,12 @@ public class JobRegistryHelper {
             return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
         }
 
-        // async execute
+        // address book, routing sees new address without waiting for the next sync
+        final boolean executor = RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup());
+        final boolean newAddress = executor
+            && beat(registryParam.getRegistryKey(), registryParam.getRegistryValue(), System.currentTimeMillis());
+
+        // async execute, keep db row for other admin nodes; group address fresh once the row is there
         registryOrRemoveThreadPool.execute(new Runnable() {
             @Override
             public void run() {
@@ -166,9 +221,9 @@ public class JobRegistryHelper {
                     XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
                         .registrySave(registryParam.getRegistryGroup(), registryParam.getRegistryKey(),
                             registryParam.getRegistryValue(), new Date());
-
-                    // fresh
-                    freshGroupRegistryInfo(registryParam);
+                }
+                if (executor && (newAddress || ret < 1)) {
+                    markChanged(registryParam.getRegistryKey());
                 }
             }
         });
@@ -184,16 +239,24 @@ public class JobRegistryHelper {
             return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
         }
 
-        // async execute
+        // address book
+        final boolean executor = RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup());
+        if (executor) {
+            ConcurrentMap<String, Long> addressMap = addressBook.get(registryParam.getRegistryKey());
+            if (addressMap != null) {
+                addressMap.remove(registryParam.getRegistryValue());
+            }
+        }
+
+        // async execute, group address fresh once the row is gone
         registryOrRemoveThreadPool.execute(new Runnable() {
             @Override
             public void run() {
                 int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
                     .registryDelete(registryParam.getRegistryGroup(), registryParam.getRegistryKey(),
                         registryParam.getRegistryValue());
-                if (ret > 0) {
-                    // fresh
-                    freshGroupRegistryInfo(registryParam);
+                if (executor && ret > 0) {
+                    markChanged(registryParam.getRegistryKey());
                 }
             }
         });
@@ -201,8 +264,219 @@ public class JobRegistryHelper {
         return ReturnT.SUCCESS;
     }
 
-    private void freshGroupRegistryInfo(RegistryParam registryParam) {
-        // Under consideration, prevent affecting core tables
+    /**
+     * beat address
+     *
+     * @return true if address is new
+     */
+    boolean beat(String appname, String address, long beatTime) {
+        ConcurrentMap<String, Long> addressMap = addressBook.get(appname);
+        if (addressMap == null) {
+            addressBook.putIfAbsent(appname, new ConcurrentHashMap<String, Long>());
+            addressMap = addressBook.get(appname);
+        }
+
+        while (true) {
+            Long lastBeat = addressMap.get(address);
+            if (lastBeat == null) {
+                if (addressMap.putIfAbsent(address, beatTime) == null) {
+                    expireQueue.offer(new AddressExpire(appname, address, beatTime + deadTimeoutMs));
+                    return true;
+                }
+            } else if (lastBeat >= beatTime) {
+                return false;
+            } else if (addressMap.replace(address, lastBeat, beatTime)) {
+                expireQueue.offer(new AddressExpire(appname, address, beatTime + deadTimeoutMs));
+                return false;
+            }
+        }
+    }
+
+    private void markChanged(String appname) {
+        if (changePending.add(appname)) {
+            changeQueue.offer(appname);
+        }
+    }
+
+    /**
+     * merge beats received by other admin nodes, and remove dead rows; address without db row (removed on other admin
+     * node) dropped, unless beat here within REMOVE_GRACE_MS before syncTime (db row write async)
+     */
+    void syncFromDb(long syncTime) {
+        // remove dead address (admin/executor)
+        List<Integer> ids = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
+            .findDead(RegistryConfig.DEAD_TIMEOUT, new Date());
+        if (ids != null && ids.size() > 0) {
+            XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().removeDead(ids);
+        }
+
+        // merge online address (executor)
+        Map<String, Set<String>> dbAddressMap = new HashMap<String, Set<String>>();
+        List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
+            .findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
+        if (list != null) {
+            for (XxlJobRegistry item : list) {
+                if (RegistryConfig.RegistType.EXECUTOR.name().equals(item.getRegistryGroup())
+                    && item.getUpdateTime() != null) {
+                    beat(item.getRegistryKey(), item.getRegistryValue(), item.getUpdateTime().getTime());
+
+                    Set<String> dbAddressSet = dbAddressMap.get(item.getRegistryKey());
+                    if (dbAddressSet == null) {
+                        dbAddressSet = new HashSet<String>();
+                        dbAddressMap.put(item.getRegistryKey(), dbAddressSet);
+                    }
+                    dbAddressSet.add(item.getRegistryValue());
+                }
+            }
+        }
+
+        // drop removed address, db row set authoritative
+        for (Map.Entry<String, ConcurrentMap<String, Long>> appItem : addressBook.entrySet()) {
+            Set<String> dbAddressSet = dbAddressMap.get(appItem.getKey());
+            for (Map.Entry<String, Long> item : appItem.getValue().entrySet()) {
+                if ((dbAddressSet == null || !dbAddressSet.contains(item.getKey()))
+                    && item.getValue() < syncTime - REMOVE_GRACE_MS
+                    && appItem.getValue().remove(item.getKey(), item.getValue())) {
+                    logger.info(">>>>>>>>>>> xxl-job, registry address removed by other admin, appname:{}, address:{}",
+                        appItem.getKey(), item.getKey());
+                    markChanged(appItem.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * fresh auto registry group address from db rows, write only if changed
+     *
+     * @param appnames null: all group
+     */
+    void freshGroupAddress(Set<String> appnames) {
+        List<XxlJobGroup> groupList = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findByAddressType(0);
+        if (groupList == null || groupList.isEmpty()) {
+            return;
+        }
+
+        for (XxlJobGroup group : groupList) {
+            if (appnames != null && !appnames.contains(group.getAppname())) {
+                continue;
+            }
+
+            List<String> registryList = findDbAddressList(group.getAppname());
+            String addressListStr =
+                registryList.isEmpty() ? null : StringUtils.collectionToDelimitedString(registryList, ",");
+            if (Objects.equals(addressListStr, group.getAddressList())) {
+                continue;
+            }
+
+            group.setAddressList(addressListStr);
+            group.setUpdateTime(new Date());
+            XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
+            JobInfoCacheHelper.getInstance().invalidateJobGroup(group.getId());
+
+            logger.info(">>>>>>>>>>> xxl-job, registry group address changed, appname:{}, address:{}",
+                group.getAppname(), addressListStr);
+            for (RegistryListener listener : listeners) {
+                try {
+                    listener.onChange(group.getAppname(), registryList);
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, registry listener error:{}", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * online address of appname in "xxl_job_registry", sorted; the same on every admin node
+     */
+    private List<String> findDbAddressList(String appname) {
+        List<String> registryList = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao()
+            .findAliveValue(RegistryConfig.RegistType.EXECUTOR.name(), appname, RegistryConfig.DEAD_TIMEOUT,
+                new Date());
+        registryList = registryList != null ? new ArrayList<String>(registryList) : new ArrayList<String>();
+        Collections.sort(registryList);
+        return registryList;
+    }
+
+    /**
+     * online address of appname in the address book of this admin node, sorted
+     */
+    public List<String> findAddressList(String appname) {
+        List<String> registryList = new ArrayList<String>();
+        ConcurrentMap<String, Long> addressMap = addressBook.get(appname);
+        if (addressMap != null) {
+            long deadTime = System.currentTimeMillis() - deadTimeoutMs;
+            for (Map.Entry<String, Long> item : addressMap.entrySet()) {
+                if (item.getValue() > deadTime) {
+                    registryList.add(item.getKey());
+                }
+            }
+        }
+        Collections.sort(registryList);
+        return registryList;
+    }
+
+    // ---------------------- listener ----------------------
+
+    /**
+     * group address change listener, e.g. drop router state of removed address
+     */
+    public interface RegistryListener {
+
+        /**
+         * @param appname
+         * @param addressList new address list, sorted, empty if none
+         */
+        void onChange(String appname, List<String> addressList);
+
+        /**
+         * executor address dead (beat timeout), on every admin node; not called for registry remove (executor stop,
+         * callbacks still coming)
+         *
+         * @param appname
+         * @param address
+         */
+        void onExpire(String appname, String address);
+
+    }
+
+    public void addListener(RegistryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RegistryListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static class AddressExpire implements Delayed {
+        private final String appname;
+        private final String address;
+        private final long expireTime;
+
+        public AddressExpire(String appname, String address, long expireTime) {
+            this.appname = appname;
+            this.address = address;
+            this.expireTime = expireTime;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expireTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(expireTime, ((AddressExpire)o).expireTime);
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getAddressCount() {
+        int count = 0;
+        for (ConcurrentMap<String, Long> addressMap : addressBook.values()) {
+            count += addressMap.size();
+        }
+        return count;
     }
 
 }
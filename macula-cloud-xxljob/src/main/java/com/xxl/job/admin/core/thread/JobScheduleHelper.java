@@ -1,22 +1,38 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
-import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronSchedule;
 import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.scheduler.JobTimeWheel;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import com.xxl.job.admin.core.util.LatencyHistogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * job schedule
+ *
+ * <pre>
+ *     a、pre-read: jobs due in the pre-read window read under schedule lock, pushed to time-ring；
+ *     b、adaptive: window (1s - 5s) and batch sized by last scan, batch full or scan slow shrinks window, else grows；
+ *     c、sleep: next second if jobs read, else one window; job start/update pushes due job and wakes scan up；
+ *     d、fix delay: next trigger time parked once fired, armed from the finish time of the scheduled run, parked
+ *        rows with no running log re-armed after 10min (admin crash, trigger dropped)；
+ * </pre>
+ *
  * @author xuxueli 2019-05-21
  */
 public class JobScheduleHelper {
@@ -28,13 +44,35 @@ public class JobScheduleHelper {
         return instance;
     }
 
-    public static final long PRE_READ_MS = 5000;    // pre read
+    public static final long PRE_READ_MS = 5000;    // pre read, max window; misfire if later
+    private static final long PRE_READ_MIN_MS = 1000;   // pre read, min window
+    private static final long PRE_READ_SLOW_MS = 500;   // scan slower than this: window shrinks
+
+    private static final long RING_TICK_MS = 10;        // time-ring tick
+    private static final int RING_WHEEL_SIZE = 1000;    // time-ring slots, tick * slots = 10s > pre read
+    private static final long LATENESS_DECAY_MS = 60 * 1000;
+    private static final int UPDATE_BATCH_SIZE = 500;   // schedule update, jobs per statement
+    public static final long FIX_DELAY_WAIT = Long.MAX_VALUE;       // fix delay next trigger time, run not finished
+    private static final long FIX_DELAY_PENDING_MS = 60 * 1000;     // fix delay finish, retried until parked row seen
+    private static final long FIX_DELAY_RECOVER_MS = 10 * 60 * 1000;    // parked longer with no running log: re-armed
+    private static final long FIX_DELAY_RECOVER_INTERVAL_MS = 60 * 1000;
+    private static final int FIX_DELAY_RECOVER_BATCH = 100;
 
     private Thread scheduleThread;
     private Thread ringThread;
     private volatile boolean scheduleThreadToStop = false;
     private volatile boolean ringThreadToStop = false;
-    private volatile static Map<Integer, List<Integer>> ringData = new ConcurrentHashMap<>();
+    private final JobTimeWheel timeWheel = new JobTimeWheel(RING_TICK_MS, RING_WHEEL_SIZE, System.currentTimeMillis());
+    private final LatencyHistogram triggerLateness = new LatencyHistogram();
+    private final LatencyHistogram scheduleLockHold = new LatencyHistogram();
+    private final Semaphore scheduleWakeup = new Semaphore(0);
+    private volatile long preReadMs = PRE_READ_MS;
+    private volatile int preReadCount;
+    private int preReadCountBase;
+    private final ConcurrentLinkedQueue<FixDelayDone> fixDelayQueue = new ConcurrentLinkedQueue<FixDelayDone>();
+    private final List<FixDelayDone> fixDelayPending = new ArrayList<FixDelayDone>();    // schedule thread only
+    private long fixDelayErrorTime = 0;         // schedule thread only
+    private long fixDelayRecoverTime = 0;       // schedule thread only
 
     public void start() {
 
@@ -43,8 +81,10 @@ public class JobScheduleHelper {
             @Override
             public void run() {
 
+                // first scan after "xxl.job.schedule.startdelay", on a second boundary if 1s or more
                 try {
-                    TimeUnit.MILLISECONDS.sleep(5000 - System.currentTimeMillis() % 1000);
+                    long startDelay = XxlJobAdminConfig.getAdminConfig().getScheduleStartDelay();
+                    TimeUnit.MILLISECONDS.sleep(Math.max(startDelay - System.currentTimeMillis() % 1000, 0));
                 } catch (InterruptedException e) {
                     if (!scheduleThreadToStop) {
                         logger.error(e.getMessage(), e);
@@ -53,9 +93,10 @@ public class JobScheduleHelper {
                 logger.info(">>>>>>>>> init xxl-job admin scheduler success.");
 
                 // pre-read count: treadpool-size * trigger-qps (each trigger cost 50ms, qps = 1000/50 = 20)
-                int preReadCount =
+                preReadCountBase =
                     (XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig()
                         .getTriggerPoolSlowMax()) * 20;
+                preReadCount = preReadCountBase;
 
                 while (!scheduleThreadToStop) {
 
@@ -67,23 +108,38 @@ public class JobScheduleHelper {
                     PreparedStatement preparedStatement = null;
 
                     boolean preReadSuc = true;
+                    int readCount = 0;
+                    long lockTime = 0;
                     try {
 
                         conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
                         connAutoCommit = conn.getAutoCommit();
                         conn.setAutoCommit(false);
 
-                        preparedStatement = conn.prepareStatement(
-                            "select * from xxl_job_lock where lock_name = 'schedule_lock' for update");
-                        preparedStatement.execute();
+                        List<Integer> slots = null;
+                        if (XxlJobAdminConfig.getAdminConfig().isSchedulePartition()) {
+                            // partition mode: lock own lease rows, other nodes scan their slots at the same time
+                            slots = JobScheduleLeaseHelper.getInstance().lockOwnedSlots(conn);
+                        } else {
+                            preparedStatement = conn.prepareStatement(
+                                "select * from xxl_job_lock where lock_name = 'schedule_lock' for update");
+                            preparedStatement.execute();
+                        }
+                        lockTime = System.currentTimeMillis();
 
                         // tx start
 
                         // 1、pre read
                         long nowTime = System.currentTimeMillis();
-                        List<XxlJobInfo> scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao()
-                            .scheduleJobQuery(nowTime + PRE_READ_MS, preReadCount);
+                        long windowMs = preReadMs;
+                        List<XxlJobInfo> scheduleList = null;
+                        if (slots == null || slots.size() > 0) {
+                            scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao()
+                                .scheduleJobQuery(nowTime + windowMs, preReadCount,
+                                    XxlJobAdminConfig.getAdminConfig().getScheduleSlots(), slots);
+                        }
                         if (scheduleList != null && scheduleList.size() > 0) {
+                            readCount = scheduleList.size();
                             // 2、push time-ring
                             for (XxlJobInfo jobInfo : scheduleList) {
 
@@ -102,33 +158,34 @@ public class JobScheduleHelper {
                                             null, null);
                                         logger.debug(
                                             ">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId());
-                                    }
 
-                                    // 2、fresh next
-                                    refreshNextValidTime(jobInfo, new Date());
+                                        // 2、fresh next
+                                        refreshAfterTrigger(jobInfo, new Date());
+                                    } else {
+                                        // 2、fresh next
+                                        refreshNextValidTime(jobInfo, new Date());
+                                    }
 
                                 } else if (nowTime > jobInfo.getTriggerNextTime()) {
                                     // 2.2、trigger-expire < 5s：direct-trigger && make next-trigger-time
 
                                     // 1、trigger
+                                    triggerLateness.record(nowTime - jobInfo.getTriggerNextTime());
                                     JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.CRON, -1, null, null,
                                         null);
                                     logger.debug(
                                         ">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId());
 
                                     // 2、fresh next
-                                    refreshNextValidTime(jobInfo, new Date());
+                                    refreshAfterTrigger(jobInfo, new Date());
 
-                                    // next-trigger-time in 5s, pre-read again
-                                    if (jobInfo.getTriggerStatus() == 1 && nowTime + PRE_READ_MS > jobInfo.getTriggerNextTime()) {
+                                    // next-trigger-time in window, pre-read again
+                                    if (jobInfo.getTriggerStatus() == 1 && nowTime + windowMs > jobInfo.getTriggerNextTime()) {
 
-                                        // 1、make ring second
-                                        int ringSecond = (int)((jobInfo.getTriggerNextTime() / 1000) % 60);
+                                        // 1、push time ring
+                                        pushTimeRing(jobInfo.getId(), jobInfo.getTriggerNextTime());
 
-                                        // 2、push time ring
-                                        pushTimeRing(ringSecond, jobInfo.getId());
-
-                                        // 3、fresh next
+                                        // 2、fresh next
                                         refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
 
                                     }
@@ -136,22 +193,20 @@ public class JobScheduleHelper {
                                 } else {
                                     // 2.3、trigger-pre-read：time-ring trigger && make next-trigger-time
 
-                                    // 1、make ring second
-                                    int ringSecond = (int)((jobInfo.getTriggerNextTime() / 1000) % 60);
-
-                                    // 2、push time ring
-                                    pushTimeRing(ringSecond, jobInfo.getId());
+                                    // 1、push time ring
+                                    pushTimeRing(jobInfo.getId(), jobInfo.getTriggerNextTime());
 
-                                    // 3、fresh next
-                                    refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
+                                    // 2、fresh next
+                                    refreshAfterTrigger(jobInfo, new Date(jobInfo.getTriggerNextTime()));
 
                                 }
 
                             }
 
-                            // 3、update trigger info
-                            for (XxlJobInfo jobInfo : scheduleList) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdate(jobInfo);
+                            // 3、update trigger info, batch
+                            for (int i = 0; i < scheduleList.size(); i += UPDATE_BATCH_SIZE) {
+                                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdateBatch(
+                                    scheduleList.subList(i, Math.min(i + UPDATE_BATCH_SIZE, scheduleList.size())));
                             }
 
                         } else {
@@ -175,6 +230,9 @@ public class JobScheduleHelper {
                                     logger.error(e.getMessage(), e);
                                 }
                             }
+                            if (lockTime > 0) {
+                                scheduleLockHold.record(System.currentTimeMillis() - lockTime);
+                            }
                             try {
                                 conn.setAutoCommit(connAutoCommit);
                             } catch (SQLException e) {
@@ -203,13 +261,22 @@ public class JobScheduleHelper {
                         }
                     }
                     long cost = System.currentTimeMillis() - start;
+                    adaptPreRead(readCount, cost);
+                    if (lockTime > 0) {
+                        XxlJobAdminConfig.getAdminConfig().getStartupProfiler().scheduled();
+                    }
 
-                    // Wait seconds, align second
-                    if (cost < 1000) {  // scan-overtime, not wait
+                    // fix delay finished, arm next trigger time
+                    armFixDelay();
+
+                    // Wait, woken up by job start / update
+                    long waitMs = preReadSuc ? 1000 - System.currentTimeMillis() % 1000 : preReadMs - cost;
+                    if (cost < 1000 && waitMs > 0) {  // scan-overtime, not wait
                         try {
-                            // pre-read period: success > scan each second; fail > skip this period;
-                            TimeUnit.MILLISECONDS.sleep(
-                                (preReadSuc ? 1000 : PRE_READ_MS) - System.currentTimeMillis() % 1000);
+                            // pre-read period: success > scan each second; fail > skip this window;
+                            if (scheduleWakeup.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                                scheduleWakeup.drainPermits();
+                            }
                         } catch (InterruptedException e) {
                             if (!scheduleThreadToStop) {
                                 logger.error(e.getMessage(), e);
@@ -227,15 +294,23 @@ public class JobScheduleHelper {
         scheduleThread.start();
 
         // ring thread
+        final JobTimeWheel.TimeWheelHandler ringHandler = new JobTimeWheel.TimeWheelHandler() {
+            @Override
+            public void onDue(int jobId, long triggerTime) {
+                triggerLateness.record(System.currentTimeMillis() - triggerTime);
+                JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
+            }
+        };
         ringThread = new Thread(new Runnable() {
             @Override
             public void run() {
 
+                long lastDecayTime = System.currentTimeMillis();
                 while (!ringThreadToStop) {
 
-                    // align second
+                    // align tick
                     try {
-                        TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis() % 1000);
+                        TimeUnit.MILLISECONDS.sleep(RING_TICK_MS - System.currentTimeMillis() % RING_TICK_MS);
                     } catch (InterruptedException e) {
                         if (!ringThreadToStop) {
                             logger.error(e.getMessage(), e);
@@ -243,27 +318,14 @@ public class JobScheduleHelper {
                     }
 
                     try {
-                        // second data
-                        List<Integer> ringItemData = new ArrayList<>();
-                        int nowSecond = Calendar.getInstance().get(Calendar.SECOND);   // 避免处理耗时太长，跨过刻度，向前校验一个刻度；
-                        for (int i = 0; i < 2; i++) {
-                            List<Integer> tmpData = ringData.remove((nowSecond + 60 - i) % 60);
-                            if (tmpData != null) {
-                                ringItemData.addAll(tmpData);
-                            }
-                        }
-
-                        // ring trigger
-                        logger.debug(
-                            ">>>>>>>>>>> xxl-job, time-ring beat : " + nowSecond + " = " + Arrays.asList(ringItemData));
-                        if (ringItemData.size() > 0) {
-                            // do trigger
-                            for (int jobId : ringItemData) {
-                                // do trigger
-                                JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
-                            }
-                            // clear
-                            ringItemData.clear();
+                        // 处理耗时过长跨过刻度时，advance 会逐个补齐跨过的刻度，不会丢弃任务；
+                        timeWheel.advance(System.currentTimeMillis(), ringHandler);
+
+                        // decay lateness, keep recent samples
+                        if (System.currentTimeMillis() - lastDecayTime > LATENESS_DECAY_MS) {
+                            triggerLateness.decay();
+                            scheduleLockHold.decay();
+                            lastDecayTime = System.currentTimeMillis();
                         }
                     } catch (Exception e) {
                         if (!ringThreadToStop) {
@@ -294,17 +356,247 @@ public class JobScheduleHelper {
         }
     }
 
-    private void pushTimeRing(int ringSecond, int jobId) {
+    /**
+     * adapt pre-read window and batch to the last scan
+     *
+     * @param readCount jobs read, due density of the window
+     * @param scanCost  lock, read, push and update
+     */
+    void adaptPreRead(int readCount, long scanCost) {
+        int preReadCountMax = preReadCountBase * 8;
+        if (readCount >= preReadCount) {
+            // batch full, jobs due in window left: read more per scan, shorter window if scan already slow
+            if (scanCost < PRE_READ_SLOW_MS && preReadCount < preReadCountMax) {
+                preReadCount = Math.min(preReadCount * 2, preReadCountMax);
+            } else {
+                preReadMs = Math.max(preReadMs / 2, PRE_READ_MIN_MS);
+            }
+        } else {
+            // batch twice the due jobs of a window, window grows back while scan fast
+            preReadCount = Math.max(preReadCountBase, Math.min(readCount * 2, preReadCountMax));
+            if (scanCost < PRE_READ_SLOW_MS) {
+                preReadMs = Math.min(preReadMs + PRE_READ_MIN_MS, PRE_READ_MS);
+            } else {
+                preReadMs = Math.max(preReadMs - PRE_READ_MIN_MS, PRE_READ_MIN_MS);
+            }
+        }
+    }
+
+    /**
+     * job started or schedule changed, next trigger time from now: due in the pre-read window, pushed to time-ring
+     * right away and trigger time moved on (scan never reads it); scan woken up for the rest
+     *
+     * <pre>
+     *     pushed under the schedule lock (lock mode) or the lease row of its slot (partition mode, own slot only), as
+     *     the scan; trigger time moved on only if no scan fired it meanwhile；
+     * </pre>
+     *
+     * @param jobInfo saved by caller before push
+     */
+    public void pushIfDue(XxlJobInfo jobInfo) throws Exception {
+        if (scheduleThread == null || scheduleThreadToStop) {
+            return;
+        }
+        if (jobInfo.getTriggerStatus() == 1 && jobInfo.getTriggerNextTime() > 0
+            && jobInfo.getTriggerNextTime() <= System.currentTimeMillis() + preReadMs) {
+            int slot = jobInfo.getId() % XxlJobAdminConfig.getAdminConfig().getScheduleSlots();
+            if (!XxlJobAdminConfig.getAdminConfig().isSchedulePartition()
+                || JobScheduleLeaseHelper.getInstance().ownsSlot(slot)) {
+                pushLocked(jobInfo, slot);
+            }
+        }
+        scheduleWakeup.release();
+    }
+
+    private void pushLocked(XxlJobInfo jobInfo, int slot) throws Exception {
+        Connection conn = null;
+        Boolean connAutoCommit = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            connAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            if (XxlJobAdminConfig.getAdminConfig().isSchedulePartition()) {
+                if (!JobScheduleLeaseHelper.getInstance().lockOwnedSlots(conn).contains(slot)) {
+                    return;     // lease lost, fencing token changed
+                }
+            } else {
+                preparedStatement =
+                    conn.prepareStatement("select * from xxl_job_lock where lock_name = 'schedule_lock' for update");
+                preparedStatement.execute();
+            }
+
+            long planTime = jobInfo.getTriggerNextTime();
+            refreshAfterTrigger(jobInfo, new Date(planTime));
+            if (XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().schedulePush(jobInfo.getId(), planTime,
+                jobInfo.getTriggerLastTime(), jobInfo.getTriggerNextTime()) > 0) {
+                pushTimeRing(jobInfo.getId(), planTime);
+            }
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.commit();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+                try {
+                    conn.setAutoCommit(connAutoCommit);
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+                if (preparedStatement != null) {
+                    try {
+                        preparedStatement.close();
+                    } catch (SQLException e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    // ---------------------- fix delay ----------------------
+
+    /**
+     * job fired by schedule: fix delay job parked (never read by scan) till the run finished, others move on
+     */
+    private void refreshAfterTrigger(XxlJobInfo jobInfo, Date fromTime) throws Exception {
+        if (ScheduleTypeEnum.FIX_DELAY == ScheduleTypeEnum.match(jobInfo.getScheduleType(), null)) {
+            jobInfo.setTriggerLastTime(jobInfo.getTriggerNextTime());
+            jobInfo.setTriggerNextTime(FIX_DELAY_WAIT);
+        } else {
+            refreshNextValidTime(jobInfo, fromTime);
+        }
+    }
+
+    /**
+     * run of a fix delay job finished (handled, lost or trigger fail), next trigger time = finish time + delay
+     *
+     * <pre>
+     *     only runs fired by schedule (cron, misfire) arm the job, manual / retry / parent runs ignored;
+     *     armed by schedule thread, retried until the parked job row is committed by scan;
+     * </pre>
+     *
+     * @param jobInfo     cached job info, ignored if not fix delay
+     * @param triggerType null if unknown
+     * @param triggerTime trigger time of the finished run
+     * @param doneTime    finish time
+     */
+    public void fixDelayDone(XxlJobInfo jobInfo, TriggerTypeEnum triggerType, Date triggerTime, long doneTime) {
+        if (scheduleThread == null || scheduleThreadToStop || jobInfo == null || triggerTime == null) {
+            return;
+        }
+        if (ScheduleTypeEnum.FIX_DELAY != ScheduleTypeEnum.match(jobInfo.getScheduleType(), null)) {
+            return;
+        }
+        if (triggerType != null && triggerType != TriggerTypeEnum.CRON && triggerType != TriggerTypeEnum.MISFIRE) {
+            return;
+        }
+        try {
+            Date nextValidTime = generateNextValidTime(jobInfo, new Date(doneTime));
+            // log trigger time in seconds, planned time in millis
+            fixDelayQueue.offer(new FixDelayDone(jobInfo.getId(), triggerTime.getTime() + 1000,
+                nextValidTime.getTime(), System.currentTimeMillis()));
+            if (nextValidTime.getTime() <= System.currentTimeMillis() + PRE_READ_MS) {
+                // short delay, armed now; else on next scan
+                scheduleWakeup.release();
+            }
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, fix delay next trigger time fail, jobId={}, scheduleConf={}",
+                jobInfo.getId(), jobInfo.getScheduleConf(), e);
+        }
+    }
+
+    private void armFixDelay() {
+        FixDelayDone done;
+        while ((done = fixDelayQueue.poll()) != null) {
+            fixDelayPending.add(done);
+        }
+
+        long nowTime = System.currentTimeMillis();
+        boolean due = false;
+        try {
+            for (Iterator<FixDelayDone> it = fixDelayPending.iterator(); it.hasNext(); ) {
+                done = it.next();
+                int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao()
+                    .fixDelayArm(done.jobId, FIX_DELAY_WAIT, done.maxLastTime, done.nextTime);
+                if (ret > 0) {
+                    due |= done.nextTime <= nowTime + preReadMs;
+                    it.remove();
+                } else if (nowTime - Math.max(done.addTime, fixDelayErrorTime) > FIX_DELAY_PENDING_MS) {
+                    // stopped, schedule changed or armed by an earlier run; db down time not counted
+                    it.remove();
+                }
+            }
+
+            // parked but never armed (admin crash, trigger dropped, log lost), re-armed from now
+            if (nowTime - fixDelayRecoverTime >= FIX_DELAY_RECOVER_INTERVAL_MS) {
+                fixDelayRecoverTime = nowTime;
+                due |= recoverFixDelay(nowTime);
+            }
+        } catch (Exception e) {
+            // db error, pending kept
+            fixDelayErrorTime = nowTime;
+            if (!scheduleThreadToStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#armFixDelay error:{}", e);
+            }
+        }
+        if (due) {
+            scheduleWakeup.release();
+        }
+    }
+
+    private boolean recoverFixDelay(long nowTime) throws Exception {
+        boolean due = false;
+        List<XxlJobInfo> parkedList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao()
+            .findFixDelayParked(FIX_DELAY_WAIT, nowTime - FIX_DELAY_RECOVER_MS, FIX_DELAY_RECOVER_BATCH);
+        for (XxlJobInfo jobInfo : parkedList) {
+            // still running: armed when it finishes, or fails by lost monitor
+            Date triggerTimeFrom = new Date(jobInfo.getTriggerLastTime() / 1000 * 1000 - 1000);
+            if (XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findRunningCount(jobInfo.getId(),
+                triggerTimeFrom) > 0) {
+                continue;
+            }
+            long nextTime = generateNextValidTime(jobInfo, new Date(nowTime)).getTime();
+            if (XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao()
+                .fixDelayArm(jobInfo.getId(), FIX_DELAY_WAIT, jobInfo.getTriggerLastTime(), nextTime) > 0) {
+                logger.warn(">>>>>>>>>>> xxl-job, fix delay job parked with no run, re-armed, jobId={}",
+                    jobInfo.getId());
+                due |= nextTime <= nowTime + preReadMs;
+            }
+        }
+        return due;
+    }
+
+    private static class FixDelayDone {
+        private final int jobId;
+        private final long maxLastTime;
+        private final long nextTime;
+        private final long addTime;
+
+        public FixDelayDone(int jobId, long maxLastTime, long nextTime, long addTime) {
+            this.jobId = jobId;
+            this.maxLastTime = maxLastTime;
+            this.nextTime = nextTime;
+            this.addTime = addTime;
+        }
+    }
+
+    private void pushTimeRing(int jobId, long triggerTime) {
         // push async ring
-        List<Integer> ringItemData = ringData.get(ringSecond);
-        if (ringItemData == null) {
-            ringItemData = new ArrayList<Integer>();
-            ringData.put(ringSecond, ringItemData);
+        if (!timeWheel.add(jobId, triggerTime)) {
+            // already due, trigger directly
+            triggerLateness.record(System.currentTimeMillis() - triggerTime);
+            JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
         }
-        ringItemData.add(jobId);
 
-        logger.debug(
-            ">>>>>>>>>>> xxl-job, schedule push time-ring : " + ringSecond + " = " + Arrays.asList(ringItemData));
+        logger.debug(">>>>>>>>>>> xxl-job, schedule push time-ring : jobId = {}, triggerTime = {}", jobId, triggerTime);
     }
 
     public void toStop() {
@@ -327,17 +619,7 @@ public class JobScheduleHelper {
         }
 
         // if has ring data
-        boolean hasRingData = false;
-        if (!ringData.isEmpty()) {
-            for (int second : ringData.keySet()) {
-                List<Integer> tmpData = ringData.get(second);
-                if (tmpData != null && tmpData.size() > 0) {
-                    hasRingData = true;
-                    break;
-                }
-            }
-        }
-        if (hasRingData) {
+        if (timeWheel.size() > 0) {
             try {
                 TimeUnit.SECONDS.sleep(8);
             } catch (InterruptedException e) {
@@ -365,13 +647,39 @@ public class JobScheduleHelper {
         logger.info(">>>>>>>>>>> xxl-job, JobScheduleHelper stop");
     }
 
+    // ---------------------- metrics ----------------------
+
+    public int getTimeRingSize() {
+        return timeWheel.size();
+    }
+
+    public int getTimeRingMaxSlotDepth() {
+        return timeWheel.maxSlotDepth();
+    }
+
+    public LatencyHistogram getTriggerLateness() {
+        return triggerLateness;
+    }
+
+    public LatencyHistogram getScheduleLockHold() {
+        return scheduleLockHold;
+    }
+
+    public long getPreReadMs() {
+        return preReadMs;
+    }
+
+    public int getPreReadCount() {
+        return preReadCount;
+    }
+
     // ---------------------- tools ----------------------
     public static Date generateNextValidTime(XxlJobInfo jobInfo, Date fromTime) throws Exception {
         ScheduleTypeEnum scheduleTypeEnum = ScheduleTypeEnum.match(jobInfo.getScheduleType(), null);
         if (ScheduleTypeEnum.CRON == scheduleTypeEnum) {
-            Date nextValidTime = new CronExpression(jobInfo.getScheduleConf()).getNextValidTimeAfter(fromTime);
+            Date nextValidTime = CronSchedule.of(jobInfo.getScheduleConf()).getNextValidTimeAfter(fromTime);
             return nextValidTime;
-        } else if (ScheduleTypeEnum.FIX_RATE == scheduleTypeEnum /*|| ScheduleTypeEnum.FIX_DELAY == scheduleTypeEnum*/) {
+        } else if (ScheduleTypeEnum.FIX_RATE == scheduleTypeEnum || ScheduleTypeEnum.FIX_DELAY == scheduleTypeEnum) {
             return new Date(fromTime.getTime() + Integer.valueOf(jobInfo.getScheduleConf()) * 1000);
         }
         return null;
@@ -0,0 +1,224 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobScheduleLease;
+import com.xxl.job.admin.dao.XxlJobScheduleLeaseDao;
+import com.xxl.job.core.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * schedule slot lease, partition schedule mode
+ *
+ * <pre>
+ *     a、job belongs to slot "id % slot-total", each admin node schedules its own slots only；
+ *     b、node heartbeat, alive nodes sorted by node id, node "i" of "n" targets slots "slot % n == i"；
+ *     c、claim free or expired slot increases fencing token, the scan tx locks own lease rows and checks the token,
+ *        a paused node whose lease has been taken over will never scan the slot again；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class JobScheduleLeaseHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobScheduleLeaseHelper.class);
+
+    private static JobScheduleLeaseHelper instance = new JobScheduleLeaseHelper();
+
+    public static JobScheduleLeaseHelper getInstance() {
+        return instance;
+    }
+
+    public static final long BEAT_INTERVAL_MS = 3000;      // node beat & lease renew
+    public static final long LEASE_TIMEOUT_MS = 10000;     // node dead & lease expire, > 3 beat
+
+    private final String nodeId = IpUtil.getIp() + "_" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+
+    private Thread leaseThread;
+    private volatile boolean toStop = false;
+    private volatile Map<Integer, Long> ownedSlots = Collections.emptyMap();     // slot -> fencing token
+
+    public void start() {
+
+        // init slots
+        int slotTotal = XxlJobAdminConfig.getAdminConfig().getScheduleSlots();
+        List<Integer> slots = new ArrayList<Integer>();
+        for (int i = 0; i < slotTotal; i++) {
+            slots.add(i);
+        }
+        XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleLeaseDao().initSlots(slots);
+
+        // lease thread
+        leaseThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        beat();
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobScheduleLeaseHelper#leaseThread error:{}", e);
+                        }
+                    }
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(BEAT_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+
+                // release all, others take over on next beat
+                try {
+                    ownedSlots = Collections.emptyMap();
+                    XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleLeaseDao().releaseAll(nodeId);
+                    XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleLeaseDao().removeNode(nodeId);
+                } catch (Exception e) {
+                    logger.error(">>>>>>>>>>> xxl-job, JobScheduleLeaseHelper release error:{}", e);
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobScheduleLeaseHelper#leaseThread stop");
+            }
+        });
+        leaseThread.setDaemon(true);
+        leaseThread.setName("xxl-job, admin JobScheduleLeaseHelper#leaseThread");
+        leaseThread.start();
+
+        logger.info(">>>>>>>>>>> xxl-job, schedule partition mode, nodeId = {}, slots = {}", nodeId, slotTotal);
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        // interrupt and wait
+        leaseThread.interrupt();
+        try {
+            leaseThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    private void beat() {
+        XxlJobScheduleLeaseDao leaseDao = XxlJobAdminConfig.getAdminConfig().getXxlJobScheduleLeaseDao();
+        int slotTotal = XxlJobAdminConfig.getAdminConfig().getScheduleSlots();
+        long nowTime = System.currentTimeMillis();
+        long leaseExpire = nowTime + LEASE_TIMEOUT_MS;
+
+        // 1、node beat, renew living lease
+        leaseDao.nodeBeat(nodeId, nowTime);
+        leaseDao.renewSlots(nodeId, leaseExpire, nowTime);
+        leaseDao.removeDeadNodes(nowTime - LEASE_TIMEOUT_MS * 3);
+
+        // 2、target slots
+        List<String> aliveNodes = leaseDao.findAliveNodes(nowTime - LEASE_TIMEOUT_MS);
+        int nodeIndex = aliveNodes != null ? aliveNodes.indexOf(nodeId) : -1;
+        if (nodeIndex < 0) {
+            aliveNodes = Collections.singletonList(nodeId);
+            nodeIndex = 0;
+        }
+        Set<Integer> targetSlots = new HashSet<Integer>();
+        for (int slot = 0; slot < slotTotal; slot++) {
+            if (slot % aliveNodes.size() == nodeIndex) {
+                targetSlots.add(slot);
+            }
+        }
+
+        // 3、release slots no longer targeted (node joined), claim targeted slots (node dead or left)
+        Set<Integer> owned = new HashSet<Integer>();
+        List<XxlJobScheduleLease> leaseList = leaseDao.findByOwner(nodeId, nowTime);
+        if (leaseList != null) {
+            for (XxlJobScheduleLease lease : leaseList) {
+                owned.add(lease.getSlot());
+            }
+        }
+        boolean changed = false;
+        for (Integer slot : owned) {
+            if (!targetSlots.contains(slot)) {
+                changed |= leaseDao.releaseSlot(slot, nodeId) > 0;
+            }
+        }
+        for (Integer slot : targetSlots) {
+            if (!owned.contains(slot)) {
+                changed |= leaseDao.claimSlot(slot, nodeId, leaseExpire, nowTime) > 0;
+            }
+        }
+        if (changed) {
+            leaseList = leaseDao.findByOwner(nodeId, nowTime);
+        }
+
+        // 4、fresh owned slots
+        Map<Integer, Long> ownedSlotsNew = new HashMap<Integer, Long>();
+        if (leaseList != null) {
+            for (XxlJobScheduleLease lease : leaseList) {
+                ownedSlotsNew.put(lease.getSlot(), lease.getFencingToken());
+            }
+        }
+        if (changed || !ownedSlotsNew.equals(ownedSlots)) {
+            logger.info(">>>>>>>>>>> xxl-job, schedule slots rebalance, nodeId = {}, alive nodes = {}, slots = {}",
+                nodeId, aliveNodes.size(), new TreeSet<Integer>(ownedSlotsNew.keySet()));
+        }
+        ownedSlots = Collections.unmodifiableMap(ownedSlotsNew);
+    }
+
+    /**
+     * lock own lease rows in the schedule tx, and check fencing token
+     *
+     * @param conn schedule tx connection
+     * @return slots could be scheduled in this tx, empty if none
+     */
+    public List<Integer> lockOwnedSlots(Connection conn) throws SQLException {
+        Map<Integer, Long> owned = ownedSlots;
+        List<Integer> slots = new ArrayList<Integer>();
+        if (owned.isEmpty()) {
+            return slots;
+        }
+
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            preparedStatement = conn.prepareStatement(
+                "select slot, fencing_token from xxl_job_schedule_lease where owner = ? and lease_expire >= ? for update");
+            preparedStatement.setString(1, nodeId);
+            preparedStatement.setLong(2, System.currentTimeMillis());
+            resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                int slot = resultSet.getInt(1);
+                Long fencingToken = owned.get(slot);
+                if (fencingToken != null && fencingToken == resultSet.getLong(2)) {
+                    slots.add(slot);
+                }
+            }
+        } finally {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (preparedStatement != null) {
+                preparedStatement.close();
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * slot leased by this node, fencing token checked by lockOwnedSlots in tx
+     */
+    public boolean ownsSlot(int slot) {
+        return ownedSlots.containsKey(slot);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getOwnedSlotCount() {
+        return ownedSlots.size();
+    }
+
+}
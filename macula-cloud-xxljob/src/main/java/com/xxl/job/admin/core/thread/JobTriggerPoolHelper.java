@@ -1,56 +1,189 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.trigger.XxlJobTrigger;
+import com.xxl.job.admin.core.util.LatencyHistogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 /**
  * job trigger thread pool helper
  *
+ * <pre>
+ *     a、fast/slow pool: job goes to slow pool when its recent trigger cost p90 > 500ms, decaying histogram per job；
+ *     b、adaptive: pool core size doubles while tasks queue behind busy core threads, halves when mostly idle；
+ *     c、bulkhead: triggers in flight per executor group are limited, more wait in the group's own queue；
+ *     d、backpressure: never blocks the caller (time ring, schedule scan holding the schedule lock): full pool queue,
+ *        trigger waits in its group queue; full group queue, trigger of that group rejected, logged as trigger fail；
+ * </pre>
+ *
  * @author xuxueli 2018-07-03 21:08:07
  */
 public class JobTriggerPoolHelper {
     private static Logger logger = LoggerFactory.getLogger(JobTriggerPoolHelper.class);
 
+    private static final int POOL_CORE_MIN = 10;
+    private static final long SLOW_THRESHOLD_MS = 500;          // trigger cost p90 over 500ms: slow job
+    private static final int SLOW_MIN_COUNT = 10;
+    private static final long LATENCY_HIGHEST_MS = 5 * 60 * 1000;
+    private static final long LATENCY_DECAY_MS = 60 * 1000;
+    private static final long LATENCY_REPORT_MS = 10 * 1000;
+    private static final int LATENCY_REPORT_TOP = 20;
+    private static final long MONITOR_INTERVAL_MS = 1000;
+    private static final int FAST_QUEUE_SIZE = 1000;
+    private static final int SLOW_QUEUE_SIZE = 2000;
+
     // ---------------------- trigger pool ----------------------
 
     // fast/slow thread pool
     private ThreadPoolExecutor fastTriggerPool = null;
     private ThreadPoolExecutor slowTriggerPool = null;
 
+    private Thread monitorThread;
+    private volatile boolean toStop = false;
+
+    private TriggerRunner triggerRunner;
+    private int groupMax;
+
     public void start() {
-        fastTriggerPool = new ThreadPoolExecutor(10, XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(), 60L,
-            TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(1000), new ThreadFactory() {
+        start(XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax(),
+            XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax(), FAST_QUEUE_SIZE, SLOW_QUEUE_SIZE,
+            XxlJobAdminConfig.getAdminConfig().getTriggerPoolGroupMax(), new TriggerRunner() {
+                @Override
+                public CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+                    String executorShardingParam, String executorParam, String addressList) {
+                    return XxlJobTrigger.trigger(jobId, triggerType, failRetryCount, executorShardingParam,
+                        executorParam, addressList);
+                }
+
+                @Override
+                public void reject(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+                    String executorShardingParam, String executorParam, String runMsg) {
+                    XxlJobTrigger.rejectTrigger(jobId, triggerType, failRetryCount, executorShardingParam,
+                        executorParam, runMsg);
+                }
+
+                @Override
+                public int loadJobGroup(int jobId) {
+                    XxlJobInfo jobInfo = JobInfoCacheHelper.getInstance().loadJobInfo(jobId);
+                    return jobInfo != null ? jobInfo.getJobGroup() : 0;
+                }
+            });
+    }
+
+    void start(int fastMax, int slowMax, int fastQueueSize, int slowQueueSize, int groupMax,
+        TriggerRunner triggerRunner) {
+        this.triggerRunner = triggerRunner;
+        this.groupMax = groupMax;
+
+        fastTriggerPool = new ThreadPoolExecutor(POOL_CORE_MIN, fastMax, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(fastQueueSize), new ThreadFactory() {
             @Override
             public Thread newThread(Runnable r) {
                 return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-fastTriggerPool-" + r.hashCode());
             }
         });
 
-        slowTriggerPool = new ThreadPoolExecutor(10, XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax(), 60L,
-            TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(2000), new ThreadFactory() {
+        slowTriggerPool = new ThreadPoolExecutor(POOL_CORE_MIN, slowMax, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(slowQueueSize), new ThreadFactory() {
             @Override
             public Thread newThread(Runnable r) {
                 return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-slowTriggerPool-" + r.hashCode());
             }
         });
+
+        monitorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long lastDecayTime = System.currentTimeMillis();
+                long lastReportTime = System.currentTimeMillis();
+                while (!toStop) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(MONITOR_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+
+                    try {
+                        // pool size
+                        resize(fastTriggerPool);
+                        resize(slowTriggerPool);
+
+                        // group queue, waiting for pool queue space
+                        for (GroupBulkhead bulkhead : bulkheadMap.values()) {
+                            drain(bulkhead);
+                        }
+
+                        // job latency
+                        if (System.currentTimeMillis() - lastReportTime > LATENCY_REPORT_MS) {
+                            reportLatency();
+                            lastReportTime = System.currentTimeMillis();
+                        }
+                        if (System.currentTimeMillis() - lastDecayTime > LATENCY_DECAY_MS) {
+                            decayLatency();
+                            lastDecayTime = System.currentTimeMillis();
+                        }
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, JobTriggerPoolHelper#monitorThread error:{}", e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, JobTriggerPoolHelper#monitorThread stop");
+            }
+        });
+        monitorThread.setDaemon(true);
+        monitorThread.setName("xxl-job, admin JobTriggerPoolHelper#monitorThread");
+        monitorThread.start();
     }
 
     public void stop() {
+        toStop = true;
+
+        // interrupt and wait
+        monitorThread.interrupt();
+        try {
+            monitorThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+
         //triggerPool.shutdown();
         fastTriggerPool.shutdownNow();
         slowTriggerPool.shutdownNow();
+        listeners.clear();
         logger.info(">>>>>>>>> xxl-job trigger thread pool shutdown success.");
     }
 
-    // job timeout count
-    private volatile long minTim = System.currentTimeMillis() / 60000;     // ms > min
-    private volatile ConcurrentMap<Integer, AtomicInteger> jobTimeoutCountMap = new ConcurrentHashMap<>();
+    private void resize(ThreadPoolExecutor pool) {
+        int coreSize = pool.getCorePoolSize();
+        int activeCount = pool.getActiveCount();
+        if (pool.getQueue().size() > 0 && activeCount >= coreSize) {
+            // tasks wait behind busy core threads, pool only grows past core when queue is full
+            if (coreSize < pool.getMaximumPoolSize()) {
+                pool.setCorePoolSize(Math.min(pool.getMaximumPoolSize(), coreSize * 2));
+            }
+        } else if (activeCount < coreSize / 4 && coreSize > POOL_CORE_MIN) {
+            pool.setCorePoolSize(Math.max(POOL_CORE_MIN, coreSize / 2));
+        }
+    }
+
+    // ---------------------- trigger ----------------------
+
+    private final ConcurrentMap<Integer, JobTriggerStat> jobStatMap = new ConcurrentHashMap<Integer, JobTriggerStat>();
+    private final ConcurrentMap<Integer, GroupBulkhead> bulkheadMap = new ConcurrentHashMap<Integer, GroupBulkhead>();
+    private final AtomicInteger groupPendingCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
 
     /**
      * add trigger
@@ -58,54 +191,281 @@ public class JobTriggerPoolHelper {
     public void addTrigger(final int jobId, final TriggerTypeEnum triggerType, final int failRetryCount,
         final String executorShardingParam, final String executorParam, final String addressList) {
 
-        // choose thread pool
-        ThreadPoolExecutor triggerPool_ = fastTriggerPool;
-        AtomicInteger jobTimeoutCount = jobTimeoutCountMap.get(jobId);
-        if (jobTimeoutCount != null && jobTimeoutCount.get() > 10) {      // job-timeout 10 times in 1 min
-            triggerPool_ = slowTriggerPool;
+        JobTriggerStat stat = loadJobStat(jobId);
+        GroupBulkhead bulkhead = loadBulkhead(stat);
+        TriggerTask task = new TriggerTask(jobId, triggerType, failRetryCount, executorShardingParam, executorParam,
+            addressList, stat, bulkhead);
+
+        // group not busy and nothing waiting ahead, trigger
+        if (bulkhead.pending.isEmpty() && bulkhead.inflight.tryAcquire()) {
+            if (submit(task)) {
+                return;
+            }
+            bulkhead.inflight.release();
         }
 
-        // trigger
-        triggerPool_.execute(new Runnable() {
-            @Override
-            public void run() {
+        // group busy or pool queue full, wait in group queue; group queue full, reject this group's trigger only
+        if (!bulkhead.pendingSlots.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            logger.warn(">>>>>>>>>>> xxl-job, group bulkhead full, trigger rejected, jobId={}, jobGroup={}", jobId,
+                stat.jobGroup);
+            try {
+                triggerRunner.reject(jobId, triggerType, failRetryCount, executorShardingParam, executorParam,
+                    "group bulkhead full, trigger rejected (in flight " + groupMax + ", waiting " + groupMax * 10 + ")");
+            } catch (Exception e) {
+                logger.error(">>>>>>>>>>> xxl-job, trigger reject error, jobId={}", jobId, e);
+            }
+            return;
+        }
+        bulkhead.pending.offerLast(task);
+        groupPendingCount.incrementAndGet();
+        drain(bulkhead);
+    }
 
-                long start = System.currentTimeMillis();
-
-                try {
-                    // do trigger
-                    XxlJobTrigger.trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam,
-                        addressList);
-                } catch (Exception e) {
-                    logger.error(e.getMessage(), e);
-                } finally {
-
-                    // check timeout-count-map
-                    long minTim_now = System.currentTimeMillis() / 60000;
-                    if (minTim != minTim_now) {
-                        minTim = minTim_now;
-                        jobTimeoutCountMap.clear();
-                    }
+    /**
+     * submit to fast/slow pool, never blocks
+     *
+     * @return false if pool queue is full or pool stopped
+     */
+    private boolean submit(TriggerTask task) {
+        ThreadPoolExecutor triggerPool_ = isSlow(task.stat) ? slowTriggerPool : fastTriggerPool;
+        try {
+            triggerPool_.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * move group queue to pool, while group permits left; never blocks, called on trigger complete
+     */
+    private void drain(GroupBulkhead bulkhead) {
+        while (!bulkhead.pending.isEmpty() && bulkhead.inflight.tryAcquire()) {
+            TriggerTask task = bulkhead.pending.pollFirst();
+            if (task == null) {
+                bulkhead.inflight.release();
+                return;
+            }
+            if (!submit(task)) {
+                // pool queue full, keep order, retry on next monitor tick
+                bulkhead.pending.offerFirst(task);
+                bulkhead.inflight.release();
+                return;
+            }
+            groupPendingCount.decrementAndGet();
+            bulkhead.pendingSlots.release();
+        }
+    }
+
+    private boolean isSlow(JobTriggerStat stat) {
+        return stat.latency.count() >= SLOW_MIN_COUNT && stat.latency.percentile(90) > SLOW_THRESHOLD_MS;
+    }
+
+    private JobTriggerStat loadJobStat(int jobId) {
+        JobTriggerStat stat = jobStatMap.get(jobId);
+        if (stat == null) {
+            JobTriggerStat newStat = new JobTriggerStat();
+            stat = jobStatMap.putIfAbsent(jobId, newStat);
+            if (stat == null) {
+                stat = newStat;
+            }
+        }
+        if (stat.jobGroup < 0) {
+            stat.jobGroup = triggerRunner.loadJobGroup(jobId);
+        }
+        return stat;
+    }
+
+    private GroupBulkhead loadBulkhead(JobTriggerStat stat) {
+        GroupBulkhead bulkhead = bulkheadMap.get(stat.jobGroup);
+        if (bulkhead == null) {
+            GroupBulkhead newBulkhead = new GroupBulkhead(groupMax, groupMax * 10);
+            bulkhead = bulkheadMap.putIfAbsent(stat.jobGroup, newBulkhead);
+            if (bulkhead == null) {
+                bulkhead = newBulkhead;
+            }
+        }
+        return bulkhead;
+    }
+
+    private class TriggerTask implements Runnable {
+        private final int jobId;
+        private final TriggerTypeEnum triggerType;
+        private final int failRetryCount;
+        private final String executorShardingParam;
+        private final String executorParam;
+        private final String addressList;
+        private final JobTriggerStat stat;
+        private final GroupBulkhead bulkhead;
+
+        public TriggerTask(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam,
+            String executorParam, String addressList, JobTriggerStat stat, GroupBulkhead bulkhead) {
+            this.jobId = jobId;
+            this.triggerType = triggerType;
+            this.failRetryCount = failRetryCount;
+            this.executorShardingParam = executorShardingParam;
+            this.executorParam = executorParam;
+            this.addressList = addressList;
+            this.stat = stat;
+            this.bulkhead = bulkhead;
+        }
 
-                    // incr timeout-count-map
-                    long cost = System.currentTimeMillis() - start;
-                    if (cost > 500) {       // ob-timeout threshold 500ms
-                        AtomicInteger timeoutCount = jobTimeoutCountMap.putIfAbsent(jobId, new AtomicInteger(1));
-                        if (timeoutCount != null) {
-                            timeoutCount.incrementAndGet();
+        @Override
+        public void run() {
+            final long start = System.currentTimeMillis();
+
+            try {
+                // do trigger, executor rpc and log update complete async
+                triggerRunner.trigger(jobId, triggerType, failRetryCount, executorShardingParam, executorParam,
+                    addressList).whenComplete(new BiConsumer<Void, Throwable>() {
+                    @Override
+                    public void accept(Void result, Throwable throwable) {
+                        if (throwable != null) {
+                            logger.error(throwable.getMessage(), throwable);
                         }
+                        complete(start);
                     }
+                });
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+                complete(start);
+            }
+        }
 
-                }
+        private void complete(long start) {
+            // cost include executor rpc
+            stat.latency.record(System.currentTimeMillis() - start);
+            bulkhead.inflight.release();
+            drain(bulkhead);
+        }
+    }
 
+    /**
+     * trigger, reject and job group lookup, XxlJobTrigger and job cache; replaced in unit test
+     */
+    interface TriggerRunner {
+        CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+            String executorShardingParam, String executorParam, String addressList);
+
+        void reject(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam,
+            String executorParam, String runMsg);
+
+        int loadJobGroup(int jobId);
+    }
+
+    private static class JobTriggerStat {
+        private final LatencyHistogram latency = new LatencyHistogram(LATENCY_HIGHEST_MS);
+        private volatile int jobGroup = -1;         // -1: not loaded
+    }
+
+    private static class GroupBulkhead {
+        private final Semaphore inflight;
+        private final Semaphore pendingSlots;
+        private final Deque<TriggerTask> pending = new ConcurrentLinkedDeque<TriggerTask>();
+
+        public GroupBulkhead(int inflightMax, int pendingMax) {
+            this.inflight = new Semaphore(inflightMax);
+            this.pendingSlots = new Semaphore(pendingMax);
+        }
+    }
+
+    // ---------------------- latency ----------------------
+
+    private final List<JobLatencyListener> listeners = new CopyOnWriteArrayList<JobLatencyListener>();
+
+    public interface JobLatencyListener {
+        /**
+         * @param jobLatencyP99 slowest jobs, jobId - trigger cost p99 (ms), ordered by cost desc
+         */
+        void onRefresh(Map<Integer, Long> jobLatencyP99);
+    }
+
+    public void addLatencyListener(JobLatencyListener listener) {
+        listeners.add(listener);
+    }
+
+    public long getJobLatencyP99(int jobId) {
+        JobTriggerStat stat = jobStatMap.get(jobId);
+        return stat != null ? stat.latency.percentile(99) : 0;
+    }
+
+    private void reportLatency() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Integer, Long>> latencyList = new ArrayList<Map.Entry<Integer, Long>>();
+        for (Map.Entry<Integer, JobTriggerStat> item : jobStatMap.entrySet()) {
+            if (item.getValue().latency.count() > 0) {
+                latencyList.add(new AbstractMap.SimpleImmutableEntry<Integer, Long>(item.getKey(),
+                    item.getValue().latency.percentile(99)));
+            }
+        }
+        Collections.sort(latencyList, new Comparator<Map.Entry<Integer, Long>>() {
+            @Override
+            public int compare(Map.Entry<Integer, Long> o1, Map.Entry<Integer, Long> o2) {
+                return Long.compare(o2.getValue(), o1.getValue());
             }
         });
+
+        Map<Integer, Long> jobLatencyP99 = new LinkedHashMap<Integer, Long>();
+        for (Map.Entry<Integer, Long> item : latencyList.subList(0, Math.min(LATENCY_REPORT_TOP, latencyList.size()))) {
+            jobLatencyP99.put(item.getKey(), item.getValue());
+        }
+        jobLatencyP99 = Collections.unmodifiableMap(jobLatencyP99);
+        for (JobLatencyListener listener : listeners) {
+            listener.onRefresh(jobLatencyP99);
+        }
+    }
+
+    private void decayLatency() {
+        for (Map.Entry<Integer, JobTriggerStat> item : jobStatMap.entrySet()) {
+            JobTriggerStat stat = item.getValue();
+            stat.latency.decay();
+            if (stat.latency.count() == 0) {
+                jobStatMap.remove(item.getKey(), stat);
+            } else {
+                // reload job group, job may move to another group
+                stat.jobGroup = -1;
+            }
+        }
+    }
+
+    // ---------------------- metrics ----------------------
+
+    public int getFastQueueSize() {
+        return fastTriggerPool != null ? fastTriggerPool.getQueue().size() : 0;
+    }
+
+    public int getSlowQueueSize() {
+        return slowTriggerPool != null ? slowTriggerPool.getQueue().size() : 0;
+    }
+
+    public int getFastCoreSize() {
+        return fastTriggerPool != null ? fastTriggerPool.getCorePoolSize() : 0;
+    }
+
+    public int getSlowCoreSize() {
+        return slowTriggerPool != null ? slowTriggerPool.getCorePoolSize() : 0;
+    }
+
+    public int getGroupPendingCount() {
+        return groupPendingCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
     }
 
     // ---------------------- helper ----------------------
 
     private static JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
 
+    public static JobTriggerPoolHelper getInstance() {
+        return helper;
+    }
+
     public static void toStart() {
         helper.start();
     }
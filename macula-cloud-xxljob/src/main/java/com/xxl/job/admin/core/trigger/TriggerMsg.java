@@ -0,0 +1,280 @@
+package com.xxl.job.admin.core.trigger;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
+import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.core.util.JacksonUtil;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+
+/**
+ * trigger msg, stored in "xxl_job_log.trigger_msg" as compact json
+ *
+ * <pre>
+ *     a、trigger path only fills codes (enum name, address, retry count), no i18n lookup or html building；
+ *     b、html is rendered when the log is viewed (log list, alarm email)；
+ *     c、legacy html rows (not starting with "{") are shown as is；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TriggerMsg {
+
+    /**
+     * trigger result code
+     */
+    public enum Code {
+        SUCCESS, ADDRESS_EMPTY, ROUTE_FAIL, RUN_FAIL
+    }
+
+    @JsonProperty("c")
+    private Code code;
+    @JsonProperty("t")
+    private String triggerType;         // TriggerTypeEnum name
+    @JsonProperty("a")
+    private String adminAddress;
+    @JsonProperty("at")
+    private int addressType;            // executor address type：0=自动注册、1=手动录入
+    @JsonProperty("ea")
+    private String executorAddress;
+    @JsonProperty("r")
+    private String routeStrategy;       // ExecutorRouteStrategyEnum name
+    @JsonProperty("sp")
+    private String shardingParam;
+    @JsonProperty("b")
+    private String blockStrategy;       // ExecutorBlockStrategyEnum name
+    @JsonProperty("to")
+    private int timeout;
+    @JsonProperty("rc")
+    private int failRetryCount;
+    @JsonProperty("rm")
+    private String routeMsg;            // router msg, busyover/failover beat result
+    @JsonProperty("m")
+    private String runMsg;              // executor run msg
+    @JsonProperty("rt")
+    private boolean retried;            // fail retry triggered
+
+    public Code getCode() {
+        return code;
+    }
+
+    public void setCode(Code code) {
+        this.code = code;
+    }
+
+    public String getTriggerType() {
+        return triggerType;
+    }
+
+    public void setTriggerType(String triggerType) {
+        this.triggerType = triggerType;
+    }
+
+    public String getAdminAddress() {
+        return adminAddress;
+    }
+
+    public void setAdminAddress(String adminAddress) {
+        this.adminAddress = adminAddress;
+    }
+
+    public int getAddressType() {
+        return addressType;
+    }
+
+    public void setAddressType(int addressType) {
+        this.addressType = addressType;
+    }
+
+    public String getExecutorAddress() {
+        return executorAddress;
+    }
+
+    public void setExecutorAddress(String executorAddress) {
+        this.executorAddress = executorAddress;
+    }
+
+    public String getRouteStrategy() {
+        return routeStrategy;
+    }
+
+    public void setRouteStrategy(String routeStrategy) {
+        this.routeStrategy = routeStrategy;
+    }
+
+    public String getShardingParam() {
+        return shardingParam;
+    }
+
+    public void setShardingParam(String shardingParam) {
+        this.shardingParam = shardingParam;
+    }
+
+    public String getBlockStrategy() {
+        return blockStrategy;
+    }
+
+    public void setBlockStrategy(String blockStrategy) {
+        this.blockStrategy = blockStrategy;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getFailRetryCount() {
+        return failRetryCount;
+    }
+
+    public void setFailRetryCount(int failRetryCount) {
+        this.failRetryCount = failRetryCount;
+    }
+
+    public String getRouteMsg() {
+        return routeMsg;
+    }
+
+    public void setRouteMsg(String routeMsg) {
+        this.routeMsg = routeMsg;
+    }
+
+    public String getRunMsg() {
+        return runMsg;
+    }
+
+    public void setRunMsg(String runMsg) {
+        this.runMsg = runMsg;
+    }
+
+    public boolean isRetried() {
+        return retried;
+    }
+
+    public void setRetried(boolean retried) {
+        this.retried = retried;
+    }
+
+    // ---------------------- store ----------------------
+
+    public String toJson() {
+        return JacksonUtil.writeValueAsString(this);
+    }
+
+    /**
+     * parse stored trigger msg
+     *
+     * @param triggerMsg
+     * @return null if empty or legacy html
+     */
+    public static TriggerMsg parse(String triggerMsg) {
+        if (!isStructured(triggerMsg)) {
+            return null;
+        }
+        return JacksonUtil.readValue(triggerMsg, TriggerMsg.class);
+    }
+
+    private static boolean isStructured(String triggerMsg) {
+        return triggerMsg != null && triggerMsg.startsWith("{");
+    }
+
+    /**
+     * mark fail retry triggered
+     *
+     * @param triggerMsg stored trigger msg
+     * @return new stored trigger msg
+     */
+    public static String markRetried(String triggerMsg) {
+        TriggerMsg msg = parse(triggerMsg);
+        if (msg == null) {
+            // legacy html
+            return triggerMsg + retryHtml();
+        }
+        msg.setRetried(true);
+        return msg.toJson();
+    }
+
+    // ---------------------- render ----------------------
+
+    /**
+     * render stored trigger msg as html
+     *
+     * @param triggerMsg stored trigger msg
+     * @return html, legacy html as is
+     */
+    public static String render(String triggerMsg) {
+        TriggerMsg msg = parse(triggerMsg);
+        return msg != null ? msg.toHtml() : triggerMsg;
+    }
+
+    public String toHtml() {
+        TriggerTypeEnum triggerTypeEnum = matchTriggerType(triggerType);
+        ExecutorRouteStrategyEnum routeStrategyEnum = ExecutorRouteStrategyEnum.match(routeStrategy, null);
+        ExecutorBlockStrategyEnum blockStrategyEnum = ExecutorBlockStrategyEnum.match(blockStrategy, null);
+
+        StringBuilder html = new StringBuilder(512);
+        html.append(I18nUtil.getString("jobconf_trigger_type")).append("：")
+            .append(triggerTypeEnum != null ? triggerTypeEnum.getTitle() : triggerType);
+        html.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：")
+            .append(adminAddress);
+        html.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regtype")).append("：").append(
+            (addressType == 0) ? I18nUtil.getString("jobgroup_field_addressType_0")
+                : I18nUtil.getString("jobgroup_field_addressType_1"));
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_executorRouteStrategy")).append("：")
+            .append(routeStrategyEnum != null ? routeStrategyEnum.getTitle() : routeStrategy);
+        if (shardingParam != null) {
+            html.append("(").append(shardingParam).append(")");
+        }
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy")).append("：")
+            .append(blockStrategyEnum != null ? blockStrategyEnum.getTitle() : blockStrategy);
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：").append(timeout);
+        html.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount")).append("：")
+            .append(failRetryCount);
+
+        html.append("<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>")
+            .append(I18nUtil.getString("jobconf_trigger_run")).append("<<<<<<<<<<< </span><br>");
+        if (code == Code.ADDRESS_EMPTY) {
+            html.append(I18nUtil.getString("jobconf_trigger_address_empty")).append("<br><br>");
+        }
+        if (routeMsg != null) {
+            html.append(routeMsg).append("<br><br>");
+        }
+        if (executorAddress != null) {
+            html.append(I18nUtil.getString("jobconf_trigger_run")).append("：");
+            html.append("<br>address：").append(executorAddress);
+            html.append("<br>code：").append(code == Code.SUCCESS ? ReturnT.SUCCESS_CODE : ReturnT.FAIL_CODE);
+            html.append("<br>msg：").append(runMsg);
+        } else if (runMsg != null) {
+            html.append(runMsg);
+        }
+
+        if (retried) {
+            html.append(retryHtml());
+        }
+        return html.toString();
+    }
+
+    private static String retryHtml() {
+        return "<br><br><span style=\"color:#F39C12;\" > >>>>>>>>>>>" + I18nUtil.getString("jobconf_trigger_type_retry")
+            + "<<<<<<<<<<< </span><br>";
+    }
+
+    private static TriggerTypeEnum matchTriggerType(String name) {
+        if (name != null) {
+            for (TriggerTypeEnum item : TriggerTypeEnum.values()) {
+                if (item.name().equals(name)) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -23,4 +23,15 @@ public enum TriggerTypeEnum {
         return title;
     }
 
+    public static TriggerTypeEnum match(String name, TriggerTypeEnum defaultItem) {
+        if (name != null) {
+            for (TriggerTypeEnum item : TriggerTypeEnum.values()) {
+                if (item.name().equals(name)) {
+                    return item;
+                }
+            }
+        }
+        return defaultItem;
+    }
+
 }
@@ -5,18 +5,29 @@ import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
-import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobCompleteHelper;
+import com.xxl.job.admin.core.thread.JobExecutorRpcHelper;
+import com.xxl.job.admin.core.thread.JobInfoCacheHelper;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
+import com.xxl.job.admin.core.thread.JobLogWriteHelper;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
-import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
 import com.xxl.job.core.util.IpUtil;
-import com.xxl.job.core.util.ThrowableUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * xxl-job trigger Created by xuxueli on 17/7/13.
@@ -33,21 +44,22 @@ public class XxlJobTrigger {
      * @param executorShardingParam
      * @param executorParam         null: use job param not null: cover job param
      * @param addressList           null: use executor addressList not null: cover
+     * @return completed when executor rpc returns and trigger log is updated
      */
-    public static void trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam,
-        String executorParam, String addressList) {
+    public static CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+        String executorShardingParam, String executorParam, String addressList) {
 
         // load data
-        XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        XxlJobInfo jobInfo = JobInfoCacheHelper.getInstance().loadJobInfo(jobId);
         if (jobInfo == null) {
             logger.warn(">>>>>>>>>>>> trigger fail, jobId invalid，jobId={}", jobId);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         if (executorParam != null) {
             jobInfo.setExecutorParam(executorParam);
         }
         int finalFailRetryCount = failRetryCount >= 0 ? failRetryCount : jobInfo.getExecutorFailRetryCount();
-        XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobInfo.getJobGroup());
+        XxlJobGroup group = JobInfoCacheHelper.getInstance().loadJobGroup(jobInfo.getJobGroup());
 
         // cover addressList
         if (addressList != null && addressList.trim().length() > 0) {
@@ -65,19 +77,65 @@ public class XxlJobTrigger {
                 shardingParam[1] = Integer.valueOf(shardingArr[1]);
             }
         }
+        List<String> registryList = group.getRegistryList();     // parsed once, shared by shards
         if (ExecutorRouteStrategyEnum.SHARDING_BROADCAST == ExecutorRouteStrategyEnum.match(
-            jobInfo.getExecutorRouteStrategy(), null) && group.getRegistryList() != null && !group.getRegistryList()
-            .isEmpty() && shardingParam == null) {
-            for (int i = 0; i < group.getRegistryList().size(); i++) {
-                processTrigger(group, jobInfo, finalFailRetryCount, triggerType, i, group.getRegistryList().size());
-            }
+            jobInfo.getExecutorRouteStrategy(), null) && registryList != null && !registryList.isEmpty()
+            && shardingParam == null) {
+            return broadcastTrigger(group, jobInfo, finalFailRetryCount, triggerType, registryList.size());
         } else {
             if (shardingParam == null) {
                 shardingParam = new int[] {0, 1};
             }
-            processTrigger(group, jobInfo, finalFailRetryCount, triggerType, shardingParam[0], shardingParam[1]);
+            XxlJobLog jobLog = newJobLog(jobInfo, 0, new Date());
+            CompletableFuture<Void> saveFuture = JobLogWriteHelper.getInstance().save(jobLog);
+            return processTrigger(group, jobInfo, finalFailRetryCount, triggerType, jobLog, saveFuture,
+                shardingParam[0], shardingParam[1], null);
+        }
+
+    }
+
+    /**
+     * trigger rejected before routing (group bulkhead full etc): log trigger-failed, never called back
+     *
+     * @param runMsg reject reason, shown as run msg
+     * @return completed when the log is saved
+     */
+    public static CompletableFuture<Void> rejectTrigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+        String executorShardingParam, String executorParam, String runMsg) {
+        XxlJobInfo jobInfo = JobInfoCacheHelper.getInstance().loadJobInfo(jobId);
+        if (jobInfo == null) {
+            logger.warn(">>>>>>>>>>>> trigger reject, jobId invalid，jobId={}", jobId);
+            return CompletableFuture.completedFuture(null);
         }
+        int finalFailRetryCount = failRetryCount >= 0 ? failRetryCount : jobInfo.getExecutorFailRetryCount();
+        XxlJobGroup group = JobInfoCacheHelper.getInstance().loadJobGroup(jobInfo.getJobGroup());
+
+        TriggerMsg triggerMsg = new TriggerMsg();
+        triggerMsg.setCode(TriggerMsg.Code.RUN_FAIL);
+        triggerMsg.setTriggerType(triggerType.name());
+        triggerMsg.setAdminAddress(IpUtil.getIp());
+        triggerMsg.setAddressType(group != null ? group.getAddressType() : 0);
+        triggerMsg.setRouteStrategy(jobInfo.getExecutorRouteStrategy());
+        triggerMsg.setShardingParam(executorShardingParam);
+        triggerMsg.setBlockStrategy(jobInfo.getExecutorBlockStrategy());
+        triggerMsg.setTimeout(jobInfo.getExecutorTimeout());
+        triggerMsg.setFailRetryCount(finalFailRetryCount);
+        triggerMsg.setRunMsg(runMsg);
+
+        XxlJobLog jobLog = newJobLog(jobInfo, 0, new Date());
+        jobLog.setExecutorHandler(jobInfo.getExecutorHandler());
+        jobLog.setExecutorParam(executorParam != null ? executorParam : jobInfo.getExecutorParam());
+        jobLog.setExecutorShardingParam(executorShardingParam);
+        jobLog.setExecutorFailRetryCount(finalFailRetryCount);
+        jobLog.setTriggerCode(ReturnT.FAIL_CODE);
+        jobLog.setTriggerMsg(triggerMsg.toJson());
 
+        // never called back, fix delay job armed from now
+        JobScheduleHelper.getInstance()
+            .fixDelayDone(jobInfo, triggerType, jobLog.getTriggerTime(), System.currentTimeMillis());
+        CompletableFuture<Void> saveFuture = JobLogWriteHelper.getInstance().save(jobLog);
+        JobLogReportHelper.getInstance().onTrigger(jobLog.getJobId(), jobLog.getTriggerTime(), jobLog.getTriggerCode());
+        return saveFuture;
     }
 
     private static boolean isNumeric(String str) {
@@ -89,32 +147,190 @@ public class XxlJobTrigger {
         }
     }
 
+    private static XxlJobLog newJobLog(XxlJobInfo jobInfo, long parentId, Date triggerTime) {
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setId(JobLogWriteHelper.getInstance().nextLogId());
+        jobLog.setParentId(parentId);
+        jobLog.setJobGroup(jobInfo.getJobGroup());
+        jobLog.setJobId(jobInfo.getId());
+        jobLog.setTriggerTime(triggerTime);
+        return jobLog;
+    }
+
+    /**
+     * sharding broadcast
+     *
+     * <pre>
+     *     a、log: one broadcast log (parent) and a shard log per executor, written in one group commit；
+     *     b、fan-out: at most "xxl.job.triggerpool.broadcast.parallel" shard rpc in flight, next shard sent as one returns；
+     *     c、result: broadcast log trigger-info summed up once all shards triggered, handle-info once all shards done；
+     * </pre>
+     *
+     * @return completed when all shard logs and the broadcast log are updated
+     */
+    private static CompletableFuture<Void> broadcastTrigger(final XxlJobGroup group, final XxlJobInfo jobInfo,
+        final int finalFailRetryCount, final TriggerTypeEnum triggerType, final int total) {
+
+        // 1、save broadcast log and shard logs, trigger time in seconds as stored (shards found by it)
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        final XxlJobLog parentLog = newJobLog(jobInfo, XxlJobLog.PARENT_BROADCAST, triggerTime);
+        parentLog.setExecutorHandler(jobInfo.getExecutorHandler());
+        parentLog.setExecutorParam(jobInfo.getExecutorParam());
+        parentLog.setAlarmStatus(1);     // shards alarmed one by one
+        parentLog.setTriggerMsg(broadcastTriggerMsg(group, jobInfo, finalFailRetryCount, triggerType, total, null)
+            .toJson());
+        JobLogWriteHelper.getInstance().save(parentLog);
+
+        final XxlJobLog[] shardLogs = new XxlJobLog[total];
+        final List<CompletableFuture<Void>> saveFutures = new ArrayList<CompletableFuture<Void>>(total);
+        for (int i = 0; i < total; i++) {
+            shardLogs[i] = newJobLog(jobInfo, parentLog.getId(), triggerTime);
+            saveFutures.add(JobLogWriteHelper.getInstance().save(shardLogs[i]));
+        }
+
+        // 2、broadcast log trigger-info, after all shards triggered
+        final CompletableFuture<Void> done = new CompletableFuture<Void>();
+        final AtomicInteger updateCount = new AtomicInteger(0);
+        final BiConsumer<Void, Throwable> shardUpdated = new BiConsumer<Void, Throwable>() {
+            @Override
+            public void accept(Void result, Throwable throwable) {
+                if (updateCount.incrementAndGet() < total) {
+                    return;
+                }
+                int triggerSuc = 0;
+                for (XxlJobLog shardLog : shardLogs) {
+                    if (shardLog.getTriggerCode() == ReturnT.SUCCESS_CODE) {
+                        triggerSuc++;
+                    }
+                }
+                parentLog.setTriggerCode(triggerSuc == total ? ReturnT.SUCCESS_CODE : ReturnT.FAIL_CODE);
+                parentLog.setTriggerMsg(
+                    broadcastTriggerMsg(group, jobInfo, finalFailRetryCount, triggerType, total, triggerSuc).toJson());
+                JobLogWriteHelper.getInstance().updateTriggerInfo(parentLog)
+                    .whenComplete(new BiConsumer<Void, Throwable>() {
+                        @Override
+                        public void accept(Void result, Throwable throwable) {
+                            done.complete(null);
+                        }
+                    });
+            }
+        };
+
+        // 3、fan-out, bounded: next shard dispatched when a shard rpc returns, or at once if the shard fails to start
+        final AtomicInteger nextIndex = new AtomicInteger(0);
+        Runnable dispatch = new Runnable() {
+            @Override
+            public void run() {
+                int index = nextIndex.getAndIncrement();
+                if (index >= total) {
+                    return;
+                }
+                try {
+                    processTrigger(group, jobInfo, finalFailRetryCount, triggerType, shardLogs[index],
+                        saveFutures.get(index), index, total, this).whenComplete(shardUpdated);
+                } catch (Throwable e) {
+                    logger.error(">>>>>>>>>>> xxl-job, broadcast shard trigger error, jobLogId:{}",
+                        shardLogs[index].getId(), e);
+                    shardTriggerFail(group, jobInfo, finalFailRetryCount, triggerType, shardLogs[index], index, total,
+                        e).whenComplete(shardUpdated);
+                    run();
+                }
+            }
+        };
+        int parallel = Math.min(total, XxlJobAdminConfig.getAdminConfig().getTriggerBroadcastParallel());
+        for (int i = 0; i < parallel; i++) {
+            dispatch.run();
+        }
+        return done;
+    }
+
+    /**
+     * shard not triggered (error before rpc): log trigger-failed and done, counted as a failed shard
+     *
+     * @return completed when shard log is updated
+     */
+    private static CompletableFuture<Void> shardTriggerFail(XxlJobGroup group, XxlJobInfo jobInfo,
+        int finalFailRetryCount, TriggerTypeEnum triggerType, final XxlJobLog shardLog, int index, int total,
+        Throwable e) {
+        TriggerMsg triggerMsg = new TriggerMsg();
+        triggerMsg.setCode(TriggerMsg.Code.RUN_FAIL);
+        triggerMsg.setTriggerType(triggerType.name());
+        triggerMsg.setAdminAddress(IpUtil.getIp());
+        triggerMsg.setAddressType(group.getAddressType());
+        triggerMsg.setRouteStrategy(ExecutorRouteStrategyEnum.SHARDING_BROADCAST.name());
+        triggerMsg.setShardingParam(index + "/" + total);
+        triggerMsg.setBlockStrategy(jobInfo.getExecutorBlockStrategy());
+        triggerMsg.setTimeout(jobInfo.getExecutorTimeout());
+        triggerMsg.setFailRetryCount(finalFailRetryCount);
+        triggerMsg.setRunMsg(e.toString());
+
+        shardLog.setExecutorHandler(jobInfo.getExecutorHandler());
+        shardLog.setExecutorParam(jobInfo.getExecutorParam());
+        shardLog.setExecutorShardingParam(index + "/" + total);
+        shardLog.setExecutorFailRetryCount(finalFailRetryCount);
+        shardLog.setTriggerCode(ReturnT.FAIL_CODE);
+        shardLog.setTriggerMsg(triggerMsg.toJson());
+        JobCompleteHelper.getInstance().removeRunning(shardLog.getId());
+
+        CompletableFuture<Void> updateFuture = JobLogWriteHelper.getInstance().updateTriggerInfo(shardLog);
+        updateFuture.thenRun(new Runnable() {
+            @Override
+            public void run() {
+                JobCompleteHelper.getInstance().finish(shardLog);
+            }
+        });
+        JobLogReportHelper.getInstance()
+            .onTrigger(shardLog.getJobId(), shardLog.getTriggerTime(), shardLog.getTriggerCode());
+        return updateFuture;
+    }
+
+    private static TriggerMsg broadcastTriggerMsg(XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount,
+        TriggerTypeEnum triggerType, int total, Integer triggerSuc) {
+        TriggerMsg triggerMsg = new TriggerMsg();
+        triggerMsg.setCode(triggerSuc == null || triggerSuc == total ? TriggerMsg.Code.SUCCESS
+            : TriggerMsg.Code.RUN_FAIL);
+        triggerMsg.setTriggerType(triggerType.name());
+        triggerMsg.setAdminAddress(IpUtil.getIp());
+        triggerMsg.setAddressType(group.getAddressType());
+        triggerMsg.setRouteStrategy(ExecutorRouteStrategyEnum.SHARDING_BROADCAST.name());
+        triggerMsg.setShardingParam(String.valueOf(total));
+        triggerMsg.setBlockStrategy(jobInfo.getExecutorBlockStrategy());
+        triggerMsg.setTimeout(jobInfo.getExecutorTimeout());
+        triggerMsg.setFailRetryCount(finalFailRetryCount);
+        if (triggerSuc != null) {
+            triggerMsg.setRunMsg(MessageFormat.format(I18nUtil.getString("joblog_broadcast_trigger_msg"),
+                String.valueOf(total), String.valueOf(triggerSuc), String.valueOf(total - triggerSuc)));
+        }
+        return triggerMsg;
+    }
+
     /**
      * @param group               job group, registry list may be empty
      * @param jobInfo
      * @param finalFailRetryCount
      * @param triggerType
+     * @param jobLog              allocated log
+     * @param saveFuture          log insert, executor rpc after it
      * @param index               sharding index
      * @param total               sharding index
+     * @param rpcDone             called when executor rpc returns, null if none
+     * @return completed when trigger log is updated
      */
-    private static void processTrigger(XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount,
-        TriggerTypeEnum triggerType, int index, int total) {
+    private static CompletableFuture<Void> processTrigger(final XxlJobGroup group, final XxlJobInfo jobInfo,
+        final int finalFailRetryCount, final TriggerTypeEnum triggerType, final XxlJobLog jobLog,
+        CompletableFuture<Void> saveFuture, int index, int total, final Runnable rpcDone) {
 
         // param
-        ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(),
-            ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
-        ExecutorRouteStrategyEnum executorRouteStrategyEnum =
+        final ExecutorBlockStrategyEnum blockStrategy =
+            ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(),
+                ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
+        final ExecutorRouteStrategyEnum executorRouteStrategyEnum =
             ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
-        String shardingParam =
+        final String shardingParam =
             (ExecutorRouteStrategyEnum.SHARDING_BROADCAST == executorRouteStrategyEnum) ? String.valueOf(index)
                 .concat("/").concat(String.valueOf(total)) : null;
 
-        // 1、save log-id
-        XxlJobLog jobLog = new XxlJobLog();
-        jobLog.setJobGroup(jobInfo.getJobGroup());
-        jobLog.setJobId(jobInfo.getId());
-        jobLog.setTriggerTime(new Date());
-        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().save(jobLog);
+        // 1、log-id saved by caller, group commit
         logger.debug(">>>>>>>>>>> xxl-job trigger start, jobId:{}", jobLog.getId());
 
         // 2、init trigger-param
@@ -135,59 +351,76 @@ public class XxlJobTrigger {
         // 3、init address
         String address = null;
         ReturnT<String> routeAddressResult = null;
-        if (group.getRegistryList() != null && !group.getRegistryList().isEmpty()) {
+        List<String> registryList = group.getRegistryList();
+        if (registryList != null && !registryList.isEmpty()) {
             if (ExecutorRouteStrategyEnum.SHARDING_BROADCAST == executorRouteStrategyEnum) {
-                if (index < group.getRegistryList().size()) {
-                    address = group.getRegistryList().get(index);
+                if (index < registryList.size()) {
+                    address = registryList.get(index);
                 } else {
-                    address = group.getRegistryList().get(0);
+                    address = registryList.get(0);
                 }
             } else {
-                routeAddressResult = executorRouteStrategyEnum.getRouter().route(triggerParam, group.getRegistryList());
+                routeAddressResult = executorRouteStrategyEnum.getRouter().route(triggerParam, registryList);
                 if (routeAddressResult.getCode() == ReturnT.SUCCESS_CODE) {
                     address = routeAddressResult.getContent();
                 }
             }
-        } else {
-            routeAddressResult =
-                new ReturnT<String>(ReturnT.FAIL_CODE, I18nUtil.getString("jobconf_trigger_address_empty"));
         }
 
-        // 4、trigger remote executor
-        ReturnT<String> triggerResult = null;
+        // 4、trigger remote executor, async, after log saved (executor callback needs the log row)
+        CompletableFuture<ReturnT<String>> triggerFuture = null;
         if (address != null) {
-            triggerResult = runExecutor(triggerParam, address);
+            JobCompleteHelper.getInstance().addRunning(jobLog.getId(), address, jobLog.getTriggerTime());
+            triggerFuture = runExecutor(triggerParam, address, saveFuture);
         } else {
-            triggerResult = new ReturnT<String>(ReturnT.FAIL_CODE, null);
-        }
-
-        // 5、collection trigger info
-        StringBuffer triggerMsgSb = new StringBuffer();
-        triggerMsgSb.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType.getTitle());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_admin_adress")).append("：")
-            .append(IpUtil.getIp());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regtype")).append("：").append(
-            (group.getAddressType() == 0) ? I18nUtil.getString("jobgroup_field_addressType_0")
-                : I18nUtil.getString("jobgroup_field_addressType_1"));
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobconf_trigger_exe_regaddress")).append("：")
-            .append(group.getRegistryList());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorRouteStrategy")).append("：")
-            .append(executorRouteStrategyEnum.getTitle());
-        if (shardingParam != null) {
-            triggerMsgSb.append("(" + shardingParam + ")");
-        }
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorBlockStrategy")).append("：")
-            .append(blockStrategy.getTitle());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_timeout")).append("：")
-            .append(jobInfo.getExecutorTimeout());
-        triggerMsgSb.append("<br>").append(I18nUtil.getString("jobinfo_field_executorFailRetryCount")).append("：")
-            .append(finalFailRetryCount);
-
-        triggerMsgSb.append("<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>" + I18nUtil.getString(
-                "jobconf_trigger_run") + "<<<<<<<<<<< </span><br>").append(
-                (routeAddressResult != null && routeAddressResult.getMsg() != null)
-                    ? routeAddressResult.getMsg() + "<br><br>" : "")
-            .append(triggerResult.getMsg() != null ? triggerResult.getMsg() : "");
+            triggerFuture = saveFuture.handle(new BiFunction<Void, Throwable, ReturnT<String>>() {
+                @Override
+                public ReturnT<String> apply(Void result, Throwable throwable) {
+                    return new ReturnT<String>(ReturnT.FAIL_CODE, null);
+                }
+            });
+        }
+
+        // 5、6、save log trigger-info, continuation of rpc
+        final String finalAddress = address;
+        final ReturnT<String> finalRouteAddressResult = routeAddressResult;
+        return triggerFuture.thenCompose(new Function<ReturnT<String>, CompletableFuture<Void>>() {
+            @Override
+            public CompletableFuture<Void> apply(ReturnT<String> triggerResult) {
+                if (rpcDone != null) {
+                    rpcDone.run();
+                }
+                return updateTriggerInfo(jobLog, group, jobInfo, finalFailRetryCount, triggerType, blockStrategy,
+                    executorRouteStrategyEnum, shardingParam, finalAddress, finalRouteAddressResult, triggerResult);
+            }
+        });
+    }
+
+    private static CompletableFuture<Void> updateTriggerInfo(XxlJobLog jobLog, XxlJobGroup group, XxlJobInfo jobInfo,
+        int finalFailRetryCount, TriggerTypeEnum triggerType, ExecutorBlockStrategyEnum blockStrategy,
+        ExecutorRouteStrategyEnum executorRouteStrategyEnum, String shardingParam, String address,
+        ReturnT<String> routeAddressResult, ReturnT<String> triggerResult) {
+
+        // 5、collection trigger info, rendered when viewed
+        TriggerMsg triggerMsg = new TriggerMsg();
+        if (address == null) {
+            triggerMsg.setCode(group.getRegistryList() == null || group.getRegistryList().isEmpty()
+                ? TriggerMsg.Code.ADDRESS_EMPTY : TriggerMsg.Code.ROUTE_FAIL);
+        } else {
+            triggerMsg.setCode(triggerResult.getCode() == ReturnT.SUCCESS_CODE ? TriggerMsg.Code.SUCCESS
+                : TriggerMsg.Code.RUN_FAIL);
+        }
+        triggerMsg.setTriggerType(triggerType.name());
+        triggerMsg.setAdminAddress(IpUtil.getIp());
+        triggerMsg.setAddressType(group.getAddressType());
+        triggerMsg.setExecutorAddress(address);
+        triggerMsg.setRouteStrategy(executorRouteStrategyEnum.name());
+        triggerMsg.setShardingParam(shardingParam);
+        triggerMsg.setBlockStrategy(blockStrategy.name());
+        triggerMsg.setTimeout(jobInfo.getExecutorTimeout());
+        triggerMsg.setFailRetryCount(finalFailRetryCount);
+        triggerMsg.setRouteMsg(routeAddressResult != null ? routeAddressResult.getMsg() : null);
+        triggerMsg.setRunMsg(triggerResult.getMsg());
 
         // 6、save log trigger-info
         jobLog.setExecutorAddress(address);
@@ -197,36 +430,42 @@ public class XxlJobTrigger {
         jobLog.setExecutorFailRetryCount(finalFailRetryCount);
         //jobLog.setTriggerTime();
         jobLog.setTriggerCode(triggerResult.getCode());
-        jobLog.setTriggerMsg(triggerMsgSb.toString());
-        XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateTriggerInfo(jobLog);
+        jobLog.setTriggerMsg(triggerMsg.toJson());
+        if (address != null && triggerResult.getCode() != ReturnT.SUCCESS_CODE) {
+            JobCompleteHelper.getInstance().removeRunning(jobLog.getId());
+        }
+        if (triggerResult.getCode() != ReturnT.SUCCESS_CODE && jobLog.getParentId() == 0) {
+            // never called back, fix delay job armed from now
+            JobScheduleHelper.getInstance()
+                .fixDelayDone(jobInfo, triggerType, jobLog.getTriggerTime(), System.currentTimeMillis());
+        }
+        CompletableFuture<Void> updateFuture = JobLogWriteHelper.getInstance().updateTriggerInfo(jobLog);
+        if (triggerResult.getCode() != ReturnT.SUCCESS_CODE && jobLog.getParentId() > 0) {
+            // never called back, shard done once saved
+            updateFuture.thenRun(new Runnable() {
+                @Override
+                public void run() {
+                    JobCompleteHelper.getInstance().finish(jobLog);
+                }
+            });
+        }
+        JobLogReportHelper.getInstance().onTrigger(jobLog.getJobId(), jobLog.getTriggerTime(), jobLog.getTriggerCode());
 
         logger.debug(">>>>>>>>>>> xxl-job trigger end, jobId:{}", jobLog.getId());
+        return updateFuture;
     }
 
     /**
-     * run executor
+     * run executor, async
      *
      * @param triggerParam
      * @param address
-     * @return
+     * @param dependency   rpc skipped if completed exceptionally
+     * @return run result, never completed exceptionally
      */
-    public static ReturnT<String> runExecutor(TriggerParam triggerParam, String address) {
-        ReturnT<String> runResult = null;
-        try {
-            ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
-            runResult = executorBiz.run(triggerParam);
-        } catch (Exception e) {
-            logger.error(">>>>>>>>>>> xxl-job trigger error, please check if the executor[{}] is running.", address, e);
-            runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
-        }
-
-        StringBuffer runResultSB = new StringBuffer(I18nUtil.getString("jobconf_trigger_run") + "：");
-        runResultSB.append("<br>address：").append(address);
-        runResultSB.append("<br>code：").append(runResult.getCode());
-        runResultSB.append("<br>msg：").append(runResult.getMsg());
-
-        runResult.setMsg(runResultSB.toString());
-        return runResult;
+    public static CompletableFuture<ReturnT<String>> runExecutor(TriggerParam triggerParam, String address,
+        CompletableFuture<?> dependency) {
+        return JobExecutorRpcHelper.getInstance().run(triggerParam, address, dependency);
     }
 
 }
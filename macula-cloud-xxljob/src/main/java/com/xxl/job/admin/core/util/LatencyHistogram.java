@@ -0,0 +1,152 @@
+package com.xxl.job.admin.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * latency histogram (HdrHistogram-style)
+ *
+ * <pre>
+ *     a、log-linear buckets: 16 sub-buckets per power of two, value precision ~6%；
+ *     b、lock-free record, safe for concurrent writers；
+ *     c、decay: halve all buckets, keep recent samples dominant while preserving the shape；
+ *     d、bounded: values over highestTrackableValue share the last bucket (max stays exact), fewer buckets per instance；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final long highestTrackableValue;
+    private final int bucketCount;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param highestTrackableValue values above share the last bucket, at least 2 * SUB_BUCKET_COUNT
+     */
+    public LatencyHistogram(long highestTrackableValue) {
+        this.highestTrackableValue = Math.max(highestTrackableValue, 2 * SUB_BUCKET_COUNT);
+        this.bucketCount = bucketIndex(this.highestTrackableValue) + 1;
+        this.counts = new AtomicLongArray(bucketCount);
+    }
+
+    /**
+     * record value
+     *
+     * @param value latency, negative value will be recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIndex(Math.min(value, highestTrackableValue)));
+        totalCount.incrementAndGet();
+
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * value at percentile
+     *
+     * @param percentile 0-100
+     * @return upper bound of the matched bucket, 0 if empty
+     */
+    public long percentile(double percentile) {
+        long total = totalCount.get();
+        if (total <= 0) {
+            return 0;
+        }
+        long target = (long)Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+        if (target < 1) {
+            target = 1;
+        }
+
+        long seen = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public long max() {
+        return maxValue.get();
+    }
+
+    /**
+     * decay: halve all buckets
+     */
+    public void decay() {
+        for (int i = 0; i < bucketCount; i++) {
+            long old = counts.get(i);
+            if (old > 0) {
+                long removed = old - (old >> 1);
+                counts.addAndGet(i, -removed);
+                totalCount.addAndGet(-removed);
+            }
+        }
+        maxValue.set(highestValue());
+    }
+
+    /**
+     * reset all samples
+     */
+    public void reset() {
+        for (int i = 0; i < bucketCount; i++) {
+            long old = counts.getAndSet(i, 0);
+            if (old > 0) {
+                totalCount.addAndGet(-old);
+            }
+        }
+        maxValue.set(0);
+    }
+
+    // ---------------------- bucket ----------------------
+
+    private long highestValue() {
+        for (int i = bucketCount - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return bucketUpperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);     // >= SUB_BUCKET_BITS
+        int shift = exp - SUB_BUCKET_BITS;
+        int sub = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + sub;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int sub = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long)(SUB_BUCKET_COUNT + sub + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.xxl.job.admin.core.util;
+
+/**
+ * token bucket, thread-safe
+ *
+ * @author rain 2026-10-17
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerMs;
+
+    private double tokens;
+    private long refillTime;
+
+    /**
+     * @param capacity    burst size, bucket starts full
+     * @param ratePerMinute refill rate
+     */
+    public TokenBucket(int capacity, int ratePerMinute) {
+        this.capacity = Math.max(capacity, 1);
+        this.tokensPerMs = Math.max(ratePerMinute, 1) / 60000.0;
+        this.tokens = this.capacity;
+        this.refillTime = System.currentTimeMillis();
+    }
+
+    /**
+     * take one token
+     *
+     * @return false if bucket empty
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.currentTimeMillis());
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized int available() {
+        refill(System.currentTimeMillis());
+        return (int) tokens;
+    }
+
+    private void refill(long nowTime) {
+        if (nowTime > refillTime) {
+            tokens = Math.min(capacity, tokens + (nowTime - refillTime) * tokensPerMs);
+            refillTime = nowTime;
+        }
+    }
+
+}
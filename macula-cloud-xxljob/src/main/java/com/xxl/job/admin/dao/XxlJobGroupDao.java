@@ -24,6 +24,11 @@ public interface XxlJobGroupDao {
 
     public XxlJobGroup load(@Param("id") int id);
 
+    /**
+     * id and version only, cache reconcile
+     */
+    public List<XxlJobGroup> findVersionByIds(@Param("ids") List<Integer> ids);
+
     public List<XxlJobGroup> pageList(@Param("offset") int offset, @Param("pagesize") int pagesize,
         @Param("appname") String appname, @Param("title") String title);
 
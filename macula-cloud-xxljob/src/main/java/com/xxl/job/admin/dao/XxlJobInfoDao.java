@@ -14,9 +14,16 @@ import java.util.List;
 @Mapper
 public interface XxlJobInfoDao {
 
+    /**
+     * page by id desc
+     *
+     * @param offset   skipped if cursor given
+     * @param cursorId id of the last job of the previous page, 0: offset paging
+     */
     public List<XxlJobInfo> pageList(@Param("offset") int offset, @Param("pagesize") int pagesize,
         @Param("jobGroup") int jobGroup, @Param("triggerStatus") int triggerStatus, @Param("jobDesc") String jobDesc,
-        @Param("executorHandler") String executorHandler, @Param("author") String author);
+        @Param("executorHandler") String executorHandler, @Param("author") String author,
+        @Param("cursorId") int cursorId);
 
     public int pageListCount(@Param("offset") int offset, @Param("pagesize") int pagesize,
         @Param("jobGroup") int jobGroup, @Param("triggerStatus") int triggerStatus, @Param("jobDesc") String jobDesc,
@@ -26,6 +33,11 @@ public interface XxlJobInfoDao {
 
     public XxlJobInfo loadById(@Param("id") int id);
 
+    /**
+     * id and version only, version bumped on every update
+     */
+    public List<XxlJobInfo> findVersionByIds(@Param("ids") List<Integer> ids);
+
     public int update(XxlJobInfo xxlJobInfo);
 
     public int delete(@Param("id") long id);
@@ -34,8 +46,23 @@ public interface XxlJobInfoDao {
 
     public int findAllCount();
 
-    public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime, @Param("pagesize") int pagesize);
+    public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime, @Param("pagesize") int pagesize,
+        @Param("slotTotal") int slotTotal, @Param("slots") List<Integer> slots);
 
     public int scheduleUpdate(XxlJobInfo xxlJobInfo);
 
+    public int scheduleUpdateBatch(@Param("list") List<XxlJobInfo> list);
+
+    /**
+     * trigger time moved on only if not fired meanwhile (trigger next time still plan time)
+     */
+    public int schedulePush(@Param("id") int id, @Param("planTime") long planTime,
+        @Param("triggerLastTime") long triggerLastTime, @Param("triggerNextTime") long triggerNextTime);
+
+    public int fixDelayArm(@Param("id") int id, @Param("waitTime") long waitTime, @Param("maxLastTime") long maxLastTime,
+        @Param("triggerNextTime") long triggerNextTime);
+
+    public List<XxlJobInfo> findFixDelayParked(@Param("waitTime") long waitTime, @Param("maxLastTime") long maxLastTime,
+        @Param("pagesize") int pagesize);
+
 }
@@ -1,6 +1,7 @@
 package com.xxl.job.admin.dao;
 
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.model.XxlJobLogReportHour;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -17,37 +18,125 @@ import java.util.Map;
 public interface XxlJobLogDao {
 
     // exist jobId not use jobGroup, not exist use jobGroup
+    /**
+     * page by trigger time desc, id desc
+     *
+     * @param offset     skipped if cursor given
+     * @param cursorTime trigger time of the last log of the previous page, null: offset paging
+     * @param cursorId   id of the last log of the previous page
+     */
     public List<XxlJobLog> pageList(@Param("offset") int offset, @Param("pagesize") int pagesize,
         @Param("jobGroup") int jobGroup, @Param("jobId") int jobId, @Param("triggerTimeStart") Date triggerTimeStart,
-        @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus);
+        @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus,
+        @Param("cursorTime") Date cursorTime, @Param("cursorId") long cursorId);
 
     public int pageListCount(@Param("offset") int offset, @Param("pagesize") int pagesize,
         @Param("jobGroup") int jobGroup, @Param("jobId") int jobId, @Param("triggerTimeStart") Date triggerTimeStart,
         @Param("triggerTimeEnd") Date triggerTimeEnd, @Param("logStatus") int logStatus);
 
+    /**
+     * page count, stops counting at countLimit
+     */
+    public int pageListCountLimit(@Param("jobGroup") int jobGroup, @Param("jobId") int jobId,
+        @Param("triggerTimeStart") Date triggerTimeStart, @Param("triggerTimeEnd") Date triggerTimeEnd,
+        @Param("logStatus") int logStatus, @Param("countLimit") int countLimit);
+
     public XxlJobLog load(@Param("id") long id);
 
     public long save(XxlJobLog xxlJobLog);
 
     public int updateTriggerInfo(XxlJobLog xxlJobLog);
 
+    /**
+     * insert logs with allocated id, fails on a taken id
+     */
+    public int saveBatch(@Param("list") List<XxlJobLog> list);
+
+    /**
+     * update handle-info of running log, trigger time (as loaded, not null) prunes log partitions
+     */
     public int updateHandleInfo(XxlJobLog xxlJobLog);
 
+    /**
+     * append to handle msg, child job trigger result after handle
+     */
+    public int appendHandleMsg(@Param("id") long id, @Param("triggerTime") Date triggerTime,
+        @Param("handleMsg") String handleMsg);
+
     public int delete(@Param("jobId") int jobId);
 
     public Map<String, Object> findLogReport(@Param("from") Date from, @Param("to") Date to);
 
+    /**
+     * log report recomputed from job log, per job per hour; update time: last trigger / handle time of the logs
+     */
+    public List<XxlJobLogReportHour> findLogReportHour(@Param("from") Date from, @Param("to") Date to);
+
+    /**
+     * id and trigger time of the keepNum-th latest log, by (trigger_time desc, id desc); logs after it are cleared
+     *
+     * @return null if less than keepNum logs
+     */
+    public XxlJobLog findClearBoundary(@Param("jobGroup") int jobGroup, @Param("jobId") int jobId,
+        @Param("keepNum") int keepNum);
+
+    /**
+     * clearBeforeId null: logs at or before clearBeforeTime; else logs before (clearBeforeTime, clearBeforeId)
+     */
     public List<Long> findClearLogIds(@Param("jobGroup") int jobGroup, @Param("jobId") int jobId,
-        @Param("clearBeforeTime") Date clearBeforeTime, @Param("clearBeforeNum") int clearBeforeNum,
+        @Param("clearBeforeTime") Date clearBeforeTime, @Param("clearBeforeId") Long clearBeforeId,
         @Param("pagesize") int pagesize);
 
-    public int clearLog(@Param("logIds") List<Long> logIds);
+    public int clearLog(@Param("logIds") List<Long> logIds, @Param("clearBeforeTime") Date clearBeforeTime,
+        @Param("clearBeforeId") Long clearBeforeId);
 
+    /**
+     * fail logs to alarm, locked for update (skip locked), in caller tx
+     */
     public List<Long> findFailJobLogIds(@Param("pagesize") int pagesize);
 
-    public int updateAlarmStatus(@Param("logId") long logId, @Param("oldAlarmStatus") int oldAlarmStatus,
+    /**
+     * load by ids, trigger time range (optional) prunes log partitions
+     */
+    public List<XxlJobLog> loadByIds(@Param("logIds") List<Long> logIds, @Param("triggerTimeFrom") Date triggerTimeFrom,
+        @Param("triggerTimeTo") Date triggerTimeTo);
+
+    /**
+     * shards of broadcast log
+     *
+     * @param triggerTime trigger time of broadcast log, shared by shards
+     */
+    public List<XxlJobLog> findShards(@Param("parentId") long parentId, @Param("triggerTime") Date triggerTime);
+
+    /**
+     * shard count of broadcast log: total, running, triggerSuc, handleSuc
+     */
+    public Map<String, Object> findShardCount(@Param("parentId") long parentId, @Param("triggerTime") Date triggerTime);
+
+    /**
+     * alarm status 0 to locked (-1), lock time kept for stale lock reset
+     */
+    public int lockAlarm(@Param("logIds") List<Long> logIds, @Param("lockTime") long lockTime);
+
+    /**
+     * locked alarm of crashed admin node back to 0
+     */
+    public int unlockStaleAlarm(@Param("staleTime") long staleTime);
+
+    public int updateAlarmStatusBatch(@Param("logIds") List<Long> logIds, @Param("oldAlarmStatus") int oldAlarmStatus,
         @Param("newAlarmStatus") int newAlarmStatus);
 
+    /**
+     * from any of the old status in one statement, no window between them for another writer
+     */
+    public int updateAlarmStatusBatchFrom(@Param("logIds") List<Long> logIds,
+        @Param("oldAlarmStatusList") List<Integer> oldAlarmStatusList, @Param("newAlarmStatus") int newAlarmStatus);
+
+    /**
+     * logs of the job still running on executor (shards counted, broadcast log not)
+     */
+    public int findRunningCount(@Param("jobId") int jobId, @Param("triggerTimeFrom") Date triggerTimeFrom);
+
     public List<Long> findLostJobIds(@Param("losedTime") Date losedTime);
 
 }
@@ -1,6 +1,7 @@
 package com.xxl.job.admin.dao;
 
 import com.xxl.job.admin.core.model.XxlJobLogReport;
+import com.xxl.job.admin.core.model.XxlJobLogReportHour;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -24,4 +25,43 @@ public interface XxlJobLogReportDao {
 
     public XxlJobLogReport queryLogReportTotal();
 
+    /**
+     * add counts to day report, insert if not exists
+     */
+    public int saveOrIncrease(@Param("list") List<XxlJobLogReport> list);
+
+    // ---------------------- report hour ----------------------
+
+    /**
+     * add counts to hour report, insert if not exists
+     */
+    public int saveOrIncreaseHour(@Param("list") List<XxlJobLogReportHour> list);
+
+    /**
+     * hour report of all jobs, per job
+     */
+    public List<XxlJobLogReportHour> loadHour(@Param("triggerHourFrom") Date triggerHourFrom,
+        @Param("triggerHourTo") Date triggerHourTo);
+
+    public int deleteHour(@Param("triggerHourFrom") Date triggerHourFrom, @Param("triggerHourTo") Date triggerHourTo);
+
+    /**
+     * hour report, sum of jobs if jobId <= 0
+     */
+    public List<XxlJobLogReportHour> queryLogReportHour(@Param("jobId") int jobId,
+        @Param("triggerHourFrom") Date triggerHourFrom, @Param("triggerHourTo") Date triggerHourTo);
+
+    /**
+     * day report of one job, from hour report
+     */
+    public List<XxlJobLogReport> queryLogReportByJob(@Param("jobId") int jobId,
+        @Param("triggerDayFrom") Date triggerDayFrom, @Param("triggerDayTo") Date triggerDayTo);
+
+    /**
+     * approximate log count by hour report, logStatus as log page; null if no report
+     */
+    public Integer countLogByReport(@Param("jobGroup") int jobGroup, @Param("jobId") int jobId,
+        @Param("triggerHourFrom") Date triggerHourFrom, @Param("triggerHourTo") Date triggerHourTo,
+        @Param("logStatus") int logStatus);
+
 }
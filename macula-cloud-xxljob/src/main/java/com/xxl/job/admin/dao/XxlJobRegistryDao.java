@@ -19,6 +19,12 @@ public interface XxlJobRegistryDao {
 
     public List<XxlJobRegistry> findAll(@Param("timeout") int timeout, @Param("nowTime") Date nowTime);
 
+    /**
+     * alive registry value (address) of one key, group address source
+     */
+    public List<String> findAliveValue(@Param("registryGroup") String registryGroup,
+        @Param("registryKey") String registryKey, @Param("timeout") int timeout, @Param("nowTime") Date nowTime);
+
     public int registryUpdate(@Param("registryGroup") String registryGroup, @Param("registryKey") String registryKey,
         @Param("registryValue") String registryValue, @Param("updateTime") Date updateTime);
 
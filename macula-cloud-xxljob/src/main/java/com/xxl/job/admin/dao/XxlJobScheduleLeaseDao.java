@@ -0,0 +1,43 @@
+package com.xxl.job.admin.dao;
+
+import com.xxl.job.admin.core.model.XxlJobScheduleLease;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * schedule slot lease, partition schedule mode
+ *
+ * @author rain 2026-10-17
+ */
+@Mapper
+public interface XxlJobScheduleLeaseDao {
+
+    // ---------------------- node ----------------------
+
+    public int nodeBeat(@Param("nodeId") String nodeId, @Param("beatTime") long beatTime);
+
+    public List<String> findAliveNodes(@Param("aliveTime") long aliveTime);
+
+    public int removeDeadNodes(@Param("deadTime") long deadTime);
+
+    public int removeNode(@Param("nodeId") String nodeId);
+
+    // ---------------------- lease ----------------------
+
+    public int initSlots(@Param("slots") List<Integer> slots);
+
+    public int claimSlot(@Param("slot") int slot, @Param("owner") String owner,
+        @Param("leaseExpire") long leaseExpire, @Param("nowTime") long nowTime);
+
+    public int renewSlots(@Param("owner") String owner, @Param("leaseExpire") long leaseExpire,
+        @Param("nowTime") long nowTime);
+
+    public int releaseSlot(@Param("slot") int slot, @Param("owner") String owner);
+
+    public int releaseAll(@Param("owner") String owner);
+
+    public List<XxlJobScheduleLease> findByOwner(@Param("owner") String owner, @Param("nowTime") long nowTime);
+
+}
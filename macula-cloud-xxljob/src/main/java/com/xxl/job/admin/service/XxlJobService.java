@@ -22,10 +22,11 @@ public interface XxlJobService {
      * @param jobDesc
      * @param executorHandler
      * @param author
+     * @param cursorId id of the last job of the previous page, 0: offset paging
      * @return
      */
     public Map<String, Object> pageList(int start, int length, int jobGroup, int triggerStatus, String jobDesc,
-        String executorHandler, String author);
+        String executorHandler, String author, int cursorId);
 
     /**
      * add job
@@ -75,12 +76,13 @@ public interface XxlJobService {
     public Map<String, Object> dashboardInfo();
 
     /**
-     * chart info
+     * chart info, by hour if range in one day
      *
      * @param startDate
      * @param endDate
+     * @param jobId     >0: report of one job
      * @return
      */
-    public ReturnT<Map<String, Object>> chartInfo(Date startDate, Date endDate);
+    public ReturnT<Map<String, Object>> chartInfo(Date startDate, Date endDate, int jobId);
 
 }
@@ -4,9 +4,12 @@ import com.xxl.job.admin.core.cron.CronExpression;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLogReport;
+import com.xxl.job.admin.core.model.XxlJobLogReportHour;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import com.xxl.job.admin.core.thread.JobInfoCacheHelper;
+import com.xxl.job.admin.core.thread.JobLogReportHelper;
 import com.xxl.job.admin.core.thread.JobScheduleHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.*;
@@ -45,11 +48,11 @@ public class XxlJobServiceImpl implements XxlJobService {
 
     @Override
     public Map<String, Object> pageList(int start, int length, int jobGroup, int triggerStatus, String jobDesc,
-        String executorHandler, String author) {
+        String executorHandler, String author, int cursorId) {
 
-        // page list
+        // page list, keyset after cursor
         List<XxlJobInfo> list =
-            xxlJobInfoDao.pageList(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author);
+            xxlJobInfoDao.pageList(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author, cursorId);
         int list_count =
             xxlJobInfoDao.pageListCount(start, length, jobGroup, triggerStatus, jobDesc, executorHandler, author);
 
@@ -89,7 +92,7 @@ public class XxlJobServiceImpl implements XxlJobService {
             if (jobInfo.getScheduleConf() == null || !CronExpression.isValidExpression(jobInfo.getScheduleConf())) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE, "Cron" + I18nUtil.getString("system_unvalid"));
             }
-        } else if (scheduleTypeEnum == ScheduleTypeEnum.FIX_RATE/* || scheduleTypeEnum == ScheduleTypeEnum.FIX_DELAY*/) {
+        } else if (scheduleTypeEnum == ScheduleTypeEnum.FIX_RATE || scheduleTypeEnum == ScheduleTypeEnum.FIX_DELAY) {
             if (jobInfo.getScheduleConf() == null) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("schedule_type")));
             }
@@ -167,6 +170,7 @@ public class XxlJobServiceImpl implements XxlJobService {
         jobInfo.setUpdateTime(new Date());
         jobInfo.setGlueUpdatetime(new Date());
         xxlJobInfoDao.save(jobInfo);
+        JobInfoCacheHelper.getInstance().invalidateJobInfo(jobInfo.getId());
         if (jobInfo.getId() < 1) {
             return new ReturnT<String>(ReturnT.FAIL_CODE,
                 (I18nUtil.getString("jobinfo_field_add") + I18nUtil.getString("system_fail")));
@@ -207,7 +211,7 @@ public class XxlJobServiceImpl implements XxlJobService {
             if (jobInfo.getScheduleConf() == null || !CronExpression.isValidExpression(jobInfo.getScheduleConf())) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE, "Cron" + I18nUtil.getString("system_unvalid"));
             }
-        } else if (scheduleTypeEnum == ScheduleTypeEnum.FIX_RATE /*|| scheduleTypeEnum == ScheduleTypeEnum.FIX_DELAY*/) {
+        } else if (scheduleTypeEnum == ScheduleTypeEnum.FIX_RATE || scheduleTypeEnum == ScheduleTypeEnum.FIX_DELAY) {
             if (jobInfo.getScheduleConf() == null) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE,
                     (I18nUtil.getString("schedule_type") + I18nUtil.getString("system_unvalid")));
@@ -280,15 +284,14 @@ public class XxlJobServiceImpl implements XxlJobService {
                 (I18nUtil.getString("jobinfo_field_id") + I18nUtil.getString("system_not_found")));
         }
 
-        // next trigger time (5s后生效，避开预读周期)
+        // next trigger time, due in pre-read window pushed to time-ring below
         long nextTriggerTime = exists_jobInfo.getTriggerNextTime();
         boolean scheduleDataNotChanged =
             jobInfo.getScheduleType().equals(exists_jobInfo.getScheduleType()) && jobInfo.getScheduleConf()
                 .equals(exists_jobInfo.getScheduleConf());
         if (exists_jobInfo.getTriggerStatus() == 1 && !scheduleDataNotChanged) {
             try {
-                Date nextValidTime = JobScheduleHelper.generateNextValidTime(jobInfo,
-                    new Date(System.currentTimeMillis() + JobScheduleHelper.PRE_READ_MS));
+                Date nextValidTime = JobScheduleHelper.generateNextValidTime(jobInfo, new Date());
                 if (nextValidTime == null) {
                     return new ReturnT<String>(ReturnT.FAIL_CODE,
                         (I18nUtil.getString("schedule_type") + I18nUtil.getString("system_unvalid")));
@@ -319,6 +322,14 @@ public class XxlJobServiceImpl implements XxlJobService {
 
         exists_jobInfo.setUpdateTime(new Date());
         xxlJobInfoDao.update(exists_jobInfo);
+        if (exists_jobInfo.getTriggerStatus() == 1 && !scheduleDataNotChanged) {
+            try {
+                JobScheduleHelper.getInstance().pushIfDue(exists_jobInfo);
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        JobInfoCacheHelper.getInstance().invalidateJobInfo(exists_jobInfo.getId());
 
         return ReturnT.SUCCESS;
     }
@@ -331,7 +342,14 @@ public class XxlJobServiceImpl implements XxlJobService {
         }
 
         xxlJobInfoDao.delete(id);
+        JobInfoCacheHelper.getInstance().invalidateJobInfo(id);
+        for (ExecutorRouteStrategyEnum item : ExecutorRouteStrategyEnum.values()) {
+            if (item.getRouter() != null) {
+                item.getRouter().onJobRemove(id);
+            }
+        }
         xxlJobLogDao.delete(id);
+        JobLogReportHelper.getInstance().requestCheck();
         xxlJobLogGlueDao.deleteByJobId(id);
         return ReturnT.SUCCESS;
     }
@@ -346,11 +364,10 @@ public class XxlJobServiceImpl implements XxlJobService {
             return new ReturnT<String>(ReturnT.FAIL_CODE, (I18nUtil.getString("schedule_type_none_limit_start")));
         }
 
-        // next trigger time (5s后生效，避开预读周期)
+        // next trigger time, due in pre-read window pushed to time-ring below
         long nextTriggerTime = 0;
         try {
-            Date nextValidTime = JobScheduleHelper.generateNextValidTime(xxlJobInfo,
-                new Date(System.currentTimeMillis() + JobScheduleHelper.PRE_READ_MS));
+            Date nextValidTime = JobScheduleHelper.generateNextValidTime(xxlJobInfo, new Date());
             if (nextValidTime == null) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE,
                     (I18nUtil.getString("schedule_type") + I18nUtil.getString("system_unvalid")));
@@ -368,6 +385,12 @@ public class XxlJobServiceImpl implements XxlJobService {
 
         xxlJobInfo.setUpdateTime(new Date());
         xxlJobInfoDao.update(xxlJobInfo);
+        try {
+            JobScheduleHelper.getInstance().pushIfDue(xxlJobInfo);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        }
+        JobInfoCacheHelper.getInstance().invalidateJobInfo(id);
         return ReturnT.SUCCESS;
     }
 
@@ -381,6 +404,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 
         xxlJobInfo.setUpdateTime(new Date());
         xxlJobInfoDao.update(xxlJobInfo);
+        JobInfoCacheHelper.getInstance().invalidateJobInfo(id);
         return ReturnT.SUCCESS;
     }
 
@@ -420,7 +444,7 @@ public class XxlJobServiceImpl implements XxlJobService {
     }
 
     @Override
-    public ReturnT<Map<String, Object>> chartInfo(Date startDate, Date endDate) {
+    public ReturnT<Map<String, Object>> chartInfo(Date startDate, Date endDate, int jobId) {
 
         // process
         List<String> triggerDayList = new ArrayList<String>();
@@ -431,7 +455,41 @@ public class XxlJobServiceImpl implements XxlJobService {
         int triggerCountSucTotal = 0;
         int triggerCountFailTotal = 0;
 
-        List<XxlJobLogReport> logReportList = xxlJobLogReportDao.queryLogReport(startDate, endDate);
+        // in one day: by hour, all hours listed
+        if (startDate != null && endDate != null && endDate.getTime() - startDate.getTime() <= 24 * 60 * 60 * 1000) {
+            Map<Long, XxlJobLogReportHour> hourReportMap = new HashMap<Long, XxlJobLogReportHour>();
+            for (XxlJobLogReportHour item : xxlJobLogReportDao.queryLogReportHour(jobId, startDate, endDate)) {
+                hourReportMap.put(item.getTriggerHour().getTime(), item);
+            }
+
+            Calendar hour = Calendar.getInstance();
+            hour.setTime(startDate);
+            hour.set(Calendar.MINUTE, 0);
+            hour.set(Calendar.SECOND, 0);
+            hour.set(Calendar.MILLISECOND, 0);
+            for (; !hour.getTime().after(endDate); hour.add(Calendar.HOUR_OF_DAY, 1)) {
+                XxlJobLogReportHour item = hourReportMap.get(hour.getTimeInMillis());
+                int triggerHourCountRunning = item != null ? item.getRunningCount() : 0;
+                int triggerHourCountSuc = item != null ? item.getSucCount() : 0;
+                int triggerHourCountFail = item != null ? item.getFailCount() : 0;
+
+                triggerDayList.add(DateUtil.formatDateTime(hour.getTime()).substring(0, 16));
+                triggerDayCountRunningList.add(triggerHourCountRunning);
+                triggerDayCountSucList.add(triggerHourCountSuc);
+                triggerDayCountFailList.add(triggerHourCountFail);
+
+                triggerCountRunningTotal += triggerHourCountRunning;
+                triggerCountSucTotal += triggerHourCountSuc;
+                triggerCountFailTotal += triggerHourCountFail;
+            }
+
+            return new ReturnT<Map<String, Object>>(
+                chartResult(triggerDayList, triggerDayCountRunningList, triggerDayCountSucList,
+                    triggerDayCountFailList, triggerCountRunningTotal, triggerCountSucTotal, triggerCountFailTotal));
+        }
+
+        List<XxlJobLogReport> logReportList = jobId > 0 ? xxlJobLogReportDao.queryLogReportByJob(jobId, startDate,
+            endDate) : xxlJobLogReportDao.queryLogReport(startDate, endDate);
 
         if (logReportList != null && logReportList.size() > 0) {
             for (XxlJobLogReport item : logReportList) {
@@ -458,6 +516,14 @@ public class XxlJobServiceImpl implements XxlJobService {
             }
         }
 
+        return new ReturnT<Map<String, Object>>(
+            chartResult(triggerDayList, triggerDayCountRunningList, triggerDayCountSucList, triggerDayCountFailList,
+                triggerCountRunningTotal, triggerCountSucTotal, triggerCountFailTotal));
+    }
+
+    private Map<String, Object> chartResult(List<String> triggerDayList, List<Integer> triggerDayCountRunningList,
+        List<Integer> triggerDayCountSucList, List<Integer> triggerDayCountFailList, int triggerCountRunningTotal,
+        int triggerCountSucTotal, int triggerCountFailTotal) {
         Map<String, Object> result = new HashMap<String, Object>();
         result.put("triggerDayList", triggerDayList);
         result.put("triggerDayCountRunningList", triggerDayCountRunningList);
@@ -467,8 +533,7 @@ public class XxlJobServiceImpl implements XxlJobService {
         result.put("triggerCountRunningTotal", triggerCountRunningTotal);
         result.put("triggerCountSucTotal", triggerCountSucTotal);
         result.put("triggerCountFailTotal", triggerCountFailTotal);
-
-        return new ReturnT<Map<String, Object>>(result);
+        return result;
     }
 
 }
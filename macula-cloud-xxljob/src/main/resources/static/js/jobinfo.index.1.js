@@ -1,5 +1,10 @@
 $(function () {
 
+    // page cursor, start -> id of the last job of the previous page; reset when filter changed
+    var pageCursor = {};
+    var pageFilter = null;
+    var pageStart = 0;
+
     // init date tables
     var jobTable = $("#job_list").dataTable({
         "deferRender": true,
@@ -17,7 +22,23 @@ $(function () {
                 obj.author = $('#author').val();
                 obj.start = d.start;
                 obj.length = d.length;
+
+                var filter = [obj.jobGroup, obj.triggerStatus, obj.jobDesc, obj.executorHandler, obj.author, obj.length].join('|');
+                if (filter != pageFilter) {
+                    pageFilter = filter;
+                    pageCursor = {};
+                }
+                if (pageCursor[d.start]) {
+                    obj.cursor = pageCursor[d.start];
+                }
+                pageStart = d.start;
                 return obj;
+            },
+            dataSrc: function (json) {
+                if (json.data.length > 0) {
+                    pageCursor[pageStart + json.data.length] = json.data[json.data.length - 1].id;
+                }
+                return json.data;
             }
         },
         "searching": false,
@@ -195,6 +216,7 @@ $(function () {
 
     // search btn
     $('#searchBtn').on('click', function () {
+        pageCursor = {};
         jobTable.fnDraw();
     });
 
@@ -465,6 +487,7 @@ $(function () {
                         content: I18n.system_add_suc,
                         icon: '1',
                         end: function (layero, index) {
+                            pageCursor = {};
                             jobTable.fnDraw();
                             //window.location.reload();
                         }
@@ -650,6 +673,7 @@ $(function () {
                         icon: '1',
                         end: function (layero, index) {
                             //window.location.reload();
+                            pageCursor = {};
                             jobTable.fnDraw();
                         }
                     });
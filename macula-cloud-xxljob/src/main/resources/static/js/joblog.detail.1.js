@@ -77,10 +77,55 @@ $(function () {
         return;
     }
 
-    // round until end
-    var logRun = setInterval(function () {
-        pullLog()
-    }, 3000);
+    // push until end (sse), round if not supported or stream limited
+    var logRun = null;
+    if (window.EventSource) {
+        streamLog();
+    } else {
+        roundLog();
+    }
+
+    function roundLog() {
+        logRun = setInterval(function () {
+            pullLog()
+        }, 3000);
+    }
+
+    function streamLog() {
+        var source = new EventSource(base_url + '/joblog/logDetailStream?logId=' + logId + '&fromLineNum=' + fromLineNum);
+        source.addEventListener('log', function (e) {
+            var content = JSON.parse(e.data);
+            if (fromLineNum != content.fromLineNum) {
+                console.log('streamLog fromLineNum not match');
+                return;
+            }
+
+            // append content
+            fromLineNum = content.toLineNum + 1;
+            $('#logConsole').append(content.logContent);
+
+            // scroll to bottom
+            scrollTo(0, document.body.scrollHeight);
+        });
+        source.addEventListener('end', function () {
+            source.close();
+            logRunStop('<br><span style="color: green;">[Rolling Log Finish]</span>');
+        });
+        source.addEventListener('fail', function (e) {
+            source.close();
+            console.log('streamLog fail:' + e.data);
+            logRunStop('<span style="color: red;">' + I18n.joblog_rolling_log_failoften + '</span>');
+        });
+        source.addEventListener('fallback', function () {
+            source.close();
+            roundLog();
+        });
+        source.onerror = function () {
+            // stream broken or timeout, no reconnect from the first line
+            source.close();
+            roundLog();
+        };
+    }
 
     function logRunStop(content) {
         $('#logConsoleRunning').hide();
@@ -69,6 +69,11 @@ $(function () {
         endDate: rangesConf[I18n.daterangepicker_ranges_today][1]
     });
 
+    // page cursor, start -> cursor of the last log of the previous page; reset when filter changed
+    var pageCursor = {};
+    var pageFilter = null;
+    var pageStart = 0;
+
     // init date tables
     var logTable = $("#joblog_list").dataTable({
         "deferRender": true,
@@ -85,7 +90,23 @@ $(function () {
                 obj.filterTime = $('#filterTime').val();
                 obj.start = d.start;
                 obj.length = d.length;
+
+                var filter = [obj.jobGroup, obj.jobId, obj.logStatus, obj.filterTime, obj.length].join('|');
+                if (filter != pageFilter) {
+                    pageFilter = filter;
+                    pageCursor = {};
+                }
+                if (pageCursor[d.start]) {
+                    obj.cursor = pageCursor[d.start];
+                }
+                pageStart = d.start;
                 return obj;
+            },
+            dataSrc: function (json) {
+                if (json.nextCursor) {
+                    pageCursor[pageStart + json.data.length] = json.nextCursor;
+                }
+                return json.data;
             }
         },
         "searching": false,
@@ -179,6 +200,10 @@ $(function () {
                 "render": function (data, type, row) {
                     // better support expression or string, not function
                     return function () {
+                        if (row.parentId == -1) {
+                            // sharding broadcast, per-shard status
+                            return '<button type="button" class="btn btn-primary btn-sm logShards" _id="' + row.id + '" >' + I18n.joblog_shard_list + '</button>';
+                        }
                         if (row.triggerCode == 200 || row.handleCode != 0) {
 
                             /*var temp = '<a href="javascript:;" class="logDetail" _id="'+ row.id +'">'+ I18n.joblog_rolling_log +'</a>';
@@ -251,6 +276,7 @@ $(function () {
 
     // search Btn
     $('#searchBtn').on('click', function () {
+        pageCursor = {};
         logTable.fnDraw();
     });
 
@@ -262,6 +288,45 @@ $(function () {
         return;
     });
 
+    // shards of broadcast log
+    $('#joblog_list').on('click', '.logShards', function () {
+        var _id = $(this).attr('_id');
+
+        $.ajax({
+            type: 'POST',
+            url: base_url + '/joblog/shardList',
+            data: {"parentId": _id},
+            dataType: "json",
+            success: function (data) {
+                if (data.code != 200) {
+                    layer.msg(data.msg || I18n.system_api_error);
+                    return;
+                }
+                var codeHtml = function (code) {
+                    if (code == 200) {
+                        return '<span style="color: green">' + I18n.system_success + '</span>';
+                    } else if (code == 0) {
+                        return '';
+                    }
+                    return '<span style="color: red">' + code + '</span>';
+                };
+                var html = '<table class="table table-bordered table-condensed" style="font-size: 12px;">' +
+                    '<thead><tr><th>#</th><th>' + I18n.joblog_field_executorAddress + '</th><th>' + I18n.joblog_field_triggerCode + '</th>' +
+                    '<th>' + I18n.joblog_field_handleTime + '</th><th>' + I18n.joblog_field_handleCode + '</th><th></th></tr></thead><tbody>';
+                $.each(data.content || [], function (index, item) {
+                    html += '<tr><td>' + item.executorShardingParam + '</td>' +
+                        '<td>' + (item.executorAddress ? item.executorAddress : '') + '</td>' +
+                        '<td>' + codeHtml(item.triggerCode) + '</td>' +
+                        '<td>' + (item.handleTime ? moment(item.handleTime).format("YYYY-MM-DD HH:mm:ss") : '') + '</td>' +
+                        '<td>' + codeHtml(item.handleCode) + '</td>' +
+                        '<td>' + (item.triggerCode == 200 ? '<a href="' + base_url + '/joblog/logDetailPage?id=' + item.id + '" target="_blank" >' + I18n.joblog_rolling_log + '</a>' : '') + '</td></tr>';
+                });
+                html += '</tbody></table>';
+                ComAlertTec.show(html);
+            }
+        });
+    });
+
     /**
      * log Kill
      */
@@ -335,6 +400,7 @@ $(function () {
                     content: (I18n.joblog_clean_log + I18n.system_success),
                     icon: '1',
                     end: function (layero, index) {
+                        pageCursor = {};
                         logTable.fnDraw();
                     }
                 });
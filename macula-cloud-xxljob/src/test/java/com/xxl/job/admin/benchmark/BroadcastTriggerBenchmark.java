@@ -0,0 +1,99 @@
+package com.xxl.job.admin.benchmark;
+
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sharding broadcast address resolution, per fire: split address list on each call (as before) vs shared parsed list
+ *
+ * <pre>
+ *     a、one op = one broadcast fire: group copy from cache, then address of every shard；
+ *     b、run: main method, or "java -jar" with the jmh runner；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadcastTriggerBenchmark {
+
+    @Param({"20", "200"})
+    private int executorCount;
+
+    private XxlJobGroup cachedGroup;
+
+    @Setup
+    public void setup() {
+        StringBuilder addressList = new StringBuilder();
+        for (int i = 0; i < executorCount; i++) {
+            if (i > 0) {
+                addressList.append(",");
+            }
+            addressList.append("http://10.0.").append(i / 256).append(".").append(i % 256).append(":9999/");
+        }
+
+        cachedGroup = new XxlJobGroup();
+        cachedGroup.setId(1);
+        cachedGroup.setAppname("xxl-job-executor-sample");
+        cachedGroup.setAddressType(0);
+        cachedGroup.setAddressList(addressList.toString());
+    }
+
+    @Benchmark
+    public void splitEachCall(Blackhole blackhole) {
+        String addressList = cachedGroup.getAddressList();
+
+        // trigger: check + size + size per shard
+        int total = split(addressList).size();
+        for (int i = 0; i < split(addressList).size(); i++) {
+            // processTrigger: check + bound + get
+            List<String> check = split(addressList);
+            String address = i < split(addressList).size() ? split(addressList).get(i) : check.get(0);
+            blackhole.consume(address);
+        }
+        blackhole.consume(total);
+    }
+
+    @Benchmark
+    public void sharedParsedList(Blackhole blackhole) {
+        // group copy from job cache, same as JobInfoCacheHelper.loadJobGroup
+        XxlJobGroup group = new XxlJobGroup();
+        group.setId(cachedGroup.getId());
+        group.setAppname(cachedGroup.getAppname());
+        group.setAddressType(cachedGroup.getAddressType());
+        group.setAddressList(cachedGroup.getAddressList());
+
+        List<String> registryList = group.getRegistryList();
+        int total = registryList.size();
+        for (int i = 0; i < total; i++) {
+            List<String> shardRegistryList = group.getRegistryList();
+            String address = i < shardRegistryList.size() ? shardRegistryList.get(i) : shardRegistryList.get(0);
+            blackhole.consume(address);
+        }
+        blackhole.consume(total);
+    }
+
+    private static List<String> split(String addressList) {
+        return new ArrayList<String>(Arrays.asList(addressList.split(",")));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(BroadcastTriggerBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
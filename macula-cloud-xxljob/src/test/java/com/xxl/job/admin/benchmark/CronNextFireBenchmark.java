@@ -0,0 +1,71 @@
+package com.xxl.job.admin.benchmark;
+
+import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronSchedule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cron next fire time: CronExpression (parse each refresh, as before) vs cached CronExpression vs CronSchedule
+ *
+ * <pre>
+ *     run: main method, or "java -jar" with the jmh runner
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CronNextFireBenchmark {
+
+    @Param({"0/5 * * * * ?", "0 15 10 ? * MON-FRI", "0 0 2 1,15 * ?", "0 0 0 L * ?"})
+    private String cron;
+
+    private CronExpression cronExpression;
+    private CronSchedule cronSchedule;
+    private long fromTime;
+
+    @Setup
+    public void setup() throws ParseException {
+        cronExpression = new CronExpression(cron);
+        cronSchedule = CronSchedule.of(cron);
+        fromTime = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public Date cronExpressionParseEach() throws ParseException {
+        return new CronExpression(cron).getNextValidTimeAfter(new Date(fromTime));
+    }
+
+    @Benchmark
+    public Date cronExpressionCached() {
+        return cronExpression.getNextValidTimeAfter(new Date(fromTime));
+    }
+
+    @Benchmark
+    public long cronSchedule() {
+        return cronSchedule.nextTime(fromTime);
+    }
+
+    @Benchmark
+    public Date cronScheduleLookup() throws ParseException {
+        return CronSchedule.of(cron).getNextValidTimeAfter(new Date(fromTime));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(CronNextFireBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.xxl.job.admin.benchmark;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobExecutorHealthHelper;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * route cost of all ExecutorRouteStrategyEnum strategies (except SHARDING_BROADCAST, routed in trigger)
+ *
+ * <pre>
+ *     a、jobs route concurrently (4 threads) over a shared address list, like trigger pool threads；
+ *     b、FAILOVER / BUSYOVER beat a local stub executor (no network), router cost only, FAILOVER mostly hits health table；
+ *     c、run: main method, or "java -jar" with the jmh runner；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ExecutorRouteBenchmark {
+
+    @Param({"FIRST", "LAST", "ROUND", "RANDOM", "CONSISTENT_HASH", "LEAST_FREQUENTLY_USED", "LEAST_RECENTLY_USED",
+        "FAILOVER", "BUSYOVER"})
+    private String strategy;
+
+    @Param({"10", "200"})
+    private int executorCount;
+
+    private ExecutorRouteStrategyEnum routeStrategy;
+    private List<String> addressList;
+
+    @State(Scope.Thread)
+    public static class JobState {
+        private final TriggerParam triggerParam = new TriggerParam();
+        private int jobId;
+
+        public TriggerParam next() {
+            // 1000 jobs
+            jobId = jobId < 1000 ? jobId + 1 : 1;
+            triggerParam.setJobId(jobId);
+            return triggerParam;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        List<String> list = new ArrayList<String>();
+        for (int i = 0; i < executorCount; i++) {
+            list.add("http://10.0." + (i / 256) + "." + (i % 256) + ":9999/");
+        }
+        addressList = Collections.unmodifiableList(list);
+
+        // i18n for enum titles and beat msg, no spring context
+        XxlJobAdminConfig adminConfig = new XxlJobAdminConfig();
+        setField(XxlJobAdminConfig.class, adminConfig, "i18n", "zh_CN");
+        setField(XxlJobAdminConfig.class, null, "adminConfig", adminConfig);
+
+        // stub executor for beat / idleBeat
+        Field repositoryField = XxlJobScheduler.class.getDeclaredField("executorBizRepository");
+        repositoryField.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        Map<String, ExecutorBiz> repository = (Map<String, ExecutorBiz>)repositoryField.get(null);
+        for (String address : addressList) {
+            repository.put(address, new StubExecutorBiz());
+        }
+
+        routeStrategy = ExecutorRouteStrategyEnum.valueOf(strategy);
+        JobExecutorHealthHelper.getInstance().start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        JobExecutorHealthHelper.getInstance().toStop();
+    }
+
+    @Benchmark
+    public ReturnT<String> route(JobState jobState) {
+        return routeStrategy.getRouter().route(jobState.next(), addressList);
+    }
+
+    private static void setField(Class<?> clazz, Object target, String name, Object value) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * executor always alive and idle
+     */
+    private static class StubExecutorBiz implements ExecutorBiz {
+
+        @Override
+        public ReturnT<String> beat() {
+            // new result, router sets msg/content on it
+            return new ReturnT<String>(ReturnT.SUCCESS_CODE, null);
+        }
+
+        @Override
+        public ReturnT<String> idleBeat(IdleBeatParam idleBeatParam) {
+            return new ReturnT<String>(ReturnT.SUCCESS_CODE, null);
+        }
+
+        @Override
+        public ReturnT<String> run(TriggerParam triggerParam) {
+            return ReturnT.SUCCESS;
+        }
+
+        @Override
+        public ReturnT<String> kill(KillParam killParam) {
+            return ReturnT.SUCCESS;
+        }
+
+        @Override
+        public ReturnT<LogResult> log(LogParam logParam) {
+            return new ReturnT<LogResult>(ReturnT.FAIL_CODE, null);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(ExecutorRouteBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.xxl.job.admin.benchmark;
+
+import com.xxl.job.admin.MaculaXxlJobAdminApplication;
+import com.xxl.job.admin.core.conf.XxlJobStartupProfiler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * admin startup, time to first schedule: start delay 5s (as before) vs 1s
+ *
+ * <pre>
+ *     a、one op = one cold start in a fresh jvm: spring context up, scheduler started, first schedule scan done；
+ *     b、env: database of application.yml, nacos off, random port; startup profile logged per fork；
+ *     c、run: main method, or "java -jar" with the jmh runner；
+ * </pre>
+ *
+ * @author rain 2026-10-17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"5000", "1000"})
+    private long startDelay;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public long firstSchedule() throws InterruptedException {
+        context = SpringApplication.run(MaculaXxlJobAdminApplication.class, "--server.port=0",
+            "--spring.cloud.nacos.config.enabled=false", "--spring.cloud.nacos.discovery.enabled=false",
+            "--xxl.job.startup.profile=true", "--xxl.job.schedule.startdelay=" + startDelay);
+        long firstScheduleTime =
+            context.getBean(XxlJobStartupProfiler.class).awaitFirstSchedule(60, TimeUnit.SECONDS);
+        if (firstScheduleTime < 0) {
+            throw new IllegalStateException("first schedule timeout");
+        }
+        return firstScheduleTime;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(StartupBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
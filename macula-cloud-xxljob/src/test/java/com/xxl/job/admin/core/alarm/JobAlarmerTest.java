@@ -0,0 +1,197 @@
+package com.xxl.job.admin.core.alarm;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xxl.job.admin.core.alarm.impl.WebhookJobAlarm;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import com.xxl.job.admin.core.model.XxlJobLog;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobAlarmerTest {
+
+    @Test
+    public void shouldSendFirstAlarmAtOnceAndDigestTheRest() throws Exception {
+        //given
+        FakeJobAlarmSink sink = new FakeJobAlarmSink(0);
+        JobAlarmer jobAlarmer = new JobAlarmer();
+        jobAlarmer.start(Collections.<JobAlarmSink>singletonList(sink), 1000, 60);
+
+        //when
+        assertTrue(jobAlarmer.alarm(jobInfo(0, "ops@xxl.com"), jobLog(0)));
+        TimeUnit.MILLISECONDS.sleep(300);
+        int firstSent = sink.digestList.size();
+        for (int i = 1; i < 100; i++) {
+            assertTrue(jobAlarmer.alarm(jobInfo(i % 3, "ops@xxl.com"), jobLog(i)));
+        }
+        TimeUnit.MILLISECONDS.sleep(300);
+        int restSentEarly = sink.digestList.size() - firstSent;
+        TimeUnit.MILLISECONDS.sleep(2500);
+        jobAlarmer.toStop();
+
+        //then
+        assertEquals(1, firstSent);             // not waiting for the window
+        assertEquals(0, restSentEarly);
+        assertEquals(2, sink.digestList.size());
+        assertEquals(1, sink.digestList.get(0).getTotalCount());
+        assertEquals("ops@xxl.com", sink.digestList.get(1).getRecipient());
+        assertEquals(99, sink.digestList.get(1).getTotalCount());
+    }
+
+    @Test
+    public void shouldCountSinkSendFail() throws Exception {
+        //given
+        FakeJobAlarmSink sink = new FakeJobAlarmSink(0);
+        sink.sendFail = true;
+        JobAlarmer jobAlarmer = new JobAlarmer();
+        jobAlarmer.start(Collections.<JobAlarmSink>singletonList(sink), 0, 60);
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            assertTrue(jobAlarmer.alarm(jobInfo(1, "ops@xxl.com"), jobLog(i)));
+        }
+        TimeUnit.MILLISECONDS.sleep(1500);
+        jobAlarmer.toStop();
+
+        //then
+        assertEquals(3, jobAlarmer.getSendFailCount());
+    }
+
+    @Test
+    public void shouldNotWaitForSlowSink() throws Exception {
+        //given
+        FakeJobAlarmSink sink = new FakeJobAlarmSink(1500);
+        JobAlarmer jobAlarmer = new JobAlarmer();
+        jobAlarmer.start(Collections.<JobAlarmSink>singletonList(sink), 0, 60);
+
+        //when
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            jobAlarmer.alarm(jobInfo(1, "a@xxl.com,b@xxl.com"), jobLog(i));
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        long cost = System.currentTimeMillis() - start;
+        jobAlarmer.toStop();
+
+        //then
+        assertTrue(cost < 1500);
+        int total = 0;
+        for (JobAlarmDigest digest : sink.digestList) {
+            total += digest.getTotalCount();
+        }
+        assertEquals(20, total);        // 2 recipients, nothing lost while sink busy
+        assertTrue(sink.digestList.size() < 20);
+    }
+
+    @Test
+    public void shouldPostDigestToWebhook() throws Exception {
+        //given
+        final List<String> bodyList = new CopyOnWriteArrayList<String>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/alarm", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) {
+                try {
+                    bodyList.add(read(exchange.getRequestBody()));
+                    exchange.sendResponseHeaders(200, -1);
+                } catch (Exception e) {
+                    fail(e);
+                } finally {
+                    exchange.close();
+                    latch.countDown();
+                }
+            }
+        });
+        server.start();
+
+        JobAlarmDigest digest =
+            new JobAlarmDigest("http://127.0.0.1:" + server.getAddress().getPort() + "/alarm", System.currentTimeMillis());
+        digest.add(jobInfo(7, null), jobLog(77));
+
+        //when
+        boolean result = new WebhookJobAlarm().send(digest);
+        latch.await(3, TimeUnit.SECONDS);
+        server.stop(0);
+
+        //then
+        assertTrue(result);
+        assertEquals(1, bodyList.size());
+        assertTrue(bodyList.get(0).contains("\"totalCount\":1"));
+        assertTrue(bodyList.get(0).contains("\"logId\":77"));
+    }
+
+    private static XxlJobInfo jobInfo(int id, String alarmEmail) {
+        XxlJobInfo info = new XxlJobInfo();
+        info.setId(id);
+        info.setJobGroup(1);
+        info.setJobDesc("job" + id);
+        info.setAlarmEmail(alarmEmail);
+        return info;
+    }
+
+    private static XxlJobLog jobLog(long id) {
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setId(id);
+        jobLog.setTriggerCode(500);
+        return jobLog;
+    }
+
+    private static String read(InputStream inputStream) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int len;
+        while ((len = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, len);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * fake sink, recipients from alarm email, digests kept
+     */
+    private static class FakeJobAlarmSink implements JobAlarmSink {
+        private final long sendCostMs;
+        private final List<JobAlarmDigest> digestList = new CopyOnWriteArrayList<JobAlarmDigest>();
+        private volatile boolean sendFail = false;
+
+        public FakeJobAlarmSink(long sendCostMs) {
+            this.sendCostMs = sendCostMs;
+        }
+
+        @Override
+        public String getName() {
+            return "fake";
+        }
+
+        @Override
+        public List<String> recipients(XxlJobInfo info) {
+            return Arrays.asList(info.getAlarmEmail().split(","));
+        }
+
+        @Override
+        public boolean send(JobAlarmDigest digest) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(sendCostMs);
+            } catch (InterruptedException e) {
+                return false;
+            }
+            digestList.add(digest);
+            return !sendFail;
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.xxl.job.admin.core.conf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XxlJobStartupProfilerTest {
+
+    @Test
+    public void shouldRecordSlowBeanInitAndSchedulerSteps() throws Exception {
+        //given
+        XxlJobStartupProfiler profiler = new XxlJobStartupProfiler(true);
+
+        //when
+        initBean(profiler, "fastBean", 0);
+        initBean(profiler, "slowBean", 50);
+        initBean(profiler, "midBean", 20);
+        profiler.schedulerStart();
+        TimeUnit.MILLISECONDS.sleep(10);
+        profiler.schedulerStep("JobInfoCacheHelper");
+        profiler.schedulerStep("JobScheduleHelper");
+
+        //then
+        List<XxlJobStartupProfiler.Step> beanInitList = profiler.getBeanInitList();
+        assertEquals("slowBean", beanInitList.get(0).name);
+        assertEquals("midBean", beanInitList.get(1).name);
+        assertTrue(beanInitList.get(0).cost >= 50);
+
+        List<XxlJobStartupProfiler.Step> stepList = profiler.getSchedulerStepList();
+        assertEquals(2, stepList.size());
+        assertTrue(stepList.get(0).cost >= 10);
+        assertTrue(stepList.get(1).cost < 10);
+    }
+
+    @Test
+    public void shouldKeepFirstScheduleOnlyEvenIfProfileOff() throws Exception {
+        //given
+        XxlJobStartupProfiler profiler = new XxlJobStartupProfiler(false);
+        assertEquals(-1, profiler.getFirstScheduleTime());
+
+        //when
+        initBean(profiler, "slowBean", 20);
+        profiler.scheduled();
+        long firstScheduleTime = profiler.getFirstScheduleTime();
+        TimeUnit.MILLISECONDS.sleep(10);
+        profiler.scheduled();
+
+        //then
+        assertTrue(firstScheduleTime > 0);
+        assertEquals(firstScheduleTime, profiler.awaitFirstSchedule(1, TimeUnit.SECONDS));
+        assertTrue(profiler.getBeanInitList().isEmpty());
+    }
+
+    private static void initBean(XxlJobStartupProfiler profiler, String beanName, long initMs) throws Exception {
+        Object bean = new Object();
+        profiler.postProcessBeforeInitialization(bean, beanName);
+        TimeUnit.MILLISECONDS.sleep(initMs);
+        profiler.postProcessAfterInitialization(bean, beanName);
+    }
+
+}
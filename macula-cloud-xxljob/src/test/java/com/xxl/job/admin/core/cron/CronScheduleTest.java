@@ -0,0 +1,63 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CronScheduleTest {
+
+    private static final String[] EXPRESSIONS =
+        {"* * * * * ?", "0/5 * * * * ?", "0 0/1 * * * ?", "0 0 2 * * ?", "0 30 2 * * ?", "0 15 10 ? * MON-FRI",
+            "0 0 12 1/3 * ?", "0 0 0 29 2 ?", "0 0 0 31 * ?", "0 0 1 ? * SUN", "0 0 0 L * ?", "0 0 0 15W * ?",
+            "0 0 0 ? * 6#3", "59 59 23 31 12 ? *", "1-10/3 5,7 8-18 ? 1,6,11 2-4", "0 0 0 1 1 ? 2030"};
+
+    private static final String[] ZONES = {"Asia/Shanghai", "America/New_York", "Europe/London", "UTC"};
+
+    @Test
+    public void shouldMatchCronExpression() throws Exception {
+        //given
+        Random random = new Random(1);
+        long from = 1577836800000L;     // 2020-01-01
+
+        for (String zone : ZONES) {
+            for (String cron : EXPRESSIONS) {
+                CronExpression expression = new CronExpression(cron);
+                expression.setTimeZone(TimeZone.getTimeZone(zone));
+                CronExpression compiled = new CronExpression(cron);
+                compiled.setTimeZone(TimeZone.getTimeZone(zone));
+                CronSchedule schedule = new CronSchedule(compiled);
+
+                for (int i = 0; i < 100; i++) {
+                    long time = from + (long)(random.nextDouble() * 20 * 365 * 86400000L) + random.nextInt(1000);
+                    for (int j = 0; j < 20 && time > 0; j++) {
+                        //when
+                        Date expected = expression.getNextValidTimeAfter(new Date(time));
+                        long actual = schedule.nextTime(time);
+
+                        //then
+                        assertEquals(expected != null ? expected.getTime() : -1, actual,
+                            zone + " [" + cron + "] after " + time);
+                        time = actual;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldCacheCompiledSchedule() throws Exception {
+        //when
+        CronSchedule first = CronSchedule.of("0 0/5 * * * ?");
+        CronSchedule second = CronSchedule.of("0 0/5 * * * ?");
+
+        //then
+        assertSame(first, second);
+        assertThrows(ParseException.class, () -> CronSchedule.of("0 0 0 ? ? ?"));
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExecutorRouteConsistentHashTest {
+
+    private static final int JOB_NUM = 5000;
+
+    @Test
+    public void shouldRouteAsTreeMapRing() throws Exception {
+        //given
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<List<String>> addressLists = new ArrayList<List<String>>();
+        addressLists.add(Arrays.asList("http://127.0.0.1:9999/"));
+        addressLists.add(Arrays.asList("http://10.0.0.1:9999/", "http://10.0.0.2:9999/", "http://10.0.0.3:9999/"));
+        List<String> bigList = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) {
+            bigList.add("http://10.0.1." + i + ":9999/");
+        }
+        addressLists.add(bigList);
+
+        for (List<String> addressList : addressLists) {
+            //when
+            List<String> routed = new ArrayList<String>(JOB_NUM);
+            List<String> routedByCopy = new ArrayList<String>(JOB_NUM);
+            for (int jobId = 1; jobId <= JOB_NUM; jobId++) {
+                routed.add(router.hashJob(jobId, addressList));
+                routedByCopy.add(router.hashJob(jobId, new ArrayList<String>(addressList)));
+            }
+
+            //then
+            TreeMap<Long, String> treeMapRing = treeMapRing(addressList);
+            for (int jobId = 1; jobId <= JOB_NUM; jobId++) {
+                String expected = treeMapHashJob(jobId, treeMapRing);
+                assertEquals(expected, routed.get(jobId - 1), "jobId:" + jobId);
+                assertEquals(expected, routedByCopy.get(jobId - 1), "jobId:" + jobId);
+            }
+        }
+    }
+
+    @Test
+    public void shouldRebuildRingOnAddressChange() throws Exception {
+        //given
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<String> addressList = new ArrayList<String>(Arrays.asList("http://10.0.0.1:9999/", "http://10.0.0.2:9999/"));
+        for (int jobId = 1; jobId <= JOB_NUM; jobId++) {
+            router.hashJob(jobId, addressList);
+        }
+
+        //when
+        addressList.add("http://10.0.0.3:9999/");
+        router.onAddressChange("app", addressList);
+
+        //then
+        TreeMap<Long, String> treeMapRing = treeMapRing(addressList);
+        for (int jobId = 1; jobId <= JOB_NUM; jobId++) {
+            assertEquals(treeMapHashJob(jobId, treeMapRing), router.hashJob(jobId, addressList));
+        }
+    }
+
+    /**
+     * ring before: TreeMap of virtual nodes (built per route), tailMap lookup
+     */
+    private static TreeMap<Long, String> treeMapRing(List<String> addressList) throws Exception {
+        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
+        for (String address : addressList) {
+            for (int i = 0; i < 100; i++) {
+                addressRing.put(hash("SHARD-" + address + "-NODE-" + i), address);
+            }
+        }
+        return addressRing;
+    }
+
+    private static String treeMapHashJob(int jobId, TreeMap<Long, String> addressRing) throws Exception {
+        long jobHash = hash(String.valueOf(jobId));
+        SortedMap<Long, String> lastRing = addressRing.tailMap(jobHash);
+        if (!lastRing.isEmpty()) {
+            return lastRing.get(lastRing.firstKey());
+        }
+        return addressRing.firstEntry().getValue();
+    }
+
+    private static long hash(String key) throws Exception {
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        byte[] digest = md5.digest(key.getBytes(StandardCharsets.UTF_8));
+        long hashCode = ((long)(digest[3] & 0xFF) << 24) | ((long)(digest[2] & 0xFF) << 16)
+            | ((long)(digest[1] & 0xFF) << 8) | (digest[0] & 0xFF);
+        return hashCode & 0xffffffffL;
+    }
+
+}
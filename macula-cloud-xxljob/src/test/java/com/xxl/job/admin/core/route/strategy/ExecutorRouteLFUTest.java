@@ -0,0 +1,89 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutorRouteLFUTest {
+
+    private static final List<String> ADDRESS_LIST =
+        Arrays.asList("http://10.0.0.1:9999/", "http://10.0.0.2:9999/", "http://10.0.0.3:9999/",
+            "http://10.0.0.4:9999/");
+
+    @Test
+    public void shouldSpreadEvenlyUnderConcurrentRoute() throws Exception {
+        //given
+        final ExecutorRouteLFU router = new ExecutorRouteLFU();
+        final int threads = 8;
+        final int routesPerThread = 10000;
+        final ConcurrentMap<String, AtomicInteger> countMap = new ConcurrentHashMap<String, AtomicInteger>();
+        for (String address : ADDRESS_LIST) {
+            countMap.put(address, new AtomicInteger());
+        }
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        //when
+        for (int t = 0; t < threads; t++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < routesPerThread; i++) {
+                        countMap.get(router.route(2001, ADDRESS_LIST)).incrementAndGet();
+                    }
+                }
+            });
+        }
+        startLatch.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        //then
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (AtomicInteger count : countMap.values()) {
+            total += count.get();
+            min = Math.min(min, count.get());
+            max = Math.max(max, count.get());
+        }
+        assertEquals(threads * routesPerThread, total);
+        // counts start random in [0, size), no lost increment: picks differ by the start offset at most
+        assertTrue(max - min <= ADDRESS_LIST.size() + threads, "min:" + min + ", max:" + max);
+    }
+
+    @Test
+    public void shouldDropRemovedAddress() {
+        //given
+        ExecutorRouteLFU router = new ExecutorRouteLFU();
+        for (int i = 0; i < 100; i++) {
+            router.route(2002, ADDRESS_LIST);
+        }
+
+        //when
+        List<String> shrunk = ADDRESS_LIST.subList(0, 2);
+        boolean onlyShrunk = true;
+        for (int i = 0; i < 100; i++) {
+            onlyShrunk &= shrunk.contains(router.route(2002, shrunk));
+        }
+
+        //then
+        assertTrue(onlyShrunk);
+    }
+
+}
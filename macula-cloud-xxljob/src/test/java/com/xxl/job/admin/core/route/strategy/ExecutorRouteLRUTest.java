@@ -0,0 +1,89 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutorRouteLRUTest {
+
+    private static final List<String> ADDRESS_LIST =
+        Arrays.asList("http://10.0.0.1:9999/", "http://10.0.0.2:9999/", "http://10.0.0.3:9999/",
+            "http://10.0.0.4:9999/");
+
+    @Test
+    public void shouldRouteEldestInTurn() {
+        //given
+        ExecutorRouteLRU router = new ExecutorRouteLRU();
+
+        //when
+        List<String> routed = new ArrayList<String>();
+        for (int i = 0; i < ADDRESS_LIST.size() * 3; i++) {
+            routed.add(router.route(1001, ADDRESS_LIST));
+        }
+
+        //then
+        for (int i = ADDRESS_LIST.size(); i < routed.size(); i++) {
+            assertEquals(routed.get(i - ADDRESS_LIST.size()), routed.get(i));
+        }
+        assertEquals(ADDRESS_LIST.size(), new HashSet<String>(routed.subList(0, ADDRESS_LIST.size())).size());
+    }
+
+    @Test
+    public void shouldSpreadEvenlyUnderConcurrentRoute() throws Exception {
+        //given
+        final ExecutorRouteLRU router = new ExecutorRouteLRU();
+        final int threads = 8;
+        final int routesPerThread = 10000;
+        final ConcurrentMap<String, AtomicInteger> countMap = new ConcurrentHashMap<String, AtomicInteger>();
+        for (String address : ADDRESS_LIST) {
+            countMap.put(address, new AtomicInteger());
+        }
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        //when
+        for (int t = 0; t < threads; t++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < routesPerThread; i++) {
+                        countMap.get(router.route(1002, ADDRESS_LIST)).incrementAndGet();
+                    }
+                }
+            });
+        }
+        startLatch.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        //then
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (AtomicInteger count : countMap.values()) {
+            total += count.get();
+            min = Math.min(min, count.get());
+            max = Math.max(max, count.get());
+        }
+        assertEquals(threads * routesPerThread, total);
+        assertTrue(max - min <= threads, "min:" + min + ", max:" + max);    // a stale scan skews by a few only
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.xxl.job.admin.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobTimeWheelTest {
+
+    @Test
+    public void shouldFireInOrderWithoutDrop() {
+        //given
+        long start = 1_000_000L;
+        JobTimeWheel timeWheel = new JobTimeWheel(10, 100, start);
+        for (int i = 1; i <= 500; i++) {
+            assertTrue(timeWheel.add(i, start + i * 37L));  // 37ms apart, span > wheel interval, use overflow
+        }
+        assertEquals(500, timeWheel.size());
+
+        //when
+        final List<Integer> fired = new ArrayList<>();
+        timeWheel.advance(start + 500 * 37L + 10, new JobTimeWheel.TimeWheelHandler() {
+            @Override
+            public void onDue(int jobId, long triggerTime) {
+                fired.add(jobId);
+            }
+        });
+
+        //then
+        assertEquals(500, fired.size());
+        assertEquals(0, timeWheel.size());
+        for (int i = 0; i < fired.size(); i++) {
+            assertEquals(i + 1, fired.get(i));
+        }
+    }
+
+    @Test
+    public void shouldNotFireBeforeTriggerTime() {
+        //given
+        long start = 1_000_000L;
+        JobTimeWheel timeWheel = new JobTimeWheel(10, 100, start);
+        timeWheel.add(1, start + 5000);
+
+        //when
+        final List<Long> late = new ArrayList<>();
+        JobTimeWheel.TimeWheelHandler handler = new JobTimeWheel.TimeWheelHandler() {
+            @Override
+            public void onDue(int jobId, long triggerTime) {
+                late.add(triggerTime);
+            }
+        };
+        timeWheel.advance(start + 4990, handler);
+
+        //then
+        assertTrue(late.isEmpty());
+        timeWheel.advance(start + 5000, handler);
+        assertEquals(1, late.size());
+    }
+
+    @Test
+    public void shouldRejectDueTime() {
+        long start = 1_000_000L;
+        JobTimeWheel timeWheel = new JobTimeWheel(10, 100, start);
+
+        assertFalse(timeWheel.add(1, start - 2000));
+        assertFalse(timeWheel.add(2, start + 5));
+        assertEquals(0, timeWheel.size());
+    }
+
+}
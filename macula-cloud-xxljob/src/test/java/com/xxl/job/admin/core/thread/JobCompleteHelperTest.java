@@ -0,0 +1,217 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.admin.dao.XxlJobLogDao;
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * running logs and lost fail, against the database of application.yml
+ *
+ * @author rain 2026-10-17
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobCompleteHelperTest {
+
+    private static final int JOB_ID = 99;       // no such job, finish triggers no child job
+
+    @Resource
+    private XxlJobLogDao xxlJobLogDao;
+
+    @Test
+    public void shouldFailOnlyLogsStillRunningOnExecutorExpire() throws Exception {
+        //given
+        String address = "127.0.0.1:" + System.nanoTime();
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        XxlJobLog running1 = saveLog(triggerTime, 0);
+        XxlJobLog running2 = saveLog(triggerTime, 0);
+        XxlJobLog done = saveLog(triggerTime, ReturnT.SUCCESS_CODE);      // callback on another admin node
+        JobCompleteHelper helper = JobCompleteHelper.getInstance();
+        helper.addRunning(running1.getId(), address, triggerTime);
+        helper.addRunning(running2.getId(), address, triggerTime);
+        helper.addRunning(done.getId(), address, triggerTime);
+
+        try {
+            //when
+            helper.onExecutorExpire(address);
+            running1 = waitHandled(running1.getId());
+            running2 = waitHandled(running2.getId());
+            waitNotRunning(done.getId());
+            done = xxlJobLogDao.load(done.getId());
+
+            //then
+            assertEquals(ReturnT.FAIL_CODE, running1.getHandleCode());
+            assertEquals(I18nUtil.getString("joblog_lost_fail"), running1.getHandleMsg());
+            assertEquals(ReturnT.FAIL_CODE, running2.getHandleCode());
+            assertEquals(ReturnT.SUCCESS_CODE, done.getHandleCode());
+            assertNull(done.getHandleMsg());
+            assertFalse(helper.isRunning(running1.getId()));
+            assertFalse(helper.isRunning(running2.getId()));
+            assertFalse(helper.isRunning(done.getId()));
+        } finally {
+            xxlJobLogDao.delete(JOB_ID);
+        }
+    }
+
+    @Test
+    public void shouldIgnoreCallbackAfterExpiry() throws Exception {
+        //given
+        String address = "127.0.0.1:" + System.nanoTime();
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        XxlJobLog lost = saveLog(triggerTime, 0);
+        XxlJobLog marker = saveLog(triggerTime, 0);
+        JobCompleteHelper helper = JobCompleteHelper.getInstance();
+        helper.addRunning(lost.getId(), address, triggerTime);
+
+        try {
+            //when expiry first, late callback of the same log
+            helper.onExecutorExpire(address);
+            waitHandled(lost.getId());
+            helper.callback(Collections.singletonList(callbackParam(lost, "callback ok")));
+            // callbacks applied in order by one thread, marker done: late callback done
+            helper.callback(Collections.singletonList(callbackParam(marker, "marker")));
+            waitHandled(marker.getId());
+            lost = xxlJobLogDao.load(lost.getId());
+
+            //then
+            assertEquals(ReturnT.FAIL_CODE, lost.getHandleCode());
+            assertEquals(I18nUtil.getString("joblog_lost_fail"), lost.getHandleMsg());
+        } finally {
+            xxlJobLogDao.delete(JOB_ID);
+        }
+    }
+
+    @Test
+    public void shouldHandleEachLogOnceWhenCallbackRacesExpiry() throws Exception {
+        //given
+        final String address = "127.0.0.1:" + System.nanoTime();
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        final JobCompleteHelper helper = JobCompleteHelper.getInstance();
+        final List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
+        List<XxlJobLog> logList = new ArrayList<XxlJobLog>();
+        for (int i = 0; i < 50; i++) {
+            XxlJobLog log = saveLog(triggerTime, 0);
+            helper.addRunning(log.getId(), address, triggerTime);
+            callbackParamList.add(callbackParam(log, "callback ok"));
+            logList.add(log);
+        }
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        Thread callbackThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (HandleCallbackParam param : callbackParamList) {
+                    helper.callback(Collections.singletonList(param));
+                }
+            }
+        });
+        callbackThread.start();
+
+        try {
+            //when
+            startLatch.countDown();
+            helper.onExecutorExpire(address);
+            callbackThread.join();
+
+            //then one of both wins per log, nothing left running
+            for (XxlJobLog log : logList) {
+                XxlJobLog handled = waitHandled(log.getId());
+                waitNotRunning(log.getId());
+                if (handled.getHandleCode() == ReturnT.SUCCESS_CODE) {
+                    assertEquals("callback ok", handled.getHandleMsg());
+                } else {
+                    assertEquals(ReturnT.FAIL_CODE, handled.getHandleCode());
+                    assertEquals(I18nUtil.getString("joblog_lost_fail"), handled.getHandleMsg());
+                }
+                assertFalse(helper.isRunning(log.getId()));
+            }
+        } finally {
+            xxlJobLogDao.delete(JOB_ID);
+        }
+    }
+
+    @Test
+    public void shouldPruneRunningLogsDoneInDb() {
+        //given
+        String address = "127.0.0.1:" + System.nanoTime();
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        XxlJobLog running = saveLog(triggerTime, 0);
+        XxlJobLog done = saveLog(triggerTime, ReturnT.SUCCESS_CODE);
+        long deletedId = Long.MAX_VALUE;
+        JobCompleteHelper helper = JobCompleteHelper.getInstance();
+        helper.addRunning(running.getId(), address, triggerTime);
+        helper.addRunning(done.getId(), address, triggerTime);
+        helper.addRunning(deletedId, address, triggerTime);
+
+        try {
+            //when
+            helper.checkRunning(System.currentTimeMillis() - 60 * 1000);
+            boolean doneKeptWhileYoung = helper.isRunning(done.getId());
+            helper.checkRunning(System.currentTimeMillis());
+
+            //then
+            assertTrue(doneKeptWhileYoung);
+            assertTrue(helper.isRunning(running.getId()));
+            assertFalse(helper.isRunning(done.getId()));
+            assertFalse(helper.isRunning(deletedId));
+        } finally {
+            helper.removeRunning(running.getId());
+            xxlJobLogDao.delete(JOB_ID);
+        }
+    }
+
+    private XxlJobLog saveLog(Date triggerTime, int handleCode) {
+        XxlJobLog log = new XxlJobLog();
+        log.setJobGroup(1);
+        log.setJobId(JOB_ID);
+        log.setTriggerTime(triggerTime);
+        log.setTriggerCode(ReturnT.SUCCESS_CODE);
+        log.setHandleCode(handleCode);
+        xxlJobLogDao.save(log);
+        return log;
+    }
+
+    private static HandleCallbackParam callbackParam(XxlJobLog log, String handleMsg) {
+        HandleCallbackParam param = new HandleCallbackParam();
+        param.setLogId(log.getId());
+        param.setLogDateTim(log.getTriggerTime().getTime());
+        param.setHandleCode(ReturnT.SUCCESS_CODE);
+        param.setHandleMsg(handleMsg);
+        return param;
+    }
+
+    private XxlJobLog waitHandled(long logId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        XxlJobLog log = xxlJobLogDao.load(logId);
+        while (log.getHandleCode() == 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            log = xxlJobLogDao.load(logId);
+        }
+        return log;
+    }
+
+    private static void waitNotRunning(long logId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (JobCompleteHelper.getInstance().isRunning(logId) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.core.biz.model.LogParam;
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author rain 2026-10-17
+ */
+public class JobLogStreamHelperTest {
+
+    @Test
+    public void shouldCloseEmitterWhenLogFinished() throws Exception {
+        //given log done, 3 lines left on executor
+        final AtomicInteger pullCount = new AtomicInteger();
+        JobLogStreamHelper helper = new JobLogStreamHelper();
+        helper.start(10, new FakeLogSource() {
+            @Override
+            public ReturnT<LogResult> log(String executorAddress, LogParam logParam) {
+                pullCount.incrementAndGet();
+                if (logParam.getFromLineNum() == 1) {
+                    return new ReturnT<LogResult>(new LogResult(1, 3, "1\n2\n3", false));
+                }
+                return new ReturnT<LogResult>(
+                    new LogResult(logParam.getFromLineNum(), logParam.getFromLineNum() - 1, "", true));
+            }
+        });
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        try {
+            //when
+            helper.stream(jobLog(ReturnT.SUCCESS_CODE), 1, emitter);
+            waitCompleted(emitter);
+
+            //then lines, then end once no new lines, stream slot given back
+            assertTrue(emitter.completed);
+            assertEquals(2, emitter.eventList.size(), emitter.eventList.toString());
+            assertTrue(emitter.eventList.get(0).startsWith("event:log"));
+            assertTrue(emitter.eventList.get(1).startsWith("event:end"));
+            assertEquals(2, pullCount.get());
+            assertEquals(0, helper.getStreamCount());
+        } finally {
+            helper.toStop();
+        }
+    }
+
+    @Test
+    public void shouldRejectViewerOverStreamMax() throws Exception {
+        //given one stream at most, log still running
+        final AtomicInteger pullCount = new AtomicInteger();
+        JobLogStreamHelper helper = new JobLogStreamHelper();
+        helper.start(1, new FakeLogSource() {
+            @Override
+            public ReturnT<LogResult> log(String executorAddress, LogParam logParam) {
+                pullCount.incrementAndGet();
+                return new ReturnT<LogResult>(
+                    new LogResult(logParam.getFromLineNum(), logParam.getFromLineNum() - 1, "", false));
+            }
+        });
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+
+        try {
+            //when
+            helper.stream(jobLog(0), 1, first);
+            helper.stream(jobLog(0), 1, second);
+            TimeUnit.MILLISECONDS.sleep(200);
+
+            //then new viewer falls back to polling, first stream kept
+            assertTrue(second.completed);
+            assertEquals(1, second.eventList.size());
+            assertTrue(second.eventList.get(0).startsWith("event:fallback"));
+            assertFalse(first.completed);
+            assertTrue(first.eventList.isEmpty());
+            assertEquals(1, pullCount.get());
+            assertEquals(1, helper.getStreamCount());
+        } finally {
+            helper.toStop();
+        }
+    }
+
+    private static XxlJobLog jobLog(int handleCode) {
+        XxlJobLog jobLog = new XxlJobLog();
+        jobLog.setId(1);
+        jobLog.setTriggerTime(new Date());
+        jobLog.setExecutorAddress("127.0.0.1:9999");
+        jobLog.setHandleCode(handleCode);
+        return jobLog;
+    }
+
+    private static void waitCompleted(RecordingEmitter emitter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!emitter.completed && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static abstract class FakeLogSource implements JobLogStreamHelper.LogSource {
+
+        @Override
+        public XxlJobLog load(long logId) {
+            return null;
+        }
+    }
+
+    /**
+     * events and completion recorded, no servlet response behind
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> eventList = new CopyOnWriteArrayList<String>();
+        private volatile boolean completed = false;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType item : builder.build()) {
+                event.append(item.getData());
+            }
+            eventList.add(event.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+
+}
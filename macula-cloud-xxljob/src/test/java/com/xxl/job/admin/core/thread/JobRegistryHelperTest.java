@@ -0,0 +1,134 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import com.xxl.job.admin.dao.XxlJobGroupDao;
+import com.xxl.job.admin.dao.XxlJobRegistryDao;
+import com.xxl.job.core.enums.RegistryConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * address book expire, remove grace and group address, against the database of application.yml
+ *
+ * @author rain 2026-10-17
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JobRegistryHelperTest {
+
+    private static final String EXECUTOR = RegistryConfig.RegistType.EXECUTOR.name();
+
+    @Resource
+    private XxlJobRegistryDao xxlJobRegistryDao;
+    @Resource
+    private XxlJobGroupDao xxlJobGroupDao;
+
+    @Test
+    public void shouldExpireAddressOnTimeUnlessBeatAgain() throws Exception {
+        //given address book expire 1s
+        String appname = "registry-expire-" + System.nanoTime();
+        final List<String> expireList = new CopyOnWriteArrayList<String>();
+        JobRegistryHelper helper = new JobRegistryHelper();
+        helper.addListener(new FakeRegistryListener() {
+            @Override
+            public void onExpire(String appname, String address) {
+                expireList.add(address);
+            }
+        });
+        helper.start(1000);
+
+        try {
+            //when beat again before the first expire
+            long start = System.currentTimeMillis();
+            helper.beat(appname, "127.0.0.1:9991", start);
+            helper.beat(appname, "127.0.0.1:9992", start);
+            TimeUnit.MILLISECONDS.sleep(600);
+            helper.beat(appname, "127.0.0.1:9992", System.currentTimeMillis());
+            TimeUnit.MILLISECONDS.sleep(600);
+            List<String> addressAfterFirstExpire = helper.findAddressList(appname);
+            List<String> expireAfterFirstExpire = new CopyOnWriteArrayList<String>(expireList);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (expireList.size() < 2 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            long secondExpireCost = System.currentTimeMillis() - start;
+
+            //then expired on time by the delay queue, the queued expire of an old beat skipped
+            assertEquals(Collections.singletonList("127.0.0.1:9992"), addressAfterFirstExpire);
+            assertEquals(Collections.singletonList("127.0.0.1:9991"), expireAfterFirstExpire);
+            assertEquals("127.0.0.1:9992", expireList.get(1));
+            assertTrue(secondExpireCost >= 1600 && secondExpireCost < 3000, "secondExpireCost:" + secondExpireCost);
+            assertTrue(helper.findAddressList(appname).isEmpty());
+        } finally {
+            helper.toStop();
+        }
+    }
+
+    @Test
+    public void shouldKeepAddressWithoutDbRowWithinRemoveGrace() {
+        //given beat here, db row not written yet
+        String appname = "registry-grace-" + System.nanoTime();
+        JobRegistryHelper helper = new JobRegistryHelper();
+        long beatTime = System.currentTimeMillis();
+        helper.beat(appname, "127.0.0.1:9991", beatTime);
+
+        //when
+        helper.syncFromDb(beatTime + 4000);
+        List<String> addressInGrace = helper.findAddressList(appname);
+        helper.syncFromDb(beatTime + 6000);
+        List<String> addressAfterGrace = helper.findAddressList(appname);
+
+        //then dropped only after the 5s grace, as removed on other admin node
+        assertEquals(Collections.singletonList("127.0.0.1:9991"), addressInGrace);
+        assertTrue(addressAfterGrace.isEmpty());
+    }
+
+    @Test
+    public void shouldBuildGroupAddressFromDbRows() {
+        //given 2 rows in db, this node got the beat of another address only
+        String appname = "registry-group-" + System.nanoTime();
+        XxlJobGroup group = new XxlJobGroup();
+        group.setAppname(appname);
+        group.setTitle("registry-group");
+        group.setAddressType(0);
+        group.setUpdateTime(new Date());
+        xxlJobGroupDao.save(group);
+        xxlJobRegistryDao.registrySave(EXECUTOR, appname, "127.0.0.1:9992", new Date());
+        xxlJobRegistryDao.registrySave(EXECUTOR, appname, "127.0.0.1:9991", new Date());
+        JobRegistryHelper helper = new JobRegistryHelper();
+        helper.beat(appname, "127.0.0.1:9993", System.currentTimeMillis());
+
+        try {
+            //when
+            helper.freshGroupAddress(Collections.singleton(appname));
+            XxlJobGroup saved = xxlJobGroupDao.load(group.getId());
+
+            //then every admin node writes the same list
+            assertEquals("127.0.0.1:9991,127.0.0.1:9992", saved.getAddressList());
+        } finally {
+            xxlJobRegistryDao.registryDelete(EXECUTOR, appname, "127.0.0.1:9991");
+            xxlJobRegistryDao.registryDelete(EXECUTOR, appname, "127.0.0.1:9992");
+            xxlJobGroupDao.remove(group.getId());
+        }
+    }
+
+    private static class FakeRegistryListener implements JobRegistryHelper.RegistryListener {
+
+        @Override
+        public void onChange(String appname, List<String> addressList) {
+        }
+
+        @Override
+        public void onExpire(String appname, String address) {
+        }
+    }
+
+}
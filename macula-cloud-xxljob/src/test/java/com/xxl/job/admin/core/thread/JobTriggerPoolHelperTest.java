@@ -0,0 +1,232 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author rain 2026-10-17
+ */
+public class JobTriggerPoolHelperTest {
+
+    private static final int BLOCKER_JOB_ID = 1000;      // job id >= 1000: one group per job
+
+    @Test
+    public void shouldReleasePermitWhenTriggerFails() throws Exception {
+        //given group of one permit, trigger throws or completes exceptionally
+        final AtomicInteger triggerCount = new AtomicInteger();
+        JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
+        helper.start(10, 10, 100, 100, 1, new FakeTriggerRunner() {
+            @Override
+            public CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+                String executorShardingParam, String executorParam, String addressList) {
+                if (triggerCount.incrementAndGet() % 2 == 0) {
+                    throw new IllegalStateException("trigger fail");
+                }
+                CompletableFuture<Void> future = new CompletableFuture<Void>();
+                future.completeExceptionally(new IllegalStateException("executor fail"));
+                return future;
+            }
+        });
+
+        //when one after another, a leaked permit leaves the next trigger waiting in the group queue
+        try {
+            for (int i = 0; i < 30; i++) {
+                helper.addTrigger(1, TriggerTypeEnum.MANUAL, 0, null, String.valueOf(i), null);
+                waitFor(triggerCount, i + 1);
+            }
+        } finally {
+            helper.stop();
+        }
+
+        //then no trigger left behind a leaked permit
+        assertEquals(30, triggerCount.get());
+        assertEquals(0, helper.getGroupPendingCount());
+    }
+
+    @Test
+    public void shouldKeepOrderWhenPoolIsFull() throws Exception {
+        //given group 1 of one permit, first trigger in flight
+        final CompletableFuture<Void> firstFuture = new CompletableFuture<Void>();
+        final CountDownLatch blockerLatch = new CountDownLatch(1);
+        final List<String> triggerOrder = new CopyOnWriteArrayList<String>();
+        final AtomicInteger triggerCount = new AtomicInteger();
+        JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
+        helper.start(10, 10, 1, 1, 1, new FakeTriggerRunner() {
+            @Override
+            public CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+                String executorShardingParam, String executorParam, String addressList) {
+                if (jobId >= BLOCKER_JOB_ID) {
+                    try {
+                        blockerLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+                triggerOrder.add(executorParam);
+                triggerCount.incrementAndGet();
+                return "0".equals(executorParam) ? firstFuture : CompletableFuture.<Void>completedFuture(null);
+            }
+        });
+
+        try {
+            helper.addTrigger(1, TriggerTypeEnum.MANUAL, 0, null, "0", null);
+            waitFor(triggerCount, 1);
+            for (int i = 1; i < 10; i++) {
+                helper.addTrigger(1, TriggerTypeEnum.MANUAL, 0, null, String.valueOf(i), null);
+            }
+            // 10 pool threads busy, 1 in pool queue: pool full
+            for (int i = 0; i < 11; i++) {
+                helper.addTrigger(BLOCKER_JOB_ID + i, TriggerTypeEnum.MANUAL, 0, null, null, null);
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (helper.getFastQueueSize() < 1 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+
+            //when first trigger completes, drain finds the pool full
+            firstFuture.complete(null);
+            TimeUnit.MILLISECONDS.sleep(1500);
+            int triggeredWhileFull = triggerCount.get();
+            int pendingWhileFull = helper.getGroupPendingCount();
+
+            blockerLatch.countDown();
+            waitFor(triggerCount, 10);
+            deadline = System.currentTimeMillis() + 5000;
+            while (helper.getGroupPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);     // pending count decreased once submitted
+            }
+
+            //then
+            assertEquals(1, triggeredWhileFull);
+            assertEquals(9, pendingWhileFull);
+            List<String> expectOrder = new ArrayList<String>();
+            for (int i = 0; i < 10; i++) {
+                expectOrder.add(String.valueOf(i));
+            }
+            assertEquals(expectOrder, triggerOrder);
+            assertEquals(0, helper.getGroupPendingCount());
+        } finally {
+            blockerLatch.countDown();
+            helper.stop();
+        }
+    }
+
+    @Test
+    public void shouldMoveSlowJobToSlowPool() throws Exception {
+        //given trigger cost 600ms, over slow threshold
+        final ScheduledExecutorService completer = Executors.newSingleThreadScheduledExecutor();
+        final AtomicInteger completeCount = new AtomicInteger();
+        final List<String> threadNames = new CopyOnWriteArrayList<String>();
+        JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
+        helper.start(10, 10, 100, 100, 20, new FakeTriggerRunner() {
+            @Override
+            public CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+                String executorShardingParam, String executorParam, String addressList) {
+                threadNames.add(Thread.currentThread().getName());
+                final CompletableFuture<Void> future = new CompletableFuture<Void>();
+                completer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        future.complete(null);
+                        completeCount.incrementAndGet();
+                    }
+                }, 600, TimeUnit.MILLISECONDS);
+                return future;
+            }
+        });
+
+        //when
+        try {
+            for (int i = 0; i < 10; i++) {
+                helper.addTrigger(1, TriggerTypeEnum.MANUAL, 0, null, null, null);
+            }
+            waitFor(completeCount, 10);
+            helper.addTrigger(1, TriggerTypeEnum.MANUAL, 0, null, null, null);
+            waitFor(completeCount, 11);
+        } finally {
+            helper.stop();
+            completer.shutdownNow();
+        }
+
+        //then
+        assertTrue(helper.getJobLatencyP99(1) >= 600, "p99:" + helper.getJobLatencyP99(1));
+        assertTrue(threadNames.get(0).contains("fastTriggerPool"));
+        assertTrue(threadNames.get(10).contains("slowTriggerPool"));
+    }
+
+    @Test
+    public void shouldTriggerOtherGroupWhenOneGroupIsFull() throws Exception {
+        //given group 1 of one permit, its trigger never returns
+        final AtomicInteger groupATriggerCount = new AtomicInteger();
+        final AtomicInteger groupBTriggerCount = new AtomicInteger();
+        FakeTriggerRunner runner = new FakeTriggerRunner() {
+            @Override
+            public CompletableFuture<Void> trigger(int jobId, TriggerTypeEnum triggerType, int failRetryCount,
+                String executorShardingParam, String executorParam, String addressList) {
+                if (jobId >= BLOCKER_JOB_ID) {
+                    groupBTriggerCount.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }
+                groupATriggerCount.incrementAndGet();
+                return new CompletableFuture<Void>();
+            }
+        };
+        JobTriggerPoolHelper helper = new JobTriggerPoolHelper();
+        helper.start(10, 10, 100, 100, 1, runner);
+
+        try {
+            //when 1 in flight, 10 in group queue, 5 over
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < 16; i++) {
+                helper.addTrigger(1, TriggerTypeEnum.CRON, 0, null, null, null);
+            }
+            long groupACost = System.currentTimeMillis() - start;
+            helper.addTrigger(BLOCKER_JOB_ID, TriggerTypeEnum.CRON, 0, null, null, null);
+            waitFor(groupBTriggerCount, 1);
+            long groupBCost = System.currentTimeMillis() - start;
+
+            //then caller never blocked, group 2 triggered at once
+            assertTrue(groupACost < 500, "groupACost:" + groupACost);
+            assertTrue(groupBCost < 500, "groupBCost:" + groupBCost);
+            assertEquals(1, groupBTriggerCount.get());
+            assertEquals(1, groupATriggerCount.get());
+            assertEquals(10, helper.getGroupPendingCount());
+            assertEquals(5, runner.rejectList.size());
+            assertTrue(runner.rejectList.get(0).contains("group bulkhead full"));
+            assertEquals(5, helper.getRejectedCount());
+        } finally {
+            helper.stop();
+        }
+    }
+
+    private static void waitFor(AtomicInteger count, int expect) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count.get() < expect && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static abstract class FakeTriggerRunner implements JobTriggerPoolHelper.TriggerRunner {
+        private final List<String> rejectList = new CopyOnWriteArrayList<String>();
+
+        @Override
+        public void reject(int jobId, TriggerTypeEnum triggerType, int failRetryCount, String executorShardingParam,
+            String executorParam, String runMsg) {
+            rejectList.add(jobId + ":" + runMsg);
+        }
+
+        @Override
+        public int loadJobGroup(int jobId) {
+            return jobId >= BLOCKER_JOB_ID ? jobId : 1;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.xxl.job.admin.core.trigger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriggerMsgTest {
+
+    @Test
+    public void shouldWriteCompactJson() {
+        //given
+        TriggerMsg msg = new TriggerMsg();
+        msg.setCode(TriggerMsg.Code.SUCCESS);
+        msg.setTriggerType("CRON");
+        msg.setExecutorAddress("http://127.0.0.1:9999/");
+        msg.setRouteStrategy("FIRST");
+        msg.setBlockStrategy("SERIAL_EXECUTION");
+
+        //when
+        String json = msg.toJson();
+
+        //then
+        assertEquals(
+            "{\"c\":\"SUCCESS\",\"t\":\"CRON\",\"ea\":\"http://127.0.0.1:9999/\",\"r\":\"FIRST\",\"b\":\"SERIAL_EXECUTION\"}",
+            json);
+    }
+
+    @Test
+    public void shouldParseStoredJson() {
+        //given
+        TriggerMsg msg = new TriggerMsg();
+        msg.setCode(TriggerMsg.Code.RUN_FAIL);
+        msg.setTriggerType("MANUAL");
+        msg.setShardingParam("1/3");
+        msg.setFailRetryCount(2);
+        msg.setRunMsg("timeout");
+
+        //when
+        TriggerMsg result = TriggerMsg.parse(msg.toJson());
+
+        //then
+        assertEquals(TriggerMsg.Code.RUN_FAIL, result.getCode());
+        assertEquals("MANUAL", result.getTriggerType());
+        assertEquals("1/3", result.getShardingParam());
+        assertEquals(2, result.getFailRetryCount());
+        assertEquals("timeout", result.getRunMsg());
+        assertFalse(result.isRetried());
+    }
+
+    @Test
+    public void shouldMarkRetried() {
+        //given
+        TriggerMsg msg = new TriggerMsg();
+        msg.setCode(TriggerMsg.Code.ROUTE_FAIL);
+
+        //when
+        String result = TriggerMsg.markRetried(msg.toJson());
+
+        //then
+        assertTrue(TriggerMsg.parse(result).isRetried());
+    }
+
+    @Test
+    public void shouldKeepLegacyHtml() {
+        //given
+        String legacy = "任务触发类型：手动触发<br>调度机器：127.0.0.1";
+
+        //when
+        TriggerMsg result = TriggerMsg.parse(legacy);
+
+        //then
+        assertNull(result);
+        assertEquals(legacy, TriggerMsg.render(legacy));
+        assertNull(TriggerMsg.render(null));
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.xxl.job.admin.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author rain 2026-10-17
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldBeExactBelowSubBucketCount() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 16; i++) {
+            histogram.record(i);
+        }
+
+        //when
+        long p50 = histogram.percentile(50);
+        long p100 = histogram.percentile(100);
+
+        //then
+        assertEquals(7, p50);
+        assertEquals(15, p100);
+        assertEquals(16, histogram.count());
+    }
+
+    @Test
+    public void shouldKeepPercentileWithinBucketPrecision() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(5 * 60 * 1000);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        //when
+        long p50 = histogram.percentile(50);
+        long p90 = histogram.percentile(90);
+        long p99 = histogram.percentile(99);
+        long p100 = histogram.percentile(100);
+
+        //then upper bound of the bucket, never below the true value, at most 1/16 above
+        assertTrue(p50 >= 500 && p50 <= 500 * 17 / 16, "p50:" + p50);
+        assertTrue(p90 >= 900 && p90 <= 900 * 17 / 16, "p90:" + p90);
+        assertTrue(p99 >= 990 && p99 <= 990 * 17 / 16, "p99:" + p99);
+        assertEquals(1000, p100);               // capped by max
+        assertEquals(1000, histogram.max());
+    }
+
+    @Test
+    public void shouldReturnZeroWhenEmpty() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        //when
+        histogram.record(-5);
+        long p50 = histogram.percentile(50);
+        histogram.reset();
+
+        //then
+        assertEquals(0, p50);                   // negative recorded as 0
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void shouldHalveCountsOnDecay() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 3; i++) {
+            histogram.record(5);
+        }
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10);
+        }
+
+        //when
+        histogram.decay();
+        long firstDecay = histogram.count();
+        histogram.decay();
+        histogram.decay();
+
+        //then odd counts round down
+        assertEquals(1 + 50, firstDecay);
+        assertEquals(12, histogram.count());    // 5: 1 -> 0 -> 0, 10: 50 -> 25 -> 12
+        assertEquals(10, histogram.percentile(1));
+    }
+
+    @Test
+    public void shouldLetRecentSamplesDominateAfterDecay() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(5 * 60 * 1000);
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10);
+        }
+        histogram.decay();
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            histogram.record(1000);
+        }
+
+        //then 50 old vs 100 recent
+        assertEquals(150, histogram.count());
+        assertEquals(1000, histogram.percentile(50));
+        assertEquals(10, histogram.percentile(30));
+    }
+
+    @Test
+    public void shouldResetMaxToHighestBucketOnDecay() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(5 * 60 * 1000);
+        histogram.record(1000);
+        histogram.record(1000);
+        histogram.record(3);
+
+        //when
+        histogram.decay();
+
+        //then one sample of 1000 left, max is the upper bound of its bucket
+        assertEquals(1, histogram.count());
+        assertTrue(histogram.max() >= 1000 && histogram.max() <= 1000 * 17 / 16, "max:" + histogram.max());
+
+        histogram.decay();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void shouldShareLastBucketOverHighestTrackableValue() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram(1000);
+
+        //when
+        histogram.record(10);
+        histogram.record(5000);
+        histogram.record(Long.MAX_VALUE);
+
+        //then
+        assertEquals(3, histogram.count());
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(10, histogram.percentile(30));
+        assertTrue(histogram.percentile(100) <= 1000 * 17 / 16, "p100:" + histogram.percentile(100));
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentRecords() throws Exception {
+        //given
+        final LatencyHistogram histogram = new LatencyHistogram(5 * 60 * 1000);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j % 100 + offset);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        //when
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //then
+        assertEquals(80000, histogram.count());
+        assertEquals(99 + 7, histogram.max());
+    }
+
+}
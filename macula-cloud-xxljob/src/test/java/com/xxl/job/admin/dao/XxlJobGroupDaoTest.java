@@ -5,9 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.annotation.Resource;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class XxlJobGroupDaoTest {
 
@@ -37,6 +40,9 @@ public class XxlJobGroupDaoTest {
         group2.setUpdateTime(new Date());
 
         int ret2 = xxlJobGroupDao.update(group2);
+        xxlJobGroupDao.update(group2);
+        long version = xxlJobGroupDao.findVersionByIds(Arrays.asList(group.getId())).get(0).getVersion();
+        assertEquals(group2.getVersion() + 2, version);      // same second, bumped each time
 
         int ret3 = xxlJobGroupDao.remove(group.getId());
     }
@@ -3,6 +3,7 @@ package com.xxl.job.admin.dao;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,8 @@ import javax.annotation.Resource;
 import java.util.Date;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class XxlJobInfoDaoTest {
     private static Logger logger = LoggerFactory.getLogger(XxlJobInfoDaoTest.class);
@@ -21,7 +24,7 @@ public class XxlJobInfoDaoTest {
 
     @Test
     public void pageList() {
-        List<XxlJobInfo> list = xxlJobInfoDao.pageList(0, 20, 0, -1, null, null, null);
+        List<XxlJobInfo> list = xxlJobInfoDao.pageList(0, 20, 0, -1, null, null, null, 0);
         int list_count = xxlJobInfoDao.pageListCount(0, 20, 0, -1, null, null, null);
 
         logger.info("", list);
@@ -83,4 +86,96 @@ public class XxlJobInfoDaoTest {
 
     }
 
+    @Test
+    public void fixDelayArm() {
+        //given
+        XxlJobInfo info = new XxlJobInfo();
+        info.setJobGroup(1);
+        info.setJobDesc("fixDelay");
+        info.setAuthor("setAuthor");
+        info.setScheduleType(ScheduleTypeEnum.FIX_DELAY.name());
+        info.setScheduleConf(String.valueOf(10));
+        info.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+        info.setExecutorRouteStrategy("FIRST");
+        info.setExecutorBlockStrategy("SERIAL_EXECUTION");
+        info.setGlueType("BEAN");
+        info.setAddTime(new Date());
+        info.setUpdateTime(new Date());
+        info.setGlueUpdatetime(new Date());
+        xxlJobInfoDao.save(info);
+
+        long lastTime = System.currentTimeMillis();
+        info.setTriggerStatus(1);
+        info.setTriggerLastTime(lastTime);
+        info.setTriggerNextTime(JobScheduleHelper.FIX_DELAY_WAIT);
+        xxlJobInfoDao.scheduleUpdate(info);
+
+        //when
+        boolean parkedFound =
+            containsJob(xxlJobInfoDao.findFixDelayParked(JobScheduleHelper.FIX_DELAY_WAIT, lastTime, 100), info);
+        boolean parkedFoundEarly =
+            containsJob(xxlJobInfoDao.findFixDelayParked(JobScheduleHelper.FIX_DELAY_WAIT, lastTime - 1000, 100), info);
+        int earlierRun = xxlJobInfoDao.fixDelayArm(info.getId(), JobScheduleHelper.FIX_DELAY_WAIT, lastTime - 1000,
+            lastTime + 10000);
+        int scheduledRun = xxlJobInfoDao.fixDelayArm(info.getId(), JobScheduleHelper.FIX_DELAY_WAIT, lastTime + 1000,
+            lastTime + 10000);
+        int again = xxlJobInfoDao.fixDelayArm(info.getId(), JobScheduleHelper.FIX_DELAY_WAIT, lastTime + 1000,
+            lastTime + 20000);
+
+        //then
+        assertTrue(parkedFound);
+        assertFalse(parkedFoundEarly);
+        assertEquals(0, earlierRun);
+        assertEquals(1, scheduledRun);
+        assertEquals(0, again);
+        assertEquals(lastTime + 10000, xxlJobInfoDao.loadById(info.getId()).getTriggerNextTime());
+
+        xxlJobInfoDao.delete(info.getId());
+    }
+
+    @Test
+    public void schedulePush() {
+        //given
+        XxlJobInfo info = new XxlJobInfo();
+        info.setJobGroup(1);
+        info.setJobDesc("schedulePush");
+        info.setAuthor("setAuthor");
+        info.setScheduleType(ScheduleTypeEnum.FIX_RATE.name());
+        info.setScheduleConf(String.valueOf(10));
+        info.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+        info.setExecutorRouteStrategy("FIRST");
+        info.setExecutorBlockStrategy("SERIAL_EXECUTION");
+        info.setGlueType("BEAN");
+        info.setAddTime(new Date());
+        info.setUpdateTime(new Date());
+        info.setGlueUpdatetime(new Date());
+        xxlJobInfoDao.save(info);
+
+        long planTime = System.currentTimeMillis() + 1000;
+        info.setTriggerStatus(1);
+        info.setTriggerLastTime(0);
+        info.setTriggerNextTime(planTime);
+        xxlJobInfoDao.scheduleUpdate(info);
+
+        //when
+        int pushed = xxlJobInfoDao.schedulePush(info.getId(), planTime, planTime, planTime + 10000);
+        int firedMeanwhile = xxlJobInfoDao.schedulePush(info.getId(), planTime, planTime, planTime + 10000);
+
+        //then
+        assertEquals(1, pushed);
+        assertEquals(0, firedMeanwhile);
+        assertEquals(planTime + 10000, xxlJobInfoDao.loadById(info.getId()).getTriggerNextTime());
+
+        xxlJobInfoDao.delete(info.getId());
+    }
+
+    private static boolean containsJob(List<XxlJobInfo> list, XxlJobInfo info) {
+        for (XxlJobInfo item : list) {
+            if (item.getId() == info.getId()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
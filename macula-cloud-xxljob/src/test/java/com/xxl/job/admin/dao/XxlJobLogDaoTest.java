@@ -3,10 +3,19 @@ package com.xxl.job.admin.dao;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class XxlJobLogDaoTest {
@@ -16,8 +25,9 @@ public class XxlJobLogDaoTest {
 
     @Test
     public void test() {
-        List<XxlJobLog> list = xxlJobLogDao.pageList(0, 10, 1, 1, null, null, 1);
+        List<XxlJobLog> list = xxlJobLogDao.pageList(0, 10, 1, 1, null, null, 1, null, 0);
         int list_count = xxlJobLogDao.pageListCount(0, 10, 1, 1, null, null, 1);
+        int list_count_limit = xxlJobLogDao.pageListCountLimit(1, 1, null, null, 1, 10000);
 
         XxlJobLog log = new XxlJobLog();
         log.setJobGroup(1);
@@ -35,16 +45,120 @@ public class XxlJobLogDaoTest {
         ret1 = xxlJobLogDao.updateTriggerInfo(log);
         dto = xxlJobLogDao.load(log.getId());
 
-        log.setHandleTime(new Date());
-        log.setHandleCode(2);
-        log.setHandleMsg("2");
-        ret1 = xxlJobLogDao.updateHandleInfo(log);
+        dto = xxlJobLogDao.loadByIds(Arrays.asList(log.getId()), new Date(dto.getTriggerTime().getTime() - 1000),
+            new Date(dto.getTriggerTime().getTime() + 1000)).get(0);
+
+        dto.setHandleTime(new Date());
+        dto.setHandleCode(2);
+        dto.setHandleMsg("2");
+        ret1 = xxlJobLogDao.updateHandleInfo(dto);
         dto = xxlJobLogDao.load(log.getId());
 
-        List<Long> ret4 = xxlJobLogDao.findClearLogIds(1, 1, new Date(), 100, 100);
+        XxlJobLog clearBoundary = xxlJobLogDao.findClearBoundary(1, 1, 100);
+        List<Long> ret4 = xxlJobLogDao.findClearLogIds(1, 1, new Date(), null, 100);
+
+        List<XxlJobLog> logs = xxlJobLogDao.loadByIds(Arrays.asList(log.getId()), null, null);
+        int ret3 = xxlJobLogDao.updateAlarmStatusBatch(Arrays.asList(log.getId()), 0, -1);
+        int ret5 = xxlJobLogDao.updateAlarmStatusBatchFrom(Arrays.asList(log.getId()), Arrays.asList(-1, 2), 3);
 
         int ret2 = xxlJobLogDao.delete(log.getJobId());
 
     }
 
+    @Test
+    public void shards() {
+        //given
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        long parentId = System.currentTimeMillis();
+        List<XxlJobLog> logList = new ArrayList<XxlJobLog>();
+        logList.add(log(parentId, XxlJobLog.PARENT_BROADCAST, triggerTime, 0, 0));
+        logList.add(log(parentId + 1, parentId, triggerTime, 200, 200));
+        logList.add(log(parentId + 2, parentId, triggerTime, 200, 0));
+        logList.add(log(parentId + 3, parentId, triggerTime, 500, 0));
+        xxlJobLogDao.saveBatch(logList);
+
+        //when
+        List<XxlJobLog> shardList = xxlJobLogDao.findShards(parentId, triggerTime);
+        Map<String, Object> shardCount = xxlJobLogDao.findShardCount(parentId, triggerTime);
+        List<XxlJobLog> pageList = xxlJobLogDao.pageList(0, 10, 0, 99, triggerTime, triggerTime, 0, null, 0);
+        int runningCount = xxlJobLogDao.findRunningCount(99, triggerTime);
+
+        //then
+        assertEquals(3, shardList.size());
+        assertEquals(3, ((Number)shardCount.get("total")).intValue());
+        assertEquals(1, ((Number)shardCount.get("running")).intValue());
+        assertEquals(2, ((Number)shardCount.get("triggerSuc")).intValue());
+        assertEquals(1, ((Number)shardCount.get("handleSuc")).intValue());
+        assertEquals(1, pageList.size());
+        assertEquals(XxlJobLog.PARENT_BROADCAST, pageList.get(0).getParentId());
+        assertEquals(1, runningCount);      // running shard only, broadcast log and trigger fail not
+
+        xxlJobLogDao.delete(99);
+    }
+
+    @Test
+    public void saveBatchShouldNotOverwriteTakenId() {
+        //given
+        Date triggerTime = new Date(System.currentTimeMillis() / 1000 * 1000);
+        long id = System.currentTimeMillis();
+        xxlJobLogDao.saveBatch(Arrays.asList(log(id, 0, triggerTime, 200, 0)));
+
+        //when
+        boolean duplicate = false;
+        try {
+            xxlJobLogDao.saveBatch(Arrays.asList(log(id, 0, triggerTime, 500, 0)));
+        } catch (DuplicateKeyException e) {
+            duplicate = true;
+        }
+        XxlJobLog saved = xxlJobLogDao.load(id);
+
+        //then
+        assertTrue(duplicate);
+        assertEquals(200, saved.getTriggerCode());
+
+        xxlJobLogDao.delete(99);
+    }
+
+    @Test
+    public void clearShouldKeepExactNumWithinOneSecond() {
+        //given 10 logs, 6 of them in one second, like broadcast shards
+        Date earlier = new Date(System.currentTimeMillis() / 1000 * 1000 - 60 * 1000);
+        Date triggerTime = new Date(earlier.getTime() + 30 * 1000);
+        long id = System.currentTimeMillis() * 10;
+        List<XxlJobLog> logList = new ArrayList<XxlJobLog>();
+        for (int i = 0; i < 10; i++) {
+            logList.add(log(id + i, 0, i < 4 ? earlier : triggerTime, 200, 0));
+        }
+        xxlJobLogDao.saveBatch(logList);
+
+        //when keep latest 3
+        XxlJobLog boundary = xxlJobLogDao.findClearBoundary(0, 99, 3);
+        List<Long> logIds = xxlJobLogDao.findClearLogIds(0, 99, boundary.getTriggerTime(), boundary.getId(), 100);
+        int cleared = xxlJobLogDao.clearLog(logIds, boundary.getTriggerTime(), boundary.getId());
+        XxlJobLog noBoundary = xxlJobLogDao.findClearBoundary(0, 99, 4);
+
+        //then the 3 of the largest id in the last second kept
+        assertEquals(id + 7, boundary.getId());
+        assertEquals(triggerTime, boundary.getTriggerTime());
+        assertEquals(7, cleared);
+        assertNull(xxlJobLogDao.load(id + 6));
+        assertNotNull(xxlJobLogDao.load(id + 7));
+        assertNotNull(xxlJobLogDao.load(id + 9));
+        assertNull(noBoundary);
+
+        xxlJobLogDao.delete(99);
+    }
+
+    private static XxlJobLog log(long id, long parentId, Date triggerTime, int triggerCode, int handleCode) {
+        XxlJobLog log = new XxlJobLog();
+        log.setId(id);
+        log.setParentId(parentId);
+        log.setJobGroup(1);
+        log.setJobId(99);
+        log.setTriggerTime(triggerTime);
+        log.setTriggerCode(triggerCode);
+        log.setHandleCode(handleCode);
+        return log;
+    }
+
 }
@@ -0,0 +1,63 @@
+package com.xxl.job.admin.dao;
+
+import com.xxl.job.admin.core.model.XxlJobLogReport;
+import com.xxl.job.admin.core.model.XxlJobLogReportHour;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class XxlJobLogReportDaoTest {
+
+    @Resource
+    private XxlJobLogReportDao xxlJobLogReportDao;
+    @Resource
+    private XxlJobLogDao xxlJobLogDao;
+
+    @Test
+    public void test() {
+        //given
+        Calendar hour = Calendar.getInstance();
+        hour.set(Calendar.MINUTE, 0);
+        hour.set(Calendar.SECOND, 0);
+        hour.set(Calendar.MILLISECOND, 0);
+        Date triggerHour = hour.getTime();
+        xxlJobLogReportDao.deleteHour(triggerHour, triggerHour);
+
+        XxlJobLogReportHour increment = new XxlJobLogReportHour();
+        increment.setJobId(1);
+        increment.setTriggerHour(triggerHour);
+        increment.setRunningCount(1);
+        increment.setFailCount(2);
+
+        //when
+        xxlJobLogReportDao.saveOrIncreaseHour(Arrays.asList(increment));
+        xxlJobLogReportDao.saveOrIncreaseHour(Arrays.asList(increment));
+        List<XxlJobLogReportHour> hourList = xxlJobLogReportDao.queryLogReportHour(1, triggerHour, triggerHour);
+        XxlJobLogReportHour loaded = null;
+        for (XxlJobLogReportHour item : xxlJobLogReportDao.loadHour(triggerHour, triggerHour)) {
+            if (item.getJobId() == 1) {
+                loaded = item;
+            }
+        }
+
+        //then
+        assertEquals(1, hourList.size());
+        assertEquals(2, hourList.get(0).getRunningCount());
+        assertEquals(4, hourList.get(0).getFailCount());
+        assertEquals(2, loaded.getRunningCount());
+        assertEquals(4, loaded.getFailCount());
+
+        List<XxlJobLogReport> dayList = xxlJobLogReportDao.queryLogReportByJob(1, triggerHour, triggerHour);
+        List<XxlJobLogReportHour> recompute = xxlJobLogDao.findLogReportHour(triggerHour, new Date());
+        xxlJobLogReportDao.deleteHour(triggerHour, triggerHour);
+    }
+
+}
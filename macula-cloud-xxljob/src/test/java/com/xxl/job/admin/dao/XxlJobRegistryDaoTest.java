@@ -23,6 +23,7 @@ public class XxlJobRegistryDaoTest {
         }
 
         List<XxlJobRegistry> list = xxlJobRegistryDao.findAll(1, new Date());
+        List<String> values = xxlJobRegistryDao.findAliveValue("g1", "k1", 1, new Date());
 
         int ret2 = xxlJobRegistryDao.removeDead(Arrays.asList(1));
     }